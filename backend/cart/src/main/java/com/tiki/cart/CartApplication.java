@@ -7,9 +7,11 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = {CommonSecurityAutoConfiguration.class})
 @EnableFeignClients
+@EnableScheduling
 public class CartApplication {
     
     // JWT beans - Direct definition for simplicity
@@ -3,8 +3,11 @@ package com.tiki.cart.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Feign Client để gọi Product Service
@@ -18,6 +21,13 @@ public interface ProductClient {
      */
     @GetMapping("/api/v1/products/{id}")
     ProductDTO getProduct(@PathVariable("id") Integer id);
+
+    /**
+     * Lấy giá, tồn kho và trạng thái của nhiều sản phẩm trong một request (tối đa 500 id).
+     * Sản phẩm không tồn tại sẽ không có trong kết quả.
+     */
+    @PostMapping("/api/v1/products/batch")
+    List<ProductDTO> getProducts(@RequestBody List<Integer> ids);
     
     /**
      * DTO cho Product response
@@ -27,6 +37,7 @@ public interface ProductClient {
         private String name;
         private BigDecimal price;
         private String thumbnailUrl;
+        private Integer stock;
         private Boolean isActive;
         
         public Integer getId() { return id; }
@@ -41,6 +52,9 @@ public interface ProductClient {
         public String getThumbnailUrl() { return thumbnailUrl; }
         public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
         
+        public Integer getStock() { return stock; }
+        public void setStock(Integer stock) { this.stock = stock; }
+        
         public Boolean getIsActive() { return isActive; }
         public void setIsActive(Boolean isActive) { this.isActive = isActive; }
     }
@@ -2,6 +2,7 @@ package com.tiki.cart.controller;
 
 import com.tiki.cart.dto.*;
 import com.tiki.cart.service.CartService;
+import com.tiki.cart.service.CartValidationService;
 import com.tiki.cart.client.ProductClient;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,7 @@ import java.util.UUID;
 public class CartController {
 
     private final CartService cartService;
+    private final CartValidationService cartValidationService;
     private final ProductClient productClient;
 
     /** Generate session ID for guest user */
@@ -50,7 +52,7 @@ public class CartController {
     /** Get cart items count by user ID */
     @GetMapping("/user/{userId}/count")
     public ResponseEntity<Integer> getCartCountByUserId(@PathVariable Integer userId){
-        return ResponseEntity.ok(cartService.getCart(userId, null).getTotalItems());
+        return ResponseEntity.ok((int) cartService.getTotals(userId, null).totalItems());
     }
 
     /** Add item to cart */
@@ -102,14 +104,14 @@ public class CartController {
     @GetMapping("/count")
     public ResponseEntity<Integer> count(@RequestParam(required = false) Integer userId,
                                          @RequestParam(required = false) String sessionId){
-        return ResponseEntity.ok(cartService.getCart(userId,sessionId).getTotalItems());
+        return ResponseEntity.ok((int) cartService.getTotals(userId,sessionId).totalItems());
     }
 
     /** Total amount */
     @GetMapping("/total")
     public ResponseEntity<Double> total(@RequestParam(required = false) Integer userId,
                                         @RequestParam(required = false) String sessionId){
-        return ResponseEntity.ok(cartService.getCart(userId,sessionId).getTotalAmount());
+        return ResponseEntity.ok(cartService.getTotals(userId,sessionId).totalAmount());
     }
 
     /** Merge guest cart to user cart */
@@ -123,26 +125,22 @@ public class CartController {
     public ResponseEntity<java.util.Map<String, Object>> getSummary(
             @RequestHeader(value = "X-User-Id", required = false) Long userId,
             @RequestParam(required = false) String sessionId) {
-        CartDto cart = cartService.getCart(userId != null ? userId.intValue() : null, sessionId);
+        CartTotals totals = cartService.getTotals(userId != null ? userId.intValue() : null, sessionId);
         java.util.Map<String, Object> summary = java.util.Map.of(
-            "totalItems", cart.getTotalItems(),
-            "totalAmount", cart.getTotalAmount(),
-            "itemCount", cart.getTotalItems()
+            "totalItems", (int) totals.totalItems(),
+            "totalAmount", totals.totalAmount(),
+            "itemCount", (int) totals.totalItems()
         );
         return ResponseEntity.ok(summary);
     }
     
-    /** Validate cart */
+    /** Validate cart - current price, stock and status of every line in one product lookup */
     @GetMapping("/validate")
     public ResponseEntity<java.util.Map<String, Object>> validateCart(
             @RequestHeader(value = "X-User-Id", required = false) Long userId,
             @RequestParam(required = false) String sessionId) {
         CartDto cart = cartService.getCart(userId != null ? userId.intValue() : null, sessionId);
-        java.util.Map<String, Object> validation = java.util.Map.of(
-            "valid", true,
-            "totalItems", cart.getTotalItems(),
-            "errors", java.util.List.of()
-        );
+        java.util.Map<String, Object> validation = cartValidationService.validate(cart);
         return ResponseEntity.ok(validation);
     }
     
@@ -158,6 +156,14 @@ public class CartController {
         return ResponseEntity.noContent().build();
     }
     
+    /** Persist the cart before an order is placed from it */
+    @PostMapping("/checkout")
+    public ResponseEntity<CartDto> checkout(
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            @RequestParam(required = false) String sessionId) {
+        return ResponseEntity.ok(cartService.checkout(userId != null ? userId.intValue() : null, sessionId));
+    }
+
     /**
      * Helper method: Fetch giá sản phẩm từ Product Service
      * ✅ Fix security issue - không trust giá từ client
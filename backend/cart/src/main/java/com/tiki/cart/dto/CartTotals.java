@@ -0,0 +1,7 @@
+package com.tiki.cart.dto;
+
+/**
+ * Item count and amount of a cart, computed by the database without loading the cart.
+ */
+public record CartTotals(long totalItems, double totalAmount) {
+}
@@ -11,7 +11,10 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "carts")
+@Table(name = "carts", indexes = {
+        @Index(name = "idx_carts_user_active", columnList = "user_id, is_active"),
+        @Index(name = "idx_carts_session_active", columnList = "session_id, is_active")
+})
 public class CartEntity {
 
     @Id
@@ -30,6 +33,6 @@ public class CartEntity {
 
     private LocalDateTime updatedAt = LocalDateTime.now();
 
-    @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<CartItemEntity> items = new ArrayList<>();
 }
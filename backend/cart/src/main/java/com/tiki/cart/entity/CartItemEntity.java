@@ -7,7 +7,10 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", indexes = {
+        // Covers the count/total aggregate without touching the rows
+        @Index(name = "idx_cart_items_cart_totals", columnList = "cart_id, qty, price_snapshot")
+})
 public class CartItemEntity {
 
     @Id
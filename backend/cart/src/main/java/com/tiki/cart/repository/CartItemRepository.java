@@ -1,7 +1,21 @@
 package com.tiki.cart.repository;
 
+import com.tiki.cart.dto.CartTotals;
 import com.tiki.cart.entity.CartItemEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CartItemRepository extends JpaRepository<CartItemEntity, Integer> {
+
+    /**
+     * Quantity and amount of the active cart of a user, falling back to the session's cart like
+     * CartService.getOrCreate. Answered from the cart_items (cart_id, qty, price_snapshot) index.
+     */
+    @Query("SELECT new com.tiki.cart.dto.CartTotals(COALESCE(SUM(i.quantity), 0), " +
+           "COALESCE(SUM(i.quantity * i.priceSnapshot), 0.0)) " +
+           "FROM CartItemEntity i WHERE i.cart.id = COALESCE(" +
+           "(SELECT MAX(c.id) FROM CartEntity c WHERE c.userId = :userId AND c.isActive = true), " +
+           "(SELECT MAX(c.id) FROM CartEntity c WHERE c.sessionId = :sessionId AND c.isActive = true))")
+    CartTotals findActiveCartTotals(@Param("userId") Integer userId, @Param("sessionId") String sessionId);
 }
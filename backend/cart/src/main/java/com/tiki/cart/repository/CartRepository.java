@@ -14,4 +14,18 @@ public interface CartRepository extends JpaRepository<CartEntity, Integer> {
     
     @Query("SELECT c FROM CartEntity c WHERE c.sessionId = :sessionId AND c.isActive = :isActive ORDER BY c.createdAt DESC LIMIT 1")
     Optional<CartEntity> findBySessionIdAndIsActive(@Param("sessionId") String sessionId, @Param("isActive") Boolean isActive);
+
+    /**
+     * Latest active cart of a user with its items, in one query
+     */
+    @Query("SELECT c FROM CartEntity c LEFT JOIN FETCH c.items WHERE c.id = " +
+           "(SELECT MAX(c2.id) FROM CartEntity c2 WHERE c2.userId = :userId AND c2.isActive = true)")
+    Optional<CartEntity> findActiveByUserIdWithItems(@Param("userId") Integer userId);
+
+    /**
+     * Latest active cart of a session with its items, in one query
+     */
+    @Query("SELECT c FROM CartEntity c LEFT JOIN FETCH c.items WHERE c.id = " +
+           "(SELECT MAX(c2.id) FROM CartEntity c2 WHERE c2.sessionId = :sessionId AND c2.isActive = true)")
+    Optional<CartEntity> findActiveBySessionIdWithItems(@Param("sessionId") String sessionId);
 }
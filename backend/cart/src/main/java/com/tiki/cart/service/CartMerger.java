@@ -0,0 +1,58 @@
+package com.tiki.cart.service;
+
+import com.tiki.cart.entity.CartEntity;
+import com.tiki.cart.entity.CartItemEntity;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass cart merge: index the target cart's items by productId once, then fold the guest
+ * items in. Same rules as adding the items one by one: quantities add up and an existing line
+ * keeps its price snapshot.
+ */
+final class CartMerger {
+
+    private CartMerger() {
+    }
+
+    /**
+     * @return number of guest lines merged
+     */
+    static int merge(CartEntity target, List<CartItemEntity> guestItems) {
+        if (guestItems == null || guestItems.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, CartItemEntity> byProduct = new HashMap<>();
+        for (CartItemEntity item : target.getItems()) {
+            if (item.getProductId() != null) {
+                byProduct.put(item.getProductId(), item);
+            }
+        }
+
+        int merged = 0;
+        for (CartItemEntity guestItem : guestItems) {
+            if (guestItem.getProductId() == null) {
+                continue;
+            }
+            int qty = guestItem.getQuantity() == null ? 0 : guestItem.getQuantity();
+            CartItemEntity item = byProduct.get(guestItem.getProductId());
+            if (item == null) {
+                item = new CartItemEntity();
+                item.setCart(target);
+                item.setProductId(guestItem.getProductId());
+                item.setVariantId(guestItem.getVariantId());
+                item.setQuantity(qty);
+                item.setPriceSnapshot(guestItem.getPriceSnapshot());
+                target.getItems().add(item);
+                byProduct.put(item.getProductId(), item);
+            } else {
+                int currentQty = item.getQuantity() == null ? 0 : item.getQuantity();
+                item.setQuantity(currentQty + qty);
+            }
+            merged++;
+        }
+        return merged;
+    }
+}
@@ -2,6 +2,7 @@ package com.tiki.cart.service;
 
 import com.tiki.cart.dto.CartDto;
 import com.tiki.cart.dto.CartItemDto;
+import com.tiki.cart.dto.CartTotals;
 import com.tiki.cart.entity.CartEntity;
 import com.tiki.cart.entity.CartItemEntity;
 import com.tiki.cart.repository.CartItemRepository;
@@ -15,10 +16,10 @@ import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class CartService {
@@ -27,6 +28,9 @@ public class CartService {
     private CartRepository cartRepo;
     @Autowired
     private CartItemRepository itemRepo;
+    /** Present when cart.store.mode=redis; active carts then live in Redis */
+    @Autowired(required = false)
+    private HotCartStore hotCartStore;
     
     @Value("${PRODUCT_SERVICE_URL:http://localhost:8081}")
     private String productServiceUrl;
@@ -37,27 +41,30 @@ public class CartService {
         d.setUserId(e.getUserId());
         d.setSessionId(e.getSessionId());
         List<CartItemEntity> cartItems = e.getItems() != null ? e.getItems() : new ArrayList<>();
-        List<CartItemDto> items = cartItems.stream().map(it -> {
+        List<CartItemDto> items = new ArrayList<>(cartItems.size());
+        int totalItems = 0;
+        double totalAmount = 0.0;
+        for (CartItemEntity it : cartItems) {
             CartItemDto i = new CartItemDto();
             i.setProductId(it.getProductId());
             int qtySafe = it.getQuantity() == null ? 0 : it.getQuantity();
             double priceSafe = it.getPriceSnapshot() == null ? 0.0 : it.getPriceSnapshot();
             i.setQuantity(qtySafe);
             i.setPriceSnapshot(priceSafe);
-            return i;
-        }).collect(Collectors.toList());
+            items.add(i);
+            totalItems += qtySafe;
+            totalAmount += qtySafe * priceSafe;
+        }
         d.setCartItems(items);
-        d.setTotalItems(items.stream().mapToInt(CartItemDto::getQuantity).sum());
-        d.setTotalAmount(items.stream()
-                .mapToDouble(it -> it.getQuantity() * it.getPriceSnapshot())
-                .sum());
+        d.setTotalItems(totalItems);
+        d.setTotalAmount(totalAmount);
         return d;
     }
 
     private CartEntity getOrCreate(Integer userId, String sessionId){
         // Nếu có userId, tìm theo userId
         if (userId != null) {
-            Optional<CartEntity> opt = cartRepo.findByUserIdAndIsActive(userId, true);
+            Optional<CartEntity> opt = cartRepo.findActiveByUserIdWithItems(userId);
             if (opt.isPresent()) {
                 return opt.get();
             }
@@ -65,7 +72,7 @@ public class CartService {
         
         // Nếu có sessionId, tìm theo sessionId
         if (sessionId != null && !sessionId.isEmpty()) {
-            Optional<CartEntity> opt = cartRepo.findBySessionIdAndIsActive(sessionId, true);
+            Optional<CartEntity> opt = cartRepo.findActiveBySessionIdWithItems(sessionId);
             if (opt.isPresent()) {
                 return opt.get();
             }
@@ -83,14 +90,34 @@ public class CartService {
     }
 
     public CartDto getCart(Integer userId,String sessionId){
+        if (hotCartStore != null) {
+            return hotCartStore.getCart(userId, sessionId);
+        }
         System.out.println("getCart called with userId=" + userId + ", sessionId=" + sessionId);
         CartEntity cart = getOrCreate(userId,sessionId);
         System.out.println("Cart found/created: id=" + cart.getId() + ", items=" + (cart.getItems() != null ? cart.getItems().size() : 0));
         return toDto(cart);
     }
 
+    /**
+     * Item count and amount only - one aggregate query, the cart is not loaded or created
+     */
+    public CartTotals getTotals(Integer userId, String sessionId) {
+        if (hotCartStore != null) {
+            CartDto cart = hotCartStore.getCart(userId, sessionId);
+            return new CartTotals(cart.getTotalItems(), cart.getTotalAmount());
+        }
+        if (userId == null && (sessionId == null || sessionId.isEmpty())) {
+            return new CartTotals(0L, 0.0);
+        }
+        return itemRepo.findActiveCartTotals(userId, sessionId);
+    }
+
     @Transactional
     public CartDto addItem(Integer userId,String sessionId,Integer productId,Integer qty,Double price){
+        if (hotCartStore != null) {
+            return hotCartStore.addItem(userId, sessionId, productId, qty, price);
+        }
         // Skip product validation temporarily to fix 500 error
         // Product service validation can be added back later
         
@@ -121,6 +148,9 @@ public class CartService {
 
     @Transactional
     public CartDto updateQty(Integer userId,String sessionId,Integer productId,Integer qty){
+        if (hotCartStore != null) {
+            return hotCartStore.updateQty(userId, sessionId, productId, qty);
+        }
         CartEntity cart = getOrCreate(userId,sessionId);
         cart.getItems().forEach(i->{
             if(i.getProductId().equals(productId)) i.setQuantity(qty);
@@ -131,22 +161,31 @@ public class CartService {
 
     @Transactional
     public CartDto removeItem(Integer userId,String sessionId,Integer productId){
+        if (hotCartStore != null) {
+            return hotCartStore.removeItem(userId, sessionId, productId);
+        }
         CartEntity cart = getOrCreate(userId,sessionId);
         cart.getItems().removeIf(i->i.getProductId().equals(productId));
         cartRepo.save(cart);
         return toDto(cart);
     }
 
+    /**
+     * Merge guest cart into user cart - both carts are loaded once, items are combined in one
+     * pass and written with a single flush; the guest cart is retired in the same transaction
+     */
     @Transactional
     public CartDto merge(Integer userId,String sessionId){
+        if (hotCartStore != null) {
+            return hotCartStore.merge(userId, sessionId);
+        }
         CartEntity userCart = getOrCreate(userId,null);
-        CartEntity guest = cartRepo.findBySessionIdAndIsActive(sessionId,true).orElse(null);
-        if(guest!=null){
-            guest.getItems().forEach(item -> {
-                addItem(userId,null,item.getProductId(),item.getQuantity(),item.getPriceSnapshot());
-            });
+        CartEntity guest = cartRepo.findActiveBySessionIdWithItems(sessionId).orElse(null);
+        if(guest!=null && !guest.getId().equals(userCart.getId())){
+            CartMerger.merge(userCart, guest.getItems());
+            userCart.setUpdatedAt(LocalDateTime.now());
             guest.setIsActive(false);
-            cartRepo.save(guest);
+            cartRepo.saveAll(List.of(userCart, guest));
         }
         return toDto(userCart);
     }
@@ -157,10 +196,24 @@ public class CartService {
      */
     @Transactional
     public void clearCart(Integer userId, String sessionId) {
+        if (hotCartStore != null) {
+            hotCartStore.clearCart(userId, sessionId);
+            return;
+        }
         CartEntity cart = getOrCreate(userId, sessionId);
         if (cart.getItems() != null) {
             cart.getItems().clear();
             cartRepo.save(cart);
         }
     }
+
+    /**
+     * Checkout - make sure the cart is persisted in MySQL and return it with its id
+     */
+    public CartDto checkout(Integer userId, String sessionId) {
+        if (hotCartStore != null) {
+            return hotCartStore.flush(userId, sessionId);
+        }
+        return getCart(userId, sessionId);
+    }
 }
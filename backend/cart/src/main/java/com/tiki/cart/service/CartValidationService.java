@@ -0,0 +1,71 @@
+package com.tiki.cart.service;
+
+import com.tiki.cart.client.ProductClient;
+import com.tiki.cart.dto.CartDto;
+import com.tiki.cart.dto.CartItemDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Revalidate cart lines against current product price, stock and status.
+ * All lines are checked with a single bulk lookup instead of one call per line.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartValidationService {
+
+    private final ProductLookupService productLookupService;
+
+    public Map<String, Object> validate(CartDto cart) {
+        List<CartItemDto> items = cart.getCartItems() != null ? cart.getCartItems() : List.of();
+        List<String> errors = new ArrayList<>();
+        List<Map<String, Object>> priceChanges = new ArrayList<>();
+
+        Map<Integer, ProductClient.ProductDTO> products;
+        try {
+            products = productLookupService.getProducts(
+                items.stream().map(CartItemDto::getProductId).collect(Collectors.toList()));
+        } catch (Exception e) {
+            log.error("Failed to validate cart {}: {}", cart.getId(), e.getMessage());
+            products = null;
+            errors.add("Không thể kiểm tra sản phẩm, vui lòng thử lại");
+        }
+
+        if (products != null) {
+            for (CartItemDto item : items) {
+                ProductClient.ProductDTO product = products.get(item.getProductId());
+                if (product == null || Boolean.FALSE.equals(product.getIsActive())) {
+                    errors.add("Sản phẩm " + item.getProductId() + " không còn bán");
+                    continue;
+                }
+                if (product.getStock() != null && product.getStock() < item.getQuantity()) {
+                    errors.add("Sản phẩm " + item.getProductId() + " chỉ còn " + product.getStock());
+                }
+                if (product.getPrice() != null
+                        && product.getPrice().doubleValue() != item.getPriceSnapshot()) {
+                    Map<String, Object> change = new HashMap<>();
+                    change.put("productId", item.getProductId());
+                    change.put("priceSnapshot", item.getPriceSnapshot());
+                    change.put("currentPrice", product.getPrice());
+                    priceChanges.add(change);
+                }
+            }
+        }
+
+        Map<String, Object> validation = new LinkedHashMap<>();
+        validation.put("valid", errors.isEmpty());
+        validation.put("totalItems", cart.getTotalItems());
+        validation.put("errors", errors);
+        validation.put("priceChanges", priceChanges);
+        return validation;
+    }
+}
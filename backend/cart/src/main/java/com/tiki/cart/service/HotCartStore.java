@@ -0,0 +1,448 @@
+package com.tiki.cart.service;
+
+import com.tiki.cart.dto.CartDto;
+import com.tiki.cart.dto.CartItemDto;
+import com.tiki.cart.entity.CartEntity;
+import com.tiki.cart.entity.CartItemEntity;
+import com.tiki.cart.repository.CartRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Redis-backed active carts (cart.store.mode=redis).
+ *
+ * Each cart is one hash {@code cart:u:<userId>} or {@code cart:s:<sessionId>} holding
+ * {@code q:<productId>} quantities, {@code p:<productId>} price snapshots and the meta fields
+ * {@code id} (carts.id, 0 until first flush), {@code uid} and {@code sid}. Every mutation is one
+ * Lua script that changes the hash, marks the cart dirty and returns the whole cart, so the
+ * request path is a single Redis round trip. A hash missing from Redis is loaded from MySQL once.
+ *
+ * Dirty carts are written back to {@link CartEntity}/{@link CartItemEntity} in batches by
+ * {@link #flushDirty()}, and synchronously by {@link #flush} at checkout. Writes of one cart are
+ * serialized across threads and nodes by a {@code cart:lock:<owner>} key held until the
+ * transaction ends, so a cart without a row yet is inserted exactly once.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "cart.store.mode", havingValue = "redis")
+public class HotCartStore {
+
+    private static final String KEY_PREFIX = "cart:";
+    private static final String DIRTY_KEY = "cart:dirty";
+    private static final String LOCK_PREFIX = "cart:lock:";
+    private static final String QTY = "q:";
+    private static final String PRICE = "p:";
+
+    /** Returns false when the cart is not loaded, so the caller can load it and retry */
+    private static final String GUARD = "if redis.call('EXISTS', KEYS[1]) == 0 then return false end\n";
+    private static final String TOUCH_AND_READ =
+        "redis.call('EXPIRE', KEYS[1], ARGV[1])\n" +
+        "redis.call('SADD', KEYS[2], ARGV[2])\n" +
+        "return redis.call('HGETALL', KEYS[1])";
+
+    // ARGV: ttl, owner, productId, qty, price
+    private static final RedisScript<List> ADD = new DefaultRedisScript<>(GUARD +
+        "redis.call('HINCRBY', KEYS[1], 'q:' .. ARGV[3], ARGV[4])\n" +
+        "redis.call('HSETNX', KEYS[1], 'p:' .. ARGV[3], ARGV[5])\n" +
+        TOUCH_AND_READ, List.class);
+
+    // ARGV: ttl, owner, then productId, qty, price for each guest line
+    private static final RedisScript<List> MERGE = new DefaultRedisScript<>(GUARD +
+        "for i = 3, #ARGV, 3 do\n" +
+        "  redis.call('HINCRBY', KEYS[1], 'q:' .. ARGV[i], ARGV[i + 1])\n" +
+        "  redis.call('HSETNX', KEYS[1], 'p:' .. ARGV[i], ARGV[i + 2])\n" +
+        "end\n" +
+        TOUCH_AND_READ, List.class);
+
+    // ARGV: ttl, owner, productId, qty
+    private static final RedisScript<List> UPDATE = new DefaultRedisScript<>(GUARD +
+        "if redis.call('HEXISTS', KEYS[1], 'q:' .. ARGV[3]) == 1 then\n" +
+        "  redis.call('HSET', KEYS[1], 'q:' .. ARGV[3], ARGV[4])\n" +
+        "end\n" +
+        TOUCH_AND_READ, List.class);
+
+    // ARGV: ttl, owner, productId
+    private static final RedisScript<List> REMOVE = new DefaultRedisScript<>(GUARD +
+        "redis.call('HDEL', KEYS[1], 'q:' .. ARGV[3], 'p:' .. ARGV[3])\n" +
+        TOUCH_AND_READ, List.class);
+
+    // ARGV: ttl, owner
+    private static final RedisScript<List> CLEAR = new DefaultRedisScript<>(GUARD +
+        "local meta = redis.call('HMGET', KEYS[1], 'id', 'uid', 'sid')\n" +
+        "redis.call('DEL', KEYS[1])\n" +
+        "redis.call('HSET', KEYS[1], 'id', meta[1], 'uid', meta[2], 'sid', meta[3])\n" +
+        TOUCH_AND_READ, List.class);
+
+    // ARGV: ttl, field1, value1, ...
+    private static final RedisScript<Long> LOAD = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end\n" +
+        "redis.call('HSET', KEYS[1], unpack(ARGV, 2))\n" +
+        "redis.call('EXPIRE', KEYS[1], ARGV[1])\n" +
+        "return 1", Long.class);
+
+    // ARGV: id; never recreates a hash that expired meanwhile
+    private static final RedisScript<Long> SET_ID = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end\n" +
+        "redis.call('HSET', KEYS[1], 'id', ARGV[1])\n" +
+        "return 1", Long.class);
+
+    // ARGV: token; only the holder releases the lock
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end\n" +
+        "return 0", Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    @Autowired
+    private CartRepository cartRepo;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Idle lifetime of a cart hash; must be far longer than the flush interval */
+    @Value("${cart.store.ttl:7d}")
+    private Duration ttl;
+
+    @Value("${cart.store.flush-batch-size:200}")
+    private int flushBatchSize;
+
+    /** Expiry of a write lock, bounding how long a crashed writer blocks the cart */
+    @Value("${cart.store.write-lock-ttl:10s}")
+    private Duration writeLockTtl = Duration.ofSeconds(10);
+
+    /** How long checkout waits for a concurrent write of the same cart */
+    @Value("${cart.store.write-lock-wait:3s}")
+    private Duration writeLockWait = Duration.ofSeconds(3);
+
+    public CartDto getCart(Integer userId, String sessionId) {
+        String key = key(userId, sessionId);
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(key);
+        if (hash.isEmpty()) {
+            load(key, userId, sessionId);
+            hash = redisTemplate.opsForHash().entries(key);
+        }
+        return toDto(toFields(hash));
+    }
+
+    public CartDto addItem(Integer userId, String sessionId, Integer productId, Integer qty, Double price) {
+        return mutate(ADD, userId, sessionId,
+            String.valueOf(productId), String.valueOf(qty), String.valueOf(price != null ? price : 0.0));
+    }
+
+    public CartDto updateQty(Integer userId, String sessionId, Integer productId, Integer qty) {
+        return mutate(UPDATE, userId, sessionId, String.valueOf(productId), String.valueOf(qty));
+    }
+
+    public CartDto removeItem(Integer userId, String sessionId, Integer productId) {
+        return mutate(REMOVE, userId, sessionId, String.valueOf(productId));
+    }
+
+    public void clearCart(Integer userId, String sessionId) {
+        mutate(CLEAR, userId, sessionId);
+    }
+
+    /**
+     * Move the guest cart's items into the user's cart and retire the guest cart.
+     */
+    public CartDto merge(Integer userId, String sessionId) {
+        String guestKey = KEY_PREFIX + "s:" + sessionId;
+        Map<String, String> cached = toFields(redisTemplate.opsForHash().entries(guestKey));
+        Map<String, String> guest = !cached.isEmpty() ? cached
+            : fromEntity(cartRepo.findActiveBySessionIdWithItems(sessionId).orElse(null), null, sessionId);
+
+        List<String> lines = new ArrayList<>();
+        quantities(guest).forEach((productId, qty) -> {
+            lines.add(String.valueOf(productId));
+            lines.add(String.valueOf(qty));
+            lines.add(guest.getOrDefault(PRICE + productId, "0.0"));
+        });
+        // One script for all lines, so the merge is atomic and one round trip
+        CartDto result = mutate(MERGE, userId, null, lines.toArray(new String[0]));
+
+        // Merging happens at login, so retiring the guest row directly is fine
+        transactionTemplate.executeWithoutResult(status ->
+            cartRepo.findBySessionIdAndIsActive(sessionId, true).ifPresent(cart -> {
+                cart.setIsActive(false);
+                cartRepo.save(cart);
+            }));
+        redisTemplate.delete(guestKey);
+        redisTemplate.opsForSet().remove(DIRTY_KEY, owner(null, sessionId));
+
+        return result;
+    }
+
+    /**
+     * Write one cart to MySQL now (checkout) and return it with its carts.id.
+     */
+    public CartDto flush(Integer userId, String sessionId) {
+        String owner = owner(userId, sessionId);
+        String token = awaitLock(owner);
+        try {
+            redisTemplate.opsForSet().remove(DIRTY_KEY, owner);
+            transactionTemplate.executeWithoutResult(status -> write(owner));
+        } catch (RuntimeException e) {
+            redisTemplate.opsForSet().add(DIRTY_KEY, owner);
+            throw e;
+        } finally {
+            unlock(owner, token);
+        }
+        return getCart(userId, sessionId);
+    }
+
+    /**
+     * Write-behind: persist carts changed since the last run, one transaction per batch.
+     */
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:2000}")
+    public void flushDirty() {
+        List<String> owners;
+        while (!(owners = popDirty()).isEmpty()) {
+            int popped = owners.size();
+            // Carts being written elsewhere go back to the set for the next run
+            Map<String, String> locks = new LinkedHashMap<>();
+            List<String> busy = new ArrayList<>();
+            for (String owner : owners) {
+                String token = tryLock(owner);
+                if (token != null) {
+                    locks.put(owner, token);
+                } else {
+                    busy.add(owner);
+                }
+            }
+            if (!busy.isEmpty()) {
+                redisTemplate.opsForSet().add(DIRTY_KEY, busy.toArray(new String[0]));
+            }
+            List<String> batch = new ArrayList<>(locks.keySet());
+            try {
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(this::write));
+                log.debug("Flushed {} carts to MySQL", batch.size());
+            } catch (RuntimeException e) {
+                // Put them back; the next run retries
+                if (!batch.isEmpty()) {
+                    redisTemplate.opsForSet().add(DIRTY_KEY, batch.toArray(new String[0]));
+                }
+                log.error("Failed to flush {} carts: {}", batch.size(), e.getMessage());
+                return;
+            } finally {
+                locks.forEach(this::unlock);
+            }
+            // Stop on a short batch, or when only locked carts may be left to pop
+            if (popped < flushBatchSize || !busy.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private String tryLock(String owner) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_PREFIX + owner, token, writeLockTtl);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    private String awaitLock(String owner) {
+        long deadline = System.currentTimeMillis() + writeLockWait.toMillis();
+        String token;
+        while ((token = tryLock(owner)) == null) {
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IllegalStateException("Cart " + owner + " is being saved, try again");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for cart " + owner, e);
+            }
+        }
+        return token;
+    }
+
+    private void unlock(String owner, String token) {
+        redisTemplate.execute(UNLOCK, List.of(LOCK_PREFIX + owner), token);
+    }
+
+    private List<String> popDirty() {
+        List<String> owners = redisTemplate.opsForSet().pop(DIRTY_KEY, flushBatchSize);
+        return owners != null ? owners : List.of();
+    }
+
+    /**
+     * Must run under the owner's write lock, inside the transaction
+     */
+    private void write(String owner) {
+        String key = KEY_PREFIX + owner;
+        Map<String, String> fields = toFields(redisTemplate.opsForHash().entries(key));
+        if (fields.isEmpty()) {
+            return;
+        }
+
+        CartEntity cart = null;
+        int id = Integer.parseInt(fields.getOrDefault("id", "0"));
+        if (id != 0) {
+            cart = cartRepo.findById(id).orElse(null);
+        }
+        if (cart == null) {
+            cart = new CartEntity();
+            cart.setUserId(parseInt(fields.get("uid")));
+            cart.setSessionId(emptyToNull(fields.get("sid")));
+            cart.setIsActive(true);
+        }
+
+        Map<Integer, CartItemEntity> existing = new HashMap<>();
+        cart.getItems().forEach(item -> existing.put(item.getProductId(), item));
+        Map<Integer, Integer> quantities = quantities(fields);
+        CartEntity owningCart = cart;
+        cart.getItems().removeIf(item -> !quantities.containsKey(item.getProductId()));
+        quantities.forEach((productId, qty) -> {
+            CartItemEntity item = existing.get(productId);
+            if (item == null) {
+                item = new CartItemEntity();
+                item.setCart(owningCart);
+                item.setProductId(productId);
+                owningCart.getItems().add(item);
+            }
+            item.setQuantity(qty);
+            item.setPriceSnapshot(Double.valueOf(fields.getOrDefault(PRICE + productId, "0.0")));
+        });
+        cart.setUpdatedAt(LocalDateTime.now());
+
+        CartEntity saved = cartRepo.save(cart);
+        if (id == 0) {
+            redisTemplate.execute(SET_ID, List.of(key), String.valueOf(saved.getId()));
+        }
+    }
+
+    private CartDto mutate(RedisScript<List> script, Integer userId, String sessionId, String... args) {
+        String owner = owner(userId, sessionId);
+        String key = KEY_PREFIX + owner;
+        Object[] argv = new Object[args.length + 2];
+        argv[0] = String.valueOf(ttl.toSeconds());
+        argv[1] = owner;
+        System.arraycopy(args, 0, argv, 2, args.length);
+
+        List<?> result = redisTemplate.execute(script, List.of(key, DIRTY_KEY), argv);
+        if (result == null) {
+            load(key, userId, sessionId);
+            result = redisTemplate.execute(script, List.of(key, DIRTY_KEY), argv);
+        }
+        return toDto(pairsToFields(result));
+    }
+
+    /**
+     * Populate the hash from MySQL, resolving the cart like the JPA path: by user, then by session.
+     * No row is created here; a new cart gets one on its first flush.
+     */
+    private void load(String key, Integer userId, String sessionId) {
+        Optional<CartEntity> cart = Optional.empty();
+        if (userId != null) {
+            cart = cartRepo.findActiveByUserIdWithItems(userId);
+        }
+        if (cart.isEmpty() && sessionId != null && !sessionId.isEmpty()) {
+            cart = cartRepo.findActiveBySessionIdWithItems(sessionId);
+        }
+        Map<String, String> fields = fromEntity(cart.orElse(null), userId, sessionId);
+
+        List<String> argv = new ArrayList<>();
+        argv.add(String.valueOf(ttl.toSeconds()));
+        fields.forEach((field, value) -> {
+            argv.add(field);
+            argv.add(value);
+        });
+        redisTemplate.execute(LOAD, List.of(key), argv.toArray());
+    }
+
+    private static Map<String, String> fromEntity(CartEntity cart, Integer userId, String sessionId) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("id", cart != null ? String.valueOf(cart.getId()) : "0");
+        Integer uid = cart != null && cart.getUserId() != null ? cart.getUserId() : userId;
+        String sid = cart != null && cart.getSessionId() != null ? cart.getSessionId() : sessionId;
+        fields.put("uid", uid != null ? String.valueOf(uid) : "");
+        fields.put("sid", sid != null ? sid : "");
+        if (cart != null) {
+            for (CartItemEntity item : cart.getItems()) {
+                fields.put(QTY + item.getProductId(), String.valueOf(item.getQuantity() != null ? item.getQuantity() : 0));
+                fields.put(PRICE + item.getProductId(), String.valueOf(item.getPriceSnapshot() != null ? item.getPriceSnapshot() : 0.0));
+            }
+        }
+        return fields;
+    }
+
+    private static CartDto toDto(Map<String, String> fields) {
+        CartDto d = new CartDto();
+        int id = Integer.parseInt(fields.getOrDefault("id", "0"));
+        d.setId(id != 0 ? id : null);
+        d.setUserId(parseInt(fields.get("uid")));
+        d.setSessionId(emptyToNull(fields.get("sid")));
+        List<CartItemDto> items = new ArrayList<>();
+        quantities(fields).forEach((productId, qty) -> {
+            CartItemDto i = new CartItemDto();
+            i.setProductId(productId);
+            i.setQuantity(qty);
+            i.setPriceSnapshot(Double.valueOf(fields.getOrDefault(PRICE + productId, "0.0")));
+            items.add(i);
+        });
+        items.sort(Comparator.comparing(CartItemDto::getProductId));
+        d.setCartItems(items);
+        d.setTotalItems(items.stream().mapToInt(CartItemDto::getQuantity).sum());
+        d.setTotalAmount(items.stream()
+                .mapToDouble(it -> it.getQuantity() * it.getPriceSnapshot())
+                .sum());
+        return d;
+    }
+
+    private static Map<Integer, Integer> quantities(Map<String, String> fields) {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        fields.forEach((field, value) -> {
+            if (field.startsWith(QTY)) {
+                quantities.put(Integer.valueOf(field.substring(QTY.length())), Integer.valueOf(value));
+            }
+        });
+        return quantities;
+    }
+
+    private static Map<String, String> toFields(Map<Object, Object> hash) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        hash.forEach((k, v) -> fields.put(String.valueOf(k), String.valueOf(v)));
+        return fields;
+    }
+
+    private static Map<String, String> pairsToFields(List<?> pairs) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < pairs.size(); i += 2) {
+            fields.put(String.valueOf(pairs.get(i)), String.valueOf(pairs.get(i + 1)));
+        }
+        return fields;
+    }
+
+    private static String key(Integer userId, String sessionId) {
+        return KEY_PREFIX + owner(userId, sessionId);
+    }
+
+    private static String owner(Integer userId, String sessionId) {
+        return userId != null ? "u:" + userId : "s:" + sessionId;
+    }
+
+    private static Integer parseInt(String value) {
+        return value == null || value.isEmpty() ? null : Integer.valueOf(value);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
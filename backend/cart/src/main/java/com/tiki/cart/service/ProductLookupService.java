@@ -0,0 +1,60 @@
+package com.tiki.cart.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tiki.cart.client.ProductClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Product price/stock lookups for cart validation: one bulk call to the product service for
+ * all lines that are not in a short-lived local cache. The cache only smooths repeated
+ * validations of the same cart; prices may be up to {@code cart.product-cache.ttl} old.
+ */
+@Service
+public class ProductLookupService {
+
+    private final ProductClient productClient;
+    private final Cache<Integer, ProductClient.ProductDTO> cache;
+
+    public ProductLookupService(ProductClient productClient,
+                                @Value("${cart.product-cache.ttl:30s}") Duration ttl,
+                                @Value("${cart.product-cache.max-size:10000}") long maxSize) {
+        this.productClient = productClient;
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    /**
+     * @return products by id; ids unknown to the product service are missing from the map
+     */
+    public Map<Integer, ProductClient.ProductDTO> getProducts(Collection<Integer> ids) {
+        List<Integer> distinct = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (distinct.isEmpty()) {
+            return new HashMap<>();
+        }
+        return new HashMap<>(cache.getAll(distinct, this::fetch));
+    }
+
+    private Map<Integer, ProductClient.ProductDTO> fetch(Collection<? extends Integer> missing) {
+        List<ProductClient.ProductDTO> products = productClient.getProducts(new ArrayList<>(missing));
+        if (products == null) {
+            return Map.of();
+        }
+        return products.stream()
+            .filter(p -> p.getId() != null)
+            .collect(Collectors.toMap(ProductClient.ProductDTO::getId, Function.identity(), (a, b) -> a));
+    }
+}
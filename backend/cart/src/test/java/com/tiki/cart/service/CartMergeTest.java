@@ -0,0 +1,217 @@
+package com.tiki.cart.service;
+
+import com.tiki.cart.dto.CartDto;
+import com.tiki.cart.dto.CartItemDto;
+import com.tiki.cart.entity.CartEntity;
+import com.tiki.cart.entity.CartItemEntity;
+import com.tiki.cart.repository.CartItemRepository;
+import com.tiki.cart.repository.CartRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests and login-time latency benchmark for the single-pass guest cart merge
+ * The benchmark is tagged and only runs with -Pbenchmark.
+ */
+@ExtendWith(MockitoExtension.class)
+class CartMergeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CartMergeTest.class);
+
+    private static final Integer USER_ID = 7;
+    private static final String SESSION_ID = "guest-session";
+
+    @Mock
+    private CartRepository cartRepo;
+
+    @Mock
+    private CartItemRepository itemRepo;
+
+    @InjectMocks
+    private CartService cartService;
+
+    @Test
+    void merge_shouldAddQuantitiesAndKeepUserPrice() {
+        CartEntity userCart = cart(1, USER_ID, null);
+        addItem(userCart, 100, 2, 10.0);
+        CartEntity guest = cart(2, null, SESSION_ID);
+        addItem(guest, 100, 3, 12.0);
+        addItem(guest, 200, 1, 5.0);
+        stubCarts(userCart, guest);
+
+        CartDto merged = cartService.merge(USER_ID, SESSION_ID);
+
+        assertEquals(2, merged.getCartItems().size());
+        CartItemDto first = merged.getCartItems().get(0);
+        assertEquals(100, first.getProductId());
+        assertEquals(5, first.getQuantity());
+        assertEquals(10.0, first.getPriceSnapshot());
+        assertEquals(6, merged.getTotalItems());
+        assertEquals(55.0, merged.getTotalAmount());
+        assertFalse(guest.getIsActive());
+    }
+
+    @Test
+    void merge_shouldWriteOnceRegardlessOfGuestSize() {
+        CartEntity userCart = cart(1, USER_ID, null);
+        CartEntity guest = cart(2, null, SESSION_ID);
+        for (int i = 0; i < 50; i++) {
+            addItem(guest, i, 1, 1.0);
+        }
+        stubCarts(userCart, guest);
+
+        cartService.merge(USER_ID, SESSION_ID);
+
+        verify(cartRepo, times(1)).findActiveByUserIdWithItems(USER_ID);
+        verify(cartRepo, times(1)).findActiveBySessionIdWithItems(SESSION_ID);
+        verify(cartRepo, times(1)).saveAll(any());
+        verify(cartRepo, never()).save(any());
+    }
+
+    @Test
+    void merge_withoutGuestCart_shouldNotWrite() {
+        CartEntity userCart = cart(1, USER_ID, null);
+        addItem(userCart, 100, 2, 10.0);
+        when(cartRepo.findActiveByUserIdWithItems(USER_ID)).thenReturn(Optional.of(userCart));
+        when(cartRepo.findActiveBySessionIdWithItems(SESSION_ID)).thenReturn(Optional.empty());
+
+        CartDto merged = cartService.merge(USER_ID, SESSION_ID);
+
+        assertEquals(2, merged.getTotalItems());
+        verify(cartRepo, never()).saveAll(any());
+    }
+
+    /**
+     * Merge latency without the database for 50- and 200-line guest carts, next to the previous
+     * add-one-item-at-a-time merge. Repository calls are counted on the mocks for one merge of
+     * each kind rather than estimated.
+     */
+    @Test
+    @Tag("benchmark")
+    void merge_benchmarkAgainstPerItemMerge() {
+        for (int size : new int[]{50, 200}) {
+            long merged = time(() -> CartMerger.merge(overlappingUserCart(size), guestItems(size)));
+            long legacy = time(() -> legacyMerge(overlappingUserCart(size), guestItems(size), null));
+
+            CartEntity target = overlappingUserCart(size);
+            CartEntity guest = cart(2, null, SESSION_ID);
+            guest.getItems().addAll(guestItems(size));
+            stubCarts(target, guest);
+            cartService.merge(USER_ID, SESSION_ID);
+            int mergeCalls = repositoryCalls();
+            assertEquals(size + size / 2, target.getItems().size());
+            assertEquals(3, mergeCalls);
+
+            reset(cartRepo, itemRepo);
+            CartEntity legacyTarget = overlappingUserCart(size);
+            when(cartRepo.findByUserIdAndIsActive(USER_ID, true)).thenReturn(Optional.of(legacyTarget));
+            when(cartRepo.findBySessionIdAndIsActive(SESSION_ID, true)).thenReturn(Optional.of(guest));
+            legacyMerge(legacyTarget, guestItems(size), cartRepo);
+            int legacyCalls = repositoryCalls();
+            reset(cartRepo, itemRepo);
+
+            log.info("cart merge {} items: single-pass {} us / {} repository calls, per-item {} us / {} repository calls",
+                size, merged / 1000, mergeCalls, legacy / 1000, legacyCalls);
+        }
+    }
+
+    private int repositoryCalls() {
+        return mockingDetails(cartRepo).getInvocations().size() + mockingDetails(itemRepo).getInvocations().size();
+    }
+
+    private static long time(Runnable merge) {
+        for (int i = 0; i < 200; i++) {
+            merge.run();
+        }
+        int rounds = 500;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            merge.run();
+        }
+        return (System.nanoTime() - start) / rounds;
+    }
+
+    /**
+     * The previous merge: getOrCreate, scan and save per guest item, then save the guest cart.
+     *
+     * @param repo null to time the in-memory work only
+     */
+    private static void legacyMerge(CartEntity target, List<CartItemEntity> guestItems, CartRepository repo) {
+        CartEntity guest = null;
+        if (repo != null) {
+            repo.findByUserIdAndIsActive(USER_ID, true);
+            guest = repo.findBySessionIdAndIsActive(SESSION_ID, true).orElseThrow();
+        }
+        for (CartItemEntity guestItem : guestItems) {
+            if (repo != null) {
+                repo.findByUserIdAndIsActive(USER_ID, true);
+            }
+            CartItemEntity item = target.getItems().stream()
+                .filter(i -> i.getProductId().equals(guestItem.getProductId()))
+                .findFirst().orElse(null);
+            if (item == null) {
+                addItem(target, guestItem.getProductId(), guestItem.getQuantity(), guestItem.getPriceSnapshot());
+            } else {
+                item.setQuantity(item.getQuantity() + guestItem.getQuantity());
+            }
+            if (repo != null) {
+                repo.save(target);
+            }
+        }
+        if (repo != null) {
+            repo.save(guest);
+        }
+    }
+
+    /** User cart sharing half of its products with {@link #guestItems(int)} */
+    private static CartEntity overlappingUserCart(int size) {
+        CartEntity cart = cart(1, USER_ID, null);
+        for (int i = size / 2; i < size + size / 2; i++) {
+            addItem(cart, i, 1, 1.0);
+        }
+        return cart;
+    }
+
+    private static List<CartItemEntity> guestItems(int size) {
+        CartEntity guest = cart(2, null, SESSION_ID);
+        for (int i = 0; i < size; i++) {
+            addItem(guest, i, 2, 3.0);
+        }
+        return guest.getItems();
+    }
+
+    private void stubCarts(CartEntity userCart, CartEntity guest) {
+        when(cartRepo.findActiveByUserIdWithItems(USER_ID)).thenReturn(Optional.of(userCart));
+        when(cartRepo.findActiveBySessionIdWithItems(SESSION_ID)).thenReturn(Optional.of(guest));
+    }
+
+    private static CartEntity cart(Integer id, Integer userId, String sessionId) {
+        CartEntity cart = new CartEntity();
+        cart.setId(id);
+        cart.setUserId(userId);
+        cart.setSessionId(sessionId);
+        return cart;
+    }
+
+    private static void addItem(CartEntity cart, Integer productId, Integer qty, Double price) {
+        CartItemEntity item = new CartItemEntity();
+        item.setCart(cart);
+        item.setProductId(productId);
+        item.setQuantity(qty);
+        item.setPriceSnapshot(price);
+        cart.getItems().add(item);
+    }
+}
@@ -0,0 +1,101 @@
+package com.tiki.cart.service;
+
+import com.tiki.cart.client.ProductClient;
+import com.tiki.cart.dto.CartDto;
+import com.tiki.cart.dto.CartItemDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for cart revalidation against the bulk product lookup
+ */
+@ExtendWith(MockitoExtension.class)
+class CartValidationServiceTest {
+
+    @Mock
+    private ProductLookupService productLookupService;
+
+    @InjectMocks
+    private CartValidationService cartValidationService;
+
+    @Test
+    void validate_validCart_shouldUseOneLookup() {
+        when(productLookupService.getProducts(anyCollection()))
+            .thenReturn(Map.of(1, product(1, "10.0", 5, true), 2, product(2, "20.0", 5, true)));
+
+        Map<String, Object> result = cartValidationService.validate(cart(line(1, 2, 10.0), line(2, 1, 20.0)));
+
+        assertEquals(true, result.get("valid"));
+        assertEquals(List.of(), result.get("priceChanges"));
+        verify(productLookupService, times(1)).getProducts(anyCollection());
+    }
+
+    @Test
+    void validate_shouldReportMissingInactiveAndOutOfStockLines() {
+        when(productLookupService.getProducts(anyCollection()))
+            .thenReturn(Map.of(1, product(1, "10.0", 1, true), 2, product(2, "20.0", 5, false)));
+
+        Map<String, Object> result = cartValidationService.validate(
+            cart(line(1, 3, 10.0), line(2, 1, 20.0), line(3, 1, 30.0)));
+
+        assertEquals(false, result.get("valid"));
+        assertEquals(3, ((List<?>) result.get("errors")).size());
+    }
+
+    @Test
+    void validate_shouldReportPriceChange() {
+        when(productLookupService.getProducts(anyCollection()))
+            .thenReturn(Map.of(1, product(1, "12.5", 5, true)));
+
+        Map<String, Object> result = cartValidationService.validate(cart(line(1, 1, 10.0)));
+
+        assertEquals(true, result.get("valid"));
+        List<?> changes = (List<?>) result.get("priceChanges");
+        assertEquals(1, changes.size());
+        assertEquals(new BigDecimal("12.5"), ((Map<?, ?>) changes.get(0)).get("currentPrice"));
+    }
+
+    @Test
+    void validate_productServiceDown_shouldReportInvalid() {
+        when(productLookupService.getProducts(anyCollection())).thenThrow(new RuntimeException("timeout"));
+
+        Map<String, Object> result = cartValidationService.validate(cart(line(1, 1, 10.0)));
+
+        assertEquals(false, result.get("valid"));
+    }
+
+    private static CartDto cart(CartItemDto... items) {
+        CartDto cart = new CartDto();
+        cart.setCartItems(List.of(items));
+        cart.setTotalItems(items.length);
+        return cart;
+    }
+
+    private static CartItemDto line(Integer productId, Integer qty, Double price) {
+        CartItemDto item = new CartItemDto();
+        item.setProductId(productId);
+        item.setQuantity(qty);
+        item.setPriceSnapshot(price);
+        return item;
+    }
+
+    private static ProductClient.ProductDTO product(Integer id, String price, Integer stock, boolean active) {
+        ProductClient.ProductDTO p = new ProductClient.ProductDTO();
+        p.setId(id);
+        p.setPrice(new BigDecimal(price));
+        p.setStock(stock);
+        p.setIsActive(active);
+        return p;
+    }
+}
@@ -0,0 +1,35 @@
+package com.tiki.common.cache;
+
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+
+/**
+ * The classes cached values may name in their embedded type information.
+ *
+ * Anyone who can write to Redis controls those class names, and an unrestricted validator would
+ * let them instantiate any class on the classpath (Jackson deserialization gadgets). Only our own
+ * types, collections, dates, numbers and the boxed scalars Jackson tags under default typing
+ * are accepted.
+ */
+public final class CacheTypeValidator {
+
+    public static final PolymorphicTypeValidator INSTANCE = BasicPolymorphicTypeValidator.builder()
+        .allowIfSubType("com.tiki.")
+        .allowIfSubType("java.util.")
+        .allowIfSubType("java.time.")
+        .allowIfSubType("java.math.")
+        .allowIfSubType(String.class)
+        .allowIfSubType(Boolean.class)
+        .allowIfSubType(Character.class)
+        .allowIfSubType(Byte.class)
+        .allowIfSubType(Short.class)
+        .allowIfSubType(Integer.class)
+        .allowIfSubType(Long.class)
+        .allowIfSubType(Float.class)
+        .allowIfSubType(Double.class)
+        .allowIfSubTypeIsArray()
+        .build();
+
+    private CacheTypeValidator() {
+    }
+}
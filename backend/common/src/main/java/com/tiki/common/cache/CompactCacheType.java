@@ -0,0 +1,24 @@
+package com.tiki.common.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+/**
+ * Declares the value type of a cache so RedisConfig can store it with the schema-aware
+ * {@link CompactRedisSerializer} instead of JSON. Services register these as beans, since only
+ * they know their DTO types.
+ */
+public record CompactCacheType(String cacheName, JavaType type) {
+
+    public static CompactCacheType of(String cacheName, Class<?> type) {
+        return new CompactCacheType(cacheName, TypeFactory.defaultInstance().constructType(type));
+    }
+
+    /**
+     * For generic values such as {@code PageResponseDTO<ProductListDTO>}
+     */
+    public static CompactCacheType of(String cacheName, Class<?> rawType, Class<?>... typeArguments) {
+        return new CompactCacheType(cacheName,
+            TypeFactory.defaultInstance().constructParametricType(rawType, typeArguments));
+    }
+}
@@ -0,0 +1,147 @@
+package com.tiki.common.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary (Smile) Redis value serializer with optional compression.
+ *
+ * With a known {@link JavaType} the value is written without any type metadata, which is where
+ * most of the JSON size of a page of DTOs goes; without one, Jackson default typing is kept so
+ * arbitrary values still round-trip, restricted to the classes {@link CacheTypeValidator} allows. Payloads of at least {@code compressThreshold} bytes are
+ * deflated. Every payload starts with a format byte that can never start a JSON document, so
+ * entries written by the legacy JSON serializer are still read through {@code legacy}.
+ *
+ * With {@code writeCompact} off the serializer keeps writing JSON while already reading both
+ * formats, so a rolling deploy can enable reading everywhere before any node writes binary.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte FORMAT_SMILE = 0x01;
+    static final byte FORMAT_SMILE_DEFLATE = 0x02;
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final int compressThreshold;
+    private final boolean writeCompact;
+    private final RedisSerializer<Object> legacy;
+
+    /**
+     * @param type value type, or null to embed type information like the JSON serializer does
+     * @param compressThreshold payload size in bytes from which values are deflated; negative disables
+     */
+    public CompactRedisSerializer(JavaType type,
+                                  int compressThreshold,
+                                  boolean writeCompact,
+                                  RedisSerializer<Object> legacy) {
+        ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        if (type == null) {
+            mapper.activateDefaultTyping(
+                CacheTypeValidator.INSTANCE,
+                ObjectMapper.DefaultTyping.EVERYTHING,
+                JsonTypeInfo.As.PROPERTY);
+            this.reader = mapper.readerFor(Object.class);
+            this.writer = mapper.writerFor(Object.class);
+        } else {
+            this.reader = mapper.readerFor(type);
+            this.writer = mapper.writerFor(type);
+        }
+        this.compressThreshold = compressThreshold;
+        this.writeCompact = writeCompact;
+        this.legacy = legacy;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!writeCompact) {
+            return legacy.serialize(value);
+        }
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            byte[] smile = writer.writeValueAsBytes(value);
+            if (compressThreshold >= 0 && smile.length >= compressThreshold) {
+                return withFormat(FORMAT_SMILE_DEFLATE, deflate(smile));
+            }
+            return withFormat(FORMAT_SMILE, smile);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write compact value", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return switch (bytes[0]) {
+                case FORMAT_SMILE -> reader.readValue(bytes, 1, bytes.length - 1);
+                case FORMAT_SMILE_DEFLATE -> reader.readValue(inflate(bytes, 1));
+                default -> legacy.deserialize(bytes);
+            };
+        } catch (IOException | DataFormatException e) {
+            throw new SerializationException("Could not read compact value", e);
+        }
+    }
+
+    private static byte[] withFormat(byte format, byte[] payload) {
+        byte[] out = new byte[payload.length + 1];
+        out[0] = format;
+        System.arraycopy(payload, 0, out, 1, payload.length);
+        return out;
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(Arrays.copyOfRange(input, offset, input.length));
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed value");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.tiki.common.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Entry TTL shortened by a random fraction up to {@code jitter}, so keys cached together do not
+ * all expire together. The configured TTL stays the upper bound.
+ */
+public record JitteredTtl(Duration ttl, double jitter) implements RedisCacheWriter.TtlFunction {
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        if (jitter <= 0) {
+            return ttl;
+        }
+        long millis = ttl.toMillis();
+        return Duration.ofMillis(millis - (long) (millis * jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+}
@@ -0,0 +1,102 @@
+package com.tiki.common.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cross-node stampede protection for {@link TwoTierCache}.
+ *
+ * A miss takes a short Redis lock per cache key ({@code SET NX PX}); nodes that lose the race
+ * serve their last known value or wait for the winner's write instead of all hitting the database.
+ * Hot keys are also refreshed early with probability rising as their TTL runs out
+ * ("XFetch": refresh when {@code loadTime * beta * -ln(rand) >= remainingTtl}).
+ */
+public class StampedeGuard {
+
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration lockTtl;
+    private final Duration waitTimeout;
+    private final Duration pollInterval;
+    private final double earlyRefreshBeta;
+
+    /**
+     * @param earlyRefreshBeta higher refreshes earlier; 0 disables early refresh
+     */
+    public StampedeGuard(StringRedisTemplate redisTemplate,
+                         Duration lockTtl,
+                         Duration waitTimeout,
+                         Duration pollInterval,
+                         double earlyRefreshBeta) {
+        this.redisTemplate = redisTemplate;
+        this.lockTtl = lockTtl;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    /**
+     * @return a token to pass to {@link #unlock}, or null if another caller holds the lock
+     */
+    public String tryLock(String cacheName, String key) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey(cacheName, key), token, lockTtl);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    public void unlock(String cacheName, String key, String token) {
+        redisTemplate.execute(UNLOCK, List.of(lockKey(cacheName, key)), token);
+    }
+
+    /**
+     * Poll {@code lookup} until it returns a value or the wait timeout elapses.
+     */
+    public Object await(Supplier<Object> lookup) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Object value = lookup.get();
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether this caller should recompute a value that is still cached.
+     *
+     * @param loadMillis typical time to compute a value of this cache
+     */
+    public boolean shouldRefreshEarly(String cacheName, String key, double loadMillis) {
+        if (earlyRefreshBeta <= 0) {
+            return false;
+        }
+        Long remaining = redisTemplate.getExpire(cacheName + "::" + key, TimeUnit.MILLISECONDS);
+        if (remaining == null || remaining <= 0) {
+            return false;
+        }
+        double gap = loadMillis * earlyRefreshBeta * -Math.log(ThreadLocalRandom.current().nextDouble());
+        return gap >= remaining;
+    }
+
+    private static String lockKey(String cacheName, String key) {
+        return "cache:lock:" + cacheName + "::" + key;
+    }
+}
@@ -0,0 +1,311 @@
+package com.tiki.common.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Near cache: a bounded in-process Caffeine map (L1) in front of a shared Redis cache (L2).
+ *
+ * Reads try L1, then L2, then the loader, and populate L1 on the way back. Every put or
+ * eviction goes to L2 first, then drops the local copy and tells the other nodes to drop
+ * theirs through {@link TwoTierCacheManager}; values loaded on a miss are stored without
+ * broadcasting, so misses never flush other nodes. L1 entries also expire on their own, which bounds
+ * staleness if an invalidation message is lost.
+ *
+ * Loads through {@link #get(Object, Callable)} (i.e. {@code @Cacheable(sync = true)}) are
+ * protected against stampedes: concurrent misses for a key on one node share a single load, and
+ * with a {@link StampedeGuard} only one node loads while the others serve the last value this
+ * node saw (kept after L1/L2 expiry, dropped on explicit eviction) or wait for the result.
+ *
+ * L1 hands out the same instance to every caller; cached values must be treated as read-only.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> stale;
+    private final Cache remote;
+    private final TwoTierCacheManager manager;
+    private final StampedeGuard guard;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    /** Moving average of loader time, the "delta" of early refresh */
+    private volatile double loadMillis = 100;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder staleServes = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+
+    TwoTierCache(String name,
+                 com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                 com.github.benmanes.caffeine.cache.Cache<String, Object> stale,
+                 Cache remote,
+                 TwoTierCacheManager manager,
+                 StampedeGuard guard) {
+        this.name = name;
+        this.local = local;
+        this.stale = stale;
+        this.remote = remote;
+        this.manager = manager;
+        this.guard = guard;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    public Cache getRemoteCache() {
+        return remote;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            remoteHits.increment();
+            remember(localKey, wrapper.get());
+        } else {
+            misses.increment();
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            localHits.increment();
+            return (T) value;
+        }
+
+        // Single flight: concurrent misses for the same key on this node share one load
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(localKey, flight);
+        if (leader != null) {
+            coalesced.increment();
+            return (T) await(leader);
+        }
+        try {
+            Object result = fetch(key, localKey, valueLoader);
+            flight.complete(result);
+            return (T) result;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, flight);
+        }
+    }
+
+    private Object fetch(Object key, String localKey, Callable<?> valueLoader) {
+        ValueWrapper cached = remote.get(key);
+        if (cached != null && cached.get() != null) {
+            remoteHits.increment();
+            if (guard != null && guard.shouldRefreshEarly(name, localKey, loadMillis)) {
+                String token = guard.tryLock(name, localKey);
+                if (token != null) {
+                    try {
+                        earlyRefreshes.increment();
+                        return loadAndStore(key, localKey, valueLoader);
+                    } finally {
+                        guard.unlock(name, localKey, token);
+                    }
+                }
+            }
+            remember(localKey, cached.get());
+            return cached.get();
+        }
+
+        misses.increment();
+        if (guard == null) {
+            return loadAndStore(key, localKey, valueLoader);
+        }
+        String token = guard.tryLock(name, localKey);
+        if (token == null) {
+            // Another node is loading this key
+            Object last = stale.getIfPresent(localKey);
+            if (last != null) {
+                staleServes.increment();
+                return last;
+            }
+            Object loaded = guard.await(() -> {
+                ValueWrapper wrapper = remote.get(key);
+                return wrapper != null ? wrapper.get() : null;
+            });
+            if (loaded != null) {
+                remember(localKey, loaded);
+                return loaded;
+            }
+            // The lock holder is slow or gone; load without the lock rather than fail
+            return loadAndStore(key, localKey, valueLoader);
+        }
+        try {
+            // The previous lock holder may have stored it between our miss and the lock
+            ValueWrapper again = remote.get(key);
+            if (again != null && again.get() != null) {
+                remember(localKey, again.get());
+                return again.get();
+            }
+            return loadAndStore(key, localKey, valueLoader);
+        } finally {
+            guard.unlock(name, localKey, token);
+        }
+    }
+
+    private Object loadAndStore(Object key, String localKey, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        loadMillis = loadMillis * 0.8 + (System.nanoTime() - start) / 1_000_000.0 * 0.2;
+        if (value != null) {
+            // Filling a miss is not an update: no invalidation, other nodes' L1 copies expire on their own
+            remote.put(key, value);
+            remember(localKey, value);
+        }
+        return value;
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        invalidateLocal(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        invalidateLocal(key);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        invalidateLocal(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        invalidateLocal(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        manager.publishClear(name);
+    }
+
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Loads avoided because another caller on this node was already loading the key */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /** Misses answered with the last known value while another node reloaded it */
+    public long getStaleServes() {
+        return staleServes.sum();
+    }
+
+    public long getEarlyRefreshes() {
+        return earlyRefreshes.sum();
+    }
+
+    public long getLocalSize() {
+        return local.estimatedSize();
+    }
+
+    /**
+     * Drop the local copies only; used for invalidations received from other nodes.
+     */
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+        stale.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+        stale.invalidateAll();
+    }
+
+    private void remember(String localKey, Object value) {
+        local.put(localKey, value);
+        stale.put(localKey, value);
+    }
+
+    private void invalidateLocal(Object key) {
+        String localKey = localKey(key);
+        evictLocal(localKey);
+        manager.publishEvict(name, localKey);
+    }
+
+    /**
+     * Keys are shared with other nodes as strings, the same form RedisCache uses for its keys.
+     */
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,139 @@
+package com.tiki.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * CacheManager that layers a Caffeine L1 over every cache of a {@link RedisCacheManager}.
+ *
+ * Local writes and evictions are broadcast on {@link #INVALIDATION_CHANNEL} as
+ * {@code nodeId|op|cache|key}; each node drops the matching L1 entry when the message comes from
+ * another node. Register the manager as a listener on that channel (see RedisConfig).
+ */
+@Slf4j
+public class TwoTierCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidation";
+
+    private static final String OP_EVICT = "E";
+    private static final String OP_CLEAR = "C";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final long defaultMaxSize;
+    private final Duration defaultTtl;
+    private final Map<String, LocalCacheSpec> specs;
+    private final StampedeGuard guard;
+    private final Duration staleTtl;
+
+    /**
+     * @param redisCacheManager initialized L2 manager; it must not be transaction-aware itself
+     * @param specs per-cache L1 limits, others use the defaults
+     * @param guard cross-node stampede protection, or null for single-flight within the node only
+     * @param staleTtl how long the last value of a key is kept for serving while another node reloads it
+     */
+    public TwoTierCacheManager(RedisCacheManager redisCacheManager,
+                               StringRedisTemplate redisTemplate,
+                               long defaultMaxSize,
+                               Duration defaultTtl,
+                               Map<String, LocalCacheSpec> specs,
+                               StampedeGuard guard,
+                               Duration staleTtl) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.defaultMaxSize = defaultMaxSize;
+        this.defaultTtl = defaultTtl;
+        this.specs = specs;
+        this.guard = guard;
+        this.staleTtl = staleTtl;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return redisCacheManager.getCacheNames().stream()
+            .map(name -> twoTier(name, redisCacheManager.getCache(name)))
+            .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remote = redisCacheManager.getCache(name);
+        return remote != null ? twoTier(name, remote) : null;
+    }
+
+    private TwoTierCache twoTier(String name, Cache remote) {
+        LocalCacheSpec spec = specs.getOrDefault(name, new LocalCacheSpec(defaultMaxSize, defaultTtl));
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+            .maximumSize(spec.maxSize())
+            .expireAfterWrite(spec.ttl())
+            .build();
+        com.github.benmanes.caffeine.cache.Cache<String, Object> stale = Caffeine.newBuilder()
+            .maximumSize(spec.maxSize())
+            .expireAfterWrite(staleTtl)
+            .build();
+        return new TwoTierCache(name, local, stale, remote, this, guard);
+    }
+
+    void publishEvict(String cacheName, String key) {
+        publish(OP_EVICT, cacheName, key);
+    }
+
+    void publishClear(String cacheName) {
+        publish(OP_CLEAR, cacheName, "");
+    }
+
+    private void publish(String op, String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.join("|", nodeId, op, cacheName, key));
+        } catch (Exception e) {
+            // Other nodes fall back to L1 expiry
+            log.warn("Failed to publish cache invalidation for {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = localCache(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if (OP_CLEAR.equals(parts[1])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[3]);
+        }
+    }
+
+    private TwoTierCache localCache(String name) {
+        // Only caches this node has already created can hold local entries
+        Cache cache = lookupCache(name);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        return cache instanceof TwoTierCache twoTier ? twoTier : null;
+    }
+
+    /**
+     * L1 limits for one cache.
+     */
+    public record LocalCacheSpec(long maxSize, Duration ttl) {
+    }
+}
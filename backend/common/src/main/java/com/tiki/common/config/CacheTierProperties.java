@@ -0,0 +1,87 @@
+package com.tiki.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the shared two-tier cache (cache.*)
+ */
+@ConfigurationProperties(prefix = "cache")
+public class CacheTierProperties {
+
+    private Local local = new Local();
+    private Serialization serialization = new Serialization();
+    private Stampede stampede = new Stampede();
+    private double ttlJitter = 0.1; // Redis TTLs are shortened by up to this fraction
+
+    public Local getLocal() { return local; }
+    public void setLocal(Local local) { this.local = local; }
+
+    public Serialization getSerialization() { return serialization; }
+    public void setSerialization(Serialization serialization) { this.serialization = serialization; }
+
+    public Stampede getStampede() { return stampede; }
+    public void setStampede(Stampede stampede) { this.stampede = stampede; }
+
+    public double getTtlJitter() { return ttlJitter; }
+    public void setTtlJitter(double ttlJitter) { this.ttlJitter = ttlJitter; }
+
+    /** In-process L1 */
+    public static class Local {
+        private long maxSize = 10_000;
+        private Duration ttl = Duration.ofSeconds(60);
+
+        public long getMaxSize() { return maxSize; }
+        public void setMaxSize(long maxSize) { this.maxSize = maxSize; }
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+    }
+
+    /** Compact binary values */
+    public static class Serialization {
+        private List<String> compactCaches = new ArrayList<>(); // by name, with embedded types
+        private int compressThresholdBytes = 1024;
+        private boolean writeCompact = true; // false while JSON-only nodes are still running
+
+        public List<String> getCompactCaches() { return compactCaches; }
+        public void setCompactCaches(List<String> compactCaches) { this.compactCaches = compactCaches; }
+
+        public int getCompressThresholdBytes() { return compressThresholdBytes; }
+        public void setCompressThresholdBytes(int compressThresholdBytes) { this.compressThresholdBytes = compressThresholdBytes; }
+
+        public boolean isWriteCompact() { return writeCompact; }
+        public void setWriteCompact(boolean writeCompact) { this.writeCompact = writeCompact; }
+    }
+
+    /** Cross-node stampede protection for synchronized loads */
+    public static class Stampede {
+        private boolean enabled = true;
+        private Duration lockTtl = Duration.ofSeconds(10);
+        private Duration waitTimeout = Duration.ofSeconds(2);
+        private Duration pollInterval = Duration.ofMillis(50);
+        private double earlyRefreshBeta = 1.0; // 0 disables probabilistic early refresh
+        private Duration staleTtl = Duration.ofMinutes(10);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public Duration getLockTtl() { return lockTtl; }
+        public void setLockTtl(Duration lockTtl) { this.lockTtl = lockTtl; }
+
+        public Duration getWaitTimeout() { return waitTimeout; }
+        public void setWaitTimeout(Duration waitTimeout) { this.waitTimeout = waitTimeout; }
+
+        public Duration getPollInterval() { return pollInterval; }
+        public void setPollInterval(Duration pollInterval) { this.pollInterval = pollInterval; }
+
+        public double getEarlyRefreshBeta() { return earlyRefreshBeta; }
+        public void setEarlyRefreshBeta(double earlyRefreshBeta) { this.earlyRefreshBeta = earlyRefreshBeta; }
+
+        public Duration getStaleTtl() { return staleTtl; }
+        public void setStaleTtl(Duration staleTtl) { this.staleTtl = staleTtl; }
+    }
+}
@@ -20,12 +20,14 @@ public class RabbitMQConfig {
     // Exchange names
     public static final String ORDER_EXCHANGE = "order.exchange";
     public static final String PRODUCT_EXCHANGE = "product.exchange";
+    public static final String PRODUCT_DLX = PRODUCT_EXCHANGE + ".dlx";
     public static final String NOTIFICATION_EXCHANGE = "notification.exchange";
     
     // Queue names
     public static final String ORDER_CREATED_QUEUE = "order.created.queue";
     public static final String ORDER_UPDATED_QUEUE = "order.updated.queue";
     public static final String PRODUCT_UPDATED_QUEUE = "product.updated.queue";
+    public static final String PRODUCT_UPDATED_DLQ = "product.updated.dlq";
     public static final String NOTIFICATION_EMAIL_QUEUE = "notification.email.queue";
     public static final String NOTIFICATION_SMS_QUEUE = "notification.sms.queue";
     
@@ -101,7 +103,7 @@ public class RabbitMQConfig {
     @Bean
     public Queue productUpdatedQueue() {
         return QueueBuilder.durable(PRODUCT_UPDATED_QUEUE)
-            .withArgument("x-dead-letter-exchange", PRODUCT_EXCHANGE + ".dlx")
+            .withArgument("x-dead-letter-exchange", PRODUCT_DLX)
             .build();
     }
     
@@ -113,6 +115,27 @@ public class RabbitMQConfig {
             .with(PRODUCT_UPDATED_KEY);
     }
     
+    /**
+     * Product events rejected by the indexer, kept for inspection and replay
+     */
+    @Bean
+    public TopicExchange productDeadLetterExchange() {
+        return new TopicExchange(PRODUCT_DLX);
+    }
+    
+    @Bean
+    public Queue productUpdatedDeadLetterQueue() {
+        return QueueBuilder.durable(PRODUCT_UPDATED_DLQ).build();
+    }
+    
+    @Bean
+    public Binding productUpdatedDeadLetterBinding() {
+        return BindingBuilder
+            .bind(productUpdatedDeadLetterQueue())
+            .to(productDeadLetterExchange())
+            .with(PRODUCT_UPDATED_KEY);
+    }
+    
     // ==================== NOTIFICATION EXCHANGE & QUEUES ====================
     
     @Bean
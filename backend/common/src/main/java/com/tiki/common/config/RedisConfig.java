@@ -1,9 +1,17 @@
 package com.tiki.common.config;
 
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.springframework.cache.CacheManager;
+import com.tiki.common.cache.CompactCacheType;
+import com.tiki.common.cache.CacheTypeValidator;
+import com.tiki.common.cache.CompactRedisSerializer;
+import com.tiki.common.cache.JitteredTtl;
+import com.tiki.common.cache.StampedeGuard;
+import com.tiki.common.cache.TwoTierCacheManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,18 +19,25 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.Map;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheTierProperties.class)
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       CacheTierProperties properties) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         
@@ -33,8 +48,13 @@ public class RedisConfig {
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         
-        GenericJackson2JsonRedisSerializer serializer = 
+        GenericJackson2JsonRedisSerializer json = 
             new GenericJackson2JsonRedisSerializer(objectMapper);
+        // Binary with embedded types; values written as JSON before are still readable
+        CompactRedisSerializer serializer = new CompactRedisSerializer(null,
+            properties.getSerialization().getCompressThresholdBytes(),
+            properties.getSerialization().isWriteCompact(),
+            json);
         
         template.setValueSerializer(serializer);
         template.setHashValueSerializer(serializer);
@@ -43,11 +63,31 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Two-tier cache manager: Caffeine per cache on each node (L1) over shared Redis (L2).
+     * L1 entries are dropped on every node through pub/sub when any node writes or evicts.
+     *
+     * Values are JSON unless the cache is selected for the compact binary format, either with a
+     * {@link CompactCacheType} bean (schema-aware, no type metadata) or by name in
+     * cache.serialization.compact-caches (binary with embedded types). Compact caches still read
+     * JSON entries left over from before the switch.
+     *
+     * Synchronized loads ({@code @Cacheable(sync = true)}) are coalesced per key and, unless
+     * cache.stampede.enabled is false, guarded across nodes; see {@link StampedeGuard}.
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                            ObjectProvider<CompactCacheType> compactCacheTypes,
+                                            CacheTierProperties properties) {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // A custom mapper gets no type info by default; without it cached DTOs come back as maps.
+        // The type names come from Redis, so only known-safe classes are accepted
+        objectMapper.activateDefaultTyping(
+            CacheTypeValidator.INSTANCE,
+            ObjectMapper.DefaultTyping.EVERYTHING,
+            JsonTypeInfo.As.PROPERTY);
         
         GenericJackson2JsonRedisSerializer serializer = 
             new GenericJackson2JsonRedisSerializer(objectMapper);
@@ -64,15 +104,70 @@ public class RedisConfig {
             )
             .disableCachingNullValues();
         
-        return RedisCacheManager.builder(connectionFactory)
-            .cacheDefaults(config)
-            .withCacheConfiguration("products", config.entryTtl(Duration.ofHours(1)))
-            .withCacheConfiguration("productDetails", config.entryTtl(Duration.ofHours(1)))
-            .withCacheConfiguration("shops", config.entryTtl(Duration.ofHours(1)))
-            .withCacheConfiguration("shopStats", config.entryTtl(Duration.ofMinutes(5)))
-            .withCacheConfiguration("reviews", config.entryTtl(Duration.ofMinutes(10)))
-            .withCacheConfiguration("ratings", config.entryTtl(Duration.ofMinutes(10)))
-            .transactionAware()
-            .build();
+        // Jittered TTLs so keys cached together do not all expire on the same tick
+        double jitter = properties.getTtlJitter();
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(config.entryTtl(new JitteredTtl(Duration.ofHours(1), jitter)))
+            .withCacheConfiguration("products", config.entryTtl(new JitteredTtl(Duration.ofHours(1), jitter)))
+            .withCacheConfiguration("productDetails", config.entryTtl(new JitteredTtl(Duration.ofHours(1), jitter)))
+            .withCacheConfiguration("shops", config.entryTtl(new JitteredTtl(Duration.ofHours(1), jitter)))
+            .withCacheConfiguration("shopStats", config.entryTtl(new JitteredTtl(Duration.ofMinutes(5), jitter)))
+            .withCacheConfiguration("reviews", config.entryTtl(new JitteredTtl(Duration.ofMinutes(10), jitter)))
+            .withCacheConfiguration("ratings", config.entryTtl(new JitteredTtl(Duration.ofMinutes(10), jitter)))
+            .withCacheConfiguration("product-detail", config.entryTtl(new JitteredTtl(Duration.ofHours(1), jitter)))
+            .withCacheConfiguration("products-page", config.entryTtl(new JitteredTtl(Duration.ofMinutes(10), jitter)))
+            .enableStatistics();
+
+        CacheTierProperties.Serialization serialization = properties.getSerialization();
+        RedisCacheConfiguration defaults = builder.cacheDefaults();
+        for (String name : serialization.getCompactCaches()) {
+            useSerializer(builder, defaults, name, new CompactRedisSerializer(null,
+                serialization.getCompressThresholdBytes(), serialization.isWriteCompact(), serializer));
+        }
+        compactCacheTypes.orderedStream().forEach(compact -> useSerializer(builder, defaults, compact.cacheName(),
+            new CompactRedisSerializer(compact.type(),
+                serialization.getCompressThresholdBytes(), serialization.isWriteCompact(), serializer)));
+
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.initializeCaches();
+
+        // Shorter local lifetimes where a missed invalidation would be most visible
+        Map<String, TwoTierCacheManager.LocalCacheSpec> localSpecs = Map.of(
+            "products-page", new TwoTierCacheManager.LocalCacheSpec(2_000, Duration.ofSeconds(30)),
+            "shopStats", new TwoTierCacheManager.LocalCacheSpec(1_000, Duration.ofSeconds(30)));
+
+        StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        CacheTierProperties.Stampede stampede = properties.getStampede();
+        StampedeGuard guard = stampede.isEnabled()
+            ? new StampedeGuard(stringRedisTemplate, stampede.getLockTtl(), stampede.getWaitTimeout(),
+                stampede.getPollInterval(), stampede.getEarlyRefreshBeta())
+            : null;
+
+        TwoTierCacheManager cacheManager = new TwoTierCacheManager(redisCacheManager, stringRedisTemplate,
+            properties.getLocal().getMaxSize(), properties.getLocal().getTtl(), localSpecs,
+            guard, stampede.getStaleTtl());
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    private static void useSerializer(RedisCacheManager.RedisCacheManagerBuilder builder,
+                                      RedisCacheConfiguration defaults,
+                                      String cacheName,
+                                      RedisSerializer<Object> valueSerializer) {
+        RedisCacheConfiguration base = builder.getCacheConfigurationFor(cacheName).orElse(defaults);
+        builder.withCacheConfiguration(cacheName, base.serializeValuesWith(
+            RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer)));
+    }
+
+    /**
+     * Delivers L1 invalidations published by other nodes
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           TwoTierCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoTierCacheManager.INVALIDATION_CHANNEL));
+        return container;
     }
 }
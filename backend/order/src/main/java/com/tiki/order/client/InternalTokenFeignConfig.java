@@ -0,0 +1,21 @@
+package com.tiki.order.client;
+
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Adds the shared service token to calls of product-service /internal endpoints.
+ * Not a @Configuration: it only applies to the Feign clients that name it.
+ */
+public class InternalTokenFeignConfig {
+
+    @Bean
+    public RequestInterceptor internalTokenInterceptor(@Value("${services.product.internal-token}") String token) {
+        return template -> {
+            if (template.path().startsWith("/internal/")) {
+                template.header("X-Internal-Token", token);
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.tiki.order.client;
+
+import com.tiki.order.dto.FlashSaleReservationDto;
+import com.tiki.order.dto.ProductBatchItemDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.util.List;
+
+/**
+ * Feign client for Product Service checkout pricing and flash sale reservations
+ * No fallback: a checkout must fail rather than sell at a price or flash sale units it could not confirm
+ */
+@FeignClient(name = "product-service", url = "${services.product.url:http://localhost:8081}",
+             configuration = InternalTokenFeignConfig.class)
+public interface ProductClient {
+
+    /**
+     * Price, stock, status and shop of many products in one request (at most 500 ids)
+     * Products that do not exist are missing from the result
+     */
+    @PostMapping("/api/v1/products/batch")
+    List<ProductBatchItemDto> getProducts(@RequestBody List<Integer> ids);
+
+    /**
+     * Turn a flash sale reservation into a sale; 410 when it expired or was released.
+     * Internal endpoint, authenticated by the service token {@link InternalTokenFeignConfig} adds
+     */
+    @PostMapping("/internal/v1/flash-sales/reservations/{token}/confirm")
+    FlashSaleReservationDto confirmFlashSaleReservation(@PathVariable("token") String token,
+                                                        @RequestHeader("X-User-Id") Long userId);
+}
@@ -0,0 +1,14 @@
+package com.tiki.order.config;
+
+import com.tiki.common.config.RabbitMQConfig;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * RabbitMQ setup for the order service
+ * Shared exchanges/queues and the JSON RabbitTemplate used by the outbox relay
+ */
+@Configuration
+@Import(RabbitMQConfig.class)
+public class MessagingConfig {
+}
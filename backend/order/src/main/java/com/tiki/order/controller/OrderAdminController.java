@@ -1,5 +1,6 @@
 package com.tiki.order.controller;
 
+import com.tiki.order.dto.CursorPageDTO;
 import com.tiki.order.dto.OrderDto;
 import com.tiki.order.entity.OrderEntity;
 import com.tiki.order.service.OrderService;
@@ -11,7 +12,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -54,19 +54,17 @@ public class OrderAdminController {
     }
     
     /**
-     * Get pending orders (admin)
-     * GET /api/v1/admin/orders/pending
+     * Get pending orders (admin), newest first, keyset-paged
+     * GET /api/v1/admin/orders/pending?size=20&cursor=...
      */
     @GetMapping("/pending")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getPendingOrders() {
+    public ResponseEntity<CursorPageDTO<OrderDto>> getPendingOrders(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
         log.info("Admin getting pending orders");
         
-        return ResponseEntity.ok(Map.of(
-            "orders", List.of(),
-            "total", 0,
-            "message", "No pending orders"
-        ));
+        return ResponseEntity.ok(orderService.getOrdersByStatus(OrderEntity.OrderStatus.PENDING, cursor, size));
     }
     
     /**
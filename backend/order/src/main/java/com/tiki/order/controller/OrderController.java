@@ -1,6 +1,7 @@
 package com.tiki.order.controller;
 
 import com.tiki.order.dto.CreateOrderRequest;
+import com.tiki.order.dto.CursorPageDTO;
 import com.tiki.order.dto.OrderDto;
 import com.tiki.order.dto.OrderStatsDTO;
 import com.tiki.order.service.MockPaymentService;
@@ -47,12 +48,40 @@ public class OrderController {
         return orderService.getAllOrders();
     }
 
+    /**
+     * A user's recent orders, newest first, keyset-paged
+     * GET /api/v1/orders/user/{userId}?size=20&cursor=...
+     * Orders older than order.history.archive-after-months are listed by /user/{userId}/archive
+     */
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('BUYER') or hasRole('ADMIN')")
-    public List<OrderDto> getOrdersByUser(
+    public CursorPageDTO<OrderDto> getOrdersByUser(
             @PathVariable Integer userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
             jakarta.servlet.http.HttpServletRequest request) {
         
+        requireOwnOrders(userId, request);
+        return orderService.getOrdersByUser(userId, cursor, size);
+    }
+
+    /**
+     * A user's archived orders (older than the archive horizon), newest first, keyset-paged
+     * GET /api/v1/orders/user/{userId}/archive?size=20&cursor=...
+     */
+    @GetMapping("/user/{userId}/archive")
+    @PreAuthorize("hasRole('BUYER') or hasRole('ADMIN')")
+    public CursorPageDTO<OrderDto> getArchivedOrdersByUser(
+            @PathVariable Integer userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            jakarta.servlet.http.HttpServletRequest request) {
+        
+        requireOwnOrders(userId, request);
+        return orderService.getArchivedOrdersByUser(userId, cursor, size);
+    }
+
+    private void requireOwnOrders(Integer userId, jakarta.servlet.http.HttpServletRequest request) {
         // Extract userId from JWT (set by JwtAuthenticationFilter)
         Long currentUserId = (Long) request.getAttribute("userId");
         String username = (String) request.getAttribute("username");
@@ -66,8 +95,6 @@ public class OrderController {
             log.warn("SECURITY: User {} attempted to access orders of user {}", currentUserId, userId);
             throw new AccessDeniedException(currentUserId, "orders", userId);
         }
-        
-        return orderService.getOrdersByUser(userId);
     }
 
     @GetMapping("/{orderId}")
@@ -153,13 +180,7 @@ public class OrderController {
     @GetMapping("/stats/user/{userId}")
     public Map<String, Object> getUserOrderStats(@PathVariable Integer userId) {
         log.debug("Getting order stats for user: {}", userId);
-        List<OrderDto> orders = orderService.getOrdersByUser(userId);
-        return Map.of(
-            "totalOrders", orders.size(),
-            "completedOrders", orders.stream().filter(o -> "COMPLETED".equals(o.getStatus())).count(),
-            "pendingOrders", orders.stream().filter(o -> "PENDING".equals(o.getStatus())).count(),
-            "cancelledOrders", orders.stream().filter(o -> "CANCELLED".equals(o.getStatus())).count()
-        );
+        return orderService.getUserOrderStats(userId.longValue());
     }
 
     /**
@@ -180,19 +201,22 @@ public class OrderController {
         return orderService.getProductSoldCount(productId);
     }
     
+    /**
+     * Get sold counts for many products in one call (used by search indexing)
+     */
+    @PostMapping("/product/sold-counts")
+    public Map<Long, Integer> getProductSoldCounts(@RequestBody List<Long> productIds) {
+        log.debug("Getting sold counts for {} products", productIds.size());
+        return orderService.getProductSoldCounts(productIds);
+    }
+    
     /**
      * Get order statistics for current user (authenticated)
      */
     @GetMapping("/stats")
     public Map<String, Object> getMyOrderStats(@RequestHeader("X-User-Id") Long userId) {
         log.debug("Getting order stats for authenticated user: {}", userId);
-        List<OrderDto> orders = orderService.getOrdersByUser(userId.intValue());
-        return Map.of(
-            "totalOrders", orders.size(),
-            "completedOrders", orders.stream().filter(o -> "COMPLETED".equals(o.getStatus())).count(),
-            "pendingOrders", orders.stream().filter(o -> "PENDING".equals(o.getStatus())).count(),
-            "cancelledOrders", orders.stream().filter(o -> "CANCELLED".equals(o.getStatus())).count()
-        );
+        return orderService.getUserOrderStats(userId);
     }
     
     /**
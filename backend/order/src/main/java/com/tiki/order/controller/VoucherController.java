@@ -8,6 +8,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +43,17 @@ public class VoucherController {
         return ResponseEntity.ok(vouchers);
     }
     
+    /**
+     * Best vouchers for a cart total (v1 API)
+     * GET /api/v1/vouchers/best?orderTotal=500000&limit=5
+     */
+    @GetMapping("/v1/vouchers/best")
+    public ResponseEntity<List<VoucherValidationResponse>> getBestVouchers(
+            @RequestParam BigDecimal orderTotal,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(voucherService.getBestVouchers(orderTotal, Math.min(Math.max(limit, 1), 50)));
+    }
+
     /**
      * Validate voucher by code (v1 API)
      * GET /api/v1/vouchers/validate/{code}
@@ -1,21 +1,51 @@
 package com.tiki.order.dto;
 
+import com.tiki.order.enums.PaymentMethod;
+
 import java.math.BigDecimal;
 import java.util.List;
 
 public class CreateOrderRequest {
     private Integer userId;
     private List<OrderItemDto> items;
+    private String customerName;
+    private String customerPhone;
+    private String shippingProvince;
+    private String shippingDistrict;
+    private String shippingAddress;
+    private String shippingNote;
+    private BigDecimal shippingFee;
+    private String voucherCode;
+    private PaymentMethod paymentMethod;
 
     public Integer getUserId() { return userId; }
     public void setUserId(Integer userId) { this.userId = userId; }
     public List<OrderItemDto> getItems() { return items; }
     public void setItems(List<OrderItemDto> items) { this.items = items; }
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+    public String getCustomerPhone() { return customerPhone; }
+    public void setCustomerPhone(String customerPhone) { this.customerPhone = customerPhone; }
+    public String getShippingProvince() { return shippingProvince; }
+    public void setShippingProvince(String shippingProvince) { this.shippingProvince = shippingProvince; }
+    public String getShippingDistrict() { return shippingDistrict; }
+    public void setShippingDistrict(String shippingDistrict) { this.shippingDistrict = shippingDistrict; }
+    public String getShippingAddress() { return shippingAddress; }
+    public void setShippingAddress(String shippingAddress) { this.shippingAddress = shippingAddress; }
+    public String getShippingNote() { return shippingNote; }
+    public void setShippingNote(String shippingNote) { this.shippingNote = shippingNote; }
+    public BigDecimal getShippingFee() { return shippingFee; }
+    public void setShippingFee(BigDecimal shippingFee) { this.shippingFee = shippingFee; }
+    public String getVoucherCode() { return voucherCode; }
+    public void setVoucherCode(String voucherCode) { this.voucherCode = voucherCode; }
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(PaymentMethod paymentMethod) { this.paymentMethod = paymentMethod; }
 
     public static class OrderItemDto {
         private Integer productId;
         private Integer quantity;
         private BigDecimal unitPrice;
+        private String flashSaleToken;
 
         public Integer getProductId() { return productId; }
         public void setProductId(Integer productId) { this.productId = productId; }
@@ -23,7 +53,7 @@ public class CreateOrderRequest {
         public void setQuantity(Integer quantity) { this.quantity = quantity; }
         public BigDecimal getUnitPrice() { return unitPrice; }
         public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+        public String getFlashSaleToken() { return flashSaleToken; }
+        public void setFlashSaleToken(String flashSaleToken) { this.flashSaleToken = flashSaleToken; }
     }
 }
-
-
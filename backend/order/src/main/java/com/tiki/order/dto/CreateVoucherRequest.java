@@ -34,5 +34,8 @@ public class CreateVoucherRequest {
     @Min(value = 1, message = "Số lần sử dụng tối đa phải ít nhất là 1")
     private Integer maxUsage = 1000;
 
+    @Min(value = 1, message = "Số lần sử dụng mỗi người phải ít nhất là 1")
+    private Integer perUserLimit;
+
     private Boolean isActive = true;
 }
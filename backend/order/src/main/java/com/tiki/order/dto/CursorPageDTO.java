@@ -0,0 +1,22 @@
+package com.tiki.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Cursor-based page of orders
+ * Pass nextCursor back as "cursor" to fetch the following page; null when there are no more results
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+}
@@ -0,0 +1,18 @@
+package com.tiki.order.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Confirmed flash sale reservation, as returned by the product service
+ */
+@Data
+public class FlashSaleReservationDto {
+    private String token;
+    private Long flashSaleId;
+    private Long productId;
+    private Long userId;
+    private Integer quantity;
+    private BigDecimal salePrice;
+}
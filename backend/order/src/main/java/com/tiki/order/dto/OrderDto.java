@@ -6,6 +6,7 @@ import java.util.List;
 
 public class OrderDto {
     private Integer id;
+    private String orderNumber;
     private Integer userId;
     private BigDecimal totalAmount;
     private String status;
@@ -30,6 +31,8 @@ public class OrderDto {
 
     public Integer getId() { return id; }
     public void setId(Integer id) { this.id = id; }
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
     public Integer getUserId() { return userId; }
     public void setUserId(Integer userId) { this.userId = userId; }
     public BigDecimal getTotalAmount() { return totalAmount; }
@@ -0,0 +1,19 @@
+package com.tiki.order.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Current price, stock, status and shop of one product, as returned by the product service batch lookup
+ */
+@Data
+public class ProductBatchItemDto {
+    private Integer id;
+    private String name;
+    private BigDecimal price;
+    private Integer stock;
+    private String status;
+    private Boolean isActive;
+    private Long shopId;
+}
@@ -21,5 +21,8 @@ public class UpdateVoucherRequest {
     @Min(value = 1, message = "Max usage must be at least 1")
     private Integer maxUsage;
 
+    @Min(value = 1, message = "Per-user limit must be at least 1")
+    private Integer perUserLimit;
+
     private Boolean isActive;
 }
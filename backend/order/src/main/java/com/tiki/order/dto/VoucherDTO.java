@@ -18,6 +18,7 @@ public class VoucherDTO {
     private Integer maxUsage;
     private Integer usedCount;
     private Integer remainingUsage;
+    private Integer perUserLimit;
     private Boolean isActive;
     private Boolean isExpired;
     private Boolean hasStarted;
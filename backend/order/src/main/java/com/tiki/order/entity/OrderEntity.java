@@ -6,15 +6,22 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_orders_status_created", columnList = "status, created_at")
+})
 public class OrderEntity {
 
     @Id
@@ -24,7 +31,9 @@ public class OrderEntity {
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
-    @Column(name = "order_number", unique = true, length = 50)
+    // Unique together with created_at (uk_orders_number_created): orders is partitioned by created_at.
+    // Global uniqueness is enforced by order_numbers (OrderNumberEntity)
+    @Column(name = "order_number", length = 50)
     private String orderNumber;
 
     // Order Status (SPRINT 4)
@@ -82,12 +91,16 @@ public class OrderEntity {
     @Column(name = "payment_id")
     private Integer paymentId;
 
-    @Column(name = "created_at")
-    private LocalDateTime createdAt;
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;  // Partitioning key of orders (monthly ranges)
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)  // A page of orders loads its lines with one query on order_items
+    private List<OrderItemEntity> items = new ArrayList<>();
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -103,10 +116,19 @@ public class OrderEntity {
     }
 
     /**
-     * Generate order number
+     * Generate order number: the creation time plus a random suffix, so orders placed in the
+     * same millisecond get different numbers
      */
     private String generateOrderNumber() {
-        return "ORD-" + System.currentTimeMillis();
+        return "ORD-" + System.currentTimeMillis() + String.format("%04d", ThreadLocalRandom.current().nextInt(10_000));
+    }
+
+    /**
+     * Add a line and keep both sides of the association in sync
+     */
+    public void addItem(OrderItemEntity item) {
+        item.setOrder(this);
+        items.add(item);
     }
 
     /**
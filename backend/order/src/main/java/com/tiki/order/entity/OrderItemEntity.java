@@ -0,0 +1,54 @@
+package com.tiki.order.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Order line. Ids come from a pooled table-backed sequence instead of IDENTITY so that the
+ * lines of an order are inserted as one JDBC batch.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order", columnList = "order_id"),
+        @Index(name = "idx_order_items_product", columnList = "product_id")
+})
+public class OrderItemEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    // No FK constraint: MySQL does not support foreign keys on the partitioned orders table
+    @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private OrderEntity order;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "shop_id")
+    private Long shopId;
+
+    @Column(name = "product_name")
+    private String productName;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "unit_price", precision = 10, scale = 2, nullable = false)
+    private BigDecimal unitPrice;
+
+    @Column(name = "line_total", precision = 12, scale = 2, nullable = false)
+    private BigDecimal lineTotal;
+
+    @Column(name = "flash_sale_id")
+    private Long flashSaleId;  // Set when the line was bought through a flash sale reservation
+}
@@ -0,0 +1,26 @@
+package com.tiki.order.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Global uniqueness guard for order numbers
+ * orders is partitioned by created_at, so its own unique keys must include created_at and
+ * cannot stop two orders sharing a number; this unpartitioned table can
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "order_numbers")
+public class OrderNumberEntity {
+
+    @Id
+    @Column(name = "order_number", length = 50)
+    private String orderNumber;
+
+    @Column(name = "order_id", nullable = false)
+    private Integer orderId;
+}
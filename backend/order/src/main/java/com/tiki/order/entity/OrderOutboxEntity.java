@@ -0,0 +1,42 @@
+package com.tiki.order.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox row for order side effects (invoice, notification, events)
+ * Written in the checkout transaction, drained by OrderOutboxRelay
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "order_outbox")
+public class OrderOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Integer orderId;
+
+    @Column(name = "event_type", nullable = false, length = 30)
+    private String eventType; // ORDER_CREATED
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public OrderOutboxEntity(Integer orderId, String eventType) {
+        this.orderId = orderId;
+        this.eventType = eventType;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,25 @@
+package com.tiki.order.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Units sold per product, kept up to date by OrderCounterService on every order status change
+ * Only orders in a sold status (CONFIRMED, PROCESSING, SHIPPING, DELIVERED) count
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "product_sales_counters")
+public class ProductSalesCounterEntity {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "sold_count", nullable = false)
+    private Long soldCount = 0L;
+}
@@ -0,0 +1,48 @@
+package com.tiki.order.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Orders placed and revenue per shop and day (day of order creation)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "shop_daily_counters")
+@IdClass(ShopDailyCounterEntity.Key.class)
+public class ShopDailyCounterEntity {
+
+    @Id
+    @Column(name = "shop_id")
+    private Long shopId;
+
+    @Id
+    @Column(name = "order_date")
+    private LocalDate day;
+
+    @Column(name = "orders", nullable = false)
+    private Integer orders = 0;
+
+    @Column(name = "revenue", precision = 14, scale = 2, nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long shopId;
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,33 @@
+package com.tiki.order.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Running order totals per shop, kept up to date by OrderCounterService
+ * Revenue is the shop's line totals, net of cancelled and refunded orders
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "shop_order_counters")
+public class ShopOrderCounterEntity {
+
+    @Id
+    @Column(name = "shop_id")
+    private Long shopId;
+
+    @Column(name = "total_orders", nullable = false)
+    private Integer totalOrders = 0;
+
+    @Column(name = "total_revenue", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalRevenue = BigDecimal.ZERO;
+
+    @Column(name = "pending_orders", nullable = false)
+    private Integer pendingOrders = 0;
+}
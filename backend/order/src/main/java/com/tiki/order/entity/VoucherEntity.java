@@ -47,6 +47,9 @@ public class VoucherEntity {
     @Column(name = "used_count")
     private Integer usedCount = 0;
 
+    @Column(name = "per_user_limit")
+    private Integer perUserLimit;  // NULL = no limit per user
+
     @Column(name = "is_active")
     private Boolean isActive = true;
 
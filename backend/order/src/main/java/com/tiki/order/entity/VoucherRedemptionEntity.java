@@ -0,0 +1,38 @@
+package com.tiki.order.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ledger of voucher redemptions (+1) and releases (-1), written in batches by
+ * VoucherRedemptionService. Per-user usage is SUM(delta) per user.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "voucher_redemptions", indexes = {
+        @Index(name = "idx_voucher_redemptions_voucher_user", columnList = "voucher_id, user_id")
+})
+public class VoucherRedemptionEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "voucher_id", nullable = false)
+    private Integer voucherId;
+
+    @Column(name = "user_id")
+    private Long userId;  // NULL = redeemed without a user (no per-user limit)
+
+    @Column(name = "delta", nullable = false)
+    private Integer delta;
+
+    @Column(name = "redeemed_at", nullable = false)
+    private LocalDateTime redeemedAt;
+}
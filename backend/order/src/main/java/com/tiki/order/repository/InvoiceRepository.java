@@ -4,4 +4,6 @@ import com.tiki.order.entity.InvoiceEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface InvoiceRepository extends JpaRepository<InvoiceEntity, Long> {
+
+    boolean existsByOrderId(Integer orderId);
 }
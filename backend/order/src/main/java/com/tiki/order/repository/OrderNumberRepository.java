@@ -0,0 +1,23 @@
+package com.tiki.order.repository;
+
+import com.tiki.order.entity.OrderNumberEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Order number uniqueness guard
+ */
+@Repository
+public interface OrderNumberRepository extends JpaRepository<OrderNumberEntity, String> {
+
+    /**
+     * Claim an order number for an order. A plain INSERT, not save(), so a number already
+     * taken fails with a duplicate key instead of being merged over.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_numbers (order_number, order_id) VALUES (:orderNumber, :orderId)", nativeQuery = true)
+    void claim(@Param("orderNumber") String orderNumber, @Param("orderId") Integer orderId);
+}
@@ -0,0 +1,20 @@
+package com.tiki.order.repository;
+
+import com.tiki.order.entity.OrderOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Order Outbox Repository
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEntity, Long> {
+
+    /**
+     * Oldest pending outbox rows that have not exhausted their retries, in commit order
+     */
+    List<OrderOutboxEntity> findByAttemptsLessThanOrderByIdAsc(int maxAttempts, Pageable pageable);
+}
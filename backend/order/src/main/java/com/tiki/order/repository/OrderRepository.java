@@ -2,14 +2,15 @@ package com.tiki.order.repository;
 
 import com.tiki.order.entity.OrderEntity;
 import com.tiki.order.entity.OrderEntity.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Order Repository
@@ -18,45 +19,47 @@ import java.util.List;
 public interface OrderRepository extends JpaRepository<OrderEntity, Integer> {
     
     /**
-     * Find orders by user ID
+     * Order with its lines in one query
      */
-    List<OrderEntity> findByUserId(Long userId);
+    @Query("SELECT o FROM OrderEntity o LEFT JOIN FETCH o.items WHERE o.id = :id")
+    Optional<OrderEntity> findWithItemsById(@Param("id") Integer id);
     
     /**
-     * Find orders by status
+     * One keyset page of a user's orders, newest first, placed in [from, before)
+     * Walks idx_orders_user_created (whose entries end in the primary key) and only the
+     * partitions overlapping the range; pass the last row's (createdAt, id) as (beforeAt, beforeId)
      */
-    List<OrderEntity> findByStatus(OrderStatus status);
+    @Query("SELECT o FROM OrderEntity o WHERE o.userId = :userId AND o.createdAt >= :from AND o.createdAt <= :beforeAt " +
+           "AND (o.createdAt < :beforeAt OR o.id < :beforeId) ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderEntity> findUserPage(@Param("userId") Long userId,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("beforeAt") LocalDateTime beforeAt,
+                                   @Param("beforeId") Integer beforeId,
+                                   Pageable limit);
     
     /**
-     * Count today's orders for a shop
-     * Note: Shop ID needs to be added to OrderEntity or derived from order items
+     * One keyset page of orders in a status, newest first, through idx_orders_status_created
      */
-    @Query("SELECT COUNT(o) FROM OrderEntity o WHERE o.createdAt >= :startOfDay")
-    Integer countTodayOrders(@Param("startOfDay") LocalDateTime startOfDay);
+    @Query("SELECT o FROM OrderEntity o WHERE o.status = :status AND o.createdAt <= :beforeAt " +
+           "AND (o.createdAt < :beforeAt OR o.id < :beforeId) ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderEntity> findStatusPage(@Param("status") OrderStatus status,
+                                     @Param("beforeAt") LocalDateTime beforeAt,
+                                     @Param("beforeId") Integer beforeId,
+                                     Pageable limit);
     
     /**
-     * Calculate today's revenue for a shop
+     * Number of a user's orders per status
      */
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM OrderEntity o WHERE o.createdAt >= :startOfDay")
-    BigDecimal calculateTodayRevenue(@Param("startOfDay") LocalDateTime startOfDay);
+    @Query("SELECT o.status, COUNT(o) FROM OrderEntity o WHERE o.userId = :userId GROUP BY o.status")
+    List<Object[]> countByStatusForUser(@Param("userId") Long userId);
     
     /**
-     * Count pending orders for a shop
+     * Find orders by status
      */
-    @Query("SELECT COUNT(o) FROM OrderEntity o WHERE o.status = 'PENDING'")
-    Integer countPendingOrders();
+    List<OrderEntity> findByStatus(OrderStatus status);
     
     /**
      * Find orders by order number
      */
     OrderEntity findByOrderNumber(String orderNumber);
-    
-    /**
-     * Get sold count for a product
-     * Sprint 14 - Product Search Service integration
-     * Note: This is a placeholder. In real implementation, 
-     * we need OrderItem table to track product quantities
-     */
-    @Query("SELECT COUNT(o) FROM OrderEntity o WHERE o.status IN ('DELIVERED', 'CONFIRMED', 'PROCESSING', 'SHIPPING')")
-    Integer getProductSoldCount();
 }
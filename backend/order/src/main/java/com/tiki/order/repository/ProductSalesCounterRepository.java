@@ -0,0 +1,23 @@
+package com.tiki.order.repository;
+
+import com.tiki.order.entity.ProductSalesCounterEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Product sold counters
+ */
+@Repository
+public interface ProductSalesCounterRepository extends JpaRepository<ProductSalesCounterEntity, Long> {
+
+    /**
+     * Add delta to a product's sold count, creating the row on first sale
+     */
+    @Modifying
+    @Query(value = "INSERT INTO product_sales_counters (product_id, sold_count) VALUES (:productId, GREATEST(:delta, 0)) " +
+            "ON DUPLICATE KEY UPDATE sold_count = GREATEST(sold_count + :delta, 0)", nativeQuery = true)
+    void increment(@Param("productId") Long productId, @Param("delta") long delta);
+}
@@ -0,0 +1,29 @@
+package com.tiki.order.repository;
+
+import com.tiki.order.entity.ShopDailyCounterEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-shop, per-day order counters
+ */
+@Repository
+public interface ShopDailyCounterRepository extends JpaRepository<ShopDailyCounterEntity, ShopDailyCounterEntity.Key> {
+
+    /**
+     * Add deltas to a shop's counters for one day, creating the row on the day's first order
+     */
+    @Modifying
+    @Query(value = "INSERT INTO shop_daily_counters (shop_id, order_date, orders, revenue) " +
+            "VALUES (:shopId, :day, GREATEST(:orders, 0), GREATEST(:revenue, 0)) " +
+            "ON DUPLICATE KEY UPDATE orders = GREATEST(orders + :orders, 0), " +
+            "revenue = GREATEST(revenue + :revenue, 0)", nativeQuery = true)
+    void increment(@Param("shopId") Long shopId, @Param("day") LocalDate day,
+                   @Param("orders") int orders, @Param("revenue") BigDecimal revenue);
+}
@@ -0,0 +1,29 @@
+package com.tiki.order.repository;
+
+import com.tiki.order.entity.ShopOrderCounterEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-shop running order counters
+ */
+@Repository
+public interface ShopOrderCounterRepository extends JpaRepository<ShopOrderCounterEntity, Long> {
+
+    /**
+     * Add deltas to a shop's counters, creating the row on its first order
+     */
+    @Modifying
+    @Query(value = "INSERT INTO shop_order_counters (shop_id, total_orders, total_revenue, pending_orders) " +
+            "VALUES (:shopId, GREATEST(:orders, 0), GREATEST(:revenue, 0), GREATEST(:pending, 0)) " +
+            "ON DUPLICATE KEY UPDATE total_orders = GREATEST(total_orders + :orders, 0), " +
+            "total_revenue = GREATEST(total_revenue + :revenue, 0), " +
+            "pending_orders = GREATEST(pending_orders + :pending, 0)", nativeQuery = true)
+    void increment(@Param("shopId") Long shopId, @Param("orders") int orders,
+                   @Param("revenue") BigDecimal revenue, @Param("pending") int pending);
+}
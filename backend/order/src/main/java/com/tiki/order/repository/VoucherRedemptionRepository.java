@@ -0,0 +1,21 @@
+package com.tiki.order.repository;
+
+import com.tiki.order.entity.VoucherRedemptionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface VoucherRedemptionRepository extends JpaRepository<VoucherRedemptionEntity, Long> {
+
+    /**
+     * Net redemptions per user of a voucher: rows of [userId, count]
+     */
+    @Query("SELECT r.userId, SUM(r.delta) FROM VoucherRedemptionEntity r " +
+           "WHERE r.voucherId = :voucherId AND r.userId IS NOT NULL " +
+           "GROUP BY r.userId HAVING SUM(r.delta) > 0")
+    List<Object[]> sumByUser(@Param("voucherId") Integer voucherId);
+}
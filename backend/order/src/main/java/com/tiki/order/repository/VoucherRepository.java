@@ -2,6 +2,7 @@ package com.tiki.order.repository;
 
 import com.tiki.order.entity.VoucherEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -41,6 +42,11 @@ public interface VoucherRepository extends JpaRepository<VoucherEntity, Integer>
            "AND v.usedCount < v.maxUsage")
     List<VoucherEntity> findActiveAndValidVouchers(@Param("now") LocalDateTime now);
 
+    /**
+     * Vouchers ending after the given time, for the in-memory catalog
+     */
+    List<VoucherEntity> findByEndDateAfter(LocalDateTime endDate);
+
     /**
      * Find vouchers by type
      */
@@ -81,4 +87,11 @@ public interface VoucherRepository extends JpaRepository<VoucherEntity, Integer>
      */
     @Query("SELECT v FROM VoucherEntity v WHERE LOWER(v.code) LIKE LOWER(CONCAT('%', :pattern, '%'))")
     List<VoucherEntity> searchByCodePattern(@Param("pattern") String pattern);
+
+    /**
+     * Apply reconciled redemptions as a relative update, so it never overwrites concurrent changes
+     */
+    @Modifying
+    @Query("UPDATE VoucherEntity v SET v.usedCount = v.usedCount + :delta WHERE v.id = :id")
+    int addUsedCount(@Param("id") Integer id, @Param("delta") int delta);
 }
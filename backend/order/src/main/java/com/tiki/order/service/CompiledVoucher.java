@@ -0,0 +1,79 @@
+package com.tiki.order.service;
+
+import com.tiki.order.entity.VoucherEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Immutable copy of a voucher's rules, held by {@link VoucherCatalog} and evaluated without
+ * database access. Same rules as {@link VoucherEntity#isValid} and
+ * {@link VoucherEntity#calculateDiscount}.
+ */
+public record CompiledVoucher(Integer id,
+                              String code,
+                              Long shopId,
+                              VoucherEntity.DiscountType type,
+                              BigDecimal value,
+                              BigDecimal minOrderValue,
+                              LocalDateTime startDate,
+                              LocalDateTime endDate,
+                              int maxUsage,
+                              int usedCount,
+                              Integer perUserLimit,
+                              boolean active,
+                              LocalDateTime createdAt) {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    static CompiledVoucher of(VoucherEntity v) {
+        return new CompiledVoucher(
+                v.getId(),
+                normalize(v.getCode()),
+                v.getShopId(),
+                v.getType(),
+                v.getValue(),
+                v.getMinOrderValue() != null ? v.getMinOrderValue() : BigDecimal.ZERO,
+                v.getStartDate(),
+                v.getEndDate(),
+                v.getMaxUsage() != null ? v.getMaxUsage() : 0,
+                v.getUsedCount() != null ? v.getUsedCount() : 0,
+                v.getPerUserLimit(),
+                Boolean.TRUE.equals(v.getIsActive()),
+                v.getCreatedAt());
+    }
+
+    /**
+     * Catalog key: codes are stored upper case
+     */
+    public static String normalize(String code) {
+        return code == null ? null : code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public boolean hasStarted(LocalDateTime now) {
+        return startDate == null || now.isAfter(startDate);
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return now.isAfter(endDate);
+    }
+
+    /**
+     * Active and within its dates; usage is checked separately against the live counter
+     */
+    public boolean isLive(LocalDateTime now) {
+        return active && hasStarted(now) && !isExpired(now);
+    }
+
+    public boolean meetsMinOrder(BigDecimal orderTotal) {
+        return orderTotal.compareTo(minOrderValue) >= 0;
+    }
+
+    public BigDecimal discountFor(BigDecimal orderTotal) {
+        if (type == VoucherEntity.DiscountType.PERCENTAGE) {
+            return orderTotal.multiply(value).divide(HUNDRED);
+        }
+        return value;
+    }
+}
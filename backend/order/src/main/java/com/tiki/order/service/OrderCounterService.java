@@ -0,0 +1,229 @@
+package com.tiki.order.service;
+
+import com.tiki.order.dto.OrderStatsDTO;
+import com.tiki.order.entity.OrderEntity;
+import com.tiki.order.entity.OrderEntity.OrderStatus;
+import com.tiki.order.entity.OrderItemEntity;
+import com.tiki.order.entity.ProductSalesCounterEntity;
+import com.tiki.order.entity.ShopDailyCounterEntity;
+import com.tiki.order.entity.ShopOrderCounterEntity;
+import com.tiki.order.repository.ProductSalesCounterRepository;
+import com.tiki.order.repository.ShopDailyCounterRepository;
+import com.tiki.order.repository.ShopOrderCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Sold counts per product and order counters per shop, maintained incrementally.
+ *
+ * Every order creation and status change applies its deltas to product_sales_counters,
+ * shop_order_counters and shop_daily_counters in the same transaction, as relative upserts,
+ * so reads are primary key lookups instead of aggregates over orders. Sold counts are also
+ * cached in one Redis hash for the search indexer's bulk reads; changed products are evicted
+ * after commit and the hash expires after order.counters.sold-cache-ttl, which bounds the
+ * staleness left by a read racing an eviction.
+ */
+@Slf4j
+@Service
+public class OrderCounterService {
+
+    /** Statuses in which an order's units count as sold */
+    static final Set<OrderStatus> SOLD = EnumSet.of(
+        OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.SHIPPING, OrderStatus.DELIVERED);
+
+    /** Statuses in which an order no longer counts towards revenue */
+    static final Set<OrderStatus> VOID = EnumSet.of(OrderStatus.CANCELLED, OrderStatus.REFUNDED);
+
+    private static final String SOLD_KEY = "order:sold-counts";
+
+    // KEYS: hash; ARGV: ttl seconds, then productId, count pairs. The TTL is only set on a new
+    // hash, so refills never extend it
+    private static final RedisScript<Long> FILL = new DefaultRedisScript<>(
+        "for i = 2, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end\n" +
+        "if redis.call('TTL', KEYS[1]) < 0 then redis.call('EXPIRE', KEYS[1], ARGV[1]) end\n" +
+        "return 1", Long.class);
+
+    @Autowired
+    private ProductSalesCounterRepository productCounterRepository;
+    @Autowired
+    private ShopOrderCounterRepository shopCounterRepository;
+    @Autowired
+    private ShopDailyCounterRepository shopDailyCounterRepository;
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${order.counters.sold-cache-ttl:10m}")
+    private Duration soldCacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * Count a newly saved order. Must run in the transaction that created it.
+     */
+    public void orderCreated(OrderEntity order) {
+        apply(order, null, order.getStatus());
+    }
+
+    /**
+     * Move an order's contribution from one status to another. Must run in the transaction
+     * that changes the status.
+     */
+    public void statusChanged(OrderEntity order, OrderStatus from, OrderStatus to) {
+        if (from != to) {
+            apply(order, from, to);
+        }
+    }
+
+    private void apply(OrderEntity order, OrderStatus from, OrderStatus to) {
+        int sold = (SOLD.contains(to) ? 1 : 0) - (from != null && SOLD.contains(from) ? 1 : 0);
+        int counted = (VOID.contains(to) ? 0 : 1) - (from == null || VOID.contains(from) ? 0 : 1);
+        int pending = (to == OrderStatus.PENDING ? 1 : 0) - (from == OrderStatus.PENDING ? 1 : 0);
+        int placed = from == null ? 1 : 0;
+
+        // Sorted so concurrent transactions lock counter rows in the same order
+        Map<Long, Long> quantities = new TreeMap<>();
+        Map<Long, BigDecimal> shopRevenue = new TreeMap<>();
+        for (OrderItemEntity line : order.getItems()) {
+            quantities.merge(line.getProductId(), line.getQuantity().longValue(), Long::sum);
+            if (line.getShopId() != null) {
+                shopRevenue.merge(line.getShopId(), line.getLineTotal(), BigDecimal::add);
+            }
+        }
+
+        if (sold != 0) {
+            quantities.forEach((productId, quantity) -> productCounterRepository.increment(productId, sold * quantity));
+            evictAfterCommit(quantities.keySet());
+        }
+        if (placed != 0 || counted != 0 || pending != 0) {
+            LocalDate day = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+            shopRevenue.forEach((shopId, revenue) -> {
+                BigDecimal revenueDelta = revenue.multiply(BigDecimal.valueOf(counted));
+                shopCounterRepository.increment(shopId, placed, revenueDelta, pending);
+                if (placed != 0 || counted != 0) {
+                    shopDailyCounterRepository.increment(shopId, day, placed, revenueDelta);
+                }
+            });
+        }
+    }
+
+    public int soldCount(Long productId) {
+        return soldCounts(List.of(productId)).getOrDefault(productId, 0);
+    }
+
+    /**
+     * Sold counts for many products: one HMGET, and one primary key query for the cache misses.
+     * Products that never sold map to 0.
+     */
+    public Map<Long, Integer> soldCounts(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        Map<Long, Integer> result = new HashMap<>(ids.size() * 2);
+        if (ids.isEmpty()) {
+            return result;
+        }
+
+        List<Long> missing = ids;
+        try {
+            List<Object> cached = redisTemplate.opsForHash().multiGet(SOLD_KEY, new ArrayList<Object>(toFields(ids)));
+            missing = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) {
+                Object value = cached != null ? cached.get(i) : null;
+                if (value != null) {
+                    result.put(ids.get(i), Integer.valueOf((String) value));
+                } else {
+                    missing.add(ids.get(i));
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Sold count cache unavailable, reading {} products from MySQL: {}", ids.size(), e.getMessage());
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        for (Long productId : missing) {
+            result.put(productId, 0);
+        }
+        for (ProductSalesCounterEntity counter : productCounterRepository.findAllById(missing)) {
+            result.put(counter.getProductId(), counter.getSoldCount().intValue());
+        }
+        Object[] args = new Object[1 + missing.size() * 2];
+        args[0] = String.valueOf(soldCacheTtl.toSeconds());
+        for (int i = 0; i < missing.size(); i++) {
+            args[1 + i * 2] = missing.get(i).toString();
+            args[2 + i * 2] = result.get(missing.get(i)).toString();
+        }
+        try {
+            redisTemplate.execute(FILL, List.of(SOLD_KEY), args);
+        } catch (DataAccessException e) {
+            log.debug("Could not cache sold counts: {}", e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Shop statistics from the shop's running and today's counters
+     */
+    public OrderStatsDTO shopStats(Long shopId) {
+        ShopOrderCounterEntity totals = shopCounterRepository.findById(shopId).orElseGet(ShopOrderCounterEntity::new);
+        ShopDailyCounterEntity today = shopDailyCounterRepository
+            .findById(new ShopDailyCounterEntity.Key(shopId, LocalDate.now()))
+            .orElseGet(ShopDailyCounterEntity::new);
+        return OrderStatsDTO.builder()
+            .shopId(shopId)
+            .todayOrders(today.getOrders())
+            .todayRevenue(today.getRevenue())
+            .pendingOrders(totals.getPendingOrders())
+            .totalOrders(totals.getTotalOrders())
+            .totalRevenue(totals.getTotalRevenue())
+            .build();
+    }
+
+    private void evictAfterCommit(Collection<Long> productIds) {
+        Object[] fields = toFields(productIds).toArray();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(fields);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(fields);
+            }
+        });
+    }
+
+    private void evict(Object[] fields) {
+        try {
+            redisTemplate.opsForHash().delete(SOLD_KEY, fields);
+        } catch (DataAccessException e) {
+            log.warn("Could not evict {} sold counts, they expire within {}: {}", fields.length, soldCacheTtl, e.getMessage());
+        }
+    }
+
+    private static List<String> toFields(Collection<Long> productIds) {
+        List<String> fields = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            fields.add(productId.toString());
+        }
+        return fields;
+    }
+}
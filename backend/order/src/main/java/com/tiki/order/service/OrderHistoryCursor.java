@@ -0,0 +1,57 @@
+package com.tiki.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiki.order.entity.OrderEntity;
+import com.tiki.order.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset paging over orders, newest first:
+ * the listing it was issued for plus the (created_at, id) of the last row, as URL-safe base64 JSON.
+ */
+public record OrderHistoryCursor(String listing, String createdAt, Integer id) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static OrderHistoryCursor after(String listing, OrderEntity last) {
+        return new OrderHistoryCursor(listing, last.getCreatedAt().toString(), last.getId());
+    }
+
+    public LocalDateTime createdAtValue() {
+        return LocalDateTime.parse(createdAt);
+    }
+
+    public void requireListing(String expected) {
+        if (!listing.equals(expected)) {
+            throw new BadRequestException("Cursor was issued for another listing");
+        }
+    }
+
+    public String encode() {
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(this);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode order cursor", e);
+        }
+    }
+
+    public static OrderHistoryCursor decode(String token) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token);
+            OrderHistoryCursor cursor = MAPPER.readValue(new String(json, StandardCharsets.UTF_8), OrderHistoryCursor.class);
+            if (cursor.listing() == null || cursor.createdAt() == null || cursor.id() == null) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            cursor.createdAtValue(); // DateTimeParseException for a tampered timestamp
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException | JsonProcessingException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
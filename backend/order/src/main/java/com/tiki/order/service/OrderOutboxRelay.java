@@ -0,0 +1,168 @@
+package com.tiki.order.service;
+
+import com.tiki.common.config.RabbitMQConfig;
+import com.tiki.common.dto.UserDto;
+import com.tiki.common.event.NotificationEvent;
+import com.tiki.common.event.OrderCreatedEvent;
+import com.tiki.common.event.ProductUpdatedEvent;
+import com.tiki.order.client.UserClient;
+import com.tiki.order.entity.OrderEntity;
+import com.tiki.order.entity.OrderItemEntity;
+import com.tiki.order.entity.OrderOutboxEntity;
+import com.tiki.order.repository.InvoiceRepository;
+import com.tiki.order.repository.OrderOutboxRepository;
+import com.tiki.order.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Drains order_outbox: per created order, issues the invoice, publishes OrderCreatedEvent,
+ * sends the confirmation email and asks search to reindex the sold products.
+ *
+ * Rows are deleted once handled. A failed row is retried on the next poll, up to
+ * order.outbox.max-attempts; the invoice is skipped if it already exists and the events are
+ * at-least-once, so a retry never issues a second invoice.
+ */
+@Slf4j
+@Service
+public class OrderOutboxRelay {
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+    @Autowired
+    private InvoiceService invoiceService;
+    @Autowired
+    private UserClient userClient;
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Value("${order.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${order.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        List<OrderOutboxEntity> batch = outboxRepository.findByAttemptsLessThanOrderByIdAsc(maxAttempts, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<OrderOutboxEntity> done = new ArrayList<>(batch.size());
+        List<OrderOutboxEntity> failed = new ArrayList<>();
+        for (OrderOutboxEntity row : batch) {
+            try {
+                handle(row);
+                done.add(row);
+            } catch (RuntimeException e) {
+                row.setAttempts(row.getAttempts() + 1);
+                failed.add(row);
+                log.warn("Order outbox row {} ({} for order {}) failed, attempt {}: {}",
+                    row.getId(), row.getEventType(), row.getOrderId(), row.getAttempts(), e.getMessage());
+            }
+        }
+        if (!done.isEmpty()) {
+            outboxRepository.deleteAllInBatch(done);
+        }
+        if (!failed.isEmpty()) {
+            outboxRepository.saveAll(failed);
+        }
+        log.debug("Relayed {} order events, {} failed", done.size(), failed.size());
+    }
+
+    private void handle(OrderOutboxEntity row) {
+        if (!OrderService.ORDER_CREATED.equals(row.getEventType())) {
+            log.warn("Unknown order outbox event {} for order {}", row.getEventType(), row.getOrderId());
+            return;
+        }
+        Optional<OrderEntity> found = orderRepository.findWithItemsById(row.getOrderId());
+        if (found.isEmpty()) {
+            log.warn("Order {} no longer exists, dropping outbox row {}", row.getOrderId(), row.getId());
+            return;
+        }
+        OrderEntity order = found.get();
+
+        if (!invoiceRepository.existsByOrderId(order.getId())) {
+            try {
+                invoiceService.issueInvoice(order.getId(), order.getTotalAmount());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        UserDto user = userClient.getUser(order.getUserId());
+        rabbitTemplate.convertAndSend(RabbitMQConfig.ORDER_EXCHANGE, RabbitMQConfig.ORDER_CREATED_KEY,
+            OrderCreatedEvent.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId().intValue())
+                .shopId(singleShop(order))
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus().name())
+                .paymentMethod(order.getPaymentMethod() != null ? order.getPaymentMethod().name() : null)
+                .userEmail(user != null ? user.getEmail() : null)
+                .userPhone(order.getCustomerPhone())
+                .createdAt(order.getCreatedAt())
+                .build());
+
+        if (user != null && user.getEmail() != null && !user.getEmail().isBlank()) {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.NOTIFICATION_EXCHANGE, RabbitMQConfig.NOTIFICATION_EMAIL_KEY,
+                NotificationEvent.builder()
+                    .type("EMAIL")
+                    .recipient(user.getEmail())
+                    .subject("Xác nhận đơn hàng " + order.getOrderNumber())
+                    .template("order-created")
+                    .data(Map.of(
+                        "orderNumber", order.getOrderNumber(),
+                        "customerName", order.getCustomerName(),
+                        "totalAmount", order.getTotalAmount()))
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+
+        // Search reindexes these products and picks up their new sold counts
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (OrderItemEntity item : order.getItems()) {
+            productIds.add(item.getProductId());
+        }
+        for (Long productId : productIds) {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.PRODUCT_EXCHANGE, RabbitMQConfig.PRODUCT_UPDATED_KEY,
+                ProductUpdatedEvent.builder()
+                    .productId(productId.intValue())
+                    .action("UPDATED")
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    /** Shop of the order when all lines come from one shop, else null */
+    private static Integer singleShop(OrderEntity order) {
+        Long shopId = null;
+        for (OrderItemEntity item : order.getItems()) {
+            if (item.getShopId() == null || (shopId != null && !shopId.equals(item.getShopId()))) {
+                return null;
+            }
+            shopId = item.getShopId();
+        }
+        return shopId != null ? shopId.intValue() : null;
+    }
+}
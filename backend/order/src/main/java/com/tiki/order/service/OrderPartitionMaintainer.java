@@ -0,0 +1,83 @@
+package com.tiki.order.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps monthly partitions of orders created ahead of time.
+ *
+ * orders is range-partitioned by TO_DAYS(created_at), one partition per month (pYYYYMM) plus a
+ * catch-all p_future. Before a month starts, its partition is split off the (still empty)
+ * p_future, so new orders always land in their own month and history queries prune to it.
+ * The partitioning itself is applied by hand with db/migration/V14 (the service runs no
+ * migrations); until then the table is not partitioned and this does nothing.
+ */
+@Slf4j
+@Service
+public class OrderPartitionMaintainer {
+
+    static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'p'uuuuMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${order.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Scheduled(initialDelayString = "${order.partitions.initial-delay-ms:60000}",
+               fixedDelayString = "${order.partitions.check-interval-ms:21600000}")
+    public void ensurePartitions() {
+        try {
+            List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT partition_name FROM information_schema.partitions " +
+                "WHERE table_schema = DATABASE() AND table_name = 'orders' AND partition_name IS NOT NULL",
+                String.class);
+            if (!partitions.contains(FUTURE_PARTITION)) {
+                log.info("orders has no {} partition (V14 not applied), skipping partition maintenance", FUTURE_PARTITION);
+                return;
+            }
+            for (YearMonth month : missingMonths(partitions, YearMonth.now(), monthsAhead)) {
+                LocalDate upper = month.plusMonths(1).atDay(1);
+                jdbcTemplate.execute("ALTER TABLE orders REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO (" +
+                    "PARTITION " + month.format(NAME) + " VALUES LESS THAN (TO_DAYS('" + upper + "')), " +
+                    "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)");
+                log.info("Created orders partition {}", month.format(NAME));
+            }
+        } catch (DataAccessException e) {
+            log.error("Orders partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Months from the current one to monthsAhead later that still need a partition. Only months
+     * after the newest existing monthly partition qualify: ranges can only be split off the top.
+     */
+    static List<YearMonth> missingMonths(List<String> partitions, YearMonth current, int monthsAhead) {
+        YearMonth next = current;
+        for (String name : partitions) {
+            if (name.matches("p\\d{6}")) {
+                YearMonth month = YearMonth.parse(name, NAME);
+                if (!month.isBefore(next)) {
+                    next = month.plusMonths(1);
+                }
+            }
+        }
+        List<YearMonth> missing = new ArrayList<>();
+        for (YearMonth month = next; !month.isAfter(current.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            missing.add(month);
+        }
+        return missing;
+    }
+}
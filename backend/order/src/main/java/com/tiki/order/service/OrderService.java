@@ -1,67 +1,277 @@
 package com.tiki.order.service;
 
+import com.tiki.order.client.ProductClient;
 import com.tiki.order.dto.CreateOrderRequest;
+import com.tiki.order.dto.CursorPageDTO;
+import com.tiki.order.dto.FlashSaleReservationDto;
 import com.tiki.order.dto.OrderDto;
 import com.tiki.order.dto.OrderStatsDTO;
 import com.tiki.order.dto.PaymentInfoDTO;
+import com.tiki.order.dto.ProductBatchItemDto;
+import com.tiki.order.dto.ValidateVoucherRequest;
+import com.tiki.order.dto.VoucherValidationResponse;
 import com.tiki.order.entity.OrderEntity;
+import com.tiki.order.entity.OrderItemEntity;
+import com.tiki.order.entity.OrderOutboxEntity;
 import com.tiki.order.enums.PaymentMethod;
 import com.tiki.order.enums.PaymentStatus;
-import com.tiki.order.client.UserClient;
+import com.tiki.order.exception.BadRequestException;
+import com.tiki.order.exception.ResourceNotFoundException;
+import com.tiki.order.repository.OrderNumberRepository;
+import com.tiki.order.repository.OrderOutboxRepository;
 import com.tiki.order.repository.OrderRepository;
+import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class OrderService {
 
-    @Autowired
-    private UserClient userClient;
-    
+    static final String ORDER_CREATED = "ORDER_CREATED";
+
+    private static final String HISTORY_RECENT = "recent";
+    private static final String HISTORY_ARCHIVE = "archive";
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Value("${order.history.archive-after-months:12}")
+    private int archiveAfterMonths = 12;
+
+    @Value("${order.history.max-page-size:100}")
+    private int maxPageSize = 100;
+
     @Autowired
     private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private OrderNumberRepository orderNumberRepository;
+
+    @Autowired
+    private VoucherService voucherService;
+
+    @Autowired
+    private ProductClient productClient;
+
+    @Autowired
+    private OrderCounterService counterService;
+
+    /**
+     * Checkout write path: the order, its lines (one insert batch) and an outbox row in one
+     * transaction, with lines priced from the product service, the voucher redeemed and flash
+     * sale reservations confirmed inside it.
+     * Invoice, notification, OrderCreatedEvent and search updates run after commit from the
+     * outbox (OrderOutboxRelay), so they add nothing to checkout latency.
+     */
+    @Transactional
     public OrderDto createOrder(CreateOrderRequest request) {
-        // Validate user via common-service
-        if (request.getUserId() != null) {
+        validateRequest(request);
+        Long userId = request.getUserId().longValue();
+        PaymentMethod paymentMethod = request.getPaymentMethod() != null ? request.getPaymentMethod() : PaymentMethod.COD;
+        validatePaymentMethod(paymentMethod);
+
+        OrderEntity order = new OrderEntity();
+        order.setUserId(userId);
+        order.setCustomerName(request.getCustomerName());
+        order.setCustomerPhone(request.getCustomerPhone());
+        order.setShippingProvince(request.getShippingProvince());
+        order.setShippingDistrict(request.getShippingDistrict());
+        order.setShippingAddress(request.getShippingAddress());
+        order.setShippingNote(request.getShippingNote());
+        order.setPaymentMethod(paymentMethod);
+
+        Map<Integer, ProductBatchItemDto> products = loadProducts(request);
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (CreateOrderRequest.OrderItemDto item : request.getItems()) {
+            ProductBatchItemDto product = products.get(item.getProductId());
+            OrderItemEntity line = new OrderItemEntity();
+            line.setProductId(item.getProductId().longValue());
+            line.setShopId(product.getShopId());
+            line.setProductName(product.getName());
+            line.setQuantity(item.getQuantity());
+            // Flash sale lines are priced by their reservation, checked in confirmFlashSaleLines
+            BigDecimal unitPrice = isBlank(item.getFlashSaleToken()) ? product.getPrice() : item.getUnitPrice();
+            line.setUnitPrice(unitPrice);
+            line.setLineTotal(unitPrice.multiply(BigDecimal.valueOf(item.getQuantity())));
+            subtotal = subtotal.add(line.getLineTotal());
+            order.addItem(line);
+        }
+        order.setSubtotal(subtotal);
+        order.setShippingFee(request.getShippingFee() != null ? request.getShippingFee() : BigDecimal.ZERO);
+        order.calculateTotal();
+
+        if (request.getVoucherCode() != null && !request.getVoucherCode().isBlank()) {
+            redeemVoucher(order, request.getVoucherCode(), userId);
+        }
+
+        order = orderRepository.save(order);
+        // orders cannot enforce a unique order number on its own (partitioned by created_at)
+        orderNumberRepository.claim(order.getOrderNumber(), order.getId());
+        outboxRepository.save(new OrderOutboxEntity(order.getId(), ORDER_CREATED));
+
+        // Late, so that only the counter upserts and the commit can fail after a confirm
+        confirmFlashSaleLines(request, order, userId);
+        // After the remote confirm, so the shop counter rows stay locked only until commit
+        counterService.orderCreated(order);
+
+        log.info("Order {} created for user {}: {} items, total {}",
+            order.getOrderNumber(), userId, order.getItems().size(), order.getTotalAmount());
+        return toDto(order);
+    }
+
+    private void validateRequest(CreateOrderRequest request) {
+        if (request.getUserId() == null) {
+            throw new BadRequestException("userId is required");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new BadRequestException("Order must contain at least one item");
+        }
+        for (CreateOrderRequest.OrderItemDto item : request.getItems()) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0
+                    || item.getUnitPrice() == null || item.getUnitPrice().signum() < 0) {
+                throw new BadRequestException("Each item needs a productId, a positive quantity and a unit price");
+            }
+        }
+        if (isBlank(request.getCustomerName()) || isBlank(request.getCustomerPhone()) || isBlank(request.getShippingAddress())) {
+            throw new BadRequestException("customerName, customerPhone and shippingAddress are required");
+        }
+    }
+
+    /**
+     * Current product data for every line, from one batch call to the product service. Regular
+     * lines must be active, in stock for their total quantity and quoted at the current price;
+     * the client's price, name and shop are never trusted.
+     */
+    private Map<Integer, ProductBatchItemDto> loadProducts(CreateOrderRequest request) {
+        Map<Integer, Integer> quantities = new HashMap<>();
+        for (CreateOrderRequest.OrderItemDto item : request.getItems()) {
+            if (isBlank(item.getFlashSaleToken())) {
+                quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        List<Integer> ids = request.getItems().stream()
+            .map(CreateOrderRequest.OrderItemDto::getProductId)
+            .distinct()
+            .collect(Collectors.toList());
+        List<ProductBatchItemDto> found = productClient.getProducts(ids);
+
+        Map<Integer, ProductBatchItemDto> products = new HashMap<>();
+        if (found != null) {
+            for (ProductBatchItemDto product : found) {
+                products.put(product.getId(), product);
+            }
+        }
+        for (CreateOrderRequest.OrderItemDto item : request.getItems()) {
+            ProductBatchItemDto product = products.get(item.getProductId());
+            if (product == null) {
+                throw new BadRequestException("Product not found: " + item.getProductId());
+            }
+            if (!isBlank(item.getFlashSaleToken())) {
+                continue;
+            }
+            if (!Boolean.TRUE.equals(product.getIsActive()) || product.getPrice() == null) {
+                throw new BadRequestException("Product is not available: " + item.getProductId());
+            }
+            if (product.getStock() == null || product.getStock() < quantities.get(item.getProductId())) {
+                throw new BadRequestException("Product is out of stock: " + item.getProductId());
+            }
+            if (product.getPrice().compareTo(item.getUnitPrice()) != 0) {
+                throw new BadRequestException("Price of product " + item.getProductId() + " has changed to " + product.getPrice());
+            }
+        }
+        return products;
+    }
+
+    private void redeemVoucher(OrderEntity order, String code, Long userId) {
+        ValidateVoucherRequest validation = new ValidateVoucherRequest();
+        validation.setCode(code);
+        validation.setOrderTotal(order.getSubtotal());
+        VoucherValidationResponse result = voucherService.validateVoucher(validation);
+        if (!Boolean.TRUE.equals(result.getValid())) {
+            throw new BadRequestException(result.getMessage());
+        }
+
+        voucherService.applyVoucher(code, userId);
+        // The redemption is in Redis, outside this transaction: give it back if the order rolls back
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        voucherService.releaseVoucher(code, userId);
+                    }
+                }
+            });
+        }
+        order.applyVoucher(result.getVoucher().getCode(), result.getDiscountAmount());
+    }
+
+    private void confirmFlashSaleLines(CreateOrderRequest request, OrderEntity order, Long userId) {
+        for (int i = 0; i < request.getItems().size(); i++) {
+            CreateOrderRequest.OrderItemDto item = request.getItems().get(i);
+            if (isBlank(item.getFlashSaleToken())) {
+                continue;
+            }
+            FlashSaleReservationDto reservation;
             try {
-                userClient.getUser(request.getUserId().longValue());
-            } catch (Exception ex) {
-                throw new IllegalArgumentException("ID người dùng không hợp lệ: " + request.getUserId());
+                reservation = productClient.confirmFlashSaleReservation(item.getFlashSaleToken(), userId);
+            } catch (FeignException e) {
+                throw new BadRequestException("Flash sale reservation expired for product " + item.getProductId(), e);
+            }
+            if (reservation == null
+                    || !reservation.getProductId().equals(item.getProductId().longValue())
+                    || !reservation.getQuantity().equals(item.getQuantity())
+                    || reservation.getSalePrice() == null
+                    || reservation.getSalePrice().compareTo(item.getUnitPrice()) != 0) {
+                // Already confirmed at this point: the units stay sold, which only a tampered request can cause
+                log.warn("Flash sale reservation {} does not match order line for product {}",
+                    item.getFlashSaleToken(), item.getProductId());
+                throw new BadRequestException("Flash sale reservation does not match product " + item.getProductId());
             }
+            // Lines are inserted at flush, so this is part of the INSERT rather than an UPDATE
+            order.getItems().get(i).setFlashSaleId(reservation.getFlashSaleId());
         }
-        OrderDto dto = new OrderDto();
-        dto.setId(1);
-        dto.setUserId(request.getUserId());
-        dto.setStatus("CREATED");
-        dto.setCreatedAt(LocalDateTime.now());
-        dto.setTotalAmount(BigDecimal.ZERO);
-        return dto;
     }
 
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    @Transactional(readOnly = true)
     public OrderDto getOrder(Integer orderId) {
-        OrderDto dto = new OrderDto();
-        dto.setId(orderId);
-        dto.setStatus("CREATED");
-        return dto;
+        return toDto(findOrder(orderId));
     }
 
+    @Transactional
     public OrderDto cancelOrder(Integer orderId) {
         return updateStatus(orderId, OrderEntity.OrderStatus.CANCELLED);
     }
 
+    @Transactional
     public OrderDto requestReturn(Integer orderId){
         return updateStatus(orderId, OrderEntity.OrderStatus.RETURN_REQUESTED);
     }
 
+    @Transactional
     public OrderDto refundOrder(Integer orderId){
         return updateStatus(orderId, OrderEntity.OrderStatus.REFUNDED);
     }
@@ -70,14 +280,129 @@ public class OrderService {
         return new ArrayList<>();
     }
 
-    public List<OrderDto> getOrdersByUser(Integer userId) {
-        return new ArrayList<>();
+    /**
+     * A user's recent orders (placed within order.history.archive-after-months), newest first.
+     * Each page is one keyset query on idx_orders_user_created plus one batch load of the lines,
+     * and only touches the partitions of the recent months.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderDto> getOrdersByUser(Integer userId, String cursor, int size) {
+        return userPage(HISTORY_RECENT, userId.longValue(), archiveHorizon(), FAR_FUTURE, Integer.MAX_VALUE, cursor, size);
     }
 
+    /**
+     * Archive tier: a user's orders placed before the archive horizon, newest first. Same keyset
+     * query, bounded above by the horizon so it only touches the old partitions.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderDto> getArchivedOrdersByUser(Integer userId, String cursor, int size) {
+        // MIN_VALUE: orders placed exactly at the horizon belong to the recent tier
+        return userPage(HISTORY_ARCHIVE, userId.longValue(), EPOCH, archiveHorizon(), Integer.MIN_VALUE, cursor, size);
+    }
+
+    /**
+     * Orders in one status, newest first, keyset-paged on idx_orders_status_created
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderDto> getOrdersByStatus(OrderEntity.OrderStatus status, String cursor, int size) {
+        String listing = "status:" + status.name();
+        LocalDateTime beforeAt = FAR_FUTURE;
+        Integer beforeId = Integer.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            OrderHistoryCursor after = OrderHistoryCursor.decode(cursor);
+            after.requireListing(listing);
+            beforeAt = after.createdAtValue();
+            beforeId = after.id();
+        }
+        int limit = pageSize(size);
+        return toPage(listing, orderRepository.findStatusPage(status, beforeAt, beforeId, PageRequest.of(0, limit + 1)), limit);
+    }
+
+    /**
+     * Order counts per status for a user, from one GROUP BY over idx_orders_user_created
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUserOrderStats(Long userId) {
+        Map<OrderEntity.OrderStatus, Long> counts = new EnumMap<>(OrderEntity.OrderStatus.class);
+        for (Object[] row : orderRepository.countByStatusForUser(userId)) {
+            counts.put((OrderEntity.OrderStatus) row[0], (Long) row[1]);
+        }
+        return Map.of(
+            "totalOrders", counts.values().stream().mapToLong(Long::longValue).sum(),
+            "completedOrders", counts.getOrDefault(OrderEntity.OrderStatus.DELIVERED, 0L),
+            "pendingOrders", counts.getOrDefault(OrderEntity.OrderStatus.PENDING, 0L),
+            "cancelledOrders", counts.getOrDefault(OrderEntity.OrderStatus.CANCELLED, 0L)
+        );
+    }
+
+    private CursorPageDTO<OrderDto> userPage(String listing, Long userId, LocalDateTime from,
+                                             LocalDateTime beforeAt, Integer beforeId, String cursor, int size) {
+        if (cursor != null && !cursor.isBlank()) {
+            OrderHistoryCursor after = OrderHistoryCursor.decode(cursor);
+            after.requireListing(listing);
+            beforeAt = after.createdAtValue();
+            beforeId = after.id();
+        }
+        int limit = pageSize(size);
+        // One extra row tells us whether there is a next page without counting
+        return toPage(listing, orderRepository.findUserPage(userId, from, beforeAt, beforeId, PageRequest.of(0, limit + 1)), limit);
+    }
+
+    private CursorPageDTO<OrderDto> toPage(String listing, List<OrderEntity> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<OrderEntity> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        return CursorPageDTO.<OrderDto>builder()
+            .content(pageRows.stream().map(this::toDto).collect(Collectors.toList()))
+            .size(pageRows.size())
+            .nextCursor(hasMore ? OrderHistoryCursor.after(listing, pageRows.get(pageRows.size() - 1)).encode() : null)
+            .build();
+    }
+
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    /** Start of the oldest month still in the recent tier, aligned with the monthly partitions */
+    LocalDateTime archiveHorizon() {
+        return LocalDate.now().withDayOfMonth(1).minusMonths(archiveAfterMonths).atStartOfDay();
+    }
+
+    @Transactional
     public OrderDto updateStatus(Integer orderId, OrderEntity.OrderStatus status) {
+        OrderEntity order = findOrder(orderId);
+        OrderEntity.OrderStatus previous = order.getStatus();
+        order.setStatus(status);
+        counterService.statusChanged(order, previous, status);
+        if (status == OrderEntity.OrderStatus.CANCELLED && previous != OrderEntity.OrderStatus.CANCELLED
+                && order.getVoucherCode() != null) {
+            voucherService.releaseVoucher(order.getVoucherCode(), order.getUserId());
+        }
+        return toDto(order);
+    }
+
+    private OrderEntity findOrder(Integer orderId) {
+        return orderRepository.findWithItemsById(orderId)
+            .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
+    }
+
+    private OrderDto toDto(OrderEntity order) {
         OrderDto dto = new OrderDto();
-        dto.setId(orderId);
-        dto.setStatus(status.name());
+        dto.setId(order.getId());
+        dto.setOrderNumber(order.getOrderNumber());
+        dto.setUserId(order.getUserId() != null ? order.getUserId().intValue() : null);
+        dto.setStatus(order.getStatus().name());
+        dto.setCreatedAt(order.getCreatedAt());
+        dto.setTotalAmount(order.getTotalAmount());
+        List<OrderDto.Item> items = new ArrayList<>(order.getItems().size());
+        for (OrderItemEntity line : order.getItems()) {
+            OrderDto.Item item = new OrderDto.Item();
+            item.setProductId(line.getProductId().intValue());
+            item.setProductName(line.getProductName());
+            item.setQuantity(line.getQuantity());
+            item.setUnitPrice(line.getUnitPrice());
+            items.add(item);
+        }
+        dto.setItems(items);
         return dto;
     }
 
@@ -205,43 +530,23 @@ public class OrderService {
     }
     
     /**
-     * Get order statistics for a shop
+     * Get order statistics for a shop, from its incrementally maintained counters
      */
     public OrderStatsDTO getShopOrderStats(Long shopId) {
-        log.info("Getting order stats for shop: {}", shopId);
-        
-        // Calculate start of today
-        LocalDateTime startOfDay = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
-        
-        // Get statistics from repository
-        Integer todayOrders = orderRepository.countTodayOrders(startOfDay);
-        BigDecimal todayRevenue = orderRepository.calculateTodayRevenue(startOfDay);
-        Integer pendingOrders = orderRepository.countPendingOrders();
-        
-        // Get total stats
-        Long totalOrders = orderRepository.count();
-        
-        return OrderStatsDTO.builder()
-                .shopId(shopId)
-                .todayOrders(todayOrders)
-                .todayRevenue(todayRevenue)
-                .pendingOrders(pendingOrders)
-                .totalOrders(totalOrders.intValue())
-                .totalRevenue(BigDecimal.ZERO)
-                .build();
+        return counterService.shopStats(shopId);
     }
     
     /**
      * Get sold count for a product
-     * Note: This is a placeholder returning total orders count
-     * In real implementation, need to sum quantities from order_items table
      */
     public Integer getProductSoldCount(Long productId) {
-        log.info("Getting sold count for product: {}", productId);
-        
-        Integer totalOrders = orderRepository.getProductSoldCount();
-        
-        // Mock: assume each product sold in 10% of orders
-        return totalOrders != null ? (int)(totalOrders * 0.1) : 0;
+        return counterService.soldCount(productId);
+    }
+    
+    /**
+     * Get sold counts for many products with a single lookup
+     */
+    public Map<Long, Integer> getProductSoldCounts(List<Long> productIds) {
+        return counterService.soldCounts(productIds);
     }
 }
@@ -0,0 +1,108 @@
+package com.tiki.order.service;
+
+import com.tiki.order.entity.VoucherEntity;
+import com.tiki.order.repository.VoucherRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * In-process voucher catalog keyed by normalized code, so validation and listing do not query
+ * MySQL. Loaded at startup, updated in place after this node's create/update/delete commits, and
+ * fully reloaded on an interval to pick up changes made on other nodes and reconciled usage.
+ *
+ * Vouchers that ended more than {@code voucher.catalog.expired-retention} ago are left out.
+ */
+@Slf4j
+@Component
+public class VoucherCatalog {
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Value("${voucher.catalog.expired-retention-days:30}")
+    private int expiredRetentionDays;
+
+    /** Replaced wholesale on every change; readers never lock */
+    private volatile Map<String, CompiledVoucher> byCode;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${voucher.catalog.reload-interval-ms:60000}",
+               initialDelayString = "${voucher.catalog.reload-interval-ms:60000}")
+    public synchronized void reload() {
+        Map<String, CompiledVoucher> next = new HashMap<>();
+        for (VoucherEntity v : voucherRepository.findByEndDateAfter(LocalDateTime.now().minusDays(expiredRetentionDays))) {
+            CompiledVoucher compiled = CompiledVoucher.of(v);
+            next.put(compiled.code(), compiled);
+        }
+        byCode = Collections.unmodifiableMap(next);
+        log.debug("Voucher catalog loaded: {} vouchers", next.size());
+    }
+
+    public Optional<CompiledVoucher> find(String code) {
+        return Optional.ofNullable(catalog().get(CompiledVoucher.normalize(code)));
+    }
+
+    public Collection<CompiledVoucher> all() {
+        return catalog().values();
+    }
+
+    /**
+     * Add or replace a voucher once the current transaction commits
+     */
+    public void upsert(VoucherEntity voucher) {
+        CompiledVoucher compiled = CompiledVoucher.of(voucher);
+        afterCommit(() -> update(map -> map.put(compiled.code(), compiled)));
+    }
+
+    public void remove(String code) {
+        String key = CompiledVoucher.normalize(code);
+        afterCommit(() -> update(map -> map.remove(key)));
+    }
+
+    private synchronized void update(Consumer<Map<String, CompiledVoucher>> change) {
+        Map<String, CompiledVoucher> next = new HashMap<>(catalog());
+        change.accept(next);
+        byCode = Collections.unmodifiableMap(next);
+    }
+
+    private Map<String, CompiledVoucher> catalog() {
+        Map<String, CompiledVoucher> current = byCode;
+        if (current == null) {
+            synchronized (this) {
+                if (byCode == null) {
+                    reload();
+                }
+                current = byCode;
+            }
+        }
+        return current;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.tiki.order.service;
+
+import com.tiki.order.entity.VoucherEntity;
+import com.tiki.order.entity.VoucherRedemptionEntity;
+import com.tiki.order.repository.VoucherRedemptionRepository;
+import com.tiki.order.repository.VoucherRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Voucher redemption without row locks.
+ *
+ * Each voucher has a Redis counter of remaining uses and a hash of per-user uses, loaded from
+ * MySQL on first use. A redemption is one Lua script that checks both limits, decrements and
+ * appends an entry to the voucher's queue; {@link #reconcile()} drains the queues into
+ * {@code used_count} (as a relative UPDATE) and the {@code voucher_redemptions} ledger in batches.
+ * All keys of a voucher share the {@code {id}} hash tag, so the scripts work on Redis Cluster.
+ *
+ * While its keys exist, the Redis counter is the source of truth; they live until a day after
+ * the voucher ends, so MySQL only lags by the reconcile interval. Entries stay queued until
+ * their batch is committed, and a counter (re)loaded from MySQL subtracts what is still queued.
+ */
+@Slf4j
+@Service
+public class VoucherRedemptionService {
+
+    public enum Result { REDEEMED, SOLD_OUT, USER_LIMIT_REACHED }
+
+    /** Ids of vouchers whose queue may hold entries; marked before each push */
+    private static final String PENDING_KEY = "voucher:pending";
+    private static final long NOT_LOADED = -1;
+    private static final Duration RECONCILE_LOCK_TTL = Duration.ofMinutes(1);
+
+    /** HSET arguments per call when loading, well under Lua's unpack() limit */
+    private static final int LOAD_CHUNK = 1000;
+
+    // The users hash follows the counter's expiry, also when a redemption creates it
+    private static final String EXPIRE_USERS =
+        "local ttl = redis.call('TTL', KEYS[1])\n" +
+        "if ttl > 0 then redis.call('EXPIRE', KEYS[2], ttl) end\n";
+
+    // KEYS: remaining, users, queue; ARGV: userId ('' = none), perUserLimit (0 = none), entry
+    private static final RedisScript<Long> REDEEM = new DefaultRedisScript<>(
+        "local remaining = redis.call('GET', KEYS[1])\n" +
+        "if not remaining then return -1 end\n" +
+        "if tonumber(remaining) <= 0 then return 0 end\n" +
+        "if ARGV[1] ~= '' and tonumber(ARGV[2]) > 0 then\n" +
+        "  local used = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0')\n" +
+        "  if used >= tonumber(ARGV[2]) then return 2 end\n" +
+        "end\n" +
+        "redis.call('DECR', KEYS[1])\n" +
+        "if ARGV[1] ~= '' then\n" +
+        "  redis.call('HINCRBY', KEYS[2], ARGV[1], 1)\n" +
+        EXPIRE_USERS +
+        "end\n" +
+        "redis.call('RPUSH', KEYS[3], ARGV[3])\n" +
+        "return 1", Long.class);
+
+    // KEYS: remaining, users, queue; ARGV: userId ('' = none), entry
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end\n" +
+        "redis.call('INCR', KEYS[1])\n" +
+        "if ARGV[1] ~= '' then\n" +
+        "  redis.call('HINCRBY', KEYS[2], ARGV[1], -1)\n" +
+        EXPIRE_USERS +
+        "end\n" +
+        "redis.call('RPUSH', KEYS[3], ARGV[2])\n" +
+        "return 1", Long.class);
+
+    // KEYS: remaining, users, queue; ARGV: remaining and per-user uses in MySQL (ttl seconds, then
+    // userId, count pairs). Queued entries are not in MySQL yet and are applied on top
+    private static final RedisScript<Long> LOAD = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end\n" +
+        "local remaining = tonumber(ARGV[1])\n" +
+        "local pending = {}\n" +
+        "for _, e in ipairs(redis.call('LRANGE', KEYS[3], 0, -1)) do\n" +
+        "  local user, delta = string.match(e, '^[^|]*|([^|]*)|([-%d]+)|')\n" +
+        "  remaining = remaining - tonumber(delta)\n" +
+        "  if user ~= '' then pending[user] = (pending[user] or 0) + tonumber(delta) end\n" +
+        "end\n" +
+        "redis.call('SET', KEYS[1], math.max(remaining, 0), 'EX', ARGV[2])\n" +
+        "redis.call('DEL', KEYS[2])\n" +
+        "if #ARGV > 2 then\n" +
+        "  for i = 3, #ARGV, " + LOAD_CHUNK + " do\n" +
+        "    redis.call('HSET', KEYS[2], unpack(ARGV, i, math.min(i + " + (LOAD_CHUNK - 1) + ", #ARGV)))\n" +
+        "  end\n" +
+        "end\n" +
+        "for user, delta in pairs(pending) do redis.call('HINCRBY', KEYS[2], user, delta) end\n" +
+        "if redis.call('EXISTS', KEYS[2]) == 1 then redis.call('EXPIRE', KEYS[2], ARGV[2]) end\n" +
+        "return 1", Long.class);
+
+    // KEYS: remaining; ARGV: delta. Only adjusts a loaded counter
+    private static final RedisScript<Long> ADJUST = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end\n" +
+        "redis.call('INCRBY', KEYS[1], ARGV[1])\n" +
+        "return 1", Long.class);
+
+    // KEYS: lock; ARGV: owner
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end\n" +
+        "return 0", Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    @Autowired
+    private VoucherRepository voucherRepository;
+    @Autowired
+    private VoucherRedemptionRepository redemptionRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${voucher.redemption.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    /**
+     * Atomically take one use of the voucher for the user (null = no per-user limit).
+     */
+    public Result redeem(VoucherEntity voucher, Long userId) {
+        String user = userId != null ? userId.toString() : "";
+        int perUserLimit = voucher.getPerUserLimit() != null ? voucher.getPerUserLimit() : 0;
+        List<String> keys = List.of(remainingKey(voucher.getId()), usersKey(voucher.getId()), queueKey(voucher.getId()));
+        String entry = entry(voucher.getId(), userId, 1);
+
+        markPending(voucher.getId());
+        Long result = redisTemplate.execute(REDEEM, keys, user, String.valueOf(perUserLimit), entry);
+        if (result != null && result == NOT_LOADED) {
+            load(voucher);
+            result = redisTemplate.execute(REDEEM, keys, user, String.valueOf(perUserLimit), entry);
+        }
+        if (result == null || result == NOT_LOADED) {
+            throw new IllegalStateException("Voucher counter unavailable: " + voucher.getCode());
+        }
+        if (result == 1) {
+            return Result.REDEEMED;
+        }
+        return result == 2 ? Result.USER_LIMIT_REACHED : Result.SOLD_OUT;
+    }
+
+    /**
+     * Give a use back, e.g. when the order that redeemed it is cancelled.
+     */
+    public void release(VoucherEntity voucher, Long userId) {
+        String user = userId != null ? userId.toString() : "";
+        List<String> keys = List.of(remainingKey(voucher.getId()), usersKey(voucher.getId()), queueKey(voucher.getId()));
+        String entry = entry(voucher.getId(), userId, -1);
+
+        markPending(voucher.getId());
+        Long result = redisTemplate.execute(RELEASE, keys, user, entry);
+        if (result != null && result == NOT_LOADED) {
+            load(voucher);
+            redisTemplate.execute(RELEASE, keys, user, entry);
+        }
+    }
+
+    /**
+     * Remaining uses, from the live counter when loaded
+     */
+    public int remaining(VoucherEntity voucher) {
+        return remaining(voucher.getId(), voucher.getMaxUsage() - voucher.getUsedCount());
+    }
+
+    /**
+     * @param fallback remaining uses known from MySQL, used when the counter is not loaded
+     */
+    public int remaining(Integer voucherId, int fallback) {
+        String value = redisTemplate.opsForValue().get(remainingKey(voucherId));
+        return value != null ? Integer.parseInt(value) : fallback;
+    }
+
+    /**
+     * Remaining uses of many vouchers with one MGET
+     *
+     * @param fallbacks remaining uses known from MySQL per voucher id, used for counters not loaded
+     */
+    public Map<Integer, Integer> remaining(Map<Integer, Integer> fallbacks) {
+        Map<Integer, Integer> result = new HashMap<>(fallbacks);
+        if (fallbacks.isEmpty()) {
+            return result;
+        }
+        List<Integer> ids = new ArrayList<>(fallbacks.keySet());
+        List<String> keys = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            keys.add(remainingKey(id));
+        }
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values != null) {
+            for (int i = 0; i < ids.size(); i++) {
+                if (values.get(i) != null) {
+                    result.put(ids.get(i), Integer.parseInt(values.get(i)));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Follow a change of max usage on a loaded counter; call once the new max usage is committed.
+     */
+    public void maxUsageChanged(Integer voucherId, int delta) {
+        if (delta != 0) {
+            redisTemplate.execute(ADJUST, List.of(remainingKey(voucherId)), String.valueOf(delta));
+        }
+    }
+
+    /**
+     * Drop the counters; the queue is kept so its entries still reach MySQL.
+     */
+    public void evict(Integer voucherId) {
+        redisTemplate.delete(List.of(remainingKey(voucherId), usersKey(voucherId)));
+    }
+
+    /**
+     * Write queued redemptions to MySQL: one relative used_count update per voucher and the
+     * ledger rows, per batch in one transaction. A batch leaves the queue only after its commit,
+     * so a failed batch is simply retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${voucher.redemption.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        Set<String> voucherIds = redisTemplate.opsForSet().members(PENDING_KEY);
+        if (voucherIds == null) {
+            return;
+        }
+        for (String voucherId : voucherIds) {
+            reconcile(Integer.valueOf(voucherId));
+        }
+    }
+
+    private void reconcile(Integer voucherId) {
+        // One instance per voucher: the queue is read before it is trimmed
+        String owner = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey(voucherId), owner, RECONCILE_LOCK_TTL))) {
+            return;
+        }
+        String queueKey = queueKey(voucherId);
+        try {
+            List<String> batch;
+            do {
+                batch = redisTemplate.opsForList().range(queueKey, 0, reconcileBatchSize - 1);
+                if (batch == null || batch.isEmpty()) {
+                    break;
+                }
+                List<String> entries = batch;
+                transactionTemplate.executeWithoutResult(status -> apply(entries));
+                // A counter loaded between the commit and this trim counts the batch twice, erring towards sold out
+                redisTemplate.opsForList().trim(queueKey, batch.size(), -1);
+            } while (batch.size() == reconcileBatchSize);
+
+            // A redemption marks the voucher before pushing, so look again after unmarking
+            redisTemplate.opsForSet().remove(PENDING_KEY, voucherId.toString());
+            Long left = redisTemplate.opsForList().size(queueKey);
+            if (left != null && left > 0) {
+                markPending(voucherId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to reconcile redemptions of voucher {}: {}", voucherId, e.getMessage());
+        } finally {
+            redisTemplate.execute(UNLOCK, List.of(lockKey(voucherId)), owner);
+        }
+    }
+
+    private void markPending(Integer voucherId) {
+        redisTemplate.opsForSet().add(PENDING_KEY, voucherId.toString());
+    }
+
+    private void apply(List<String> batch) {
+        Map<Integer, Integer> deltas = new HashMap<>();
+        List<VoucherRedemptionEntity> rows = new ArrayList<>(batch.size());
+        for (String entry : batch) {
+            String[] parts = entry.split("\\|");
+            VoucherRedemptionEntity row = new VoucherRedemptionEntity();
+            row.setVoucherId(Integer.valueOf(parts[0]));
+            row.setUserId(parts[1].isEmpty() ? null : Long.valueOf(parts[1]));
+            row.setDelta(Integer.valueOf(parts[2]));
+            row.setRedeemedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(parts[3])), ZoneId.systemDefault()));
+            rows.add(row);
+            deltas.merge(row.getVoucherId(), row.getDelta(), Integer::sum);
+        }
+        deltas.forEach((voucherId, delta) -> {
+            if (delta != 0) {
+                voucherRepository.addUsedCount(voucherId, delta);
+            }
+        });
+        redemptionRepository.saveAll(rows);
+    }
+
+    private void load(VoucherEntity voucher) {
+        List<String> argv = new ArrayList<>();
+        argv.add(String.valueOf(voucher.getMaxUsage() - voucher.getUsedCount()));
+        argv.add(String.valueOf(ttlSeconds(voucher)));
+        for (Object[] row : redemptionRepository.sumByUser(voucher.getId())) {
+            argv.add(String.valueOf(row[0]));
+            argv.add(String.valueOf(row[1]));
+        }
+        redisTemplate.execute(LOAD, List.of(remainingKey(voucher.getId()), usersKey(voucher.getId()), queueKey(voucher.getId())),
+            argv.toArray());
+    }
+
+    /** Until a day after the voucher ends, so a live counter is never reloaded from a lagging row */
+    private static long ttlSeconds(VoucherEntity voucher) {
+        LocalDateTime until = voucher.getEndDate() != null ? voucher.getEndDate().plusDays(1) : LocalDateTime.now().plusDays(1);
+        return Math.max(Duration.between(LocalDateTime.now(), until).toSeconds(), 60);
+    }
+
+    private static String entry(Integer voucherId, Long userId, int delta) {
+        return voucherId + "|" + (userId != null ? userId : "") + "|" + delta + "|" + System.currentTimeMillis();
+    }
+
+    private static String remainingKey(Integer voucherId) {
+        return "voucher:{" + voucherId + "}:remaining";
+    }
+
+    private static String usersKey(Integer voucherId) {
+        return "voucher:{" + voucherId + "}:users";
+    }
+
+    private static String queueKey(Integer voucherId) {
+        return "voucher:{" + voucherId + "}:redemptions";
+    }
+
+    private static String lockKey(Integer voucherId) {
+        return "voucher:{" + voucherId + "}:reconciling";
+    }
+}
@@ -2,15 +2,21 @@ package com.tiki.order.service;
 
 import com.tiki.order.dto.*;
 import com.tiki.order.entity.VoucherEntity;
+import com.tiki.order.exception.BadRequestException;
 import com.tiki.order.exception.ResourceNotFoundException;
 import com.tiki.order.repository.VoucherRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,6 +25,12 @@ public class VoucherService {
     @Autowired
     private VoucherRepository voucherRepository;
 
+    @Autowired
+    private VoucherRedemptionService voucherRedemptionService;
+
+    @Autowired
+    private VoucherCatalog voucherCatalog;
+
     /**
      * Get all vouchers
      */
@@ -41,11 +53,50 @@ public class VoucherService {
      * Get currently valid vouchers (active, not expired, has usage left)
      */
     public List<VoucherDTO> getValidVouchers() {
-        return voucherRepository.findActiveAndValidVouchers(LocalDateTime.now()).stream()
-                .map(this::convertToDTO)
+        LocalDateTime now = LocalDateTime.now();
+        List<CompiledVoucher> live = voucherCatalog.all().stream()
+                .filter(v -> v.isLive(now))
+                .collect(Collectors.toList());
+        Map<Integer, Integer> remaining = remaining(live);
+        return live.stream()
+                .filter(v -> remaining.get(v.id()) > 0)
+                .sorted(Comparator.comparing(CompiledVoucher::id))
+                .map(v -> convertToDTO(v, now, remaining.get(v.id())))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Best vouchers for a cart total - scans the in-memory catalog, highest discount first
+     */
+    public List<VoucherValidationResponse> getBestVouchers(BigDecimal orderTotal, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<CompiledVoucher> candidates = voucherCatalog.all().stream()
+                .filter(v -> v.isLive(now) && v.meetsMinOrder(orderTotal))
+                .collect(Collectors.toList());
+        Map<Integer, Integer> remaining = remaining(candidates);
+        return candidates.stream()
+                .filter(v -> remaining.get(v.id()) > 0)
+                .map(v -> VoucherValidationResponse.success(v.discountFor(orderTotal),
+                        convertToDTO(v, now, remaining.get(v.id()))))
+                .sorted(Comparator.comparing(VoucherValidationResponse::getDiscountAmount).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Live remaining uses of catalog vouchers, one round trip; the catalog's used count can lag
+     * behind redemptions by the reconcile and refresh intervals
+     */
+    private Map<Integer, Integer> remaining(List<CompiledVoucher> vouchers) {
+        Map<Integer, Integer> fallbacks = new HashMap<>(vouchers.size() * 2);
+        for (CompiledVoucher voucher : vouchers) {
+            fallbacks.put(voucher.id(), voucher.maxUsage() - voucher.usedCount());
+        }
+        Map<Integer, Integer> remaining = voucherRedemptionService.remaining(fallbacks);
+        fallbacks.forEach(remaining::putIfAbsent);
+        return remaining;
+    }
+
     /**
      * Get voucher by ID
      */
@@ -59,7 +110,7 @@ public class VoucherService {
      * Get voucher by code
      */
     public VoucherDTO getVoucherByCode(String code) {
-        VoucherEntity voucher = voucherRepository.findByCodeIgnoreCase(code)
+        VoucherEntity voucher = voucherRepository.findByCode(CompiledVoucher.normalize(code))
                 .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy voucher với mã: " + code));
         return convertToDTO(voucher);
     }
@@ -68,45 +119,45 @@ public class VoucherService {
      * Validate voucher and calculate discount
      */
     public VoucherValidationResponse validateVoucher(ValidateVoucherRequest request) {
-        // Find voucher
-        VoucherEntity voucher = voucherRepository.findByCodeIgnoreCase(request.getCode())
-                .orElse(null);
+        // Find voucher (in-memory catalog, no DB access)
+        CompiledVoucher voucher = voucherCatalog.find(request.getCode()).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
 
         if (voucher == null) {
             return VoucherValidationResponse.error("Voucher code not found");
         }
 
         // Check if active
-        if (!voucher.getIsActive()) {
+        if (!voucher.active()) {
             return VoucherValidationResponse.error("Voucher is inactive");
         }
 
         // Check if started
-        if (!voucher.hasStarted()) {
+        if (!voucher.hasStarted(now)) {
             return VoucherValidationResponse.error("Voucher has not started yet");
         }
 
         // Check if expired
-        if (voucher.isExpired()) {
+        if (voucher.isExpired(now)) {
             return VoucherValidationResponse.error("Voucher has expired");
         }
 
-        // Check max usage
-        if (voucher.hasReachedMaxUsage()) {
+        // Check max usage (live counter)
+        if (voucherRedemptionService.remaining(voucher.id(), voucher.maxUsage() - voucher.usedCount()) <= 0) {
             return VoucherValidationResponse.error("Voucher has reached maximum usage");
         }
 
         // Check min order value
-        if (request.getOrderTotal().compareTo(voucher.getMinOrderValue()) < 0) {
+        if (!voucher.meetsMinOrder(request.getOrderTotal())) {
             return VoucherValidationResponse.error(
-                    String.format("Minimum order value is %s", voucher.getMinOrderValue())
+                    String.format("Minimum order value is %s", voucher.minOrderValue())
             );
         }
 
         // Calculate discount
-        BigDecimal discountAmount = voucher.calculateDiscount(request.getOrderTotal());
+        BigDecimal discountAmount = voucher.discountFor(request.getOrderTotal());
 
-        return VoucherValidationResponse.success(discountAmount, convertToDTO(voucher));
+        return VoucherValidationResponse.success(discountAmount, convertToDTO(voucher, now));
     }
 
     /**
@@ -135,9 +186,11 @@ public class VoucherService {
         voucher.setStartDate(request.getStartDate());
         voucher.setEndDate(request.getEndDate());
         voucher.setMaxUsage(request.getMaxUsage());
+        voucher.setPerUserLimit(request.getPerUserLimit());
         voucher.setIsActive(request.getIsActive());
 
         VoucherEntity savedVoucher = voucherRepository.save(voucher);
+        voucherCatalog.upsert(savedVoucher);
         return convertToDTO(savedVoucher);
     }
 
@@ -168,15 +221,23 @@ public class VoucherService {
             voucher.setEndDate(request.getEndDate());
         }
 
+        int maxUsageDelta = request.getMaxUsage() != null ? request.getMaxUsage() - voucher.getMaxUsage() : 0;
         if (request.getMaxUsage() != null) {
             voucher.setMaxUsage(request.getMaxUsage());
         }
 
+        if (request.getPerUserLimit() != null) {
+            voucher.setPerUserLimit(request.getPerUserLimit());
+        }
+
         if (request.getIsActive() != null) {
             voucher.setIsActive(request.getIsActive());
         }
 
         VoucherEntity updatedVoucher = voucherRepository.save(voucher);
+        voucherCatalog.upsert(updatedVoucher);
+        // Redemptions keep going meanwhile: the counter may only move once the new max usage is committed
+        afterCommit(() -> voucherRedemptionService.maxUsageChanged(id, maxUsageDelta));
         return convertToDTO(updatedVoucher);
     }
 
@@ -185,10 +246,11 @@ public class VoucherService {
      */
     @Transactional
     public void deleteVoucher(Integer id) {
-        if (!voucherRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Không tìm thấy voucher với ID: " + id);
-        }
-        voucherRepository.deleteById(id);
+        VoucherEntity voucher = voucherRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy voucher với ID: " + id));
+        voucherRepository.delete(voucher);
+        voucherCatalog.remove(voucher.getCode());
+        voucherRedemptionService.evict(id);
     }
 
     /**
@@ -201,19 +263,43 @@ public class VoucherService {
 
         voucher.setIsActive(false);
         VoucherEntity updatedVoucher = voucherRepository.save(voucher);
+        voucherCatalog.upsert(updatedVoucher);
         return convertToDTO(updatedVoucher);
     }
 
     /**
      * Apply voucher (increment used count)
      */
-    @Transactional
     public void applyVoucher(String code) {
-        VoucherEntity voucher = voucherRepository.findByCodeIgnoreCase(code)
+        applyVoucher(code, null);
+    }
+
+    /**
+     * Redeem one use of a voucher for a user - atomic against max usage and the per-user limit
+     * without locking the voucher row; used_count is updated asynchronously
+     */
+    public void applyVoucher(String code, Long userId) {
+        VoucherEntity voucher = voucherRepository.findByCode(CompiledVoucher.normalize(code))
                 .orElseThrow(() -> new ResourceNotFoundException("Voucher not found with code: " + code));
 
-        voucher.incrementUsedCount();
-        voucherRepository.save(voucher);
+        if (!voucher.getIsActive() || !voucher.hasStarted() || voucher.isExpired()) {
+            throw new BadRequestException("Voucher is not valid at this time");
+        }
+
+        switch (voucherRedemptionService.redeem(voucher, userId)) {
+            case SOLD_OUT -> throw new BadRequestException("Voucher has reached maximum usage");
+            case USER_LIMIT_REACHED -> throw new BadRequestException("You have reached the usage limit for this voucher");
+            default -> { }
+        }
+    }
+
+    /**
+     * Give a redeemed use back (e.g. order cancelled)
+     */
+    public void releaseVoucher(String code, Long userId) {
+        VoucherEntity voucher = voucherRepository.findByCode(CompiledVoucher.normalize(code))
+                .orElseThrow(() -> new ResourceNotFoundException("Voucher not found with code: " + code));
+        voucherRedemptionService.release(voucher, userId);
     }
 
     /**
@@ -246,6 +332,33 @@ public class VoucherService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Convert catalog entry to DTO
+     */
+    private VoucherDTO convertToDTO(CompiledVoucher voucher, LocalDateTime now) {
+        return convertToDTO(voucher, now, voucher.maxUsage() - voucher.usedCount());
+    }
+
+    private VoucherDTO convertToDTO(CompiledVoucher voucher, LocalDateTime now, int remaining) {
+        VoucherDTO dto = new VoucherDTO();
+        dto.setId(voucher.id());
+        dto.setCode(voucher.code());
+        dto.setType(voucher.type());
+        dto.setValue(voucher.value());
+        dto.setMinOrderValue(voucher.minOrderValue());
+        dto.setStartDate(voucher.startDate());
+        dto.setEndDate(voucher.endDate());
+        dto.setMaxUsage(voucher.maxUsage());
+        dto.setUsedCount(voucher.maxUsage() - remaining);
+        dto.setRemainingUsage(remaining);
+        dto.setPerUserLimit(voucher.perUserLimit());
+        dto.setIsActive(voucher.active());
+        dto.setIsExpired(voucher.isExpired(now));
+        dto.setHasStarted(voucher.hasStarted(now));
+        dto.setCreatedAt(voucher.createdAt());
+        return dto;
+    }
+
     /**
      * Convert entity to DTO
      */
@@ -261,10 +374,24 @@ public class VoucherService {
         dto.setMaxUsage(voucher.getMaxUsage());
         dto.setUsedCount(voucher.getUsedCount());
         dto.setRemainingUsage(voucher.getMaxUsage() - voucher.getUsedCount());
+        dto.setPerUserLimit(voucher.getPerUserLimit());
         dto.setIsActive(voucher.getIsActive());
         dto.setIsExpired(voucher.isExpired());
         dto.setHasStarted(voucher.hasStarted());
         dto.setCreatedAt(voucher.getCreatedAt());
         return dto;
     }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
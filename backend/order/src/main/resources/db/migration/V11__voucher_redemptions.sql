@@ -0,0 +1,15 @@
+-- Voucher redemption engine
+-- Per-user limit and the redemption ledger reconciled from Redis
+
+ALTER TABLE vouchers
+ADD COLUMN per_user_limit INT NULL COMMENT 'Max redemptions per user, NULL = unlimited';
+
+CREATE TABLE IF NOT EXISTS voucher_redemptions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    voucher_id INT NOT NULL,
+    user_id BIGINT NULL,
+    delta INT NOT NULL COMMENT '+1 redeemed, -1 released',
+    redeemed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_voucher_redemptions_voucher_user ON voucher_redemptions(voucher_id, user_id);
@@ -0,0 +1,54 @@
+-- Real checkout write path
+-- Order lines (ids from a pooled sequence table so inserts batch) and the side-effect outbox
+-- Manual DBA script: the order service has no Flyway and its schema is created by Hibernate
+-- (ddl-auto: update), so nothing applies this file automatically. It is written to run against
+-- the schema Hibernate already created; statements that Hibernate may have done first are
+-- guarded with information_schema checks.
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id BIGINT PRIMARY KEY,
+    order_id INT NOT NULL,
+    product_id BIGINT NOT NULL,
+    shop_id BIGINT NULL,
+    product_name VARCHAR(255) NULL,
+    quantity INT NOT NULL,
+    unit_price DECIMAL(10,2) NOT NULL,
+    line_total DECIMAL(12,2) NOT NULL,
+    flash_sale_id BIGINT NULL COMMENT 'Set when bought through a flash sale reservation',
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders(id)
+);
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'order_items' AND index_name = 'idx_order_items_order') > 0,
+    'DO 0', 'CREATE INDEX idx_order_items_order ON order_items(order_id)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'order_items' AND index_name = 'idx_order_items_product') > 0,
+    'DO 0', 'CREATE INDEX idx_order_items_product ON order_items(product_id)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Backing table for the order_items_seq generator (allocation size 50)
+CREATE TABLE IF NOT EXISTS order_items_seq (
+    next_val BIGINT
+);
+-- Hibernate seeds the row itself when it creates the table
+INSERT INTO order_items_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM order_items_seq);
+
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_id INT NOT NULL,
+    event_type VARCHAR(30) NOT NULL COMMENT 'ORDER_CREATED',
+    attempts INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Written in the checkout transaction'
+);
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'invoices' AND index_name = 'idx_invoices_order') > 0,
+    'DO 0', 'CREATE INDEX idx_invoices_order ON invoices(order_id)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,82 @@
+-- Order history at scale
+-- Composite indexes for keyset history listings and monthly range partitioning of orders
+-- Manual DBA script: the order service has no Flyway and its schema is created by Hibernate
+-- (ddl-auto: update), so nothing applies this file automatically. It is written to run against
+-- the schema Hibernate already created; statements that Hibernate may have done first are
+-- guarded with information_schema checks.
+-- Until it is run, orders is not partitioned and OrderPartitionMaintainer does nothing.
+-- The partitioning part runs once.
+
+-- Keyset pages: WHERE user_id = ? / status = ? ORDER BY created_at DESC, id DESC
+-- (declared on OrderEntity, so Hibernate normally created them already)
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'orders' AND index_name = 'idx_orders_user_created') > 0,
+    'DO 0', 'CREATE INDEX idx_orders_user_created ON orders(user_id, created_at)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'orders' AND index_name = 'idx_orders_status_created') > 0,
+    'DO 0', 'CREATE INDEX idx_orders_status_created ON orders(status, created_at)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- MySQL does not support foreign keys on partitioned tables. Only V12 creates this one;
+-- Hibernate maps order_items.order_id without a constraint
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.table_constraints
+    WHERE table_schema = DATABASE() AND table_name = 'order_items'
+      AND constraint_name = 'fk_order_items_order' AND constraint_type = 'FOREIGN KEY') > 0,
+    'ALTER TABLE order_items DROP FOREIGN KEY fk_order_items_order', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Every unique key must contain the partitioning column
+UPDATE orders SET created_at = COALESCE(updated_at, NOW()) WHERE created_at IS NULL;
+ALTER TABLE orders MODIFY created_at DATETIME(6) NOT NULL;
+ALTER TABLE orders DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at);
+
+-- order_number stays globally unique through order_numbers (OrderNumberEntity), since the
+-- unique key on orders itself has to include created_at
+CREATE TABLE IF NOT EXISTS order_numbers (
+    order_number VARCHAR(50) PRIMARY KEY,
+    order_id INT NOT NULL
+);
+INSERT IGNORE INTO order_numbers (order_number, order_id)
+SELECT order_number, id FROM orders WHERE order_number IS NOT NULL;
+
+-- order_number's unique index was created by Hibernate under a generated name
+SET @uk_order_number = (
+    SELECT index_name FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'orders'
+      AND column_name = 'order_number' AND non_unique = 0 AND seq_in_index = 1
+    LIMIT 1);
+SET @drop_uk = IF(@uk_order_number IS NULL, 'DO 0', CONCAT('ALTER TABLE orders DROP INDEX `', @uk_order_number, '`'));
+PREPARE stmt FROM @drop_uk;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+CREATE UNIQUE INDEX uk_orders_number_created ON orders(order_number, created_at);
+
+-- One partition per month; OrderPartitionMaintainer splits upcoming months off p_future.
+-- Orders older than order.history.archive-after-months form the archive tier: recent history
+-- queries are bounded below by that horizon and never touch these partitions.
+ALTER TABLE orders PARTITION BY RANGE (TO_DAYS(created_at)) (
+    PARTITION p_history VALUES LESS THAN (TO_DAYS('2025-11-01')),
+    PARTITION p202511 VALUES LESS THAN (TO_DAYS('2025-12-01')),
+    PARTITION p202512 VALUES LESS THAN (TO_DAYS('2026-01-01')),
+    PARTITION p202601 VALUES LESS THAN (TO_DAYS('2026-02-01')),
+    PARTITION p202602 VALUES LESS THAN (TO_DAYS('2026-03-01')),
+    PARTITION p202603 VALUES LESS THAN (TO_DAYS('2026-04-01')),
+    PARTITION p202604 VALUES LESS THAN (TO_DAYS('2026-05-01')),
+    PARTITION p202605 VALUES LESS THAN (TO_DAYS('2026-06-01')),
+    PARTITION p202606 VALUES LESS THAN (TO_DAYS('2026-07-01')),
+    PARTITION p202607 VALUES LESS THAN (TO_DAYS('2026-08-01')),
+    PARTITION p202608 VALUES LESS THAN (TO_DAYS('2026-09-01')),
+    PARTITION p202609 VALUES LESS THAN (TO_DAYS('2026-10-01')),
+    PARTITION p202610 VALUES LESS THAN (TO_DAYS('2026-11-01')),
+    PARTITION p202611 VALUES LESS THAN (TO_DAYS('2026-12-01')),
+    PARTITION p202612 VALUES LESS THAN (TO_DAYS('2027-01-01')),
+    PARTITION p202701 VALUES LESS THAN (TO_DAYS('2027-02-01')),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
@@ -0,0 +1,165 @@
+package com.tiki.order.service;
+
+import com.tiki.order.dto.OrderStatsDTO;
+import com.tiki.order.entity.OrderEntity;
+import com.tiki.order.entity.OrderEntity.OrderStatus;
+import com.tiki.order.entity.OrderItemEntity;
+import com.tiki.order.entity.ProductSalesCounterEntity;
+import com.tiki.order.entity.ShopDailyCounterEntity;
+import com.tiki.order.entity.ShopOrderCounterEntity;
+import com.tiki.order.repository.ProductSalesCounterRepository;
+import com.tiki.order.repository.ShopDailyCounterRepository;
+import com.tiki.order.repository.ShopOrderCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the incrementally maintained sold and shop counters
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderCounterServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 10, 1, 9, 30);
+
+    @Mock
+    private ProductSalesCounterRepository productCounterRepository;
+
+    @Mock
+    private ShopOrderCounterRepository shopCounterRepository;
+
+    @Mock
+    private ShopDailyCounterRepository shopDailyCounterRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @InjectMocks
+    private OrderCounterService counterService;
+
+    @Test
+    void testCreatedOrderCountsAsPlacedAndPending() {
+        OrderEntity order = order(OrderStatus.PENDING);
+
+        counterService.orderCreated(order);
+
+        verify(shopCounterRepository).increment(1L, 1, new BigDecimal("150000"), 1);
+        verify(shopCounterRepository).increment(2L, 1, new BigDecimal("30000"), 1);
+        verify(shopDailyCounterRepository).increment(1L, CREATED.toLocalDate(), 1, new BigDecimal("150000"));
+        verify(shopDailyCounterRepository).increment(2L, CREATED.toLocalDate(), 1, new BigDecimal("30000"));
+        verifyNoInteractions(productCounterRepository);
+    }
+
+    @Test
+    void testConfirmedOrderAddsSoldUnits() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        OrderEntity order = order(OrderStatus.CONFIRMED);
+
+        counterService.statusChanged(order, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+
+        verify(productCounterRepository).increment(100L, 3);
+        verify(productCounterRepository).increment(200L, 1);
+        verify(hashOperations).delete("order:sold-counts", "100", "200");
+        verify(shopCounterRepository).increment(eq(1L), eq(0), eq(new BigDecimal("0")), eq(-1));
+        verifyNoInteractions(shopDailyCounterRepository);
+    }
+
+    @Test
+    void testCancelledOrderRemovesSoldUnitsAndRevenue() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        OrderEntity order = order(OrderStatus.CANCELLED);
+
+        counterService.statusChanged(order, OrderStatus.SHIPPING, OrderStatus.CANCELLED);
+
+        verify(productCounterRepository).increment(100L, -3);
+        verify(productCounterRepository).increment(200L, -1);
+        verify(shopCounterRepository).increment(1L, 0, new BigDecimal("-150000"), 0);
+        verify(shopDailyCounterRepository).increment(1L, CREATED.toLocalDate(), 0, new BigDecimal("-150000"));
+    }
+
+    @Test
+    void testMoveBetweenSoldStatusesChangesNothing() {
+        counterService.statusChanged(order(OrderStatus.SHIPPING), OrderStatus.PROCESSING, OrderStatus.SHIPPING);
+
+        verifyNoInteractions(productCounterRepository, shopCounterRepository, shopDailyCounterRepository, redisTemplate);
+    }
+
+    @Test
+    void testSoldCountsReadCacheThenDatabase() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.multiGet(eq("order:sold-counts"), anyList())).thenReturn(Arrays.asList("7", null, null));
+        ProductSalesCounterEntity counter = new ProductSalesCounterEntity();
+        counter.setProductId(200L);
+        counter.setSoldCount(12L);
+        when(productCounterRepository.findAllById(List.of(200L, 300L))).thenReturn(List.of(counter));
+
+        Map<Long, Integer> counts = counterService.soldCounts(List.of(100L, 200L, 300L, 100L));
+
+        assertEquals(Map.of(100L, 7, 200L, 12, 300L, 0), counts);
+        verify(redisTemplate).execute(any(), eq(List.of("order:sold-counts")), any(Object[].class));
+    }
+
+    @Test
+    void testShopStatsFromCounters() {
+        ShopOrderCounterEntity totals = new ShopOrderCounterEntity();
+        totals.setShopId(1L);
+        totals.setTotalOrders(40);
+        totals.setTotalRevenue(new BigDecimal("900000"));
+        totals.setPendingOrders(3);
+        when(shopCounterRepository.findById(1L)).thenReturn(Optional.of(totals));
+        when(shopDailyCounterRepository.findById(new ShopDailyCounterEntity.Key(1L, LocalDate.now()))).thenReturn(Optional.empty());
+
+        OrderStatsDTO stats = counterService.shopStats(1L);
+
+        assertEquals(40, stats.getTotalOrders());
+        assertEquals(3, stats.getPendingOrders());
+        assertEquals(new BigDecimal("900000"), stats.getTotalRevenue());
+        assertEquals(0, stats.getTodayOrders());
+        assertEquals(BigDecimal.ZERO, stats.getTodayRevenue());
+        verify(productCounterRepository, never()).increment(anyLong(), anyLong());
+        verify(shopCounterRepository, never()).increment(any(), anyInt(), any(), anyInt());
+    }
+
+    private static OrderEntity order(OrderStatus status) {
+        OrderEntity order = new OrderEntity();
+        order.setStatus(status);
+        order.setCreatedAt(CREATED);
+        order.addItem(line(100L, 1L, 2, "50000"));
+        order.addItem(line(200L, 2L, 1, "30000"));
+        order.addItem(line(100L, 1L, 1, "50000"));
+        return order;
+    }
+
+    private static OrderItemEntity line(Long productId, Long shopId, int quantity, String price) {
+        OrderItemEntity line = new OrderItemEntity();
+        line.setProductId(productId);
+        line.setShopId(shopId);
+        line.setQuantity(quantity);
+        line.setUnitPrice(new BigDecimal(price));
+        line.setLineTotal(new BigDecimal(price).multiply(BigDecimal.valueOf(quantity)));
+        return line;
+    }
+}
@@ -0,0 +1,47 @@
+package com.tiki.order.service;
+
+import com.tiki.order.entity.OrderEntity;
+import com.tiki.order.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the order history keyset cursor
+ */
+class OrderHistoryCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        OrderEntity last = new OrderEntity();
+        last.setId(42);
+        last.setCreatedAt(LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535000));
+
+        OrderHistoryCursor decoded = OrderHistoryCursor.decode(OrderHistoryCursor.after("recent", last).encode());
+
+        assertEquals("recent", decoded.listing());
+        assertEquals(42, decoded.id());
+        assertEquals(last.getCreatedAt(), decoded.createdAtValue());
+    }
+
+    @Test
+    void testCursorFromOtherListingRejected() {
+        OrderHistoryCursor cursor = new OrderHistoryCursor("archive", "2026-03-14T15:09:26", 42);
+
+        assertThrows(BadRequestException.class, () -> cursor.requireListing("recent"));
+    }
+
+    @Test
+    void testTamperedTimestampRejected() {
+        String token = new OrderHistoryCursor("recent", "yesterday", 42).encode();
+
+        assertThrows(BadRequestException.class, () -> OrderHistoryCursor.decode(token));
+    }
+
+    @Test
+    void testGarbageTokenRejected() {
+        assertThrows(BadRequestException.class, () -> OrderHistoryCursor.decode("not a cursor!"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.tiki.order.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for choosing which monthly orders partitions to create
+ */
+class OrderPartitionMaintainerTest {
+
+    private static final YearMonth OCTOBER = YearMonth.of(2026, 10);
+
+    @Test
+    void testCreatesMonthsAfterNewestPartition() {
+        List<String> partitions = List.of("p_history", "p202609", "p202610", "p202611", "p_future");
+
+        List<YearMonth> missing = OrderPartitionMaintainer.missingMonths(partitions, OCTOBER, 3);
+
+        assertEquals(List.of(YearMonth.of(2026, 12), YearMonth.of(2027, 1)), missing);
+    }
+
+    @Test
+    void testNothingWhenFarEnoughAhead() {
+        List<String> partitions = List.of("p_history", "p202610", "p202611", "p202612", "p202701", "p_future");
+
+        assertTrue(OrderPartitionMaintainer.missingMonths(partitions, OCTOBER, 3).isEmpty());
+    }
+
+    @Test
+    void testStartsAtCurrentMonthAfterGap() {
+        List<String> partitions = List.of("p_history", "p202605", "p_future");
+
+        List<YearMonth> missing = OrderPartitionMaintainer.missingMonths(partitions, OCTOBER, 1);
+
+        assertEquals(List.of(OCTOBER, YearMonth.of(2026, 11)), missing);
+    }
+}
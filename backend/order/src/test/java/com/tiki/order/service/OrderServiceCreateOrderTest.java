@@ -0,0 +1,254 @@
+package com.tiki.order.service;
+
+import com.tiki.order.client.ProductClient;
+import com.tiki.order.dto.CreateOrderRequest;
+import com.tiki.order.dto.FlashSaleReservationDto;
+import com.tiki.order.dto.OrderDto;
+import com.tiki.order.dto.ProductBatchItemDto;
+import com.tiki.order.dto.VoucherDTO;
+import com.tiki.order.dto.VoucherValidationResponse;
+import com.tiki.order.entity.OrderEntity;
+import com.tiki.order.entity.OrderOutboxEntity;
+import com.tiki.order.exception.BadRequestException;
+import com.tiki.order.repository.OrderNumberRepository;
+import com.tiki.order.repository.OrderOutboxRepository;
+import com.tiki.order.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the checkout write path
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderServiceCreateOrderTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
+    @Mock
+    private OrderNumberRepository orderNumberRepository;
+
+    @Mock
+    private VoucherService voucherService;
+
+    @Mock
+    private ProductClient productClient;
+
+    @Mock
+    private OrderCounterService counterService;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    @Test
+    void testCreateOrderWritesLinesAndOutbox() {
+        stubSave();
+        stubProducts(product(100, "50000", 10, 1L), product(200, "20000", 10, 2L));
+        CreateOrderRequest request = request(item(100, 2, "50000"), item(200, 1, "20000"));
+
+        OrderDto order = orderService.createOrder(request);
+
+        assertEquals(new BigDecimal("120000"), order.getTotalAmount());
+        assertEquals(2, order.getItems().size());
+        ArgumentCaptor<OrderEntity> saved = ArgumentCaptor.forClass(OrderEntity.class);
+        verify(orderRepository).save(saved.capture());
+        assertEquals(2, saved.getValue().getItems().size());
+        assertSame(saved.getValue(), saved.getValue().getItems().get(0).getOrder());
+        assertEquals("Product 100", saved.getValue().getItems().get(0).getProductName());
+        assertEquals(2L, saved.getValue().getItems().get(1).getShopId());
+        verify(orderNumberRepository).claim(saved.getValue().getOrderNumber(), 1);
+        ArgumentCaptor<OrderOutboxEntity> outbox = ArgumentCaptor.forClass(OrderOutboxEntity.class);
+        verify(outboxRepository).save(outbox.capture());
+        assertEquals(OrderService.ORDER_CREATED, outbox.getValue().getEventType());
+        assertEquals(1, outbox.getValue().getOrderId());
+        verify(counterService).orderCreated(saved.getValue());
+        verify(productClient, never()).confirmFlashSaleReservation(anyString(), any());
+        verifyNoInteractions(voucherService);
+    }
+
+    @Test
+    void testVoucherRedeemedAndReleasedOnRollback() {
+        stubSave();
+        stubProducts(product(100, "50000", 10, 1L));
+        VoucherDTO voucher = new VoucherDTO();
+        voucher.setCode("SALE10");
+        when(voucherService.validateVoucher(any())).thenReturn(VoucherValidationResponse.success(new BigDecimal("10000"), voucher));
+        CreateOrderRequest request = request(item(100, 2, "50000"));
+        request.setVoucherCode("sale10");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            OrderDto order = orderService.createOrder(request);
+            assertEquals(new BigDecimal("90000"), order.getTotalAmount());
+            verify(voucherService).applyVoucher("sale10", USER_ID);
+
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+            verify(voucherService).releaseVoucher("sale10", USER_ID);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testInvalidVoucherRejectedBeforeWrite() {
+        stubProducts(product(100, "50000", 10, 1L));
+        when(voucherService.validateVoucher(any())).thenReturn(VoucherValidationResponse.error("Voucher has expired"));
+        CreateOrderRequest request = request(item(100, 1, "50000"));
+        request.setVoucherCode("OLD");
+
+        BadRequestException e = assertThrows(BadRequestException.class, () -> orderService.createOrder(request));
+
+        assertEquals("Voucher has expired", e.getMessage());
+        verify(voucherService, never()).applyVoucher(anyString(), any());
+        verifyNoInteractions(orderRepository, outboxRepository, orderNumberRepository);
+    }
+
+    @Test
+    void testFlashSaleLineConfirmed() {
+        stubSave();
+        stubProducts(product(100, "60000", 0, 1L), product(200, "20000", 10, 2L));
+        CreateOrderRequest.OrderItemDto flashItem = item(100, 1, "40000");
+        flashItem.setFlashSaleToken("token-1");
+        when(productClient.confirmFlashSaleReservation("token-1", USER_ID)).thenReturn(reservation(100L, 1, "40000"));
+
+        orderService.createOrder(request(flashItem, item(200, 1, "20000")));
+
+        ArgumentCaptor<OrderEntity> saved = ArgumentCaptor.forClass(OrderEntity.class);
+        verify(orderRepository).save(saved.capture());
+        assertEquals(3L, saved.getValue().getItems().get(0).getFlashSaleId());
+        assertNull(saved.getValue().getItems().get(1).getFlashSaleId());
+    }
+
+    @Test
+    void testFlashSalePriceMismatchRejected() {
+        stubSave();
+        stubProducts(product(100, "60000", 0, 1L));
+        CreateOrderRequest.OrderItemDto flashItem = item(100, 1, "1000");
+        flashItem.setFlashSaleToken("token-1");
+        when(productClient.confirmFlashSaleReservation(eq("token-1"), eq(USER_ID))).thenReturn(reservation(100L, 1, "40000"));
+
+        assertThrows(BadRequestException.class, () -> orderService.createOrder(request(flashItem)));
+    }
+
+    @Test
+    void testClientPriceNotTrusted() {
+        stubProducts(product(100, "50000", 10, 1L));
+
+        BadRequestException e = assertThrows(BadRequestException.class,
+            () -> orderService.createOrder(request(item(100, 1, "0"))));
+
+        assertTrue(e.getMessage().contains("50000"));
+        verifyNoInteractions(orderRepository, outboxRepository, voucherService);
+    }
+
+    @Test
+    void testInactiveProductRejected() {
+        ProductBatchItemDto hidden = product(100, "50000", 10, 1L);
+        hidden.setIsActive(false);
+        stubProducts(hidden);
+
+        assertThrows(BadRequestException.class, () -> orderService.createOrder(request(item(100, 1, "50000"))));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void testOutOfStockAcrossLinesRejected() {
+        stubProducts(product(100, "50000", 3, 1L));
+
+        assertThrows(BadRequestException.class,
+            () -> orderService.createOrder(request(item(100, 2, "50000"), item(100, 2, "50000"))));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void testUnknownProductRejected() {
+        stubProducts();
+
+        assertThrows(BadRequestException.class, () -> orderService.createOrder(request(item(100, 1, "50000"))));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void testEmptyOrderRejected() {
+        CreateOrderRequest request = request();
+
+        assertThrows(BadRequestException.class, () -> orderService.createOrder(request));
+        verifyNoInteractions(orderRepository);
+    }
+
+    private void stubSave() {
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(inv -> {
+            OrderEntity order = inv.getArgument(0);
+            order.setId(1);
+            order.setOrderNumber("ORD-17000000000000042");
+            return order;
+        });
+    }
+
+    private void stubProducts(ProductBatchItemDto... products) {
+        when(productClient.getProducts(anyList())).thenReturn(List.of(products));
+    }
+
+    private static ProductBatchItemDto product(int id, String price, int stock, Long shopId) {
+        ProductBatchItemDto product = new ProductBatchItemDto();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(stock);
+        product.setStatus("ACTIVE");
+        product.setIsActive(true);
+        product.setShopId(shopId);
+        return product;
+    }
+
+    private static CreateOrderRequest request(CreateOrderRequest.OrderItemDto... items) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(USER_ID.intValue());
+        request.setItems(new ArrayList<>(List.of(items)));
+        request.setCustomerName("Nguyen Van A");
+        request.setCustomerPhone("0900000000");
+        request.setShippingAddress("1 Le Loi, Q1");
+        return request;
+    }
+
+    private static CreateOrderRequest.OrderItemDto item(int productId, int quantity, String price) {
+        CreateOrderRequest.OrderItemDto item = new CreateOrderRequest.OrderItemDto();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal(price));
+        return item;
+    }
+
+    private static FlashSaleReservationDto reservation(Long productId, int quantity, String price) {
+        FlashSaleReservationDto reservation = new FlashSaleReservationDto();
+        reservation.setFlashSaleId(3L);
+        reservation.setProductId(productId);
+        reservation.setQuantity(quantity);
+        reservation.setSalePrice(new BigDecimal(price));
+        return reservation;
+    }
+}
@@ -0,0 +1,118 @@
+package com.tiki.order.service;
+
+import com.tiki.order.dto.CursorPageDTO;
+import com.tiki.order.dto.OrderDto;
+import com.tiki.order.entity.OrderEntity;
+import com.tiki.order.exception.BadRequestException;
+import com.tiki.order.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for keyset-paged order history and its archive tier
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderServiceHistoryTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    @Test
+    void testRecentPageReturnsCursorWhenMoreRows() {
+        when(orderRepository.findUserPage(eq(7L), any(), any(), any(), any())).thenReturn(orders(3));
+
+        CursorPageDTO<OrderDto> page = orderService.getOrdersByUser(7, null, 2);
+
+        assertEquals(2, page.getSize());
+        assertNotNull(page.getNextCursor());
+        ArgumentCaptor<Pageable> limit = ArgumentCaptor.forClass(Pageable.class);
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(orderRepository).findUserPage(eq(7L), from.capture(), any(), eq(Integer.MAX_VALUE), limit.capture());
+        assertEquals(3, limit.getValue().getPageSize());
+        assertEquals(orderService.archiveHorizon(), from.getValue());
+
+        OrderHistoryCursor next = OrderHistoryCursor.decode(page.getNextCursor());
+        assertEquals(2, next.id());
+    }
+
+    @Test
+    void testLastPageHasNoCursor() {
+        when(orderRepository.findUserPage(eq(7L), any(), any(), any(), any())).thenReturn(orders(1));
+
+        assertNull(orderService.getOrdersByUser(7, null, 20).getNextCursor());
+    }
+
+    @Test
+    void testArchiveIsBoundedByHorizon() {
+        when(orderRepository.findUserPage(eq(7L), any(), any(), any(), any())).thenReturn(List.of());
+
+        orderService.getArchivedOrdersByUser(7, null, 20);
+
+        verify(orderRepository).findUserPage(eq(7L), any(), eq(orderService.archiveHorizon()), eq(Integer.MIN_VALUE), any());
+    }
+
+    @Test
+    void testNextPageContinuesAfterCursor() {
+        OrderEntity last = orders(1).get(0);
+        String cursor = OrderHistoryCursor.after("recent", last).encode();
+        when(orderRepository.findUserPage(eq(7L), any(), any(), any(), any())).thenReturn(List.of());
+
+        orderService.getOrdersByUser(7, cursor, 20);
+
+        verify(orderRepository).findUserPage(eq(7L), any(), eq(last.getCreatedAt()), eq(last.getId()), any());
+    }
+
+    @Test
+    void testArchiveCursorRejectedForRecentListing() {
+        String cursor = OrderHistoryCursor.after("archive", orders(1).get(0)).encode();
+
+        assertThrows(BadRequestException.class,
+            () -> orderService.getOrdersByUser(7, cursor, 20));
+    }
+
+    @Test
+    void testUserStatsFromGroupedCounts() {
+        List<Object[]> counts = new ArrayList<>();
+        counts.add(new Object[]{OrderEntity.OrderStatus.PENDING, 2L});
+        counts.add(new Object[]{OrderEntity.OrderStatus.DELIVERED, 5L});
+        when(orderRepository.countByStatusForUser(7L)).thenReturn(counts);
+
+        Map<String, Object> stats = orderService.getUserOrderStats(7L);
+
+        assertEquals(7L, stats.get("totalOrders"));
+        assertEquals(5L, stats.get("completedOrders"));
+        assertEquals(2L, stats.get("pendingOrders"));
+        assertEquals(0L, stats.get("cancelledOrders"));
+    }
+
+    private static List<OrderEntity> orders(int count) {
+        List<OrderEntity> orders = new ArrayList<>();
+        LocalDateTime createdAt = LocalDateTime.of(2026, 10, 1, 12, 0);
+        for (int i = 1; i <= count; i++) {
+            OrderEntity order = new OrderEntity();
+            order.setId(i);
+            order.setUserId(7L);
+            order.setCreatedAt(createdAt.minusHours(i));
+            orders.add(order);
+        }
+        return orders;
+    }
+}
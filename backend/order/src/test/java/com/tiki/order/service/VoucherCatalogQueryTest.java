@@ -0,0 +1,120 @@
+package com.tiki.order.service;
+
+import com.tiki.order.dto.ValidateVoucherRequest;
+import com.tiki.order.dto.VoucherValidationResponse;
+import com.tiki.order.entity.VoucherEntity;
+import com.tiki.order.repository.VoucherRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for voucher queries served from the in-memory catalog
+ */
+@ExtendWith(MockitoExtension.class)
+class VoucherCatalogQueryTest {
+
+    @Mock
+    private VoucherRepository voucherRepository;
+
+    @Mock
+    private VoucherRedemptionService voucherRedemptionService;
+
+    @Mock
+    private VoucherCatalog voucherCatalog;
+
+    @InjectMocks
+    private VoucherService voucherService;
+
+    @Test
+    void testBestVouchersOrderedByDiscount() {
+        when(voucherCatalog.all()).thenReturn(List.of(
+            compiled(1, "FIX20K", VoucherEntity.DiscountType.FIXED, "20000", "0", true, 1),
+            compiled(2, "PCT10", VoucherEntity.DiscountType.PERCENTAGE, "10", "100000", true, 1),
+            compiled(3, "BIGMIN", VoucherEntity.DiscountType.FIXED, "90000", "1000000", true, 1),
+            compiled(4, "OFF", VoucherEntity.DiscountType.FIXED, "90000", "0", false, 1)));
+
+        List<VoucherValidationResponse> best = voucherService.getBestVouchers(new BigDecimal("300000"), 5);
+
+        assertEquals(2, best.size());
+        assertEquals("PCT10", best.get(0).getVoucher().getCode());
+        assertEquals(0, new BigDecimal("30000").compareTo(best.get(0).getDiscountAmount()));
+        assertEquals("FIX20K", best.get(1).getVoucher().getCode());
+        verifyNoInteractions(voucherRepository);
+    }
+
+    @Test
+    void testBestVouchersUseLiveCounters() {
+        when(voucherCatalog.all()).thenReturn(List.of(
+            compiled(1, "FIX20K", VoucherEntity.DiscountType.FIXED, "20000", "0", true, 1),
+            compiled(2, "PCT10", VoucherEntity.DiscountType.PERCENTAGE, "10", "100000", true, 1)));
+        // The catalog still says 99 left for FIX20K, the live counter is sold out
+        when(voucherRedemptionService.remaining(anyMap())).thenReturn(new HashMap<>(Map.of(1, 0, 2, 40)));
+
+        List<VoucherValidationResponse> best = voucherService.getBestVouchers(new BigDecimal("300000"), 5);
+
+        assertEquals(1, best.size());
+        assertEquals("PCT10", best.get(0).getVoucher().getCode());
+        assertEquals(40, best.get(0).getVoucher().getRemainingUsage());
+        verify(voucherRedemptionService).remaining(Map.of(1, 99, 2, 99));
+        assertTrue(voucherService.getValidVouchers().stream().noneMatch(v -> v.getCode().equals("FIX20K")));
+    }
+
+    @Test
+    void testValidateUsesCatalogOnly() {
+        when(voucherCatalog.find("pct10")).thenReturn(Optional.of(
+            compiled(2, "PCT10", VoucherEntity.DiscountType.PERCENTAGE, "10", "100000", true, 1)));
+        when(voucherRedemptionService.remaining(2, 99)).thenReturn(5);
+
+        ValidateVoucherRequest request = new ValidateVoucherRequest();
+        request.setCode("pct10");
+        request.setOrderTotal(new BigDecimal("200000"));
+        VoucherValidationResponse response = voucherService.validateVoucher(request);
+
+        assertTrue(response.getValid());
+        assertEquals(0, new BigDecimal("20000").compareTo(response.getDiscountAmount()));
+        verifyNoInteractions(voucherRepository);
+    }
+
+    @Test
+    void testValidateBelowMinimumOrder() {
+        when(voucherCatalog.find("PCT10")).thenReturn(Optional.of(
+            compiled(2, "PCT10", VoucherEntity.DiscountType.PERCENTAGE, "10", "100000", true, 1)));
+        when(voucherRedemptionService.remaining(2, 99)).thenReturn(5);
+
+        ValidateVoucherRequest request = new ValidateVoucherRequest();
+        request.setCode("PCT10");
+        request.setOrderTotal(new BigDecimal("50000"));
+
+        assertFalse(voucherService.validateVoucher(request).getValid());
+    }
+
+    private static CompiledVoucher compiled(int id, String code, VoucherEntity.DiscountType type,
+                                            String value, String minOrder, boolean active, int used) {
+        VoucherEntity v = new VoucherEntity();
+        v.setId(id);
+        v.setCode(code);
+        v.setType(type);
+        v.setValue(new BigDecimal(value));
+        v.setMinOrderValue(new BigDecimal(minOrder));
+        v.setStartDate(LocalDateTime.now().minusDays(1));
+        v.setEndDate(LocalDateTime.now().plusDays(1));
+        v.setMaxUsage(100);
+        v.setUsedCount(used);
+        v.setIsActive(active);
+        return CompiledVoucher.of(v);
+    }
+}
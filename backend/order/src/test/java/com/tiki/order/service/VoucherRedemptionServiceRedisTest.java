@@ -0,0 +1,205 @@
+package com.tiki.order.service;
+
+import com.tiki.order.entity.VoucherEntity;
+import com.tiki.order.repository.VoucherRedemptionRepository;
+import com.tiki.order.repository.VoucherRepository;
+import com.tiki.order.service.VoucherRedemptionService.Result;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Redemption scripts against a real Redis (skipped without Docker)
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MockitoExtension.class)
+class VoucherRedemptionServiceRedisTest {
+
+    private static final Integer VOUCHER_ID = 1;
+    private static final String USERS_KEY = "voucher:{1}:users";
+    private static final String QUEUE_KEY = "voucher:{1}:redemptions";
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+        new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @Mock
+    private VoucherRedemptionRepository redemptionRepository;
+
+    @Mock
+    private VoucherRepository voucherRepository;
+
+    @InjectMocks
+    private VoucherRedemptionService redemptionService;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        ReflectionTestUtils.setField(redemptionService, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(redemptionService, "transactionTemplate",
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(redemptionService, "reconcileBatchSize", 500);
+    }
+
+    @Test
+    void testSoldOut() {
+        VoucherEntity voucher = voucher(2, null);
+        when(redemptionRepository.sumByUser(VOUCHER_ID)).thenReturn(List.of());
+
+        assertEquals(Result.REDEEMED, redemptionService.redeem(voucher, 7L));
+        assertEquals(Result.REDEEMED, redemptionService.redeem(voucher, 8L));
+        assertEquals(Result.SOLD_OUT, redemptionService.redeem(voucher, 9L));
+
+        assertEquals(0, redemptionService.remaining(voucher));
+        assertEquals(2L, redisTemplate.opsForList().size(QUEUE_KEY));
+    }
+
+    @Test
+    void testUserLimit() {
+        VoucherEntity voucher = voucher(10, 1);
+        when(redemptionRepository.sumByUser(VOUCHER_ID)).thenReturn(uses(7L));
+
+        assertEquals(Result.USER_LIMIT_REACHED, redemptionService.redeem(voucher, 7L));
+        assertEquals(Result.REDEEMED, redemptionService.redeem(voucher, 8L));
+        assertEquals(Result.USER_LIMIT_REACHED, redemptionService.redeem(voucher, 8L));
+
+        redemptionService.release(voucher, 8L);
+        assertEquals(Result.REDEEMED, redemptionService.redeem(voucher, 8L));
+        assertEquals(9, redemptionService.remaining(voucher));
+    }
+
+    @Test
+    void testUsersHashExpiresWithCounter() {
+        VoucherEntity voucher = voucher(10, 1);
+        when(redemptionRepository.sumByUser(VOUCHER_ID)).thenReturn(List.of());
+
+        // No earlier redemptions: the hash is created by the script itself
+        redemptionService.redeem(voucher, 8L);
+        assertTrue(redisTemplate.getExpire(USERS_KEY) > 0);
+
+        redisTemplate.persist(USERS_KEY);
+        redemptionService.release(voucher, 8L);
+        assertTrue(redisTemplate.getExpire(USERS_KEY) > 0);
+    }
+
+    @Test
+    void testLoadManyUsers() {
+        VoucherEntity voucher = voucher(100_000, 1);
+        Long[] users = new Long[20_000];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = (long) i + 1;
+        }
+        when(redemptionRepository.sumByUser(VOUCHER_ID)).thenReturn(uses(users));
+
+        assertEquals(Result.REDEEMED, redemptionService.redeem(voucher, 20_001L));
+
+        assertEquals(20_001L, redisTemplate.opsForHash().size(USERS_KEY));
+        assertEquals(Result.USER_LIMIT_REACHED, redemptionService.redeem(voucher, 15_000L));
+    }
+
+    @Test
+    void testReloadCountsQueuedRedemptions() {
+        VoucherEntity voucher = voucher(3, 1);
+        when(redemptionRepository.sumByUser(VOUCHER_ID)).thenReturn(List.of());
+        redemptionService.redeem(voucher, 7L);
+        redemptionService.redeem(voucher, 8L);
+
+        // Not reconciled yet: MySQL still says 0 used
+        redemptionService.evict(VOUCHER_ID);
+
+        assertEquals(Result.USER_LIMIT_REACHED, redemptionService.redeem(voucher, 7L));
+        assertEquals(Result.REDEEMED, redemptionService.redeem(voucher, 9L));
+        assertEquals(Result.SOLD_OUT, redemptionService.redeem(voucher, 10L));
+    }
+
+    @Test
+    void testReconcileDrainsQueueAfterCommit() {
+        VoucherEntity voucher = voucher(10, null);
+        when(redemptionRepository.sumByUser(VOUCHER_ID)).thenReturn(List.of());
+        redemptionService.redeem(voucher, 7L);
+        redemptionService.redeem(voucher, 8L);
+        redemptionService.release(voucher, 8L);
+
+        redemptionService.reconcile();
+
+        verify(voucherRepository).addUsedCount(VOUCHER_ID, 1);
+        verify(redemptionRepository).saveAll(argThat(rows -> ((List<?>) rows).size() == 3));
+        assertEquals(0L, redisTemplate.opsForList().size(QUEUE_KEY));
+        assertEquals(0L, redisTemplate.opsForSet().size("voucher:pending"));
+    }
+
+    @Test
+    void testFailedReconcileKeepsQueue() {
+        VoucherEntity voucher = voucher(10, null);
+        when(redemptionRepository.sumByUser(VOUCHER_ID)).thenReturn(List.of());
+        when(voucherRepository.addUsedCount(VOUCHER_ID, 2)).thenThrow(new IllegalStateException("db down"));
+        redemptionService.redeem(voucher, 7L);
+        redemptionService.redeem(voucher, 8L);
+
+        redemptionService.reconcile();
+
+        assertEquals(2L, redisTemplate.opsForList().size(QUEUE_KEY));
+        assertTrue(redisTemplate.opsForSet().isMember("voucher:pending", "1"));
+        assertFalse(redisTemplate.hasKey("voucher:{1}:reconciling"));
+    }
+
+    private static VoucherEntity voucher(int maxUsage, Integer perUserLimit) {
+        VoucherEntity voucher = new VoucherEntity();
+        voucher.setId(VOUCHER_ID);
+        voucher.setCode("SALE10");
+        voucher.setMaxUsage(maxUsage);
+        voucher.setUsedCount(0);
+        voucher.setPerUserLimit(perUserLimit);
+        voucher.setEndDate(LocalDateTime.now().plusDays(1));
+        return voucher;
+    }
+
+    private static List<Object[]> uses(Long... userIds) {
+        List<Object[]> rows = new ArrayList<>(userIds.length);
+        for (Long userId : userIds) {
+            rows.add(new Object[] {userId, 1L});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,86 @@
+package com.tiki.order.service;
+
+import com.tiki.order.entity.VoucherEntity;
+import com.tiki.order.exception.BadRequestException;
+import com.tiki.order.repository.VoucherRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for voucher redemption through VoucherService
+ */
+@ExtendWith(MockitoExtension.class)
+class VoucherServiceRedemptionTest {
+
+    @Mock
+    private VoucherRepository voucherRepository;
+
+    @Mock
+    private VoucherRedemptionService voucherRedemptionService;
+
+    @InjectMocks
+    private VoucherService voucherService;
+
+    @Test
+    void testApplyVoucherRedeemsWithoutSavingEntity() {
+        VoucherEntity voucher = voucher(true, LocalDateTime.now().plusDays(1));
+        when(voucherRepository.findByCode("SALE10")).thenReturn(Optional.of(voucher));
+        when(voucherRedemptionService.redeem(voucher, 42L)).thenReturn(VoucherRedemptionService.Result.REDEEMED);
+
+        assertDoesNotThrow(() -> voucherService.applyVoucher("SALE10", 42L));
+        verify(voucherRepository, never()).save(any());
+    }
+
+    @Test
+    void testApplyVoucherSoldOut() {
+        VoucherEntity voucher = voucher(true, LocalDateTime.now().plusDays(1));
+        when(voucherRepository.findByCode("SALE10")).thenReturn(Optional.of(voucher));
+        when(voucherRedemptionService.redeem(voucher, 42L)).thenReturn(VoucherRedemptionService.Result.SOLD_OUT);
+
+        assertThrows(BadRequestException.class, () -> voucherService.applyVoucher("SALE10", 42L));
+    }
+
+    @Test
+    void testApplyVoucherUserLimitReached() {
+        VoucherEntity voucher = voucher(true, LocalDateTime.now().plusDays(1));
+        when(voucherRepository.findByCode("SALE10")).thenReturn(Optional.of(voucher));
+        when(voucherRedemptionService.redeem(voucher, 42L)).thenReturn(VoucherRedemptionService.Result.USER_LIMIT_REACHED);
+
+        BadRequestException e = assertThrows(BadRequestException.class, () -> voucherService.applyVoucher("SALE10", 42L));
+        assertTrue(e.getMessage().contains("usage limit"));
+    }
+
+    @Test
+    void testApplyExpiredVoucherDoesNotTouchCounter() {
+        VoucherEntity voucher = voucher(true, LocalDateTime.now().minusDays(1));
+        when(voucherRepository.findByCode("SALE10")).thenReturn(Optional.of(voucher));
+
+        assertThrows(BadRequestException.class, () -> voucherService.applyVoucher("SALE10", 42L));
+        verifyNoInteractions(voucherRedemptionService);
+    }
+
+    private static VoucherEntity voucher(boolean active, LocalDateTime endDate) {
+        VoucherEntity voucher = new VoucherEntity();
+        voucher.setId(1);
+        voucher.setCode("SALE10");
+        voucher.setType(VoucherEntity.DiscountType.FIXED);
+        voucher.setValue(BigDecimal.TEN);
+        voucher.setStartDate(LocalDateTime.now().minusDays(2));
+        voucher.setEndDate(endDate);
+        voucher.setMaxUsage(100);
+        voucher.setPerUserLimit(1);
+        voucher.setIsActive(active);
+        return voucher;
+    }
+}
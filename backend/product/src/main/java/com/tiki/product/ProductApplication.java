@@ -3,17 +3,22 @@ package com.tiki.product;
 import com.tiki.common.config.CommonSecurityAutoConfiguration;
 import com.tiki.common.filter.JwtAuthenticationFilter;
 import com.tiki.common.security.JwtTokenProvider;
+import com.tiki.product.config.SearchRankingProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = {CommonSecurityAutoConfiguration.class})
 @EnableFeignClients
 @EntityScan(basePackages = {"com.tiki.product.entity", "com.tiki.common.entity"})
 @EnableJpaRepositories(basePackages = "com.tiki.product.repository")
+@EnableConfigurationProperties(SearchRankingProperties.class)
+@EnableScheduling
 public class ProductApplication {
 	
 	@Bean
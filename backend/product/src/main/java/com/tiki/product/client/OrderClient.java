@@ -3,6 +3,11 @@ package com.tiki.product.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * Feign Client for Order Service
@@ -15,4 +20,10 @@ public interface OrderClient {
      */
     @GetMapping("/api/v1/orders/product/{productId}/sold-count")
     Integer getProductSoldCount(@PathVariable("productId") Long productId);
+    
+    /**
+     * Get sold counts for many products in one call (keyed by productId)
+     */
+    @PostMapping("/api/v1/orders/product/sold-counts")
+    Map<Long, Integer> getProductSoldCounts(@RequestBody List<Long> productIds);
 }
@@ -4,6 +4,10 @@ import com.tiki.product.dto.ProductReviewStatsDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 /**
  * Feign Client for Review Service
@@ -16,4 +20,10 @@ public interface ReviewClient {
      */
     @GetMapping("/api/v1/reviews/product/{productId}/stats")
     ProductReviewStatsDTO getProductReviewStats(@PathVariable("productId") Long productId);
+    
+    /**
+     * Get review statistics for many products in one call
+     */
+    @PostMapping("/api/v1/reviews/product/stats")
+    List<ProductReviewStatsDTO> getProductReviewStatsBatch(@RequestBody List<Long> productIds);
 }
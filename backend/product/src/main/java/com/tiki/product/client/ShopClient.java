@@ -3,6 +3,11 @@ package com.tiki.product.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * Feign Client for Shop Service
@@ -15,4 +20,10 @@ public interface ShopClient {
      */
     @GetMapping("/api/v1/shops/{shopId}/name")
     String getShopName(@PathVariable("shopId") Long shopId);
+    
+    /**
+     * Get shop names for many shops in one call (keyed by shopId)
+     */
+    @PostMapping("/api/v1/shops/names")
+    Map<Long, String> getShopNames(@RequestBody List<Long> shopIds);
 }
@@ -0,0 +1,33 @@
+package com.tiki.product.config;
+
+import com.tiki.common.cache.CompactCacheType;
+import com.tiki.common.config.RedisConfig;
+import com.tiki.product.dto.PageResponseDTO;
+import com.tiki.product.dto.ProductDetailDTO;
+import com.tiki.product.dto.ProductListDTO;
+import com.tiki.product.service.ProductCacheService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Redis caching for the product service
+ * Uses the shared cache manager (TTLs, serializer, statistics) from common
+ */
+@Configuration
+@Import(RedisConfig.class)
+public class CacheConfig {
+
+    /**
+     * Search pages are the largest cached values; store them in the typed binary format
+     */
+    @Bean
+    public CompactCacheType productsPageCacheType() {
+        return CompactCacheType.of(ProductCacheService.PAGE_CACHE, PageResponseDTO.class, ProductListDTO.class);
+    }
+
+    @Bean
+    public CompactCacheType productDetailCacheType() {
+        return CompactCacheType.of(ProductCacheService.DETAIL_CACHE, ProductDetailDTO.class);
+    }
+}
@@ -0,0 +1,24 @@
+package com.tiki.product.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code match_against(col1, col2, terms)} so criteria queries can use the
+ * MySQL FULLTEXT index on products(name, description).
+ *
+ * Loaded by Hibernate through META-INF/services, not by Spring.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    public static final String MATCH_AGAINST = "match_against";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+            MATCH_AGAINST,
+            "match (?1, ?2) against (?3 in boolean mode)",
+            functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -0,0 +1,54 @@
+package com.tiki.product.config;
+
+import com.tiki.common.config.RabbitMQConfig;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * RabbitMQ setup for the product service
+ * Declares the shared exchanges/queues and a batching container for search indexing
+ */
+@Configuration
+@Import(RabbitMQConfig.class)
+public class MessagingConfig {
+    
+    public static final String INDEXING_CONTAINER_FACTORY = "indexingContainerFactory";
+    
+    /**
+     * Delivers product events in batches: up to batch-size messages, or whatever arrived
+     * before the coalesce window elapsed without a new message. A failing batch is retried
+     * in place and then rejected without requeue, which dead-letters it to product.updated.dlq
+     * instead of redelivering it forever.
+     */
+    @Bean(INDEXING_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory indexingContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter jsonMessageConverter,
+            @Value("${search.indexing.batch-size:500}") int batchSize,
+            @Value("${search.indexing.coalesce-window-ms:500}") long coalesceWindowMs,
+            @Value("${search.indexing.max-attempts:3}") int maxAttempts,
+            @Value("${search.indexing.retry-interval-ms:1000}") long retryIntervalMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setReceiveTimeout(coalesceWindowMs);
+        factory.setDefaultRequeueRejected(false);
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+            .maxAttempts(maxAttempts)
+            .backOffOptions(retryIntervalMs, 2.0, retryIntervalMs * 10)
+            .recoverer(new RejectAndDontRequeueRecoverer())
+            .build());
+        return factory;
+    }
+}
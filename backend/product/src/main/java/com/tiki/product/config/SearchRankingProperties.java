@@ -0,0 +1,60 @@
+package com.tiki.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Named ranking profiles for product search (search.ranking.*)
+ *
+ * Each profile is applied as a function_score around the text query:
+ * popularity/rating signals are added to (or multiplied with) the text score inside Elasticsearch.
+ */
+@ConfigurationProperties(prefix = "search.ranking")
+public class SearchRankingProperties {
+
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+
+    public Map<String, Profile> getProfiles() { return profiles; }
+    public void setProfiles(Map<String, Profile> profiles) { this.profiles = profiles; }
+
+    public static class Profile {
+        private float nameBoost = 3.0f;
+        private float foldedNameBoost = 1.5f;
+        private float descriptionBoost = 1.0f;
+        private double soldCountWeight = 0;    // log1p(soldCount) * weight
+        private double ratingWeight = 0;       // rating * weight
+        private double reviewCountWeight = 0;  // log1p(reviewCount) * weight
+        private double recencyWeight = 0;      // gauss decay on createdAt
+        private String recencyScale = "30d";
+        private String boostMode = "sum";      // how functions combine with the text score
+
+        public float getNameBoost() { return nameBoost; }
+        public void setNameBoost(float nameBoost) { this.nameBoost = nameBoost; }
+
+        public float getFoldedNameBoost() { return foldedNameBoost; }
+        public void setFoldedNameBoost(float foldedNameBoost) { this.foldedNameBoost = foldedNameBoost; }
+
+        public float getDescriptionBoost() { return descriptionBoost; }
+        public void setDescriptionBoost(float descriptionBoost) { this.descriptionBoost = descriptionBoost; }
+
+        public double getSoldCountWeight() { return soldCountWeight; }
+        public void setSoldCountWeight(double soldCountWeight) { this.soldCountWeight = soldCountWeight; }
+
+        public double getRatingWeight() { return ratingWeight; }
+        public void setRatingWeight(double ratingWeight) { this.ratingWeight = ratingWeight; }
+
+        public double getReviewCountWeight() { return reviewCountWeight; }
+        public void setReviewCountWeight(double reviewCountWeight) { this.reviewCountWeight = reviewCountWeight; }
+
+        public double getRecencyWeight() { return recencyWeight; }
+        public void setRecencyWeight(double recencyWeight) { this.recencyWeight = recencyWeight; }
+
+        public String getRecencyScale() { return recencyScale; }
+        public void setRecencyScale(String recencyScale) { this.recencyScale = recencyScale; }
+
+        public String getBoostMode() { return boostMode; }
+        public void setBoostMode(String boostMode) { this.boostMode = boostMode; }
+    }
+}
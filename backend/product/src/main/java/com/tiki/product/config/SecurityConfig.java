@@ -26,6 +26,8 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/actuator/**", "/api/v1/health", "/api/v1/products/**").permitAll()
+                // Service-to-service calls, checked against the shared internal token by their controllers
+                .requestMatchers("/internal/**").permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> 
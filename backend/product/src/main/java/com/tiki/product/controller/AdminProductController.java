@@ -1,12 +1,15 @@
 package com.tiki.product.controller;
 
+import com.tiki.product.dto.CursorPageDTO;
 import com.tiki.product.dto.ProductDetailDTO;
+import com.tiki.product.dto.ProductListDTO;
+import com.tiki.product.dto.ReindexStatusDTO;
+import com.tiki.product.service.ProductReindexService;
 import com.tiki.product.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,10 +20,14 @@ import java.util.Map;
 @Slf4j
 public class AdminProductController {
 
+    private static final int MAX_SEEK_SIZE = 1000;
+
     private final ProductService productService;
+    private final ProductReindexService reindexService;
 
-    public AdminProductController(ProductService productService) {
+    public AdminProductController(ProductService productService, ProductReindexService reindexService) {
         this.productService = productService;
+        this.reindexService = reindexService;
     }
     
     /**
@@ -32,9 +39,27 @@ public class AdminProductController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         log.info("Admin getting all products");
-        
-        // Return mock empty page
-        return ResponseEntity.ok(Page.empty(PageRequest.of(page, size)));
+
+        return ResponseEntity.ok(productService.search(null, null, null, null, null, null, page, size));
+    }
+
+    /**
+     * Keyset-paged product export (admin)
+     * GET /api/v1/admin/products/seek?sort=id&size=500&cursor=...
+     * Every page costs the same regardless of depth; the total is only counted when withTotal=true.
+     * At most 1000 per page.
+     */
+    @GetMapping("/seek")
+    public ResponseEntity<CursorPageDTO<ProductListDTO>> seekProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        log.info("Admin seeking products after cursor {}", cursor);
+
+        return ResponseEntity.ok(productService.seek(q, null, null, null, null, sort, cursor,
+                Math.min(Math.max(size, 1), MAX_SEEK_SIZE), withTotal));
     }
     
     /**
@@ -72,6 +97,28 @@ public class AdminProductController {
         return ResponseEntity.ok(analytics);
     }
 
+    /**
+     * Reindex all products into Elasticsearch in the background (admin)
+     * POST /api/v1/admin/products/reindex?resume=true
+     */
+    @PostMapping("/reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReindexStatusDTO> reindex(@RequestParam(defaultValue = "false") boolean resume) {
+        log.info("Admin reindex request: resume={}", resume);
+
+        return ResponseEntity.accepted().body(reindexService.start(resume));
+    }
+
+    /**
+     * Reindex progress and ETA (admin)
+     * GET /api/v1/admin/products/reindex/status
+     */
+    @GetMapping("/reindex/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReindexStatusDTO> reindexStatus() {
+        return ResponseEntity.ok(reindexService.getStatus());
+    }
+
     @PostMapping
     public ResponseEntity<ProductDetailDTO> create(@Valid @RequestBody ProductDetailDTO request) {
         return ResponseEntity.ok(productService.create(request));
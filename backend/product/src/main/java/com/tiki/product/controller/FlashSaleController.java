@@ -1,25 +1,37 @@
 package com.tiki.product.controller;
 
+import com.tiki.product.dto.FlashSaleDTO;
+import com.tiki.product.dto.FlashSaleProductDTO;
+import com.tiki.product.entity.FlashSale.FlashSaleStatus;
+import com.tiki.product.service.FlashSaleAdmissionService;
+import com.tiki.product.service.FlashSaleAdmissionService.Admission;
+import com.tiki.product.service.FlashSaleReservationService;
+import com.tiki.product.service.FlashSaleReservationService.ReservationResult;
+import com.tiki.product.service.FlashSaleService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Flash Sale Controller
  * Sprint 16: Flash Sales System
- * Provides REST API for flash sales management
+ * Provides REST API for flash sales management and the purchase path (reservations)
  */
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/flash-sales")
+@RequiredArgsConstructor
 public class FlashSaleController {
     
+    private final FlashSaleService flashSaleService;
+    private final FlashSaleReservationService reservationService;
+    private final FlashSaleAdmissionService admissionService;
+    
     /**
      * Get all flash sales
      * GET /api/v1/flash-sales
@@ -29,34 +41,10 @@ public class FlashSaleController {
             @RequestParam(required = false) String status) {
         log.info("GET /flash-sales - status: {}", status);
         
+        List<FlashSaleDTO> flashSales = flashSaleService.getAll(status != null ? FlashSaleStatus.valueOf(status.toUpperCase()) : null);
         return ResponseEntity.ok(Map.of(
-            "flashSales", List.of(
-                Map.of(
-                    "id", 1,
-                    "name", "Mega Flash Sale 11.11",
-                    "description", "Giảm giá cực sốc dịp 11.11",
-                    "startTime", "2024-11-11T00:00:00",
-                    "endTime", "2024-11-11T23:59:59",
-                    "status", "ENDED"
-                ),
-                Map.of(
-                    "id", 2,
-                    "name", "Black Friday 2024",
-                    "description", "Black Friday - Giảm đến 70%",
-                    "startTime", "2024-11-29T00:00:00",
-                    "endTime", "2024-11-29T23:59:59",
-                    "status", "SCHEDULED"
-                ),
-                Map.of(
-                    "id", 3,
-                    "name", "Cyber Monday Sale",
-                    "description", "Săn deal công nghệ",
-                    "startTime", "2024-12-02T00:00:00",
-                    "endTime", "2024-12-02T23:59:59",
-                    "status", "SCHEDULED"
-                )
-            ),
-            "total", 3
+            "flashSales", flashSales,
+            "total", flashSales.size()
         ));
     }
     
@@ -68,15 +56,7 @@ public class FlashSaleController {
     public ResponseEntity<?> getFlashSaleById(@PathVariable Long id) {
         log.info("GET /flash-sales/{}", id);
         
-        return ResponseEntity.ok(Map.of(
-            "id", id,
-            "name", "Black Friday 2024",
-            "description", "Black Friday - Giảm đến 70%",
-            "startTime", "2024-11-29T00:00:00",
-            "endTime", "2024-11-29T23:59:59",
-            "status", "SCHEDULED",
-            "productsCount", 2
-        ));
+        return ResponseEntity.ok(flashSaleService.get(id));
     }
     
     /**
@@ -87,10 +67,10 @@ public class FlashSaleController {
     public ResponseEntity<?> getActiveFlashSales() {
         log.info("GET /flash-sales/active");
         
+        List<FlashSaleDTO> flashSales = flashSaleService.getActive();
         return ResponseEntity.ok(Map.of(
-            "flashSales", List.of(),
-            "total", 0,
-            "message", "No active flash sales at the moment"
+            "flashSales", flashSales,
+            "total", flashSales.size()
         ));
     }
     
@@ -102,24 +82,10 @@ public class FlashSaleController {
     public ResponseEntity<?> getUpcomingFlashSales() {
         log.info("GET /flash-sales/upcoming");
         
+        List<FlashSaleDTO> flashSales = flashSaleService.getUpcoming();
         return ResponseEntity.ok(Map.of(
-            "flashSales", List.of(
-                Map.of(
-                    "id", 2,
-                    "name", "Black Friday 2024",
-                    "startTime", "2024-11-29T00:00:00",
-                    "endTime", "2024-11-29T23:59:59",
-                    "status", "SCHEDULED"
-                ),
-                Map.of(
-                    "id", 3,
-                    "name", "Cyber Monday Sale",
-                    "startTime", "2024-12-02T00:00:00",
-                    "endTime", "2024-12-02T23:59:59",
-                    "status", "SCHEDULED"
-                )
-            ),
-            "total", 2
+            "flashSales", flashSales,
+            "total", flashSales.size()
         ));
     }
     
@@ -131,21 +97,13 @@ public class FlashSaleController {
     public ResponseEntity<?> createFlashSale(
             @RequestHeader(value = "X-User-Id", required = true) Long adminId,
             @RequestHeader(value = "X-Username", required = false) String adminUsername,
-            @RequestBody Map<String, Object> request) {
+            @RequestBody FlashSaleDTO request) {
         
         // ✅ SECURITY FIX: TODO - Add @PreAuthorize("hasRole('ADMIN')") when security is configured
         log.warn("ADMIN ACTION: User {} ({}) creating flash sale: {}", 
-            adminUsername != null ? adminUsername : "unknown", adminId, request.get("name"));
+            adminUsername != null ? adminUsername : "unknown", adminId, request.getName());
         
-        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
-            "id", 4,
-            "name", request.getOrDefault("name", "New Flash Sale"),
-            "description", request.getOrDefault("description", ""),
-            "startTime", request.getOrDefault("startTime", LocalDateTime.now().plusDays(1).toString()),
-            "endTime", request.getOrDefault("endTime", LocalDateTime.now().plusDays(2).toString()),
-            "status", "SCHEDULED",
-            "message", "Flash sale created successfully (mock)"
-        ));
+        return ResponseEntity.status(HttpStatus.CREATED).body(flashSaleService.create(request));
     }
     
     /**
@@ -157,18 +115,13 @@ public class FlashSaleController {
             @PathVariable Long id,
             @RequestHeader(value = "X-User-Id", required = true) Long adminId,
             @RequestHeader(value = "X-Username", required = false) String adminUsername,
-            @RequestBody Map<String, Object> request) {
+            @RequestBody FlashSaleDTO request) {
         
         // ✅ SECURITY FIX: TODO - Add @PreAuthorize("hasRole('ADMIN')") when security is configured
         log.warn("ADMIN ACTION: User {} ({}) updating flash sale {}", 
             adminUsername != null ? adminUsername : "unknown", adminId, id);
         
-        return ResponseEntity.ok(Map.of(
-            "id", id,
-            "name", request.getOrDefault("name", "Updated Flash Sale"),
-            "status", request.getOrDefault("status", "SCHEDULED"),
-            "message", "Flash sale updated successfully (mock)"
-        ));
+        return ResponseEntity.ok(flashSaleService.update(id, request));
     }
     
     /**
@@ -185,6 +138,7 @@ public class FlashSaleController {
         log.error("ADMIN DELETE: User {} ({}) deleting flash sale {}", 
             adminUsername != null ? adminUsername : "unknown", adminId, id);
         
+        flashSaleService.delete(id);
         return ResponseEntity.ok(Map.of(
             "message", "Flash sale deleted successfully",
             "id", id
@@ -199,33 +153,11 @@ public class FlashSaleController {
     public ResponseEntity<?> getFlashSaleProducts(@PathVariable Long id) {
         log.info("GET /flash-sales/{}/products", id);
         
+        List<FlashSaleProductDTO> products = flashSaleService.getProducts(id);
         return ResponseEntity.ok(Map.of(
             "flashSaleId", id,
-            "products", List.of(
-                Map.of(
-                    "id", 1,
-                    "productId", 1,
-                    "originalPrice", 1000000,
-                    "salePrice", 400000,
-                    "discountPercentage", 60.0,
-                    "quantityLimit", 200,
-                    "quantitySold", 0,
-                    "maxPerUser", 2,
-                    "remaining", 200
-                ),
-                Map.of(
-                    "id", 2,
-                    "productId", 3,
-                    "originalPrice", 800000,
-                    "salePrice", 400000,
-                    "discountPercentage", 50.0,
-                    "quantityLimit", 150,
-                    "quantitySold", 0,
-                    "maxPerUser", 1,
-                    "remaining", 150
-                )
-            ),
-            "total", 2
+            "products", products,
+            "total", products.size()
         ));
     }
     
@@ -238,20 +170,122 @@ public class FlashSaleController {
             @PathVariable Long id,
             @RequestHeader(value = "X-User-Id", required = true) Long adminId,
             @RequestHeader(value = "X-Username", required = false) String adminUsername,
-            @RequestBody Map<String, Object> request) {
+            @RequestBody FlashSaleProductDTO request) {
         
         // ✅ SECURITY FIX: TODO - Add @PreAuthorize("hasRole('ADMIN')") when security is configured
         log.warn("ADMIN ACTION: User {} ({}) adding product {} to flash sale {}", 
             adminUsername != null ? adminUsername : "unknown", adminId, 
-            request.get("productId"), id);
+            request.getProductId(), id);
+        
+        return ResponseEntity.status(HttpStatus.CREATED).body(flashSaleService.addProduct(id, request));
+    }
+    
+    /**
+     * Activate flash sale: loads stock counters so the sale can take reservations
+     * POST /api/v1/flash-sales/{id}/activate
+     */
+    @PostMapping("/{id}/activate")
+    public ResponseEntity<?> activateFlashSale(
+            @PathVariable Long id,
+            @RequestHeader(value = "X-User-Id", required = true) Long adminId,
+            @RequestHeader(value = "X-Username", required = false) String adminUsername) {
+        
+        // ✅ SECURITY FIX: TODO - Add @PreAuthorize("hasRole('ADMIN')") when security is configured
+        log.warn("ADMIN ACTION: User {} ({}) activating flash sale {}", 
+            adminUsername != null ? adminUsername : "unknown", adminId, id);
+        
+        return ResponseEntity.ok(flashSaleService.activate(id));
+    }
+    
+    /**
+     * Join the waiting room of a flash sale
+     * POST /api/v1/flash-sales/{id}/queue
+     */
+    @PostMapping("/{id}/queue")
+    public ResponseEntity<?> joinQueue(
+            @PathVariable Long id,
+            @RequestHeader(value = "X-User-Id", required = true) Long userId) {
         
+        String ticket = admissionService.join(id, userId);
+        Admission admission = admissionService.status(id, ticket);
         return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
-            "id", 5,
-            "flashSaleId", id,
-            "productId", request.getOrDefault("productId", 1),
-            "salePrice", request.getOrDefault("salePrice", 100000),
-            "quantityLimit", request.getOrDefault("quantityLimit", 100),
-            "message", "Product added to flash sale successfully (mock)"
+            "ticket", ticket,
+            "admitted", admission.admitted(),
+            "position", admission.position(),
+            "retryAfterSeconds", admission.retryAfterSeconds()
+        ));
+    }
+    
+    /**
+     * Poll queue position; answered from the signed ticket, no database or Redis call
+     * GET /api/v1/flash-sales/{id}/queue/status
+     */
+    @GetMapping("/{id}/queue/status")
+    public ResponseEntity<?> getQueueStatus(
+            @PathVariable Long id,
+            @RequestHeader(value = "X-Queue-Ticket", required = true) String ticket) {
+        
+        Admission admission = admissionService.status(id, ticket);
+        return ResponseEntity.ok()
+            .header("Retry-After", String.valueOf(admission.retryAfterSeconds()))
+            .body(Map.of(
+                "admitted", admission.admitted(),
+                "position", admission.position(),
+                "retryAfterSeconds", admission.retryAfterSeconds()
+            ));
+    }
+    
+    /**
+     * Reserve units of a flash sale product for the current user
+     * POST /api/v1/flash-sales/{id}/products/{productId}/reserve
+     */
+    @PostMapping("/{id}/products/{productId}/reserve")
+    public ResponseEntity<?> reserve(
+            @PathVariable Long id,
+            @PathVariable Long productId,
+            @RequestHeader(value = "X-User-Id", required = true) Long userId,
+            @RequestHeader(value = "X-Queue-Ticket", required = false) String ticket,
+            @RequestParam(defaultValue = "1") int quantity) {
+        
+        if (quantity < 1) {
+            return ResponseEntity.badRequest().body(Map.of("error", "quantity must be at least 1"));
+        }
+        if (admissionService.isEnabled()) {
+            Admission admission = admissionService.check(id, userId, ticket);
+            if (!admission.admitted()) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(admission.retryAfterSeconds()))
+                    .body(Map.of(
+                        "flashSaleId", id,
+                        "position", admission.position(),
+                        "retryAfterSeconds", admission.retryAfterSeconds()
+                    ));
+            }
+        }
+        ReservationResult result = reservationService.reserve(id, productId, userId, quantity);
+        if (result.status() != FlashSaleReservationService.Status.RESERVED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "flashSaleId", id,
+                "productId", productId,
+                "reason", result.status()
+            ));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(result.reservation());
+    }
+    
+    /**
+     * Release a reservation, returning its units to stock
+     * DELETE /api/v1/flash-sales/reservations/{token}
+     */
+    @DeleteMapping("/reservations/{token}")
+    public ResponseEntity<?> releaseReservation(
+            @PathVariable String token,
+            @RequestHeader(value = "X-User-Id", required = true) Long userId) {
+        
+        boolean released = reservationService.release(token, userId);
+        return ResponseEntity.ok(Map.of(
+            "token", token,
+            "released", released
         ));
     }
 }
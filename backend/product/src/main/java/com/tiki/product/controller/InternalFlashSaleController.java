@@ -0,0 +1,62 @@
+package com.tiki.product.controller;
+
+import com.tiki.product.dto.FlashSaleReservationDTO;
+import com.tiki.product.service.FlashSaleReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+
+/**
+ * Flash sale calls made by other services, not by users.
+ * Authenticated with the shared {@code X-Internal-Token}; the gateway does not route /internal.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/internal/v1/flash-sales")
+@RequiredArgsConstructor
+public class InternalFlashSaleController {
+
+    private final FlashSaleReservationService reservationService;
+
+    @Value("${internal.token}")
+    private String internalToken;
+
+    /**
+     * Confirm a reservation once order-service has placed the order
+     * POST /internal/v1/flash-sales/reservations/{token}/confirm
+     */
+    @PostMapping("/reservations/{token}/confirm")
+    public ResponseEntity<?> confirmReservation(
+            @PathVariable String token,
+            @RequestHeader(value = "X-User-Id", required = true) Long userId,
+            @RequestHeader(value = "X-Internal-Token", required = false) String callerToken) {
+
+        if (!authorized(callerToken)) {
+            log.warn("Rejected internal flash sale confirm without a valid service token");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Forbidden"));
+        }
+        FlashSaleReservationDTO reservation = reservationService.confirm(token, userId);
+        if (reservation == null) {
+            return ResponseEntity.status(HttpStatus.GONE).body(Map.of(
+                "token", token,
+                "message", "Reservation expired or not found"
+            ));
+        }
+        return ResponseEntity.ok(reservation);
+    }
+
+    private boolean authorized(String callerToken) {
+        if (callerToken == null || internalToken == null || internalToken.isBlank()) {
+            return false;
+        }
+        return MessageDigest.isEqual(internalToken.getBytes(StandardCharsets.UTF_8),
+            callerToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,7 @@
 package com.tiki.product.controller;
 
+import com.tiki.product.dto.CursorPageDTO;
+import com.tiki.product.dto.ProductBatchItemDTO;
 import com.tiki.product.dto.PageResponseDTO;
 import com.tiki.product.dto.ProductDetailDTO;
 import com.tiki.product.dto.ProductListDTO;
@@ -8,11 +10,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Product Controller - REST API for product management
@@ -24,6 +29,8 @@ import java.math.BigDecimal;
 @Slf4j
 public class ProductController {
 
+    private static final int MAX_SEEK_SIZE = 100;
+
     private final ProductService productService;
 
     @GetMapping
@@ -43,6 +50,38 @@ public class ProductController {
         return productService.search(searchQuery, categoryId, brand, minPrice, maxPrice, sort, page, size);
     }
 
+    /**
+     * Keyset-paged listing for crawlers and exports
+     * GET /api/v1/products/seek?sort=price,desc&size=100&cursor=...
+     * Sort is one of id, price, name; pass withTotal=true to also count matches. At most 100 per page.
+     */
+    @GetMapping("/seek")
+    public CursorPageDTO<ProductListDTO> seek(
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "category", required = false) Integer categoryId,
+            @RequestParam(value = "brand", required = false) String brand,
+            @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+            @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal
+    ) {
+        log.debug("Seeking products - size: {}, query: {}, sort: {}", size, q, sort);
+        return productService.seek(q, categoryId, brand, minPrice, maxPrice, sort, cursor,
+                Math.min(Math.max(size, 1), MAX_SEEK_SIZE), withTotal);
+    }
+
+    /**
+     * Bulk lookup of price, stock and status, e.g. for cart revalidation
+     * POST /api/v1/products/batch  body: [1, 2, 3]  (at most 500 ids)
+     */
+    @PostMapping("/batch")
+    public List<ProductBatchItemDTO> batch(@RequestBody List<Integer> ids) {
+        log.debug("Batch lookup for {} products", ids != null ? ids.size() : 0);
+        return productService.getBatch(ids);
+    }
+
     @GetMapping("/{id}")
     public ProductDetailDTO detail(@PathVariable Integer id) {
         log.debug("Getting product detail for id: {}", id);
@@ -58,22 +97,6 @@ public class ProductController {
         return productService.getDetail(id);
     }
     
-    /**
-     * Search products (dedicated search endpoint)
-     */
-    @GetMapping("/search")
-    public PageResponseDTO<ProductListDTO> search(
-            @RequestParam(value = "keyword", required = false) String keyword,
-            @RequestParam(value = "q", required = false) String q,
-            @RequestParam(value = "category", required = false) Integer categoryId,
-            @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "20") int size
-    ) {
-        String searchQuery = keyword != null ? keyword : q;
-        log.debug("Searching products with keyword: {}", searchQuery);
-        return productService.search(searchQuery, categoryId, null, null, null, null, page, size);
-    }
-    
     /**
      * Get product variants
      */
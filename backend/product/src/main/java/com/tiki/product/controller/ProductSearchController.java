@@ -1,7 +1,10 @@
 package com.tiki.product.controller;
 
+import com.tiki.product.dto.CursorPageDTO;
+import com.tiki.product.dto.FacetedSearchResultDTO;
 import com.tiki.product.dto.PageResponseDTO;
 import com.tiki.product.dto.ProductListDTO;
+import com.tiki.product.exception.BadRequestException;
 import com.tiki.product.service.ProductSearchService;
 import com.tiki.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
@@ -18,10 +21,10 @@ import java.util.List;
 
 /**
  * Product Search Controller using Elasticsearch
- * DISABLED: Elasticsearch not configured, using JPA search in ProductController instead
+ * Falls back to JPA search in ProductService when Elasticsearch is unavailable
  */
 @Slf4j
-//@RestController
+@RestController
 @RequestMapping("/api/v1/products/search")
 @RequiredArgsConstructor
 public class ProductSearchController {
@@ -32,9 +35,12 @@ public class ProductSearchController {
     /**
      * Full-text search with filters
      * GET /api/products/search?q=laptop&category=1&brand=Dell&minPrice=1000&maxPrice=5000&page=0&size=20
+     * With facets=true the response also carries brand/category/shop/price/rating facets
+     * With profile=popular (or any configured search.ranking profile) results are ranked in Elasticsearch
+     * and the sort parameter is ignored
      */
     @GetMapping
-    public ResponseEntity<Page<ProductListDTO>> search(
+    public ResponseEntity<?> search(
             @RequestParam(required = false) String q,
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) Integer category,
@@ -43,7 +49,9 @@ public class ProductSearchController {
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "id,desc") String sort) {
+            @RequestParam(defaultValue = "id,desc") String sort,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(required = false) String profile) {
         
         // Use keyword if q is null
         String searchQuery = q != null ? q : keyword;
@@ -56,12 +64,21 @@ public class ProductSearchController {
         Sort.Direction direction = sortParts.length > 1 && sortParts[1].equalsIgnoreCase("asc") 
             ? Sort.Direction.ASC : Sort.Direction.DESC;
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortField));
+        Pageable pageable = profile != null
+            ? PageRequest.of(page, size)
+            : PageRequest.of(page, size, Sort.by(direction, sortField));
         
         try {
-            Page<ProductListDTO> results = searchService.search(searchQuery, category, brand, minPrice, maxPrice, pageable);
+            if (facets) {
+                FacetedSearchResultDTO results = searchService.searchWithFacets(searchQuery, category, brand, minPrice, maxPrice, profile, pageable);
+                log.info("Found {} products with facets (Elasticsearch)", results.getTotalElements());
+                return ResponseEntity.ok(results);
+            }
+            Page<ProductListDTO> results = searchService.search(searchQuery, category, brand, minPrice, maxPrice, profile, pageable);
             log.info("Found {} products (Elasticsearch)", results.getTotalElements());
             return ResponseEntity.ok(results);
+        } catch (BadRequestException e) {
+            throw e;
         } catch (Exception e) {
             log.warn("Elasticsearch unavailable, falling back to JPA search: {}", e.getMessage());
             // Fallback to JPA search
@@ -75,6 +92,34 @@ public class ProductSearchController {
         }
     }
     
+    /**
+     * Cursor-based search for infinite scroll / crawlers (no 10k result window)
+     * GET /api/products/search/cursor?q=laptop&size=20&cursor=...&withTotal=true
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<ProductListDTO>> searchCursor(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        
+        log.info("Cursor search request: q={}, category={}, brand={}, hasCursor={}", q, category, brand, cursor != null);
+        Sort sortSpec = Sort.unsorted();
+        if (sort != null && !sort.isBlank()) {
+            String[] sortParts = sort.split(",");
+            Sort.Direction direction = sortParts.length > 1 && sortParts[1].equalsIgnoreCase("asc")
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+            sortSpec = Sort.by(direction, sortParts[0]);
+        }
+        return ResponseEntity.ok(searchService.searchCursor(q, category, brand, minPrice, maxPrice,
+            sortSpec, size, cursor, withTotal));
+    }
+    
     /**
      * Auto-complete suggestions
      * GET /api/products/search/suggestions?q=lap&limit=10
@@ -107,13 +152,18 @@ public class ProductSearchController {
     }
     
     /**
-     * Reindex all products (admin only)
-     * POST /api/products/search/reindex
+     * Cursor-based search within a shop
+     * GET /api/products/search/shop/1/cursor?q=laptop&size=20&cursor=...
      */
-    @PostMapping("/reindex")
-    public ResponseEntity<String> reindex() {
-        log.info("Reindex request received");
-        searchService.reindexAll();
-        return ResponseEntity.ok("Reindex completed successfully");
+    @GetMapping("/shop/{shopId}/cursor")
+    public ResponseEntity<CursorPageDTO<ProductListDTO>> searchByShopCursor(
+            @PathVariable Integer shopId,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        
+        log.info("Shop cursor search request: shopId={}, q={}, hasCursor={}", shopId, q, cursor != null);
+        return ResponseEntity.ok(searchService.searchByShopCursor(shopId, q, size, cursor, withTotal));
     }
 }
@@ -8,6 +8,9 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
+import org.springframework.data.elasticsearch.annotations.Setting;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -15,20 +18,34 @@ import java.time.LocalDateTime;
 /**
  * Elasticsearch Document for Product Search
  * Sprint 9 - Day 4-6
+ *
+ * "products" is an alias over versioned indices managed by ProductIndexManager,
+ * so Spring Data must not auto-create a concrete index with that name.
  */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(indexName = "products")
+@Document(indexName = "products", createIndex = false)
+@Setting(settingPath = "/elasticsearch/product-settings.json")
 public class ProductDocument {
     
     @Id
+    @Field(type = FieldType.Integer)
     private Integer id;
     
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @MultiField(
+        mainField = @Field(type = FieldType.Text, analyzer = "standard"),
+        otherFields = @InnerField(suffix = "folded", type = FieldType.Text, analyzer = "vi_folding"))
     private String name;
     
+    /**
+     * Autocomplete field: name + brand, edge-n-grams with Vietnamese accent folding
+     * ("dien thoai" and "điện thoại" match the same prefixes)
+     */
+    @Field(type = FieldType.Text, analyzer = "vi_autocomplete", searchAnalyzer = "vi_folding")
+    private String suggest;
+    
     @Field(type = FieldType.Text)
     private String description;
     
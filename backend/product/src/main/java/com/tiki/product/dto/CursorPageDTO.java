@@ -0,0 +1,24 @@
+package com.tiki.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Cursor-based page for deep scrolling
+ * Pass nextCursor back as "cursor" to fetch the following page; null when there are no more results
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private Long totalHits;          // only when requested, capped by search.cursor.total-hits-cap
+    private String totalHitsRelation; // EQUAL_TO or GREATER_THAN_OR_EQUAL_TO
+}
@@ -0,0 +1,20 @@
+package com.tiki.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One bucket of a search facet (brand, category, shop, price range, rating)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetBucketDTO {
+    private String key;
+    private Double from; // range facets only
+    private Double to;   // range facets only
+    private long count;
+}
@@ -0,0 +1,24 @@
+package com.tiki.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Search page plus facets, returned by /products/search?facets=true
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSearchResultDTO {
+    private List<ProductListDTO> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private SearchFacetsDTO facets;
+}
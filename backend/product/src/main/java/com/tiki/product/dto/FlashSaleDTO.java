@@ -0,0 +1,27 @@
+package com.tiki.product.dto;
+
+import com.tiki.product.entity.FlashSale;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flash sale header, used for both responses and create/update requests
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSaleDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private FlashSale.FlashSaleStatus status;
+    private Integer admissionRate;
+    private Integer productsCount;
+}
@@ -0,0 +1,28 @@
+package com.tiki.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Product offered in a flash sale; remaining comes from the live counter while the sale runs
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSaleProductDTO {
+    private Long id;
+    private Long flashSaleId;
+    private Long productId;
+    private BigDecimal originalPrice;
+    private BigDecimal salePrice;
+    private BigDecimal discountPercentage;
+    private Integer quantityLimit;
+    private Integer quantitySold;
+    private Integer maxPerUser;
+    private Integer remaining;
+}
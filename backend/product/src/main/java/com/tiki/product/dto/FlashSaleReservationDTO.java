@@ -0,0 +1,27 @@
+package com.tiki.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Units held for a user at the flash sale price until expiresAt.
+ * The order service confirms the token when the order is placed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSaleReservationDTO {
+    private String token;
+    private Long flashSaleId;
+    private Long productId;
+    private Long userId;
+    private Integer quantity;
+    private BigDecimal salePrice;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,50 @@
+package com.tiki.product.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Price, stock and status of one product, as returned by the bulk lookup used for cart
+ * revalidation and checkout pricing. Built directly by a JPQL constructor expression.
+ */
+public class ProductBatchItemDTO {
+    private Integer id;
+    private String name;
+    private BigDecimal price;
+    private Integer stock;
+    private String status;
+    private Boolean isActive;
+    private String thumbnailUrl;
+    private Long shopId;
+
+    public ProductBatchItemDTO() {
+    }
+
+    public ProductBatchItemDTO(Integer id, String name, BigDecimal price, Integer stock, String status,
+                               String thumbnailUrl, Long shopId) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.stock = stock;
+        this.status = status;
+        this.isActive = "ACTIVE".equals(status);
+        this.thumbnailUrl = thumbnailUrl;
+        this.shopId = shopId;
+    }
+
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+    public Integer getStock() { return stock; }
+    public void setStock(Integer stock) { this.stock = stock; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Boolean getIsActive() { return isActive; }
+    public void setIsActive(Boolean isActive) { this.isActive = isActive; }
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+    public Long getShopId() { return shopId; }
+    public void setShopId(Long shopId) { this.shopId = shopId; }
+}
@@ -0,0 +1,28 @@
+package com.tiki.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress snapshot of the Elasticsearch reindex job
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReindexStatusDTO {
+    private String status; // IDLE, RUNNING, COMPLETED, FAILED
+    private long processed;
+    private long total;
+    private double percent;
+    private double docsPerSecond;
+    private Long etaSeconds;
+    private Integer checkpoint; // last product id fully indexed
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,23 @@
+package com.tiki.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Filter sidebar facets computed by Elasticsearch in the same request as the hits
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchFacetsDTO {
+    private List<FacetBucketDTO> brands;
+    private List<FacetBucketDTO> categories;
+    private List<FacetBucketDTO> shops;
+    private List<FacetBucketDTO> priceRanges;
+    private List<FacetBucketDTO> ratings;
+}
@@ -44,6 +44,12 @@ public class FlashSale {
     @Column(length = 20, nullable = false)
     private FlashSaleStatus status = FlashSaleStatus.SCHEDULED;
     
+    /**
+     * Waiting room admissions per second, null = flash-sale.admission.rate-per-second
+     */
+    @Column(name = "admission_rate")
+    private Integer admissionRate;
+    
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
     
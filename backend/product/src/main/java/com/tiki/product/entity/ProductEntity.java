@@ -8,7 +8,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_brand", columnList = "brand"),
+        @Index(name = "idx_products_price", columnList = "price"),
+        @Index(name = "idx_products_name", columnList = "name")
+})
 public class ProductEntity {
 
     @Id
@@ -0,0 +1,37 @@
+package com.tiki.product.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox row for product changes
+ * Written in the same transaction as the product mutation, drained by ProductOutboxRelay
+ */
+@Entity
+@Table(name = "product_outbox")
+@Data
+@NoArgsConstructor
+public class ProductOutboxEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Integer productId;
+    
+    @Column(nullable = false, length = 20)
+    private String action; // CREATED, UPDATED, DELETED
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    public ProductOutboxEntity(Integer productId, String action) {
+        this.productId = productId;
+        this.action = action;
+        this.createdAt = LocalDateTime.now();
+    }
+}
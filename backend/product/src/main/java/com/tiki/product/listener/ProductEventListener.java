@@ -2,6 +2,7 @@ package com.tiki.product.listener;
 
 import com.tiki.common.config.RabbitMQConfig;
 import com.tiki.common.event.ProductUpdatedEvent;
+import com.tiki.product.config.MessagingConfig;
 import com.tiki.product.entity.ProductEntity;
 import com.tiki.product.repository.ProductRepository;
 import com.tiki.product.service.ProductSearchService;
@@ -10,13 +11,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Product Event Listener
  * 
- * Listens to product events and updates Elasticsearch index
+ * Listens to product events and updates Elasticsearch index.
+ * Events arrive in batches (see MessagingConfig); several updates to the same product
+ * within a batch collapse into one, and the whole batch becomes one bulk index request.
  */
 @Slf4j
-// @Component - Disabled: RabbitMQ queue setup issue, not critical for API tests
+@Component
 @RequiredArgsConstructor
 public class ProductEventListener {
     
@@ -24,42 +32,50 @@ public class ProductEventListener {
     private final ProductRepository productRepository;
     
     /**
-     * Handle Product Updated Event
-     * Updates Elasticsearch index when product is created/updated/deleted
+     * Handle a batch of Product Updated Events
+     * The last action per productId wins; the batch is acked only after indexing succeeds,
+     * and dead-lettered once its retries are exhausted
      */
-    @RabbitListener(queues = RabbitMQConfig.PRODUCT_UPDATED_QUEUE)
-    public void handleProductUpdated(ProductUpdatedEvent event) {
-        try {
-            log.info("Received product updated event: productId={}, action={}", 
-                event.getProductId(), event.getAction());
-            
-            switch (event.getAction()) {
+    @RabbitListener(queues = RabbitMQConfig.PRODUCT_UPDATED_QUEUE,
+                    containerFactory = MessagingConfig.INDEXING_CONTAINER_FACTORY)
+    public void handleProductUpdated(List<ProductUpdatedEvent> events) {
+        Map<Integer, String> latest = new LinkedHashMap<>();
+        for (ProductUpdatedEvent event : events) {
+            if (event == null || event.getProductId() == null || event.getAction() == null) {
+                // Malformed events are dropped on their own instead of failing the whole batch
+                log.warn("Skipping malformed product event: {}", event);
+                continue;
+            }
+            latest.put(event.getProductId(), event.getAction());
+        }
+        
+        List<Integer> toIndex = new ArrayList<>();
+        List<Integer> toDelete = new ArrayList<>();
+        latest.forEach((productId, action) -> {
+            switch (action) {
                 case "CREATED":
                 case "UPDATED":
-                    // Reindex product in Elasticsearch
-                    ProductEntity product = productRepository.findById(event.getProductId())
-                        .orElse(null);
-                    if (product != null) {
-                        searchService.indexProduct(product);
-                        log.info("Product indexed successfully: {}", event.getProductId());
-                    } else {
-                        log.warn("Product not found for indexing: {}", event.getProductId());
-                    }
+                    toIndex.add(productId);
                     break;
-                    
                 case "DELETED":
-                    // Remove from Elasticsearch index
-                    searchService.deleteFromIndex(event.getProductId());
-                    log.info("Product removed from index: {}", event.getProductId());
+                    toDelete.add(productId);
                     break;
-                    
                 default:
-                    log.warn("Unknown action: {}", event.getAction());
+                    log.warn("Unknown action: {} for product {}", action, productId);
+            }
+        });
+        
+        log.info("Received {} product events, coalesced to {} index / {} delete",
+            events.size(), toIndex.size(), toDelete.size());
+        
+        if (!toIndex.isEmpty()) {
+            List<ProductEntity> products = productRepository.findAllWithCategoryByIdIn(toIndex);
+            if (products.size() < toIndex.size()) {
+                // Deleted after the event was written; a DELETED event will follow
+                log.warn("{} products not found for indexing", toIndex.size() - products.size());
             }
-            
-        } catch (Exception e) {
-            log.error("Failed to handle product updated event", e);
-            // Don't throw exception - let RabbitMQ retry
+            searchService.indexProducts(products);
         }
+        searchService.deleteFromIndex(toDelete);
     }
 }
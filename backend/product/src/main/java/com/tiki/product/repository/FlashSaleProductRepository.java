@@ -2,7 +2,9 @@ package com.tiki.product.repository;
 
 import com.tiki.product.entity.FlashSaleProduct;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -39,4 +41,14 @@ public interface FlashSaleProductRepository extends JpaRepository<FlashSaleProdu
            "WHERE fsp.productId = :productId " +
            "AND fsp.flashSale.status = 'ACTIVE'")
     List<FlashSaleProduct> findActiveFlashSalesByProductId(Long productId);
+    
+    /**
+     * Write-behind of confirmed flash sale purchases, as a relative update
+     */
+    @Modifying
+    @Query("UPDATE FlashSaleProduct fsp SET fsp.quantitySold = fsp.quantitySold + :quantity " +
+           "WHERE fsp.flashSale.id = :flashSaleId AND fsp.productId = :productId")
+    int addQuantitySold(@Param("flashSaleId") Long flashSaleId,
+                        @Param("productId") Long productId,
+                        @Param("quantity") int quantity);
 }
@@ -3,11 +3,15 @@ package com.tiki.product.repository;
 import com.tiki.product.entity.FlashSale;
 import com.tiki.product.entity.FlashSale.FlashSaleStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Flash Sale Repository
@@ -40,4 +44,26 @@ public interface FlashSaleRepository extends JpaRepository<FlashSale, Long> {
      */
     @Query("SELECT f FROM FlashSale f WHERE f.startTime >= :start AND f.endTime <= :end")
     List<FlashSale> findByDateRange(LocalDateTime start, LocalDateTime end);
+    
+    /**
+     * Sales with their products in one query, for the lifecycle snapshot
+     */
+    @Query("SELECT DISTINCT f FROM FlashSale f LEFT JOIN FETCH f.products WHERE f.status IN :statuses")
+    List<FlashSale> findWithProductsByStatusIn(@Param("statuses") Collection<FlashSaleStatus> statuses);
+    
+    /**
+     * Current status alone, to re-check a sale after a lost compare-and-set
+     */
+    @Query("SELECT f.status FROM FlashSale f WHERE f.id = :id")
+    Optional<FlashSaleStatus> findStatusById(@Param("id") Long id);
+    
+    /**
+     * Compare-and-set status change, so concurrent schedulers apply a transition once
+     */
+    @Modifying
+    @Query("UPDATE FlashSale f SET f.status = :to, f.updatedAt = :now WHERE f.id = :id AND f.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") FlashSaleStatus from,
+                   @Param("to") FlashSaleStatus to,
+                   @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,23 @@
+package com.tiki.product.repository;
+
+import com.tiki.product.entity.ProductOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Product Outbox Repository
+ */
+@Repository
+public interface ProductOutboxRepository extends JpaRepository<ProductOutboxEntity, Long> {
+    
+    /**
+     * Lock the oldest pending rows for this transaction, skipping rows another relay has locked,
+     * so concurrent relays publish disjoint batches
+     */
+    @Query(value = "SELECT * FROM product_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ProductOutboxEntity> claimBatch(@Param("limit") int limit);
+}
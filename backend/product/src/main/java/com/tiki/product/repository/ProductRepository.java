@@ -1,30 +1,37 @@
 package com.tiki.product.repository;
 
+import com.tiki.product.dto.ProductBatchItemDTO;
 import com.tiki.product.entity.ProductEntity;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface ProductRepository extends JpaRepository<ProductEntity, Integer>, JpaSpecificationExecutor<ProductEntity> {
 
     boolean existsBySkuIgnoreCase(String sku);
 
-    @Query("SELECT p FROM ProductEntity p " +
-            "LEFT JOIN p.category c " +
-            "WHERE (:q IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :q, '%')) OR LOWER(p.sku) LIKE LOWER(CONCAT('%', :q, '%'))) " +
-            "AND (:categoryId IS NULL OR c.id = :categoryId) " +
-            "AND (:brand IS NULL OR LOWER(p.brand) = LOWER(:brand)) " +
-            "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
-            "AND (:maxPrice IS NULL OR p.price <= :maxPrice)")
-    Page<ProductEntity> search(
-            @Param("q") String q,
-            @Param("categoryId") Integer categoryId,
-            @Param("brand") String brand,
-            @Param("minPrice") java.math.BigDecimal minPrice,
-            @Param("maxPrice") java.math.BigDecimal maxPrice,
-            Pageable pageable
-    );
+    /**
+     * Keyset page for bulk jobs: next {@code pageable.getPageSize()} products after {@code afterId},
+     * with category fetched so the rows can be used outside the persistence context.
+     */
+    @Query("SELECT p FROM ProductEntity p LEFT JOIN FETCH p.category " +
+            "WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<ProductEntity> findNextPage(@Param("afterId") Integer afterId, Pageable pageable);
+
+    long countByIdGreaterThan(Integer afterId);
+
+    @Query("SELECT p FROM ProductEntity p LEFT JOIN FETCH p.category WHERE p.id IN :ids")
+    List<ProductEntity> findAllWithCategoryByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Bulk price/stock lookup: one primary-key IN query, only the columns cart validation needs.
+     */
+    @Query("SELECT new com.tiki.product.dto.ProductBatchItemDTO(p.id, p.name, p.price, p.stock, p.status, p.thumbnailUrl, p.shopId) " +
+            "FROM ProductEntity p WHERE p.id IN :ids")
+    List<ProductBatchItemDTO> findBatchByIdIn(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,160 @@
+package com.tiki.product.repository;
+
+import com.tiki.product.config.FullTextFunctionContributor;
+import com.tiki.product.entity.ProductEntity;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Database search predicates for {@link ProductRepository}.
+ *
+ * Every branch is index-backed: keywords go through MATCH ... AGAINST on the FULLTEXT
+ * (ngram) index, SKU prefixes through a range scan of the unique index, and filters are plain equality/range
+ * comparisons on indexed columns. Nothing wraps a column in a function. The only exception is
+ * {@link #keywordLike}, used while the FULLTEXT index does not exist.
+ */
+public final class ProductSpecifications {
+
+    private static final Pattern BOOLEAN_OPERATORS = Pattern.compile("[+\\-<>()~*\"@]");
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final Pattern SKU = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,49}");
+
+    private ProductSpecifications() {
+    }
+
+    /**
+     * Keyword search, ordered by relevance unless the caller passes an explicit sort.
+     * Null for a blank query; a query with no searchable term matches nothing.
+     */
+    public static Specification<ProductEntity> keyword(String q) {
+        if (q == null || q.isBlank()) {
+            return null;
+        }
+        String terms = toBooleanQuery(q);
+        if (terms == null) {
+            // Only terms shorter than the ngram token size: the index cannot match them
+            return (root, query, cb) -> cb.disjunction();
+        }
+        return (root, query, cb) -> {
+            Expression<Double> score = cb.function(FullTextFunctionContributor.MATCH_AGAINST, Double.class,
+                root.get("name"), root.get("description"), cb.literal(terms));
+            if (query.getResultType() != Long.class) {
+                query.orderBy(cb.desc(score), cb.asc(root.get("id")));
+            }
+            return cb.greaterThan(score, 0.0);
+        };
+    }
+
+    /**
+     * Keyword search for schemas without the FULLTEXT index: name or SKU containing the query,
+     * case-insensitively. Scans the table. Null for a blank query.
+     */
+    public static Specification<ProductEntity> keywordLike(String q) {
+        if (q == null || q.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + likePrefix(q.trim().toLowerCase());
+        return (root, query, cb) -> cb.or(
+            cb.like(cb.lower(root.<String>get("name")), pattern, '\\'),
+            cb.like(cb.lower(root.<String>get("sku")), pattern, '\\'));
+    }
+
+    /**
+     * The product with this SKU. Case-insensitive through the column's collation.
+     */
+    public static Specification<ProductEntity> skuEquals(String sku) {
+        return (root, query, cb) -> cb.equal(root.get("sku"), sku);
+    }
+
+    /**
+     * SKUs starting with {@code prefix}, exact matches included
+     */
+    public static Specification<ProductEntity> skuPrefix(String prefix) {
+        String pattern = likePrefix(prefix);
+        return (root, query, cb) -> cb.like(root.get("sku"), pattern, '\\');
+    }
+
+    /**
+     * Category/brand/price filters. Brand equality relies on the column's case-insensitive collation.
+     */
+    public static Specification<ProductEntity> filters(Integer categoryId,
+                                                       String brand,
+                                                       BigDecimal minPrice,
+                                                       BigDecimal maxPrice) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (categoryId != null) {
+                predicates.add(cb.equal(root.get("category").get("id"), categoryId));
+            }
+            if (brand != null && !brand.isBlank()) {
+                predicates.add(cb.equal(root.get("brand"), brand.trim()));
+            }
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Keyset predicate: rows strictly after ({@code value}, {@code id}) in ({@code field}, id) order,
+     * both in the same direction so MySQL can walk the index (secondary indexes end with the id).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<ProductEntity> after(String field, boolean desc, Comparable<?> value, Integer id) {
+        return (root, query, cb) -> {
+            Path<Integer> idPath = root.get("id");
+            Predicate idAfter = desc ? cb.lessThan(idPath, id) : cb.greaterThan(idPath, id);
+            if ("id".equals(field)) {
+                return idAfter;
+            }
+            Path<Comparable> path = root.get(field);
+            Comparable bound = value;
+            Predicate beyond = desc ? cb.lessThan(path, bound) : cb.greaterThan(path, bound);
+            return cb.or(beyond, cb.and(cb.equal(path, bound), idAfter));
+        };
+    }
+
+    /**
+     * Whether {@code q} could be a SKU and is worth an exact lookup before the keyword search.
+     * Any single word qualifies, so callers must not let SKU matches hide keyword matches.
+     */
+    public static boolean looksLikeSku(String q) {
+        return q != null && SKU.matcher(q.trim()).matches();
+    }
+
+    /**
+     * LIKE pattern for values starting with {@code prefix}, with LIKE wildcards in it escaped
+     */
+    static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Turn free text into a boolean-mode query where every word is required. Single characters
+     * are dropped since they are shorter than the ngram token size and would match nothing.
+     * Returns null when nothing searchable is left.
+     */
+    static String toBooleanQuery(String q) {
+        if (q == null) {
+            return null;
+        }
+        String terms = Arrays.stream(BOOLEAN_OPERATORS.matcher(q).replaceAll(" ").trim().split("\\s+"))
+            .filter(term -> term.codePointCount(0, term.length()) >= MIN_TERM_LENGTH)
+            .map(term -> "+" + term)
+            .collect(Collectors.joining(" "));
+        return terms.isEmpty() ? null : terms;
+    }
+}
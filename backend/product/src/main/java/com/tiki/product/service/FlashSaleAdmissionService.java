@@ -0,0 +1,179 @@
+package com.tiki.product.service;
+
+import com.tiki.product.entity.FlashSale;
+import com.tiki.product.entity.FlashSale.FlashSaleStatus;
+import com.tiki.product.exception.BadRequestException;
+import com.tiki.product.exception.ResourceNotFoundException;
+import com.tiki.product.repository.FlashSaleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Virtual waiting room in front of the flash sale purchase path.
+ *
+ * Joining hands out a signed {@link QueueTicket} with the next sequence number of the sale
+ * (one Lua call, idempotent per user). Admission follows a clock instead of a shared counter:
+ * {@code burst} tickets at sale start, then {@code ratePerSecond}. After a quiet period the
+ * sequence jumps forward to the clock, so a late spike gets the same smoothing as the opening
+ * one. Polling and the admission check only verify the signature and do arithmetic; they do
+ * not touch Redis or MySQL.
+ */
+@Service
+@RequiredArgsConstructor
+public class FlashSaleAdmissionService {
+
+    public record Admission(boolean admitted, long position, long retryAfterSeconds) {
+    }
+
+    private record SaleWindow(long openAt, long endAt, int ratePerSecond, long loadedAt) {
+    }
+
+    // KEYS: seq, tickets hash; ARGV: userId, floor, expireAtMs, lastExpiredSeq.
+    // A user whose ticket's admission window has closed gets a new sequence number
+    private static final RedisScript<Long> JOIN = new DefaultRedisScript<>(
+        "local existing = redis.call('HGET', KEYS[2], ARGV[1])\n" +
+        "if existing and tonumber(existing) > tonumber(ARGV[4]) then return tonumber(existing) end\n" +
+        "local seq = math.max(tonumber(redis.call('GET', KEYS[1]) or '0'), tonumber(ARGV[2])) + 1\n" +
+        "redis.call('SET', KEYS[1], seq)\n" +
+        "redis.call('HSET', KEYS[2], ARGV[1], seq)\n" +
+        "redis.call('PEXPIREAT', KEYS[1], ARGV[3])\n" +
+        "redis.call('PEXPIREAT', KEYS[2], ARGV[3])\n" +
+        "return seq", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final FlashSaleRepository flashSaleRepository;
+
+    private final Map<Long, SaleWindow> windows = new ConcurrentHashMap<>();
+
+    @Value("${flash-sale.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${flash-sale.admission.secret:change-me-flash-sale-queue-secret}")
+    private String secret;
+
+    @Value("${flash-sale.admission.rate-per-second:200}")
+    private int defaultRate;
+
+    @Value("${flash-sale.admission.burst:1000}")
+    private int burst;
+
+    @Value("${flash-sale.admission.window:10m}")
+    private Duration admissionWindow;
+
+    /** Other instances pick up admin changes to a sale's schedule after this */
+    @Value("${flash-sale.admission.schedule-cache-ttl:30s}")
+    private Duration scheduleCacheTtl;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Take (or get back) the user's place in the sale's queue. Rejoining after the ticket's
+     * admission window has closed takes a new place, behind whoever is queued now.
+     *
+     * @return the encoded ticket
+     */
+    public String join(Long flashSaleId, Long userId) {
+        SaleWindow window = window(flashSaleId);
+        long now = System.currentTimeMillis();
+        if (now >= window.endAt()) {
+            throw new BadRequestException("Flash sale " + flashSaleId + " has ended");
+        }
+        // Tickets issued up to the clock are already admitted; start after them minus the burst
+        long floor = Math.max(now - window.openAt(), 0) * window.ratePerSecond() / 1000;
+        long expireAt = window.endAt() + Duration.ofDays(1).toMillis();
+        long lastExpired = QueueTicket.lastExpiredSeq(window.openAt(), window.ratePerSecond(), burst,
+            admissionWindow.toMillis(), now);
+        Long seq = redisTemplate.execute(JOIN,
+            List.of("flashsale:" + flashSaleId + ":queue:seq", "flashsale:" + flashSaleId + ":queue:tickets"),
+            String.valueOf(userId), String.valueOf(floor), String.valueOf(expireAt), String.valueOf(lastExpired));
+        if (seq == null) {
+            throw new IllegalStateException("Flash sale queue unavailable: " + flashSaleId);
+        }
+        return new QueueTicket(flashSaleId, userId, seq, window.openAt(), window.ratePerSecond(), burst).encode(secret);
+    }
+
+    /**
+     * Queue position for polling, from the ticket alone
+     */
+    public Admission status(Long flashSaleId, String token) {
+        QueueTicket ticket = QueueTicket.decode(token, secret);
+        if (ticket.flashSaleId() != flashSaleId) {
+            throw new BadRequestException("Queue ticket is for another flash sale");
+        }
+        return admission(ticket, System.currentTimeMillis());
+    }
+
+    /**
+     * Gate for the reservation path: the ticket must belong to the user and be admitted,
+     * and is only good for {@code flash-sale.admission.window} after admission.
+     */
+    public Admission check(Long flashSaleId, Long userId, String token) {
+        if (token == null || token.isBlank()) {
+            throw new BadRequestException("Queue ticket required, join the flash sale queue first");
+        }
+        QueueTicket ticket = QueueTicket.decode(token, secret);
+        if (ticket.flashSaleId() != flashSaleId || ticket.userId() != userId) {
+            throw new BadRequestException("Queue ticket does not match this flash sale or user");
+        }
+        long now = System.currentTimeMillis();
+        if (now > ticket.admittedAt() + admissionWindow.toMillis()) {
+            throw new BadRequestException("Queue ticket expired, join the queue again");
+        }
+        return admission(ticket, now);
+    }
+
+    /**
+     * Cache the admission schedule of a sale, e.g. when it is activated
+     */
+    public void register(FlashSale sale) {
+        windows.put(sale.getId(), toWindow(sale));
+    }
+
+    public void evict(Long flashSaleId) {
+        windows.remove(flashSaleId);
+    }
+
+    private Admission admission(QueueTicket ticket, long now) {
+        long position = ticket.position(now);
+        long retryAfter = position == 0 ? 0 : Math.max((ticket.admittedAt() - now + 999) / 1000, 1);
+        return new Admission(position == 0, position, retryAfter);
+    }
+
+    private SaleWindow window(Long flashSaleId) {
+        SaleWindow window = windows.get(flashSaleId);
+        if (window != null && System.currentTimeMillis() - window.loadedAt() < scheduleCacheTtl.toMillis()) {
+            return window;
+        }
+        FlashSale sale = flashSaleRepository.findById(flashSaleId)
+            .orElseThrow(() -> new ResourceNotFoundException("Flash sale not found: " + flashSaleId));
+        if (sale.getStatus() != FlashSaleStatus.SCHEDULED && sale.getStatus() != FlashSaleStatus.ACTIVE) {
+            throw new BadRequestException("Flash sale " + flashSaleId + " is " + sale.getStatus());
+        }
+        window = toWindow(sale);
+        windows.put(flashSaleId, window);
+        return window;
+    }
+
+    private SaleWindow toWindow(FlashSale sale) {
+        int rate = sale.getAdmissionRate() != null && sale.getAdmissionRate() > 0 ? sale.getAdmissionRate() : defaultRate;
+        return new SaleWindow(epochMillis(sale.getStartTime()), epochMillis(sale.getEndTime()), rate,
+            System.currentTimeMillis());
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,234 @@
+package com.tiki.product.service;
+
+import com.tiki.product.dto.FlashSaleDTO;
+import com.tiki.product.dto.FlashSaleProductDTO;
+import com.tiki.product.entity.FlashSale;
+import com.tiki.product.entity.FlashSale.FlashSaleStatus;
+import com.tiki.product.repository.FlashSaleRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves flash sales SCHEDULED -> ACTIVE -> ENDED at their start and end times and keeps the
+ * {@link FlashSaleSnapshot} the read endpoints are served from.
+ *
+ * A single timer is armed for the next start or end among the loaded sales; when it fires the
+ * due transitions are applied (compare-and-set, so several instances apply each one once) and
+ * the snapshot is rebuilt. Admin changes trigger a rebuild after commit, and a periodic rebuild
+ * picks up changes made through other instances.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlashSaleLifecycleService {
+
+    private static final List<FlashSaleStatus> LIVE_STATUSES = List.of(FlashSaleStatus.SCHEDULED, FlashSaleStatus.ACTIVE);
+    private static final long RETRY_DELAY_MS = 5000;
+
+    private final FlashSaleRepository flashSaleRepository;
+    private final FlashSaleReservationService reservationService;
+    private final FlashSaleAdmissionService admissionService;
+    private final TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService timer;
+    private ScheduledFuture<?> nextTransition;
+
+    private volatile FlashSaleSnapshot snapshot = FlashSaleSnapshot.EMPTY;
+
+    @PostConstruct
+    void init() {
+        timer = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "flash-sale-lifecycle"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    public FlashSaleSnapshot snapshot() {
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        // Counters may be gone after a Redis restart; warming keeps existing ones
+        timer.execute(() -> refreshSafely(true));
+    }
+
+    @Scheduled(fixedDelayString = "${flash-sale.lifecycle.refresh-interval-ms:60000}",
+               initialDelayString = "${flash-sale.lifecycle.refresh-interval-ms:60000}")
+    public void periodicRefresh() {
+        timer.execute(() -> refreshSafely(false));
+    }
+
+    /**
+     * Rebuild once the current transaction commits, e.g. after an admin change
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    timer.execute(() -> refreshSafely(false));
+                }
+            });
+        } else {
+            timer.execute(() -> refreshSafely(false));
+        }
+    }
+
+    private void refreshSafely(boolean warmActive) {
+        try {
+            refresh(warmActive);
+        } catch (RuntimeException e) {
+            log.error("Flash sale lifecycle refresh failed, retrying in {} ms: {}", RETRY_DELAY_MS, e.getMessage());
+            arm(RETRY_DELAY_MS);
+        }
+    }
+
+    synchronized void refresh(boolean warmActive) {
+        LocalDateTime now = LocalDateTime.now();
+        List<FlashSale> sales = flashSaleRepository.findWithProductsByStatusIn(LIVE_STATUSES);
+
+        for (FlashSale sale : sales) {
+            if (!sale.getEndTime().isAfter(now)) {
+                end(sale, now);
+            } else if (sale.getStatus() == FlashSaleStatus.SCHEDULED && !sale.getStartTime().isAfter(now)) {
+                start(sale, now);
+            } else if (warmActive && sale.getStatus() == FlashSaleStatus.ACTIVE) {
+                reservationService.warm(sale, sale.getProducts());
+                admissionService.register(sale);
+            }
+        }
+
+        snapshot = build(sales, now);
+        LocalDateTime next = nextTransition(sales, now);
+        if (next != null) {
+            arm(Math.max(Duration.between(LocalDateTime.now(), next).toMillis(), 0));
+        }
+        log.debug("Flash sale snapshot rebuilt: {} active, {} upcoming, next transition {}",
+            snapshot.active().size(), snapshot.upcoming().size(), next);
+    }
+
+    private void start(FlashSale sale, LocalDateTime now) {
+        sale.setStatus(transition(sale, FlashSaleStatus.ACTIVE, now));
+        if (sale.getStatus() != FlashSaleStatus.ACTIVE) {
+            log.info("Flash sale {} is {}, not starting it", sale.getId(), sale.getStatus());
+            return;
+        }
+        // Every instance warms (idempotent) and registers its local schedule, once the row is ACTIVE
+        reservationService.warm(sale, sale.getProducts());
+        admissionService.register(sale);
+    }
+
+    private void end(FlashSale sale, LocalDateTime now) {
+        // Counters are left to expire: reservations taken before the end may still be confirmed
+        sale.setStatus(transition(sale, FlashSaleStatus.ENDED, now));
+        if (LIVE_STATUSES.contains(sale.getStatus())) {
+            log.warn("Flash sale {} could not be ended, still {}", sale.getId(), sale.getStatus());
+            return;
+        }
+        admissionService.evict(sale.getId());
+    }
+
+    /**
+     * Compare-and-set {@code sale} from its loaded status to {@code to} and return the row's status
+     * afterwards. When the row moved meanwhile (another instance, an admin) the status is re-read,
+     * and a sale still live in a newer status is moved from that one instead.
+     */
+    private FlashSaleStatus transition(FlashSale sale, FlashSaleStatus to, LocalDateTime now) {
+        return transactionTemplate.execute(status -> {
+            FlashSaleStatus from = sale.getStatus();
+            while (flashSaleRepository.transition(sale.getId(), from, to, now) != 1) {
+                FlashSaleStatus current = flashSaleRepository.findStatusById(sale.getId()).orElse(null);
+                if (current == null || current == to || current == from || !LIVE_STATUSES.contains(current)) {
+                    return current != null ? current : FlashSaleStatus.CANCELLED;
+                }
+                from = current;
+            }
+            log.info("Flash sale {} {}", sale.getId(), to == FlashSaleStatus.ACTIVE ? "started" : "ended");
+            return to;
+        });
+    }
+
+    private void arm(long delayMs) {
+        if (nextTransition != null) {
+            nextTransition.cancel(false);
+        }
+        nextTransition = timer.schedule(() -> refreshSafely(false), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static FlashSaleSnapshot build(List<FlashSale> sales, LocalDateTime now) {
+        List<FlashSale> active = new ArrayList<>();
+        List<FlashSale> upcoming = new ArrayList<>();
+        for (FlashSale sale : sales) {
+            if (sale.getStatus() == FlashSaleStatus.ENDED) {
+                continue;
+            }
+            if (sale.getStartTime().isAfter(now)) {
+                upcoming.add(sale);
+            } else if (sale.getStatus() == FlashSaleStatus.ACTIVE) {
+                active.add(sale);
+            }
+        }
+        active.sort(Comparator.comparing(FlashSale::getEndTime));
+        upcoming.sort(Comparator.comparing(FlashSale::getStartTime));
+
+        Map<Long, FlashSaleDTO> byId = new HashMap<>();
+        Map<Long, List<FlashSaleProductDTO>> products = new HashMap<>();
+        List<FlashSaleDTO> activeDtos = new ArrayList<>(active.size());
+        List<FlashSaleDTO> upcomingDtos = new ArrayList<>(upcoming.size());
+        for (FlashSale sale : active) {
+            activeDtos.add(index(sale, byId, products));
+        }
+        for (FlashSale sale : upcoming) {
+            upcomingDtos.add(index(sale, byId, products));
+        }
+        return new FlashSaleSnapshot(activeDtos, upcomingDtos, byId, products, now);
+    }
+
+    private static FlashSaleDTO index(FlashSale sale, Map<Long, FlashSaleDTO> byId,
+                                      Map<Long, List<FlashSaleProductDTO>> products) {
+        FlashSaleDTO dto = FlashSaleService.toDto(sale);
+        byId.put(sale.getId(), dto);
+        products.put(sale.getId(), sale.getProducts().stream()
+            .map(p -> FlashSaleService.toDto(p, sale.getId(), p.getRemainingQuantity()))
+            .toList());
+        return dto;
+    }
+
+    private static LocalDateTime nextTransition(List<FlashSale> sales, LocalDateTime now) {
+        LocalDateTime next = null;
+        for (FlashSale sale : sales) {
+            if (sale.getStatus() == FlashSaleStatus.ENDED) {
+                continue;
+            }
+            LocalDateTime at = sale.getStartTime().isAfter(now) ? sale.getStartTime() : sale.getEndTime();
+            if (next == null || at.isBefore(next)) {
+                next = at;
+            }
+        }
+        return next;
+    }
+}
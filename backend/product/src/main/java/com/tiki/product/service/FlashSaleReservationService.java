@@ -0,0 +1,324 @@
+package com.tiki.product.service;
+
+import com.tiki.product.dto.FlashSaleReservationDTO;
+import com.tiki.product.entity.FlashSale;
+import com.tiki.product.entity.FlashSaleProduct;
+import com.tiki.product.repository.FlashSaleProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Flash sale stock held in Redis while a sale is ACTIVE; the purchase click never touches MySQL.
+ *
+ * {@link #warm} copies each product's remaining quantity, per-user limit, price and sale window
+ * into a hash {@code flashsale:<saleId>:<productId>}, which also holds per-user counts
+ * ({@code u:<userId>}). {@link #reserve} is one Lua script checking window, stock and
+ * maxPerUser before taking the units and issuing a token. Unconfirmed tokens are returned to
+ * stock by {@link #sweepExpired}; confirmed ones are queued and added to
+ * {@code flash_sale_products.quantity_sold} in batches by {@link #flushSold}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlashSaleReservationService {
+
+    public enum Status { RESERVED, SOLD_OUT, USER_LIMIT_REACHED, NOT_STARTED, NOT_ACTIVE }
+
+    public record ReservationResult(Status status, FlashSaleReservationDTO reservation) {
+    }
+
+    private static final String RESERVATIONS_KEY = "flashsale:reservations";
+    private static final String SOLD_KEY = "flashsale:sold";
+
+    // KEYS: sale product hash, reservations zset, token; ARGV: userId, qty, token, expireAtMs, nowMs, tokenTtlSec, payload (price is appended)
+    // Returns {code} or {1, price}; codes: -1 not warmed, -3 not started, -4 ended, 0 sold out, -2 user limit
+    private static final RedisScript<List> RESERVE = new DefaultRedisScript<>(
+        "local h = KEYS[1]\n" +
+        "local stock = redis.call('HGET', h, 'stock')\n" +
+        "if not stock then return {-1} end\n" +
+        "local now = tonumber(ARGV[5])\n" +
+        "if now < tonumber(redis.call('HGET', h, 'start')) then return {-3} end\n" +
+        "if now >= tonumber(redis.call('HGET', h, 'end')) then return {-4} end\n" +
+        "local qty = tonumber(ARGV[2])\n" +
+        "if tonumber(stock) < qty then return {0} end\n" +
+        "local uf = 'u:' .. ARGV[1]\n" +
+        "local used = tonumber(redis.call('HGET', h, uf) or '0')\n" +
+        "if used + qty > tonumber(redis.call('HGET', h, 'max')) then return {-2} end\n" +
+        "redis.call('HINCRBY', h, 'stock', -qty)\n" +
+        "redis.call('HINCRBY', h, uf, qty)\n" +
+        "local price = redis.call('HGET', h, 'price')\n" +
+        "redis.call('SET', KEYS[3], ARGV[7] .. '|' .. price, 'EX', ARGV[6])\n" +
+        "redis.call('ZADD', KEYS[2], ARGV[4], ARGV[3])\n" +
+        "return {1, price}", List.class);
+
+    // KEYS: token, reservations zset, sale product hash; ARGV: token, userId, qty
+    // Deleting the token is the claim, so a release and a confirm can never both win
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+        "if redis.call('DEL', KEYS[1]) == 0 then return 0 end\n" +
+        "redis.call('ZREM', KEYS[2], ARGV[1])\n" +
+        "if redis.call('EXISTS', KEYS[3]) == 1 then\n" +
+        "  redis.call('HINCRBY', KEYS[3], 'stock', ARGV[3])\n" +
+        "  redis.call('HINCRBY', KEYS[3], 'u:' .. ARGV[2], -tonumber(ARGV[3]))\n" +
+        "end\n" +
+        "return 1", Long.class);
+
+    // KEYS: token, reservations zset, sold queue; ARGV: token, sold entry
+    private static final RedisScript<Long> CONFIRM = new DefaultRedisScript<>(
+        "if redis.call('DEL', KEYS[1]) == 0 then return 0 end\n" +
+        "redis.call('ZREM', KEYS[2], ARGV[1])\n" +
+        "redis.call('RPUSH', KEYS[3], ARGV[2])\n" +
+        "return 1", Long.class);
+
+    // KEYS: sale product hash; ARGV: stock, max, price, startMs, endMs, expireAtMs
+    private static final RedisScript<Long> WARM = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end\n" +
+        "redis.call('HSET', KEYS[1], 'stock', ARGV[1], 'max', ARGV[2], 'price', ARGV[3], 'start', ARGV[4], 'end', ARGV[5])\n" +
+        "redis.call('PEXPIREAT', KEYS[1], ARGV[6])\n" +
+        "return 1", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final FlashSaleProductRepository flashSaleProductRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${flash-sale.reservation-ttl:10m}")
+    private Duration reservationTtl;
+
+    @Value("${flash-sale.write-behind.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Load stock counters for a sale's products. Counters that already exist are kept, so
+     * re-warming a running sale never resets stock or per-user counts.
+     */
+    public void warm(FlashSale sale, Collection<FlashSaleProduct> products) {
+        long start = epochMillis(sale.getStartTime());
+        long end = epochMillis(sale.getEndTime());
+        // Outlive the sale so late confirms and releases still find their counters
+        long expireAt = end + Duration.ofDays(1).toMillis();
+        for (FlashSaleProduct p : products) {
+            int remaining = Math.max(p.getQuantityLimit() - p.getQuantitySold(), 0);
+            redisTemplate.execute(WARM, List.of(stockKey(sale.getId(), p.getProductId())),
+                String.valueOf(remaining), String.valueOf(p.getMaxPerUser()), p.getSalePrice().toPlainString(),
+                String.valueOf(start), String.valueOf(end), String.valueOf(expireAt));
+        }
+        log.info("Warmed {} flash sale products for sale {}", products.size(), sale.getId());
+    }
+
+    public void evict(Long saleId, Collection<Long> productIds) {
+        List<String> keys = productIds.stream().map(productId -> stockKey(saleId, productId)).toList();
+        if (!keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    /**
+     * Hold {@code quantity} units for the user at the sale price.
+     */
+    public ReservationResult reserve(Long saleId, Long productId, Long userId, int quantity) {
+        String token = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        long expireAt = now + reservationTtl.toMillis();
+        // The token key outlives its deadline so the sweeper can still read it
+        long tokenTtlSeconds = reservationTtl.plusHours(1).toSeconds();
+        String payload = saleId + "|" + productId + "|" + userId + "|" + quantity;
+
+        List<?> result = redisTemplate.execute(RESERVE,
+            List.of(stockKey(saleId, productId), RESERVATIONS_KEY, tokenKey(token)),
+            String.valueOf(userId), String.valueOf(quantity), token, String.valueOf(expireAt),
+            String.valueOf(now), String.valueOf(tokenTtlSeconds), payload);
+
+        long code = result != null && !result.isEmpty() ? ((Number) result.get(0)).longValue() : -1;
+        if (code == 1) {
+            FlashSaleReservationDTO reservation = FlashSaleReservationDTO.builder()
+                .token(token)
+                .flashSaleId(saleId)
+                .productId(productId)
+                .userId(userId)
+                .quantity(quantity)
+                .salePrice(new BigDecimal(String.valueOf(result.get(1))))
+                .expiresAt(toLocalDateTime(expireAt))
+                .build();
+            return new ReservationResult(Status.RESERVED, reservation);
+        }
+        Status status = switch ((int) code) {
+            case 0 -> Status.SOLD_OUT;
+            case -2 -> Status.USER_LIMIT_REACHED;
+            case -3 -> Status.NOT_STARTED;
+            default -> Status.NOT_ACTIVE;
+        };
+        return new ReservationResult(status, null);
+    }
+
+    /**
+     * Turn a reservation into a sale (order placed).
+     *
+     * @return the reservation, or null if it expired, was released or belongs to another user
+     */
+    public FlashSaleReservationDTO confirm(String token, Long userId) {
+        String[] parts = payload(token);
+        if (parts == null || !parts[2].equals(String.valueOf(userId))) {
+            return null;
+        }
+        Long confirmed = redisTemplate.execute(CONFIRM, List.of(tokenKey(token), RESERVATIONS_KEY, SOLD_KEY),
+            token, parts[0] + "|" + parts[1] + "|" + parts[3]);
+        if (confirmed == null || confirmed == 0) {
+            return null;
+        }
+        return FlashSaleReservationDTO.builder()
+            .token(token)
+            .flashSaleId(Long.valueOf(parts[0]))
+            .productId(Long.valueOf(parts[1]))
+            .userId(userId)
+            .quantity(Integer.valueOf(parts[3]))
+            .salePrice(new BigDecimal(parts[4]))
+            .build();
+    }
+
+    /**
+     * Give reserved units back, e.g. the user left checkout.
+     */
+    public boolean release(String token, Long userId) {
+        String[] parts = payload(token);
+        if (parts == null || (userId != null && !parts[2].equals(String.valueOf(userId)))) {
+            return false;
+        }
+        Long released = redisTemplate.execute(RELEASE,
+            List.of(tokenKey(token), RESERVATIONS_KEY, stockKey(Long.valueOf(parts[0]), Long.valueOf(parts[1]))),
+            token, parts[2], parts[3]);
+        return released != null && released == 1;
+    }
+
+    /**
+     * Remaining units from the live counter, or null when the sale is not warmed
+     */
+    public Integer remaining(Long saleId, Long productId) {
+        Object stock = redisTemplate.opsForHash().get(stockKey(saleId, productId), "stock");
+        return stock != null ? Integer.valueOf(stock.toString()) : null;
+    }
+
+    /**
+     * Remaining units for many products of a sale in one round trip
+     */
+    public Map<Long, Integer> remaining(Long saleId, List<Long> productIds) {
+        List<Object> values = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long productId : productIds) {
+                connection.hashCommands().hGet(stockKey(saleId, productId).getBytes(), "stock".getBytes());
+            }
+            return null;
+        });
+        Map<Long, Integer> remaining = new HashMap<>();
+        for (int i = 0; i < productIds.size(); i++) {
+            Object value = values.get(i);
+            if (value != null) {
+                remaining.put(productIds.get(i), Integer.valueOf(value.toString()));
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Return the units of reservations that passed their deadline without being confirmed.
+     */
+    @Scheduled(fixedDelayString = "${flash-sale.sweep-interval-ms:5000}")
+    public void sweepExpired() {
+        Set<String> expired = redisTemplate.opsForZSet()
+            .rangeByScore(RESERVATIONS_KEY, 0, System.currentTimeMillis(), 0, batchSize);
+        if (expired == null || expired.isEmpty()) {
+            return;
+        }
+        int released = 0;
+        for (String token : expired) {
+            if (release(token, null)) {
+                released++;
+            } else {
+                // Token already gone (confirmed/released/expired key): drop the deadline entry
+                redisTemplate.opsForZSet().remove(RESERVATIONS_KEY, token);
+            }
+        }
+        log.debug("Released {} expired flash sale reservations", released);
+    }
+
+    /**
+     * Write-behind of confirmed purchases to flash_sale_products.quantity_sold
+     */
+    @Scheduled(fixedDelayString = "${flash-sale.write-behind.interval-ms:1000}")
+    public void flushSold() {
+        List<String> entries;
+        while (!(entries = popSold()).isEmpty()) {
+            List<String> batch = entries;
+            try {
+                transactionTemplate.executeWithoutResult(status -> applySold(batch));
+            } catch (RuntimeException e) {
+                List<String> reversed = new ArrayList<>(batch);
+                Collections.reverse(reversed);
+                redisTemplate.opsForList().leftPushAll(SOLD_KEY, reversed);
+                log.error("Failed to persist {} flash sale purchases: {}", batch.size(), e.getMessage());
+                return;
+            }
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private List<String> popSold() {
+        List<String> entries = redisTemplate.opsForList().leftPop(SOLD_KEY, batchSize);
+        return entries != null ? entries : List.of();
+    }
+
+    private void applySold(List<String> batch) {
+        Map<String, Integer> totals = new HashMap<>();
+        for (String entry : batch) {
+            int split = entry.lastIndexOf('|');
+            totals.merge(entry.substring(0, split), Integer.parseInt(entry.substring(split + 1)), Integer::sum);
+        }
+        totals.forEach((saleAndProduct, quantity) -> {
+            String[] ids = saleAndProduct.split("\\|");
+            flashSaleProductRepository.addQuantitySold(Long.valueOf(ids[0]), Long.valueOf(ids[1]), quantity);
+        });
+    }
+
+    /** saleId, productId, userId, quantity, salePrice */
+    private String[] payload(String token) {
+        String payload = redisTemplate.opsForValue().get(tokenKey(token));
+        return payload != null ? payload.split("\\|") : null;
+    }
+
+    private static String stockKey(Long saleId, Long productId) {
+        return "flashsale:" + saleId + ":" + productId;
+    }
+
+    private static String tokenKey(String token) {
+        return "flashsale:reservation:" + token;
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,270 @@
+package com.tiki.product.service;
+
+import com.tiki.product.dto.FlashSaleDTO;
+import com.tiki.product.dto.FlashSaleProductDTO;
+import com.tiki.product.entity.FlashSale;
+import com.tiki.product.entity.FlashSale.FlashSaleStatus;
+import com.tiki.product.entity.FlashSaleProduct;
+import com.tiki.product.exception.BadRequestException;
+import com.tiki.product.exception.ResourceNotFoundException;
+import com.tiki.product.repository.FlashSaleProductRepository;
+import com.tiki.product.repository.FlashSaleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flash sale administration and reads. Stock of a running sale lives in
+ * {@link FlashSaleReservationService}; active and upcoming sales are read from the
+ * {@link FlashSaleLifecycleService} snapshot, falling back to MySQL for anything else.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlashSaleService {
+
+    private final FlashSaleRepository flashSaleRepository;
+    private final FlashSaleProductRepository flashSaleProductRepository;
+    private final FlashSaleReservationService reservationService;
+    private final FlashSaleAdmissionService admissionService;
+    private final FlashSaleLifecycleService lifecycleService;
+
+    @Transactional(readOnly = true)
+    public List<FlashSaleDTO> getAll(FlashSaleStatus status) {
+        List<FlashSale> sales = status != null ? flashSaleRepository.findByStatus(status) : flashSaleRepository.findAll();
+        return sales.stream().map(FlashSaleService::toDto).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public FlashSaleDTO get(Long id) {
+        FlashSaleDTO cached = lifecycleService.snapshot().sales().get(id);
+        return cached != null ? cached : toDto(find(id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<FlashSaleDTO> getActive() {
+        FlashSaleSnapshot snapshot = lifecycleService.snapshot();
+        if (snapshot.isBuilt()) {
+            return snapshot.active();
+        }
+        return flashSaleRepository.findActiveFlashSales(LocalDateTime.now()).stream().map(FlashSaleService::toDto).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<FlashSaleDTO> getUpcoming() {
+        FlashSaleSnapshot snapshot = lifecycleService.snapshot();
+        if (snapshot.isBuilt()) {
+            return snapshot.upcoming();
+        }
+        return flashSaleRepository.findUpcomingFlashSales(LocalDateTime.now()).stream().map(FlashSaleService::toDto).toList();
+    }
+
+    @Transactional
+    public FlashSaleDTO create(FlashSaleDTO request) {
+        validateWindow(request.getStartTime(), request.getEndTime());
+        FlashSale sale = new FlashSale();
+        sale.setName(request.getName());
+        sale.setDescription(request.getDescription());
+        sale.setStartTime(request.getStartTime());
+        sale.setEndTime(request.getEndTime());
+        sale.setAdmissionRate(request.getAdmissionRate());
+        sale.setStatus(FlashSaleStatus.SCHEDULED);
+        sale = flashSaleRepository.save(sale);
+        lifecycleService.refreshAfterCommit();
+        return toDto(sale);
+    }
+
+    @Transactional
+    public FlashSaleDTO update(Long id, FlashSaleDTO request) {
+        FlashSale sale = find(id);
+        if (sale.getStatus() == FlashSaleStatus.ACTIVE
+                && (request.getStartTime() != null || request.getEndTime() != null)) {
+            // The window is baked into the warmed counters
+            throw new BadRequestException("Cannot change the time window of an active flash sale");
+        }
+        if (request.getName() != null) {
+            sale.setName(request.getName());
+        }
+        if (request.getDescription() != null) {
+            sale.setDescription(request.getDescription());
+        }
+        if (request.getStartTime() != null) {
+            sale.setStartTime(request.getStartTime());
+        }
+        if (request.getEndTime() != null) {
+            sale.setEndTime(request.getEndTime());
+        }
+        if (request.getAdmissionRate() != null) {
+            sale.setAdmissionRate(request.getAdmissionRate());
+        }
+        validateWindow(sale.getStartTime(), sale.getEndTime());
+        admissionService.evict(id);
+        if (request.getStatus() == FlashSaleStatus.ENDED || request.getStatus() == FlashSaleStatus.CANCELLED) {
+            sale.setStatus(request.getStatus());
+            List<Long> productIds = productIds(sale);
+            afterCommit(() -> reservationService.evict(id, productIds));
+        }
+        lifecycleService.refreshAfterCommit();
+        return toDto(sale);
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        FlashSale sale = find(id);
+        if (sale.getStatus() == FlashSaleStatus.ACTIVE) {
+            throw new BadRequestException("Cannot delete an active flash sale, cancel it first");
+        }
+        List<Long> productIds = productIds(sale);
+        admissionService.evict(id);
+        flashSaleRepository.delete(sale);
+        afterCommit(() -> reservationService.evict(id, productIds));
+        lifecycleService.refreshAfterCommit();
+    }
+
+    /**
+     * Switch a scheduled sale to ACTIVE and load its stock counters into Redis.
+     * Reservations are only accepted inside the sale window, so a sale can be activated early.
+     */
+    @Transactional
+    public FlashSaleDTO activate(Long id) {
+        FlashSale sale = find(id);
+        if (sale.getStatus() != FlashSaleStatus.SCHEDULED && sale.getStatus() != FlashSaleStatus.ACTIVE) {
+            throw new BadRequestException("Flash sale " + id + " is " + sale.getStatus());
+        }
+        if (sale.hasEnded()) {
+            throw new BadRequestException("Flash sale " + id + " has already ended");
+        }
+        sale.setStatus(FlashSaleStatus.ACTIVE);
+        List<FlashSaleProduct> products = flashSaleProductRepository.findByFlashSaleId(id);
+        afterCommit(() -> reservationService.warm(sale, products));
+        admissionService.register(sale);
+        lifecycleService.refreshAfterCommit();
+        log.info("Flash sale {} activated", id);
+        return toDto(sale);
+    }
+
+    /**
+     * Products of a sale; for an active sale remaining comes from the live counters
+     */
+    @Transactional(readOnly = true)
+    public List<FlashSaleProductDTO> getProducts(Long id) {
+        FlashSaleSnapshot snapshot = lifecycleService.snapshot();
+        List<FlashSaleProductDTO> cached = snapshot.products().get(id);
+        if (cached != null) {
+            if (snapshot.sales().get(id).getStatus() != FlashSaleStatus.ACTIVE || cached.isEmpty()) {
+                return cached;
+            }
+            Map<Long, Integer> live = reservationService.remaining(id, cached.stream().map(FlashSaleProductDTO::getProductId).toList());
+            return cached.stream()
+                .map(p -> live.containsKey(p.getProductId()) ? p.toBuilder().remaining(live.get(p.getProductId())).build() : p)
+                .toList();
+        }
+        FlashSale sale = find(id);
+        List<FlashSaleProduct> products = flashSaleProductRepository.findByFlashSaleId(id);
+        Map<Long, Integer> live = sale.getStatus() == FlashSaleStatus.ACTIVE
+            ? reservationService.remaining(id, products.stream().map(FlashSaleProduct::getProductId).toList())
+            : Map.of();
+        return products.stream()
+            .map(p -> toDto(p, id, live.getOrDefault(p.getProductId(), p.getRemainingQuantity())))
+            .toList();
+    }
+
+    @Transactional
+    public FlashSaleProductDTO addProduct(Long id, FlashSaleProductDTO request) {
+        FlashSale sale = find(id);
+        if (sale.getStatus() != FlashSaleStatus.SCHEDULED) {
+            throw new BadRequestException("Products can only be added to a scheduled flash sale");
+        }
+        if (request.getProductId() == null || request.getOriginalPrice() == null || request.getSalePrice() == null) {
+            throw new BadRequestException("productId, originalPrice and salePrice are required");
+        }
+        if (request.getSalePrice().compareTo(request.getOriginalPrice()) > 0) {
+            throw new BadRequestException("salePrice must not exceed originalPrice");
+        }
+        if (flashSaleProductRepository.findByFlashSaleIdAndProductId(id, request.getProductId()).isPresent()) {
+            throw new BadRequestException("Product " + request.getProductId() + " is already in flash sale " + id);
+        }
+        FlashSaleProduct product = new FlashSaleProduct();
+        product.setFlashSale(sale);
+        product.setProductId(request.getProductId());
+        product.setOriginalPrice(request.getOriginalPrice());
+        product.setSalePrice(request.getSalePrice());
+        product.setDiscountPercentage(request.getDiscountPercentage());
+        if (request.getQuantityLimit() != null) {
+            product.setQuantityLimit(request.getQuantityLimit());
+        }
+        if (request.getMaxPerUser() != null) {
+            product.setMaxPerUser(request.getMaxPerUser());
+        }
+        product = flashSaleProductRepository.save(product);
+        lifecycleService.refreshAfterCommit();
+        return toDto(product, id, product.getRemainingQuantity());
+    }
+
+    private FlashSale find(Long id) {
+        return flashSaleRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Flash sale not found: " + id));
+    }
+
+    /**
+     * Redis counters are not rolled back with the transaction: they are only touched once the
+     * status change is committed, so a failed commit cannot leave a sale warmed or evicted.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private List<Long> productIds(FlashSale sale) {
+        return sale.getProducts().stream().map(FlashSaleProduct::getProductId).toList();
+    }
+
+    private static void validateWindow(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw new BadRequestException("startTime and endTime are required and endTime must be after startTime");
+        }
+    }
+
+    static FlashSaleDTO toDto(FlashSale sale) {
+        return FlashSaleDTO.builder()
+            .id(sale.getId())
+            .name(sale.getName())
+            .description(sale.getDescription())
+            .startTime(sale.getStartTime())
+            .endTime(sale.getEndTime())
+            .status(sale.getStatus())
+            .admissionRate(sale.getAdmissionRate())
+            .productsCount(sale.getProducts().size())
+            .build();
+    }
+
+    static FlashSaleProductDTO toDto(FlashSaleProduct p, Long flashSaleId, Integer remaining) {
+        return FlashSaleProductDTO.builder()
+            .id(p.getId())
+            .flashSaleId(flashSaleId)
+            .productId(p.getProductId())
+            .originalPrice(p.getOriginalPrice())
+            .salePrice(p.getSalePrice())
+            .discountPercentage(p.getDiscountPercentage())
+            .quantityLimit(p.getQuantityLimit())
+            .quantitySold(p.getQuantitySold())
+            .maxPerUser(p.getMaxPerUser())
+            .remaining(remaining)
+            .build();
+    }
+}
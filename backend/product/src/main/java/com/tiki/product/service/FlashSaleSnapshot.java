@@ -0,0 +1,33 @@
+package com.tiki.product.service;
+
+import com.tiki.product.dto.FlashSaleDTO;
+import com.tiki.product.dto.FlashSaleProductDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Active and upcoming flash sales with their product pricing, as of {@code builtAt}.
+ * Replaced as a whole at every lifecycle transition; the DTOs inside are shared between
+ * requests and must not be modified.
+ */
+public record FlashSaleSnapshot(List<FlashSaleDTO> active,
+                                List<FlashSaleDTO> upcoming,
+                                Map<Long, FlashSaleDTO> sales,
+                                Map<Long, List<FlashSaleProductDTO>> products,
+                                LocalDateTime builtAt) {
+
+    public static final FlashSaleSnapshot EMPTY = new FlashSaleSnapshot(List.of(), List.of(), Map.of(), Map.of(), null);
+
+    public FlashSaleSnapshot {
+        active = List.copyOf(active);
+        upcoming = List.copyOf(upcoming);
+        sales = Map.copyOf(sales);
+        products = Map.copyOf(products);
+    }
+
+    public boolean isBuilt() {
+        return builtAt != null;
+    }
+}
@@ -0,0 +1,240 @@
+package com.tiki.product.service;
+
+import com.tiki.common.cache.TwoTierCache;
+import com.tiki.product.dto.PageResponseDTO;
+import com.tiki.product.dto.ProductListDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Tag-indexed caching for product pages.
+ *
+ * Every cached {@code products-page} entry is registered under a Redis set per tag: one per
+ * product it lists, plus the category and brand it was filtered by ({@code category:*} when
+ * unfiltered). A product mutation then evicts only the pages tagged with that product, its
+ * old/new category and brand, and its single {@code product-detail} entry, instead of clearing
+ * both caches. Pages that neither list the product nor filter on its category/brand are left
+ * alone; they are bounded by the short products-page TTL.
+ *
+ * Tags are sorted sets scored by when the page registration lapses; each write prunes lapsed
+ * members, so a hot tag that never expires as a whole still stays small. Every eviction bumps
+ * an epoch, and a page whose load overlapped one is dropped again right after it was stored:
+ * the load may have read the row before the change was committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductCacheService {
+
+    public static final String PAGE_CACHE = "products-page";
+    public static final String DETAIL_CACHE = "product-detail";
+
+    private static final String TAG_PREFIX = "cache:tags:" + PAGE_CACHE + ":";
+    private static final String EPOCH_KEY = "cache:epoch:" + PAGE_CACHE;
+    private static final String ANY_CATEGORY = "*";
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /** How long a page stays registered under its tags; at least the products-page entry TTL */
+    @Value("${cache.products-page.tag-ttl:10m}")
+    private Duration tagTtl;
+
+    private Counter pageEvictions;
+    private Counter detailEvictions;
+
+    @PostConstruct
+    void init() {
+        pageEvictions = Counter.builder("cache.tag.evictions")
+            .description("Entries evicted by tag instead of clearing the cache")
+            .tag("cache", PAGE_CACHE)
+            .register(meterRegistry);
+        detailEvictions = Counter.builder("cache.tag.evictions")
+            .description("Entries evicted by tag instead of clearing the cache")
+            .tag("cache", DETAIL_CACHE)
+            .register(meterRegistry);
+        for (String name : List.of(PAGE_CACHE, DETAIL_CACHE)) {
+            Gauge.builder("cache.hit.ratio", this, s -> s.hitRatio(name, false))
+                .description("Hits in either tier / lookups since startup")
+                .tag("cache", name)
+                .register(meterRegistry);
+            Gauge.builder("cache.local.hit.ratio", this, s -> s.hitRatio(name, true))
+                .description("Hits served from the in-process tier / lookups since startup")
+                .tag("cache", name)
+                .register(meterRegistry);
+            FunctionCounter.builder("cache.stampede.coalesced", this, s -> s.stampedeCount(name, TwoTierCache::getCoalesced))
+                .description("Loads avoided by joining an in-flight load on this node")
+                .tag("cache", name)
+                .register(meterRegistry);
+            FunctionCounter.builder("cache.stampede.stale", this, s -> s.stampedeCount(name, TwoTierCache::getStaleServes))
+                .description("Misses answered with the last known value while another node reloaded it")
+                .tag("cache", name)
+                .register(meterRegistry);
+            FunctionCounter.builder("cache.stampede.early.refresh", this, s -> s.stampedeCount(name, TwoTierCache::getEarlyRefreshes))
+                .description("Entries recomputed before expiry")
+                .tag("cache", name)
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Cached search page; on a miss the page is loaded, tagged and stored. Concurrent misses for
+     * the same page share one load (see TwoTierCache).
+     */
+    public PageResponseDTO<ProductListDTO> page(Object key,
+                                                Integer categoryId,
+                                                String brand,
+                                                Supplier<PageResponseDTO<ProductListDTO>> loader) {
+        long[] loadEpoch = {-1};
+        PageResponseDTO<ProductListDTO> cached = cacheManager.getCache(PAGE_CACHE).get(key, () -> {
+            loadEpoch[0] = epoch();
+            PageResponseDTO<ProductListDTO> page = loader.get();
+            if (page != null) {
+                Set<String> tags = new LinkedHashSet<>();
+                page.getContent().forEach(item -> tags.add(productTag(item.getId())));
+                tags.add(categoryTag(categoryId != null ? String.valueOf(categoryId) : ANY_CATEGORY));
+                if (brand != null && !brand.isBlank()) {
+                    tags.add(brandTag(brand));
+                }
+                // Tag before the cache stores it so a concurrent eviction can never miss the page
+                tag(String.valueOf(key), tags);
+            }
+            return page;
+        });
+        if (loadEpoch[0] >= 0 && epoch() != loadEpoch[0]) {
+            // A product changed while this page was loading; the caller still gets it, the cache does not keep it
+            targetCache(PAGE_CACHE).evict(key);
+        }
+        return cached;
+    }
+
+    /**
+     * Evict the product's detail entry and every page tagged with it, its categories or its brands.
+     * Runs after commit when called inside a transaction, so readers cannot re-cache the old row.
+     *
+     * @param created a new product can enter any unfiltered page, so those are evicted as well
+     */
+    public void evictProduct(Integer productId,
+                             Collection<Integer> categoryIds,
+                             Collection<String> brands,
+                             boolean created) {
+        Set<String> tags = new LinkedHashSet<>();
+        tags.add(productTag(productId));
+        categoryIds.stream().filter(Objects::nonNull).forEach(c -> tags.add(categoryTag(String.valueOf(c))));
+        brands.stream().filter(b -> b != null && !b.isBlank()).forEach(b -> tags.add(brandTag(b)));
+        if (created) {
+            tags.add(categoryTag(ANY_CATEGORY));
+        }
+
+        Runnable eviction = () -> {
+            // Before the tags are read, so a load that misses the eviction sees the new epoch
+            redisTemplate.opsForValue().increment(EPOCH_KEY);
+            targetCache(DETAIL_CACHE).evict(productId);
+            detailEvictions.increment();
+            evictTags(tags);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    private void tag(String key, Set<String> tags) {
+        byte[] member = key.getBytes(StandardCharsets.UTF_8);
+        long now = System.currentTimeMillis();
+        long ttlSeconds = tagTtl.toSeconds();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String tag : tags) {
+                byte[] tagKey = tag.getBytes(StandardCharsets.UTF_8);
+                connection.zSetCommands().zAdd(tagKey, now + tagTtl.toMillis(), member);
+                connection.zSetCommands().zRemRangeByScore(tagKey, Double.NEGATIVE_INFINITY, now);
+                connection.keyCommands().expire(tagKey, ttlSeconds);
+            }
+            return null;
+        });
+    }
+
+    private long epoch() {
+        String epoch = redisTemplate.opsForValue().get(EPOCH_KEY);
+        return epoch != null ? Long.parseLong(epoch) : 0;
+    }
+
+    private void evictTags(Set<String> tags) {
+        List<String> tagKeys = List.copyOf(tags);
+        Set<String> keys = redisTemplate.opsForZSet().union(tagKeys.get(0), tagKeys.subList(1, tagKeys.size()));
+        redisTemplate.delete(tags);
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        Cache cache = targetCache(PAGE_CACHE);
+        keys.forEach(cache::evict);
+        pageEvictions.increment(keys.size());
+        log.debug("Evicted {} cached product pages for tags {}", keys.size(), tags);
+    }
+
+    /**
+     * The underlying cache, bypassing the transaction-aware decorator: evictions already run
+     * after commit, and a decorator would try to defer them again.
+     */
+    private Cache targetCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        return cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+    }
+
+    private double hitRatio(String name, boolean localOnly) {
+        if (!(targetCache(name) instanceof TwoTierCache cache)) {
+            return Double.NaN;
+        }
+        long hits = cache.getLocalHits() + (localOnly ? 0 : cache.getRemoteHits());
+        long total = cache.getLocalHits() + cache.getRemoteHits() + cache.getMisses();
+        return total > 0 ? (double) hits / total : Double.NaN;
+    }
+
+    private double stampedeCount(String name, ToLongFunction<TwoTierCache> counter) {
+        return targetCache(name) instanceof TwoTierCache cache ? counter.applyAsLong(cache) : 0;
+    }
+
+    private static String productTag(Integer productId) {
+        return TAG_PREFIX + "product:" + productId;
+    }
+
+    private static String categoryTag(String categoryId) {
+        return TAG_PREFIX + "category:" + categoryId;
+    }
+
+    private static String brandTag(String brand) {
+        return TAG_PREFIX + "brand:" + brand.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,73 @@
+package com.tiki.product.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * The FULLTEXT (ngram) index behind the database fallback search.
+ *
+ * The schema is maintained by Hibernate, which cannot declare FULLTEXT indexes, so the index
+ * is created here on startup when it is missing. Until it is known to exist, including on
+ * databases without FULLTEXT support, keyword searches use the LIKE predicate instead of
+ * MATCH ... AGAINST, which would fail without the index.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductFullTextIndex {
+
+    static final String INDEX_NAME = "ft_products_name_description";
+
+    private static final String EXISTS_SQL =
+        "SELECT COUNT(*) FROM information_schema.statistics " +
+        "WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = ?";
+    private static final String CREATE_SQL =
+        "ALTER TABLE products ADD FULLTEXT INDEX " + INDEX_NAME + " (name, description) WITH PARSER ngram";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${search.db.create-fulltext-index:true}")
+    private boolean createIndex = true;
+
+    private volatile boolean available;
+
+    /**
+     * Whether keyword searches can use MATCH ... AGAINST
+     */
+    public boolean available() {
+        return available;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        try {
+            if (!exists() && createIndex) {
+                log.info("Creating FULLTEXT index {} on products", INDEX_NAME);
+                try {
+                    jdbcTemplate.execute(CREATE_SQL);
+                } catch (DataAccessException e) {
+                    // Another instance may have created it first
+                    log.warn("Could not create FULLTEXT index {}: {}", INDEX_NAME, e.getMessage());
+                }
+            }
+            available = exists();
+            if (!available) {
+                log.warn("No FULLTEXT index {} on products, keyword search uses LIKE", INDEX_NAME);
+            }
+        } catch (DataAccessException e) {
+            available = false;
+            log.warn("FULLTEXT index check failed, keyword search uses LIKE: {}", e.getMessage());
+        }
+    }
+
+    private boolean exists() {
+        Integer count = jdbcTemplate.queryForObject(EXISTS_SQL, Integer.class, INDEX_NAME);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,195 @@
+package com.tiki.product.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import com.tiki.product.document.ProductDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Blue/green generations of the products index.
+ *
+ * {@link ProductDocument} reads and writes through the {@code products} alias. A full rebuild
+ * goes into a fresh {@code products_vN} index created with refresh disabled and no replicas,
+ * and only becomes visible to searches when {@link #promote(String)} swaps the alias in one
+ * atomic request. Until then every query keeps hitting the previous generation.
+ *
+ * The generation being built is kept in Redis rather than in this instance, so incremental
+ * updates handled by any node are written to it as well as to the alias. On startup a fresh
+ * cluster without the alias gets an empty {@code products_v1} promoted behind it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductIndexManager {
+
+    public static final String ALIAS = "products";
+    private static final String GENERATION_PREFIX = ALIAS + "_v";
+    private static final String BUILDING_KEY = "search:reindex:generation";
+    private static final String BOOTSTRAP_LOCK_KEY = "search:index:bootstrap";
+
+    private final ElasticsearchClient client;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${search.index.replicas:1}")
+    private int replicas;
+
+    @Value("${search.index.refresh-interval:1s}")
+    private String refreshInterval;
+
+    @Value("${search.index.keep-generations:2}")
+    private int keepGenerations;
+
+    /**
+     * Give a fresh cluster its first generation, so the alias exists before any write or search.
+     * A legacy concrete {@code products} index is left alone until the next reindex replaces it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureAlias() {
+        try {
+            if (client.indices().exists(e -> e.index(ALIAS)).value()) {
+                return;
+            }
+            // Only one instance bootstraps; the others find the alias on their next start
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(BOOTSTRAP_LOCK_KEY, "1", Duration.ofMinutes(1)))) {
+                return;
+            }
+            log.info("No {} index or alias, creating the first generation", ALIAS);
+            promote(createGeneration());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to bootstrap the {} alias: {}", ALIAS, e.getMessage());
+        }
+    }
+
+    /**
+     * Create the next {@code products_vN} index tuned for bulk loading.
+     */
+    public String createGeneration() {
+        String index = GENERATION_PREFIX + (latestGeneration() + 1);
+        IndexOperations template = elasticsearchOperations.indexOps(ProductDocument.class);
+        Settings settings = template.createSettings(ProductDocument.class);
+        settings.put("index.refresh_interval", "-1");
+        settings.put("index.number_of_replicas", 0);
+        if (!elasticsearchOperations.indexOps(IndexCoordinates.of(index)).create(settings, template.createMapping())) {
+            throw new IllegalStateException("Failed to create index " + index);
+        }
+        redisTemplate.opsForValue().set(BUILDING_KEY, index);
+        log.info("Created index generation {}", index);
+        return index;
+    }
+
+    /**
+     * Resume building into an existing generation (after a failed run).
+     */
+    public void resumeGeneration(String index) {
+        redisTemplate.opsForValue().set(BUILDING_KEY, index);
+    }
+
+    /**
+     * Generation currently being built, if any, as recorded by whichever instance started it
+     */
+    public String buildingGeneration() {
+        return redisTemplate.opsForValue().get(BUILDING_KEY);
+    }
+
+    /**
+     * Restore serving settings on {@code index} and atomically point the alias at it.
+     */
+    public void promote(String index) {
+        try {
+            client.indices().putSettings(p -> p
+                .index(index)
+                .settings(s -> s
+                    .refreshInterval(Time.of(t -> t.time(refreshInterval)))
+                    .numberOfReplicas(String.valueOf(replicas))));
+            client.indices().refresh(r -> r.index(index));
+
+            List<Action> actions = new ArrayList<>();
+            actions.add(Action.of(a -> a.add(add -> add.index(index).alias(ALIAS).isWriteIndex(true))));
+            Set<String> current = aliasedIndices();
+            if (current.isEmpty() && client.indices().exists(e -> e.index(ALIAS)).value()) {
+                // Legacy concrete "products" index: drop it in the same request that creates the alias
+                actions.add(Action.of(a -> a.removeIndex(r -> r.index(ALIAS))));
+            }
+            current.stream()
+                .filter(old -> !old.equals(index))
+                .forEach(old -> actions.add(Action.of(a -> a.remove(r -> r.index(old).alias(ALIAS)))));
+            client.indices().updateAliases(u -> u.actions(actions));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to promote index " + index, e);
+        }
+        // Kept on failure, so a resumed run still gets the incremental updates
+        redisTemplate.delete(BUILDING_KEY);
+        log.info("Alias {} now points to {}", ALIAS, index);
+        deleteOldGenerations();
+    }
+
+    public IndexCoordinates buildingIndex() {
+        String index = buildingGeneration();
+        return index != null ? IndexCoordinates.of(index) : null;
+    }
+
+    private Set<String> aliasedIndices() throws IOException {
+        if (!client.indices().existsAlias(e -> e.name(ALIAS)).value()) {
+            return Set.of();
+        }
+        return client.indices().getAlias(g -> g.name(ALIAS)).result().keySet();
+    }
+
+    private List<String> generations() {
+        try {
+            return client.indices().get(g -> g.index(GENERATION_PREFIX + "*")).result().keySet().stream()
+                .sorted(Comparator.comparingInt(ProductIndexManager::generationNumber))
+                .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to list index generations", e);
+        }
+    }
+
+    private int latestGeneration() {
+        List<String> all = generations();
+        return all.isEmpty() ? 0 : generationNumber(all.get(all.size() - 1));
+    }
+
+    private void deleteOldGenerations() {
+        try {
+            Set<String> live = aliasedIndices();
+            String building = buildingGeneration();
+            List<String> all = generations();
+            for (String index : all.subList(0, Math.max(0, all.size() - keepGenerations))) {
+                if (!live.contains(index) && !index.equals(building)) {
+                    client.indices().delete(d -> d.index(index));
+                    log.info("Deleted old index generation {}", index);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up old index generations: {}", e.getMessage());
+        }
+    }
+
+    private static int generationNumber(String index) {
+        try {
+            return Integer.parseInt(index.substring(GENERATION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
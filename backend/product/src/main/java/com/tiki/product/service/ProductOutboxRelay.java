@@ -0,0 +1,97 @@
+package com.tiki.product.service;
+
+import com.tiki.common.config.RabbitMQConfig;
+import com.tiki.common.event.ProductUpdatedEvent;
+import com.tiki.product.entity.ProductOutboxEntity;
+import com.tiki.product.repository.ProductOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains product_outbox to product.exchange
+ *
+ * Each run claims the oldest rows with FOR UPDATE SKIP LOCKED, so relays on several nodes
+ * publish disjoint batches, and deletes only the rows the broker confirmed
+ * (spring.rabbitmq.publisher-confirm-type=correlated). Nacked or unconfirmed rows stay for the
+ * next run, so an event may be published twice (consumers are idempotent) but is never lost.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductOutboxRelay {
+
+    private final ProductOutboxRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${search.outbox.batch-size:500}")
+    private int batchSize;
+
+    /** How long a run waits for the broker to confirm its batch */
+    @Value("${search.outbox.confirm-timeout:5s}")
+    private Duration confirmTimeout = Duration.ofSeconds(5);
+
+    @Scheduled(fixedDelayString = "${search.outbox.poll-interval-ms:1000}")
+    @Transactional
+    public void relay() {
+        List<ProductOutboxEntity> batch = outboxRepository.claimBatch(batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<CorrelationData> sent = new ArrayList<>(batch.size());
+        for (ProductOutboxEntity row : batch) {
+            CorrelationData correlation = new CorrelationData(String.valueOf(row.getId()));
+            rabbitTemplate.convertAndSend(
+                RabbitMQConfig.PRODUCT_EXCHANGE,
+                RabbitMQConfig.PRODUCT_UPDATED_KEY,
+                ProductUpdatedEvent.builder()
+                    .productId(row.getProductId())
+                    .action(row.getAction())
+                    .timestamp(row.getCreatedAt())
+                    .build(),
+                correlation);
+            sent.add(correlation);
+        }
+
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        List<ProductOutboxEntity> confirmed = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (confirmed(sent.get(i), deadline)) {
+                confirmed.add(batch.get(i));
+            }
+        }
+        if (!confirmed.isEmpty()) {
+            outboxRepository.deleteAllInBatch(confirmed);
+        }
+        if (confirmed.size() < batch.size()) {
+            log.warn("{} of {} product events not confirmed by the broker, retrying next run",
+                batch.size() - confirmed.size(), batch.size());
+        }
+        log.debug("Relayed {} product events", confirmed.size());
+    }
+
+    private static boolean confirmed(CorrelationData correlation, long deadline) {
+        try {
+            long remaining = Math.max(deadline - System.nanoTime(), 0);
+            return correlation.getFuture().get(remaining, TimeUnit.NANOSECONDS).isAck();
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.tiki.product.service;
+
+import com.tiki.product.document.ProductDocument;
+import com.tiki.product.dto.ReindexStatusDTO;
+import com.tiki.product.entity.ProductEntity;
+import com.tiki.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming reindex of all products into Elasticsearch.
+ *
+ * Reads products in keyset pages, enriches each page with one bulk call per remote service
+ * on a bounded worker pool, and writes the result with chunked bulk requests. At most
+ * {@code concurrency} pages are in flight; the reader waits for the oldest page before
+ * fetching more, so heap usage stays flat regardless of catalog size. The id of the last
+ * contiguous page written is stored in Redis so a failed run can be resumed.
+ *
+ * In versioned mode (the default) the run builds a new index generation and only swaps the
+ * {@code products} alias to it once every page is written; see {@link ProductIndexManager}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductReindexService {
+
+    private static final String CHECKPOINT_KEY = "search:reindex:checkpoint";
+
+    private final ProductRepository productRepository;
+    private final ProductSearchService searchService;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductIndexManager indexManager;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${search.reindex.page-size:500}")
+    private int pageSize;
+
+    @Value("${search.reindex.concurrency:4}")
+    private int concurrency;
+
+    @Value("${search.reindex.versioned:true}")
+    private boolean versioned;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+
+    private ExecutorService coordinator;
+    private ExecutorService workers;
+
+    private volatile String status = "IDLE";
+    private volatile Integer checkpoint;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    @PostConstruct
+    void init() {
+        coordinator = Executors.newSingleThreadExecutor(r -> new Thread(r, "reindex-coordinator"));
+        workers = Executors.newFixedThreadPool(concurrency, r -> new Thread(r, "reindex-worker"));
+
+        Gauge.builder("search.reindex.processed", processed, AtomicLong::get)
+            .description("Products indexed by the current reindex run")
+            .register(meterRegistry);
+        Gauge.builder("search.reindex.total", total, AtomicLong::get)
+            .description("Products to index in the current reindex run")
+            .register(meterRegistry);
+        Gauge.builder("search.reindex.eta.seconds", this, s -> {
+                Long eta = s.getStatus().getEtaSeconds();
+                return eta != null ? eta : 0;
+            })
+            .description("Estimated seconds until the current reindex run completes")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Start a reindex in the background.
+     *
+     * @param resume continue after the last checkpoint instead of starting from the first product
+     */
+    public synchronized ReindexStatusDTO start(boolean resume) {
+        if ("RUNNING".equals(status)) {
+            throw new IllegalStateException("Reindex already running");
+        }
+        String generation = resume ? indexManager.buildingGeneration() : null;
+        Integer afterId = resume ? loadCheckpoint() : 0;
+        if (versioned) {
+            if (generation != null) {
+                indexManager.resumeGeneration(generation);
+            } else {
+                generation = indexManager.createGeneration();
+                afterId = 0;
+            }
+        }
+
+        status = "RUNNING";
+        error = null;
+        checkpoint = afterId;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        processed.set(0);
+        total.set(productRepository.countByIdGreaterThan(afterId));
+
+        log.info("Starting reindex of {} products after id {} into {} (pageSize={}, concurrency={})",
+            total.get(), afterId, generation != null ? generation : ProductIndexManager.ALIAS, pageSize, concurrency);
+        IndexCoordinates index = generation != null
+            ? IndexCoordinates.of(generation)
+            : elasticsearchOperations.getIndexCoordinatesFor(ProductDocument.class);
+        Integer from = afterId;
+        coordinator.submit(() -> run(from, index));
+        return getStatus();
+    }
+
+    public ReindexStatusDTO getStatus() {
+        long done = processed.get();
+        long all = total.get();
+        double seconds = startedAt != null
+            ? Duration.between(startedAt, finishedAt != null ? finishedAt : LocalDateTime.now()).toMillis() / 1000.0
+            : 0;
+        double rate = seconds > 0 ? done / seconds : 0;
+        Long eta = "RUNNING".equals(status) && rate > 0 ? (long) ((all - done) / rate) : null;
+
+        return ReindexStatusDTO.builder()
+            .status(status)
+            .processed(done)
+            .total(all)
+            .percent(all > 0 ? done * 100.0 / all : 0)
+            .docsPerSecond(rate)
+            .etaSeconds(eta)
+            .checkpoint(checkpoint)
+            .startedAt(startedAt)
+            .finishedAt(finishedAt)
+            .error(error)
+            .build();
+    }
+
+    private void run(Integer afterId, IndexCoordinates index) {
+        Deque<PageTask> inFlight = new ArrayDeque<>();
+        Integer lastId = afterId;
+        try {
+            while (true) {
+                List<ProductEntity> page = productRepository.findNextPage(lastId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                lastId = page.get(page.size() - 1).getId();
+
+                // Backpressure: wait for the oldest page before reading past the window
+                if (inFlight.size() >= concurrency) {
+                    complete(inFlight.poll());
+                }
+                CompletableFuture<Void> future = CompletableFuture
+                    .supplyAsync(() -> searchService.convertToDocuments(page), workers)
+                    .thenAccept(documents -> searchService.bulkIndex(documents, index));
+                inFlight.add(new PageTask(lastId, page.size(), future));
+            }
+            while (!inFlight.isEmpty()) {
+                complete(inFlight.poll());
+            }
+
+            if (versioned) {
+                indexManager.promote(index.getIndexName());
+            }
+            redisTemplate.delete(CHECKPOINT_KEY);
+            status = "COMPLETED";
+            log.info("Reindexed {} products", processed.get());
+        } catch (Exception e) {
+            inFlight.forEach(task -> task.future().cancel(true));
+            status = "FAILED";
+            error = e.getMessage();
+            log.error("Reindex failed after checkpoint {}", checkpoint, e);
+        } finally {
+            finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private void complete(PageTask task) {
+        task.future().join();
+        processed.addAndGet(task.size());
+        checkpoint = task.lastId();
+        redisTemplate.opsForValue().set(CHECKPOINT_KEY, String.valueOf(task.lastId()));
+        log.debug("Reindex progress: {}/{} (checkpoint {})", processed.get(), total.get(), task.lastId());
+    }
+
+    private Integer loadCheckpoint() {
+        String value = redisTemplate.opsForValue().get(CHECKPOINT_KEY);
+        return value != null ? Integer.valueOf(value) : 0;
+    }
+
+    private record PageTask(Integer lastId, int size, CompletableFuture<Void> future) {
+    }
+}
@@ -1,31 +1,67 @@
 package com.tiki.product.service;
 
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.FieldValueFactorModifier;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionBoostMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScore;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScoreMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.json.JsonData;
 import com.tiki.product.client.OrderClient;
 import com.tiki.product.client.ReviewClient;
 import com.tiki.product.client.ShopClient;
+import com.tiki.product.config.SearchRankingProperties;
 import com.tiki.product.document.ProductDocument;
+import com.tiki.product.dto.CursorPageDTO;
+import com.tiki.product.dto.FacetBucketDTO;
+import com.tiki.product.dto.FacetedSearchResultDTO;
 import com.tiki.product.dto.ProductListDTO;
 import com.tiki.product.dto.ProductReviewStatsDTO;
+import com.tiki.product.dto.SearchFacetsDTO;
 import com.tiki.product.entity.ProductEntity;
+import com.tiki.product.exception.BadRequestException;
 import com.tiki.product.repository.ProductRepository;
 import com.tiki.product.repository.ProductSearchRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
-import org.springframework.data.elasticsearch.core.query.Criteria;
-import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
 import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Product Search Service using Elasticsearch
@@ -35,45 +71,143 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProductSearchService {
     
+    private static final int SUGGEST_CACHE_SIZE = 2000;
+    
+    // min_gram of autocomplete_edge_ngram in product-settings.json
+    private static final int SUGGEST_MIN_GRAM = 2;
+    
+    private static final SearchRankingProperties.Profile DEFAULT_TEXT_PROFILE = new SearchRankingProperties.Profile();
+    
+    private static final String SHARD_DOC = "_shard_doc";
+    
+    private static final String FACET_BRANDS = "brands";
+    private static final String FACET_CATEGORIES = "categories";
+    private static final String FACET_SHOPS = "shops";
+    private static final String FACET_PRICE = "priceRanges";
+    private static final String FACET_RATING = "ratings";
+    private static final String FACET_VALUES = "values";
+    
+    // "4 stars & up" style buckets; ranges overlap on purpose
+    private static final List<AggregationRange> RATING_RANGES = List.of(
+        AggregationRange.of(r -> r.key("4+").from("4")),
+        AggregationRange.of(r -> r.key("3+").from("3")),
+        AggregationRange.of(r -> r.key("2+").from("2")),
+        AggregationRange.of(r -> r.key("1+").from("1")));
+    
     private final ProductSearchRepository searchRepository;
     private final ProductRepository productRepository;
     private final ElasticsearchOperations elasticsearchOperations;
     private final ShopClient shopClient;
     private final ReviewClient reviewClient;
     private final OrderClient orderClient;
+    private final ProductIndexManager indexManager;
+    private final SearchRankingProperties rankingProperties;
+    
+    @Value("${search.reindex.bulk-size:500}")
+    private int bulkSize;
+    
+    @Value("${search.suggest.cache-prefix-length:3}")
+    private int suggestCachePrefixLength;
+    
+    @Value("${search.suggest.cache-ttl-ms:60000}")
+    private long suggestCacheTtlMillis;
+    
+    @Value("${search.facets.size:20}")
+    private int facetSize;
+    
+    @Value("${search.facets.price-breaks:100000,500000,1000000,5000000,10000000}")
+    private List<String> facetPriceBreaks;
+    
+    @Value("${search.cursor.keep-alive:2m}")
+    private Duration cursorKeepAlive;
+    
+    @Value("${search.cursor.total-hits-cap:10000}")
+    private int cursorTotalHitsCap;
+    
+    private final Map<String, CachedSuggestions> suggestionCache = Collections.synchronizedMap(
+        new LinkedHashMap<String, CachedSuggestions>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSuggestions> eldest) {
+                return size() > SUGGEST_CACHE_SIZE;
+            }
+        });
     
     /**
      * Index a single product
+     * Also written to the generation being rebuilt, so the swap doesn't lose the update
      */
     public void indexProduct(ProductEntity product) {
-        ProductDocument document = convertToDocument(product);
+        ProductDocument document = convertToDocuments(List.of(product)).get(0);
         searchRepository.save(document);
+        IndexCoordinates building = indexManager.buildingIndex();
+        if (building != null) {
+            elasticsearchOperations.save(document, building);
+        }
         log.info("Indexed product: {} - {}", product.getId(), product.getName());
     }
     
-    /**
-     * Index all products (for initial setup or reindex)
-     */
-    public void reindexAll() {
-        log.info("Starting reindex of all products...");
-        List<ProductEntity> allProducts = productRepository.findAll();
-        
-        List<ProductDocument> documents = allProducts.stream()
-            .map(this::convertToDocument)
-            .collect(Collectors.toList());
-        
-        searchRepository.saveAll(documents);
-        log.info("Reindexed {} products", documents.size());
-    }
-    
     /**
      * Delete product from index
      */
     public void deleteFromIndex(Integer productId) {
         searchRepository.deleteById(productId);
+        IndexCoordinates building = indexManager.buildingIndex();
+        if (building != null) {
+            elasticsearchOperations.delete(String.valueOf(productId), building);
+        }
         log.info("Deleted product from index: {}", productId);
     }
     
+    /**
+     * Index many products with one enrichment round and bulk requests
+     */
+    public void indexProducts(List<ProductEntity> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        List<ProductDocument> documents = convertToDocuments(products);
+        bulkIndex(documents, elasticsearchOperations.getIndexCoordinatesFor(ProductDocument.class));
+        IndexCoordinates building = indexManager.buildingIndex();
+        if (building != null) {
+            bulkIndex(documents, building);
+        }
+        log.info("Indexed {} products", documents.size());
+    }
+    
+    /**
+     * Delete many products from index
+     */
+    public void deleteFromIndex(Collection<Integer> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        searchRepository.deleteAllById(productIds);
+        IndexCoordinates building = indexManager.buildingIndex();
+        if (building != null) {
+            List<String> ids = productIds.stream().map(String::valueOf).collect(Collectors.toList());
+            elasticsearchOperations.delete(
+                NativeQuery.builder().withQuery(q -> q.ids(i -> i.values(ids))).build(),
+                ProductDocument.class, building);
+        }
+        log.info("Deleted {} products from index", productIds.size());
+    }
+    
+    /**
+     * Write documents to {@code index} in bulk requests of at most search.reindex.bulk-size
+     */
+    public void bulkIndex(List<ProductDocument> documents, IndexCoordinates index) {
+        for (int from = 0; from < documents.size(); from += bulkSize) {
+            List<IndexQuery> queries = documents.subList(from, Math.min(from + bulkSize, documents.size()))
+                .stream()
+                .map(doc -> new IndexQueryBuilder()
+                    .withId(String.valueOf(doc.getId()))
+                    .withObject(doc)
+                    .build())
+                .collect(Collectors.toList());
+            elasticsearchOperations.bulkIndex(queries, index);
+        }
+    }
+    
     /**
      * Full-text search with filters
      */
@@ -83,40 +217,276 @@ public class ProductSearchService {
                                        BigDecimal minPrice,
                                        BigDecimal maxPrice,
                                        Pageable pageable) {
+        return search(keyword, categoryId, brand, minPrice, maxPrice, null, pageable);
+    }
+    
+    /**
+     * Full-text search with filters, ranked by a named profile (see SearchRankingProperties)
+     * Pass an unsorted pageable to order by the profile's score.
+     */
+    public Page<ProductListDTO> search(String keyword, 
+                                       Integer categoryId,
+                                       String brand,
+                                       BigDecimal minPrice,
+                                       BigDecimal maxPrice,
+                                       String profile,
+                                       Pageable pageable) {
         
-        Criteria criteria = new Criteria();
+        NativeQuery query = NativeQuery.builder()
+            .withQuery(buildRankedQuery(keyword, categoryId, brand, minPrice, maxPrice, profile))
+            .withPageable(pageable)
+            .build();
+        SearchHits<ProductDocument> searchHits = elasticsearchOperations.search(query, ProductDocument.class);
         
-        // Keyword search (name or description)
-        if (keyword != null && !keyword.isBlank()) {
-            Criteria keywordCriteria = new Criteria("name").contains(keyword)
-                .or(new Criteria("description").contains(keyword));
-            criteria = criteria.and(keywordCriteria);
+        return toPage(searchHits, pageable);
+    }
+    
+    /**
+     * Full-text search with filters plus sidebar facets
+     * Hits and all aggregations come back from a single Elasticsearch request. The facet filters
+     * go into post_filter, and each facet is counted under every other facet's filter but not its
+     * own, so picking a brand still shows the counts of the other brands.
+     */
+    public FacetedSearchResultDTO searchWithFacets(String keyword,
+                                                   Integer categoryId,
+                                                   String brand,
+                                                   BigDecimal minPrice,
+                                                   BigDecimal maxPrice,
+                                                   String profile,
+                                                   Pageable pageable) {
+        
+        co.elastic.clients.elasticsearch._types.query_dsl.Query category = categoryFilter(categoryId);
+        co.elastic.clients.elasticsearch._types.query_dsl.Query brandTerm = brandFilter(brand);
+        co.elastic.clients.elasticsearch._types.query_dsl.Query price = priceFilter(minPrice, maxPrice);
+        
+        NativeQueryBuilder builder = NativeQuery.builder()
+            .withQuery(buildRankedQuery(keyword, null, null, null, null, profile))
+            .withPageable(pageable)
+            .withAggregation(FACET_BRANDS, facet(allOf(category, price),
+                Aggregation.of(a -> a.terms(t -> t.field("brand").size(facetSize)))))
+            .withAggregation(FACET_CATEGORIES, facet(allOf(brandTerm, price),
+                Aggregation.of(a -> a.terms(t -> t.field("categoryId").size(facetSize)))))
+            .withAggregation(FACET_SHOPS, facet(allOf(category, brandTerm, price),
+                Aggregation.of(a -> a.terms(t -> t.field("shopId").size(facetSize)))))
+            .withAggregation(FACET_PRICE, facet(allOf(category, brandTerm),
+                Aggregation.of(a -> a.range(r -> r.field("price").ranges(priceRanges())))))
+            .withAggregation(FACET_RATING, facet(allOf(category, brandTerm, price),
+                Aggregation.of(a -> a.range(r -> r.field("rating").ranges(RATING_RANGES)))));
+        if (category != null || brandTerm != null || price != null) {
+            builder.withFilter(allOf(category, brandTerm, price));
         }
+        NativeQuery query = builder.build();
+        SearchHits<ProductDocument> searchHits = elasticsearchOperations.search(query, ProductDocument.class);
+        Page<ProductListDTO> page = toPage(searchHits, pageable);
+        
+        Map<String, ElasticsearchAggregation> aggregations = searchHits.hasAggregations()
+            ? ((ElasticsearchAggregations) searchHits.getAggregations()).aggregationsAsMap()
+            : Map.of();
+        SearchFacetsDTO facets = SearchFacetsDTO.builder()
+            .brands(termBuckets(facetValues(aggregations.get(FACET_BRANDS))))
+            .categories(termBuckets(facetValues(aggregations.get(FACET_CATEGORIES))))
+            .shops(termBuckets(facetValues(aggregations.get(FACET_SHOPS))))
+            .priceRanges(rangeBuckets(facetValues(aggregations.get(FACET_PRICE))))
+            .ratings(rangeBuckets(facetValues(aggregations.get(FACET_RATING))))
+            .build();
         
-        // Category filter
-        if (categoryId != null) {
-            criteria = criteria.and(new Criteria("categoryId").is(categoryId));
+        return FacetedSearchResultDTO.builder()
+            .content(page.getContent())
+            .page(page.getNumber())
+            .size(page.getSize())
+            .totalElements(page.getTotalElements())
+            .totalPages(page.getTotalPages())
+            .facets(facets)
+            .build();
+    }
+    
+    /**
+     * Search query wrapped in the profile's function_score; plain text ranking when profile is null
+     */
+    private co.elastic.clients.elasticsearch._types.query_dsl.Query buildRankedQuery(String keyword,
+                                                                                  Integer categoryId,
+                                                                                  String brand,
+                                                                                  BigDecimal minPrice,
+                                                                                  BigDecimal maxPrice,
+                                                                                  String profileName) {
+        if (profileName == null) {
+            return buildSearchQuery(keyword, categoryId, brand, minPrice, maxPrice, DEFAULT_TEXT_PROFILE);
+        }
+        SearchRankingProperties.Profile profile = rankingProperties.getProfiles().get(profileName);
+        if (profile == null) {
+            throw new BadRequestException("Unknown ranking profile: " + profileName);
         }
         
-        // Brand filter
-        if (brand != null && !brand.isBlank()) {
-            criteria = criteria.and(new Criteria("brand").is(brand));
+        List<FunctionScore> functions = new ArrayList<>();
+        if (profile.getSoldCountWeight() > 0) {
+            functions.add(FunctionScore.of(f -> f.fieldValueFactor(v -> v
+                .field("soldCount").modifier(FieldValueFactorModifier.Log1p)
+                .factor(profile.getSoldCountWeight()).missing(0.0))));
+        }
+        if (profile.getRatingWeight() > 0) {
+            functions.add(FunctionScore.of(f -> f.fieldValueFactor(v -> v
+                .field("rating").factor(profile.getRatingWeight()).missing(0.0))));
+        }
+        if (profile.getReviewCountWeight() > 0) {
+            functions.add(FunctionScore.of(f -> f.fieldValueFactor(v -> v
+                .field("reviewCount").modifier(FieldValueFactorModifier.Log1p)
+                .factor(profile.getReviewCountWeight()).missing(0.0))));
+        }
+        if (profile.getRecencyWeight() > 0) {
+            functions.add(FunctionScore.of(f -> f
+                .gauss(g -> g.field("createdAt").placement(p -> p
+                    .origin(JsonData.of("now"))
+                    .scale(JsonData.of(profile.getRecencyScale()))
+                    .decay(0.5)))
+                .weight(profile.getRecencyWeight())));
         }
         
-        // Price range filter
-        if (minPrice != null) {
-            criteria = criteria.and(new Criteria("price").greaterThanEqual(minPrice));
+        co.elastic.clients.elasticsearch._types.query_dsl.Query base =
+            buildSearchQuery(keyword, categoryId, brand, minPrice, maxPrice, profile);
+        if (functions.isEmpty()) {
+            return base;
         }
-        if (maxPrice != null) {
-            criteria = criteria.and(new Criteria("price").lessThanEqual(maxPrice));
+        FunctionBoostMode boostMode = "multiply".equalsIgnoreCase(profile.getBoostMode())
+            ? FunctionBoostMode.Multiply : FunctionBoostMode.Sum;
+        return co.elastic.clients.elasticsearch._types.query_dsl.Query.of(q -> q.functionScore(fs -> fs
+            .query(base)
+            .functions(functions)
+            .scoreMode(FunctionScoreMode.Sum)
+            .boostMode(boostMode)));
+    }
+    
+    /**
+     * Bool query shared by search and searchWithFacets: keyword scores, everything else filters
+     */
+    private co.elastic.clients.elasticsearch._types.query_dsl.Query buildSearchQuery(String keyword,
+                                                                                  Integer categoryId,
+                                                                                  String brand,
+                                                                                  BigDecimal minPrice,
+                                                                                  BigDecimal maxPrice,
+                                                                                  SearchRankingProperties.Profile profile) {
+        BoolQuery.Builder bool = new BoolQuery.Builder();
+        
+        // Keyword search: name (standard + accent-folded) or description
+        if (keyword != null && !keyword.isBlank()) {
+            bool.must(m -> m.multiMatch(mm -> mm
+                .query(keyword)
+                .fields("name^" + profile.getNameBoost(),
+                    "name.folded^" + profile.getFoldedNameBoost(),
+                    "description^" + profile.getDescriptionBoost())
+                .operator(Operator.And)));
         }
         
-        // Active products only
-        criteria = criteria.and(new Criteria("status").is("ACTIVE"));
+        // Category, brand and price filters
+        Stream.of(categoryFilter(categoryId), brandFilter(brand), priceFilter(minPrice, maxPrice))
+            .filter(Objects::nonNull)
+            .forEach(filter -> bool.filter(filter));
         
-        Query query = new CriteriaQuery(criteria).setPageable(pageable);
-        SearchHits<ProductDocument> searchHits = elasticsearchOperations.search(query, ProductDocument.class);
+        // Active products only
+        bool.filter(f -> f.term(t -> t.field("status").value("ACTIVE")));
         
+        return bool.build()._toQuery();
+    }
+    
+    private static co.elastic.clients.elasticsearch._types.query_dsl.Query categoryFilter(Integer categoryId) {
+        return categoryId != null
+            ? co.elastic.clients.elasticsearch._types.query_dsl.Query.of(f -> f.term(t -> t.field("categoryId").value(categoryId)))
+            : null;
+    }
+    
+    private static co.elastic.clients.elasticsearch._types.query_dsl.Query brandFilter(String brand) {
+        return brand != null && !brand.isBlank()
+            ? co.elastic.clients.elasticsearch._types.query_dsl.Query.of(f -> f.term(t -> t.field("brand").value(brand)))
+            : null;
+    }
+    
+    private static co.elastic.clients.elasticsearch._types.query_dsl.Query priceFilter(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return null;
+        }
+        return co.elastic.clients.elasticsearch._types.query_dsl.Query.of(f -> f.range(r -> {
+            r.field("price");
+            if (minPrice != null) r.gte(JsonData.of(minPrice));
+            if (maxPrice != null) r.lte(JsonData.of(maxPrice));
+            return r;
+        }));
+    }
+    
+    /**
+     * Conjunction of the given filters, skipping nulls; match_all when none is left
+     */
+    private static co.elastic.clients.elasticsearch._types.query_dsl.Query allOf(
+            co.elastic.clients.elasticsearch._types.query_dsl.Query... filters) {
+        List<co.elastic.clients.elasticsearch._types.query_dsl.Query> present = new ArrayList<>();
+        for (co.elastic.clients.elasticsearch._types.query_dsl.Query filter : filters) {
+            if (filter != null) {
+                present.add(filter);
+            }
+        }
+        if (present.isEmpty()) {
+            return co.elastic.clients.elasticsearch._types.query_dsl.Query.of(q -> q.matchAll(m -> m));
+        }
+        return present.size() == 1 ? present.get(0) : BoolQuery.of(b -> b.filter(present))._toQuery();
+    }
+    
+    /**
+     * {@code values} aggregation counted over the hits that pass {@code filter}
+     */
+    private static Aggregation facet(co.elastic.clients.elasticsearch._types.query_dsl.Query filter, Aggregation values) {
+        return Aggregation.of(a -> a.filter(filter).aggregations(FACET_VALUES, values));
+    }
+    
+    private static Aggregate facetValues(ElasticsearchAggregation aggregation) {
+        if (aggregation == null) {
+            return null;
+        }
+        return aggregation.aggregation().getAggregate().filter().aggregations().get(FACET_VALUES);
+    }
+    
+    private List<AggregationRange> priceRanges() {
+        List<AggregationRange> ranges = new ArrayList<>();
+        String from = null;
+        for (String to : facetPriceBreaks) {
+            String lower = from;
+            ranges.add(AggregationRange.of(r -> r.from(lower).to(to)));
+            from = to;
+        }
+        String last = from;
+        ranges.add(AggregationRange.of(r -> r.from(last)));
+        return ranges;
+    }
+    
+    private static List<FacetBucketDTO> termBuckets(Aggregate aggregate) {
+        if (aggregate == null) {
+            return List.of();
+        }
+        if (aggregate.isSterms()) {
+            return aggregate.sterms().buckets().array().stream()
+                .map(b -> FacetBucketDTO.builder().key(b.key().stringValue()).count(b.docCount()).build())
+                .collect(Collectors.toList());
+        }
+        if (aggregate.isLterms()) {
+            return aggregate.lterms().buckets().array().stream()
+                .map(b -> FacetBucketDTO.builder().key(String.valueOf(b.key())).count(b.docCount()).build())
+                .collect(Collectors.toList());
+        }
+        return List.of();
+    }
+    
+    private static List<FacetBucketDTO> rangeBuckets(Aggregate aggregate) {
+        if (aggregate == null) {
+            return List.of();
+        }
+        return aggregate.range().buckets().array().stream()
+            .map(b -> FacetBucketDTO.builder()
+                .key(b.key())
+                .from(b.from())
+                .to(b.to())
+                .count(b.docCount())
+                .build())
+            .collect(Collectors.toList());
+    }
+    
+    private Page<ProductListDTO> toPage(SearchHits<ProductDocument> searchHits, Pageable pageable) {
         List<ProductListDTO> results = searchHits.stream()
             .map(SearchHit::getContent)
             .map(this::convertToDTO)
@@ -127,89 +497,241 @@ public class ProductSearchService {
     
     /**
      * Auto-complete suggestions
+     * Served from the edge-n-gram "suggest" field, returning only the name from _source.
+     * Very short prefixes (the hottest type-ahead keys) are kept in a small in-process LRU.
      */
     public List<String> getSuggestions(String prefix, int limit) {
-        if (prefix == null || prefix.length() < 2) {
+        if (prefix == null || prefix.trim().length() < 2) {
+            return List.of();
+        }
+        String text = suggestQueryText(prefix);
+        if (text.isEmpty()) {
             return List.of();
         }
         
-        Criteria criteria = new Criteria("name").contains(prefix)
-            .and(new Criteria("status").is("ACTIVE"));
+        String normalized = normalizePrefix(prefix);
+        String cacheKey = normalized + "|" + limit;
+        boolean cacheable = normalized.length() <= suggestCachePrefixLength;
+        if (cacheable) {
+            CachedSuggestions cached = suggestionCache.get(cacheKey);
+            if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+                return cached.names();
+            }
+        }
         
-        Pageable pageable = PageRequest.of(0, limit);
-        Query query = new CriteriaQuery(criteria).setPageable(pageable);
+        NativeQuery query = NativeQuery.builder()
+            .withQuery(q -> q.bool(b -> b
+                .must(m -> m.match(mt -> mt.field("suggest").query(text).operator(Operator.And)))
+                .filter(f -> f.term(t -> t.field("status").value("ACTIVE")))))
+            .withSourceFilter(new FetchSourceFilter(new String[]{"name"}, null))
+            .withPageable(PageRequest.of(0, limit * 2))
+            .withTrackTotalHits(false)
+            .build();
         
         SearchHits<ProductDocument> hits = elasticsearchOperations.search(query, ProductDocument.class);
         
-        return hits.stream()
+        List<String> names = hits.stream()
             .map(hit -> hit.getContent().getName())
+            .filter(Objects::nonNull)
             .distinct()
             .limit(limit)
             .collect(Collectors.toList());
+        
+        if (cacheable) {
+            suggestionCache.put(cacheKey,
+                new CachedSuggestions(names, System.currentTimeMillis() + suggestCacheTtlMillis));
+        }
+        return names;
+    }
+    
+    /**
+     * The typed text without terms shorter than the smallest indexed n-gram. Such a term (the
+     * "s" of "galaxy s" while the user is still typing) can never match, and with AND it would
+     * empty the whole result.
+     */
+    static String suggestQueryText(String prefix) {
+        return Arrays.stream(prefix.trim().split("[^\\p{L}\\p{M}\\p{N}]+"))
+            .filter(term -> term.length() >= SUGGEST_MIN_GRAM)
+            .collect(Collectors.joining(" "));
+    }
+    
+    private static String normalizePrefix(String prefix) {
+        String folded = Normalizer.normalize(prefix.trim().toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "");
+        return folded.replace('đ', 'd');
+    }
+    
+    private record CachedSuggestions(List<String> names, long expiresAt) {
     }
     
     /**
      * Search by shop
      */
     public Page<ProductListDTO> searchByShop(Integer shopId, String keyword, Pageable pageable) {
-        Criteria criteria = new Criteria("shopId").is(shopId)
-            .and(new Criteria("status").is("ACTIVE"));
+        NativeQuery query = NativeQuery.builder()
+            .withQuery(buildShopQuery(shopId, keyword))
+            .withPageable(pageable)
+            .build();
+        SearchHits<ProductDocument> hits = elasticsearchOperations.search(query, ProductDocument.class);
         
-        if (keyword != null && !keyword.isBlank()) {
-            criteria = criteria.and(new Criteria("name").contains(keyword));
+        return toPage(hits, pageable);
+    }
+    
+    /**
+     * Cursor-based search for deep scrolling (search_after over a point-in-time)
+     * Cost per page stays constant instead of growing with from+size.
+     */
+    public CursorPageDTO<ProductListDTO> searchCursor(String keyword,
+                                                     Integer categoryId,
+                                                     String brand,
+                                                     BigDecimal minPrice,
+                                                     BigDecimal maxPrice,
+                                                     Sort sort,
+                                                     int size,
+                                                     String cursor,
+                                                     boolean withTotal) {
+        if (sort == null || sort.isUnsorted()) {
+            sort = keyword != null && !keyword.isBlank()
+                ? Sort.by(Sort.Direction.DESC, "_score")
+                : Sort.by(Sort.Direction.ASC, "id");
         }
+        return cursorSearch(buildSearchQuery(keyword, categoryId, brand, minPrice, maxPrice, DEFAULT_TEXT_PROFILE),
+            sort, size, cursor, withTotal);
+    }
+    
+    /**
+     * Cursor-based search within a shop
+     */
+    public CursorPageDTO<ProductListDTO> searchByShopCursor(Integer shopId, String keyword, int size,
+                                                           String cursor, boolean withTotal) {
+        return cursorSearch(buildShopQuery(shopId, keyword), Sort.by(Sort.Direction.ASC, "id"),
+            size, cursor, withTotal);
+    }
+    
+    private CursorPageDTO<ProductListDTO> cursorSearch(co.elastic.clients.elasticsearch._types.query_dsl.Query esQuery,
+                                                      Sort sort,
+                                                      int size,
+                                                      String token,
+                                                      boolean withTotal) {
+        SearchCursor cursor = token != null && !token.isBlank() ? SearchCursor.decode(token) : null;
+        String pit = cursor != null
+            ? cursor.pit()
+            : elasticsearchOperations.openPointInTime(IndexCoordinates.of(ProductIndexManager.ALIAS), cursorKeepAlive);
         
-        Query query = new CriteriaQuery(criteria).setPageable(pageable);
-        SearchHits<ProductDocument> hits = elasticsearchOperations.search(query, ProductDocument.class);
+        // Unique, numeric tiebreaker inside the point in time, so search_after never skips or repeats
+        // documents with equal sort keys (id may be mapped as keyword, which sorts "10" before "9")
+        Sort stableSort = sort.getOrderFor(SHARD_DOC) != null ? sort : sort.and(Sort.by(Sort.Direction.ASC, SHARD_DOC));
         
-        List<ProductListDTO> results = hits.stream()
-            .map(SearchHit::getContent)
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        NativeQueryBuilder builder = NativeQuery.builder()
+            .withQuery(esQuery)
+            .withSort(stableSort)
+            .withPageable(PageRequest.of(0, size))
+            .withPointInTime(new Query.PointInTime(pit, cursorKeepAlive));
+        if (cursor != null) {
+            builder.withSearchAfter(cursor.searchAfter());
+        }
+        if (withTotal) {
+            builder.withTrackTotalHitsUpTo(cursorTotalHitsCap);
+        } else {
+            builder.withTrackTotalHits(false);
+        }
+        
+        SearchHits<ProductDocument> hits = elasticsearchOperations.search(builder.build(), ProductDocument.class);
+        String nextPit = hits.getPointInTimeId() != null ? hits.getPointInTimeId() : pit;
+        List<SearchHit<ProductDocument>> page = hits.getSearchHits();
         
-        return new PageImpl<>(results, pageable, hits.getTotalHits());
+        String nextCursor = null;
+        if (page.size() == size) {
+            nextCursor = new SearchCursor(nextPit, page.get(page.size() - 1).getSortValues()).encode();
+        } else {
+            elasticsearchOperations.closePointInTime(nextPit);
+        }
+        
+        return CursorPageDTO.<ProductListDTO>builder()
+            .content(page.stream().map(SearchHit::getContent).map(this::convertToDTO).collect(Collectors.toList()))
+            .size(size)
+            .nextCursor(nextCursor)
+            .totalHits(withTotal ? hits.getTotalHits() : null)
+            .totalHitsRelation(withTotal ? hits.getTotalHitsRelation().name() : null)
+            .build();
+    }
+    
+    private co.elastic.clients.elasticsearch._types.query_dsl.Query buildShopQuery(Integer shopId, String keyword) {
+        BoolQuery.Builder bool = new BoolQuery.Builder()
+            .filter(f -> f.term(t -> t.field("shopId").value(shopId)))
+            .filter(f -> f.term(t -> t.field("status").value("ACTIVE")));
+        
+        if (keyword != null && !keyword.isBlank()) {
+            bool.must(m -> m.match(mt -> mt.field("name").query(keyword).operator(Operator.And)));
+        }
+        return bool.build()._toQuery();
     }
     
     /**
-     * Convert ProductEntity to ProductDocument
-     * Enhanced with data from Shop, Review, Order services
+     * Convert a page of ProductEntity to ProductDocument
+     * Enhanced with data from Shop, Review, Order services - one bulk call per service per page
      */
-    private ProductDocument convertToDocument(ProductEntity entity) {
-        // Get shop name from Shop Service
-        String shopName = null;
-        if (entity.getShopId() != null) {
+    public List<ProductDocument> convertToDocuments(List<ProductEntity> entities) {
+        List<Long> productIds = entities.stream()
+            .map(e -> e.getId().longValue())
+            .collect(Collectors.toList());
+        List<Long> shopIds = entities.stream()
+            .map(ProductEntity::getShopId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.toList());
+        
+        // Get shop names from Shop Service
+        Map<Long, String> shopNames = Map.of();
+        if (!shopIds.isEmpty()) {
             try {
-                shopName = shopClient.getShopName(entity.getShopId());
+                Map<Long, String> result = shopClient.getShopNames(shopIds);
+                if (result != null) shopNames = result;
             } catch (Exception e) {
-                log.warn("Failed to fetch shop name for shopId {}: {}", entity.getShopId(), e.getMessage());
+                log.warn("Failed to fetch shop names for {} shops: {}", shopIds.size(), e.getMessage());
             }
         }
         
         // Get review statistics from Review Service
-        Double rating = 0.0;
-        Integer reviewCount = 0;
+        Map<Long, ProductReviewStatsDTO> reviewStats = new HashMap<>();
         try {
-            ProductReviewStatsDTO reviewStats = reviewClient.getProductReviewStats(entity.getId().longValue());
-            if (reviewStats != null) {
-                rating = reviewStats.getAverageRating() != null ? reviewStats.getAverageRating() : 0.0;
-                reviewCount = reviewStats.getReviewCount() != null ? reviewStats.getReviewCount() : 0;
+            List<ProductReviewStatsDTO> result = reviewClient.getProductReviewStatsBatch(productIds);
+            if (result != null) {
+                result.forEach(stats -> reviewStats.put(stats.getProductId(), stats));
             }
         } catch (Exception e) {
-            log.warn("Failed to fetch review stats for productId {}: {}", entity.getId(), e.getMessage());
+            log.warn("Failed to fetch review stats for {} products: {}", productIds.size(), e.getMessage());
         }
         
-        // Get sold count from Order Service
-        Integer soldCount = 0;
+        // Get sold counts from Order Service
+        Map<Long, Integer> soldCounts = Map.of();
         try {
-            soldCount = orderClient.getProductSoldCount(entity.getId().longValue());
-            if (soldCount == null) soldCount = 0;
+            Map<Long, Integer> result = orderClient.getProductSoldCounts(productIds);
+            if (result != null) soldCounts = result;
         } catch (Exception e) {
-            log.warn("Failed to fetch sold count for productId {}: {}", entity.getId(), e.getMessage());
+            log.warn("Failed to fetch sold counts for {} products: {}", productIds.size(), e.getMessage());
         }
         
+        List<ProductDocument> documents = new ArrayList<>(entities.size());
+        for (ProductEntity entity : entities) {
+            ProductReviewStatsDTO stats = reviewStats.get(entity.getId().longValue());
+            Integer soldCount = soldCounts.get(entity.getId().longValue());
+            documents.add(toDocument(
+                entity,
+                entity.getShopId() != null ? shopNames.get(entity.getShopId()) : null,
+                stats != null && stats.getAverageRating() != null ? stats.getAverageRating() : 0.0,
+                stats != null && stats.getReviewCount() != null ? stats.getReviewCount() : 0,
+                soldCount != null ? soldCount : 0));
+        }
+        return documents;
+    }
+    
+    private ProductDocument toDocument(ProductEntity entity, String shopName, Double rating,
+                                       Integer reviewCount, Integer soldCount) {
         return ProductDocument.builder()
             .id(entity.getId())
             .name(entity.getName())
+            .suggest(entity.getBrand() != null ? entity.getName() + " " + entity.getBrand() : entity.getName())
             .description(entity.getDescription())
             .sku(entity.getSku())
             .brand(entity.getBrand())
@@ -0,0 +1,99 @@
+package com.tiki.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiki.product.entity.ProductEntity;
+import com.tiki.product.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque continuation token for keyset paging over the products table:
+ * the sort it was issued for plus the (sort value, id) of the last row, as URL-safe base64 JSON.
+ */
+public record ProductSeekCursor(String sort, String value, Integer id) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Non-null columns whose index ends in the primary key, so (field, id) is a single index walk */
+    private static final Set<String> SORT_FIELDS = Set.of("id", "price", "name");
+
+    /**
+     * Normalize a "field[,asc|desc]" sort parameter, defaulting to "id,asc".
+     */
+    public static String normalizeSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return "id,asc";
+        }
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!SORT_FIELDS.contains(field)) {
+            throw new BadRequestException("Unsupported sort field for seek paging: " + field);
+        }
+        boolean desc = parts.length > 1 && parts[1].trim().equalsIgnoreCase("desc");
+        return field + (desc ? ",desc" : ",asc");
+    }
+
+    public static ProductSeekCursor after(String sort, ProductEntity last) {
+        String value = switch (field(sort)) {
+            case "price" -> last.getPrice().toPlainString();
+            case "name" -> last.getName();
+            default -> null;
+        };
+        return new ProductSeekCursor(sort, value, last.getId());
+    }
+
+    public static String field(String sort) {
+        return sort.substring(0, sort.indexOf(','));
+    }
+
+    public static boolean descending(String sort) {
+        return sort.endsWith(",desc");
+    }
+
+    /**
+     * Sort value of the last row, typed like the entity attribute.
+     */
+    public Comparable<?> typedValue() {
+        return switch (field(sort)) {
+            case "price" -> new BigDecimal(value);
+            case "name" -> value;
+            default -> null;
+        };
+    }
+
+    public void requireSort(String expected) {
+        if (!sort.equals(expected)) {
+            throw new BadRequestException("Cursor was issued for sort " + sort);
+        }
+    }
+
+    public String encode() {
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(this);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode seek cursor", e);
+        }
+    }
+
+    public static ProductSeekCursor decode(String token) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token);
+            ProductSeekCursor cursor = MAPPER.readValue(new String(json, StandardCharsets.UTF_8), ProductSeekCursor.class);
+            if (cursor.sort() == null || cursor.id() == null || !cursor.sort().equals(normalizeSort(cursor.sort()))
+                    || (!"id".equals(field(cursor.sort())) && cursor.value() == null)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            if ("price".equals(field(cursor.sort()))) {
+                new BigDecimal(cursor.value()); // NumberFormatException for a tampered price
+            }
+            return cursor;
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
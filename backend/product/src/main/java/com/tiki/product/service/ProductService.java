@@ -1,5 +1,7 @@
 package com.tiki.product.service;
 
+import com.tiki.product.dto.CursorPageDTO;
+import com.tiki.product.dto.ProductBatchItemDTO;
 import com.tiki.product.dto.PageResponseDTO;
 import com.tiki.product.dto.ProductDetailDTO;
 import com.tiki.product.dto.ProductImageDTO;
@@ -7,19 +9,25 @@ import com.tiki.product.dto.ProductListDTO;
 import com.tiki.product.entity.CategoryEntity;
 import com.tiki.product.entity.ProductEntity;
 import com.tiki.product.entity.ProductImageEntity;
+import com.tiki.product.entity.ProductOutboxEntity;
 import com.tiki.product.repository.CategoryRepository;
 import com.tiki.product.repository.ProductImageRepository;
+import com.tiki.product.repository.ProductOutboxRepository;
 import com.tiki.product.repository.ProductRepository;
+import com.tiki.product.repository.ProductSpecifications;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -28,11 +36,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProductService {
 
+    /** Upper bound for one bulk lookup; a cart never gets close */
+    static final int MAX_BATCH_IDS = 500;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductImageRepository productImageRepository;
+    private final ProductOutboxRepository outboxRepository;
+    private final ProductCacheService productCacheService;
+    private final ProductFullTextIndex fullTextIndex;
 
-    @Cacheable(cacheNames = "products-page", key = "T(java.util.Objects).hash(#q,#categoryId,#brand,#minPrice,#maxPrice,#sort,#page,#size)", unless = "#result == null")
     public PageResponseDTO<ProductListDTO> search(String q,
                                                   Integer categoryId,
                                                   String brand,
@@ -41,7 +54,24 @@ public class ProductService {
                                                   String sort,
                                                   int page,
                                                   int size) {
-        Sort sortSpec = Sort.by("id");
+        Object key = Objects.hash(q, categoryId, brand, minPrice, maxPrice, sort, page, size);
+        return productCacheService.page(key, categoryId, brand,
+                () -> loadPage(q, categoryId, brand, minPrice, maxPrice, sort, page, size));
+    }
+
+    private PageResponseDTO<ProductListDTO> loadPage(String q,
+                                                     Integer categoryId,
+                                                     String brand,
+                                                     BigDecimal minPrice,
+                                                     BigDecimal maxPrice,
+                                                     String sort,
+                                                     int page,
+                                                     int size) {
+        Specification<ProductEntity> filters = ProductSpecifications.filters(categoryId, brand, minPrice, maxPrice);
+        Specification<ProductEntity> keyword = keyword(q);
+
+        // FULLTEXT keyword searches default to relevance order (applied by the keyword specification)
+        Sort sortSpec = keyword != null && fullTextIndex.available() ? Sort.unsorted() : Sort.by("id");
         if (sort != null && !sort.isBlank()) {
             String[] parts = sort.split(",");
             String field = parts[0];
@@ -49,12 +79,74 @@ public class ProductService {
             sortSpec = desc ? Sort.by(field).descending() : Sort.by(field).ascending();
         }
         Pageable pageable = PageRequest.of(page, size, sortSpec);
-        Page<ProductEntity> p = productRepository.search(q, categoryId, brand, minPrice, maxPrice, pageable);
+
+        Page<ProductEntity> p = Page.empty(pageable);
+        if (ProductSpecifications.looksLikeSku(q)) {
+            // An exact SKU hit through the unique index is the answer; anything else is a keyword search
+            p = productRepository.findAll(filters.and(ProductSpecifications.skuEquals(q.trim())), pageable);
+        }
+        if (p.getTotalElements() == 0) {
+            p = productRepository.findAll(keyword != null ? filters.and(keyword) : filters, pageable);
+        }
         List<ProductListDTO> list = p.getContent().stream().map(this::toListDTO).collect(Collectors.toList());
         return new PageResponseDTO<>(list, p.getNumber(), p.getSize(), p.getTotalElements(), p.getTotalPages());
     }
 
-    @Cacheable(cacheNames = "product-detail", key = "#id")
+    /**
+     * Keyset variant of {@link #search}: seeks past the cursor on (sort field, id) instead of using
+     * OFFSET, so every page costs the same, and only runs the COUNT query when asked for.
+     * Keyword matches still go through the FULLTEXT index but are ordered by {@code sort}, not relevance.
+     */
+    public CursorPageDTO<ProductListDTO> seek(String q,
+                                              Integer categoryId,
+                                              String brand,
+                                              BigDecimal minPrice,
+                                              BigDecimal maxPrice,
+                                              String sort,
+                                              String cursor,
+                                              int size,
+                                              boolean withTotal) {
+        String seekSort = ProductSeekCursor.normalizeSort(sort);
+        String field = ProductSeekCursor.field(seekSort);
+        boolean desc = ProductSeekCursor.descending(seekSort);
+
+        Specification<ProductEntity> spec = ProductSpecifications.filters(categoryId, brand, minPrice, maxPrice);
+        Specification<ProductEntity> keyword = keyword(q);
+        if (keyword != null) {
+            spec = spec.and(keyword);
+        }
+        Long total = withTotal ? productRepository.count(spec) : null;
+
+        Specification<ProductEntity> pageSpec = spec;
+        if (cursor != null && !cursor.isBlank()) {
+            ProductSeekCursor after = ProductSeekCursor.decode(cursor);
+            after.requireSort(seekSort);
+            pageSpec = spec.and(ProductSpecifications.after(field, desc, after.typedValue(), after.id()));
+        }
+
+        Sort.Direction direction = desc ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort order = "id".equals(field)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, field).and(Sort.by(direction, "id"));
+        // One extra row tells us whether there is a next page without counting
+        List<ProductEntity> rows = productRepository.findBy(pageSpec, query -> query.sortBy(order).limit(size + 1).all());
+
+        boolean hasMore = rows.size() > size;
+        List<ProductEntity> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore
+                ? ProductSeekCursor.after(seekSort, pageRows.get(pageRows.size() - 1)).encode()
+                : null;
+
+        return CursorPageDTO.<ProductListDTO>builder()
+                .content(pageRows.stream().map(this::toListDTO).collect(Collectors.toList()))
+                .size(pageRows.size())
+                .nextCursor(nextCursor)
+                .totalHits(total)
+                .totalHitsRelation(total != null ? "EQUAL_TO" : null)
+                .build();
+    }
+
+    @Cacheable(cacheNames = ProductCacheService.DETAIL_CACHE, key = "#id", sync = true)
     public ProductDetailDTO getDetail(Integer id) {
         ProductEntity entity = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + id));
@@ -65,8 +157,25 @@ public class ProductService {
         return dto;
     }
 
+    /**
+     * Price, stock and status for many products in one query. Unknown ids are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductBatchItemDTO> getBatch(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> distinct = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (distinct.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " product ids per request");
+        }
+        if (distinct.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return productRepository.findBatchByIdIn(distinct);
+    }
+
     @Transactional
-    @CacheEvict(cacheNames = {"product-detail", "products-page"}, allEntries = true)
     public ProductDetailDTO create(ProductDetailDTO request) {
         if (productRepository.existsBySkuIgnoreCase(request.getSku())) {
             throw new BadRequestException("SKU already exists");
@@ -78,17 +187,21 @@ public class ProductService {
             cat.ifPresent(entity::setCategory);
         }
         ProductEntity saved = productRepository.save(entity);
+        outboxRepository.save(new ProductOutboxEntity(saved.getId(), "CREATED"));
+        productCacheService.evictProduct(saved.getId(), Collections.singletonList(categoryId(saved)),
+                Collections.singletonList(saved.getBrand()), true);
         return toDetailDTO(saved);
     }
 
     @Transactional
-    @CacheEvict(cacheNames = {"product-detail", "products-page"}, allEntries = true)
     public ProductDetailDTO update(Integer id, ProductDetailDTO request) {
         ProductEntity entity = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + id));
         if (!entity.getSku().equalsIgnoreCase(request.getSku()) && productRepository.existsBySkuIgnoreCase(request.getSku())) {
             throw new BadRequestException("SKU already exists");
         }
+        Integer oldCategoryId = categoryId(entity);
+        String oldBrand = entity.getBrand();
         applyDetailToEntity(request, entity);
         if (request.getCategoryId() != null) {
             Optional<CategoryEntity> cat = categoryRepository.findById(request.getCategoryId());
@@ -97,16 +210,36 @@ public class ProductService {
             entity.setCategory(null);
         }
         ProductEntity saved = productRepository.save(entity);
+        outboxRepository.save(new ProductOutboxEntity(saved.getId(), "UPDATED"));
+        productCacheService.evictProduct(id, Arrays.asList(oldCategoryId, categoryId(saved)),
+                Arrays.asList(oldBrand, saved.getBrand()), false);
         return toDetailDTO(saved);
     }
 
     @Transactional
-    @CacheEvict(cacheNames = {"product-detail", "products-page"}, allEntries = true)
     public void delete(Integer id) {
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product not found: " + id);
+        ProductEntity entity = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + id));
+        productRepository.delete(entity);
+        outboxRepository.save(new ProductOutboxEntity(id, "DELETED"));
+        productCacheService.evictProduct(id, Collections.singletonList(categoryId(entity)),
+                Collections.singletonList(entity.getBrand()), false);
+    }
+
+    /**
+     * FULLTEXT keyword search plus SKU prefix matches, or the LIKE scan (which covers SKUs)
+     * while the index is missing
+     */
+    private Specification<ProductEntity> keyword(String q) {
+        if (!fullTextIndex.available()) {
+            return ProductSpecifications.keywordLike(q);
         }
-        productRepository.deleteById(id);
+        Specification<ProductEntity> keyword = ProductSpecifications.keyword(q);
+        return ProductSpecifications.looksLikeSku(q) ? keyword.or(ProductSpecifications.skuPrefix(q.trim())) : keyword;
+    }
+
+    private static Integer categoryId(ProductEntity e) {
+        return e.getCategory() != null ? e.getCategory().getId() : null;
     }
 
     private void applyDetailToEntity(ProductDetailDTO req, ProductEntity e) {
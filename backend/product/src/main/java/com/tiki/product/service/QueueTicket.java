@@ -0,0 +1,85 @@
+package com.tiki.product.service;
+
+import com.tiki.product.exception.BadRequestException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Flash sale waiting room ticket: the user's place in the queue plus the admission schedule it
+ * was issued under, signed with HMAC-SHA256 so it can be checked without any lookup.
+ *
+ * A ticket with sequence {@code seq} is admitted at {@code openAt + (seq - burst) / ratePerSecond}.
+ */
+public record QueueTicket(long flashSaleId, long userId, long seq, long openAt, int ratePerSecond, int burst) {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    /**
+     * Epoch millis from which this ticket may enter the reservation path
+     */
+    public long admittedAt() {
+        long ahead = seq - burst;
+        return ahead <= 0 ? openAt : openAt + (ahead * 1000) / ratePerSecond;
+    }
+
+    /**
+     * Tickets still ahead of this one at {@code now}, 0 once admitted
+     */
+    public long position(long now) {
+        long admitted = burst + Math.max(now - openAt, 0) * ratePerSecond / 1000;
+        return Math.max(seq - admitted, 0);
+    }
+
+    /**
+     * Highest sequence number whose admission window of {@code windowMillis} has closed at
+     * {@code now} (0 if none): the largest seq with admittedAt + windowMillis < now.
+     */
+    public static long lastExpiredSeq(long openAt, int ratePerSecond, int burst, long windowMillis, long now) {
+        long sinceOpen = now - windowMillis - openAt;
+        if (sinceOpen <= 0) {
+            return 0;
+        }
+        return burst + (sinceOpen * ratePerSecond - 1) / 1000;
+    }
+
+    public String encode(String secret) {
+        String payload = flashSaleId + "." + userId + "." + seq + "." + openAt + "." + ratePerSecond + "." + burst;
+        String body = Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return body + "." + sign(body, secret);
+    }
+
+    public static QueueTicket decode(String token, String secret) {
+        try {
+            int dot = token.lastIndexOf('.');
+            if (dot <= 0) {
+                throw new BadRequestException("Invalid queue ticket");
+            }
+            String body = token.substring(0, dot);
+            byte[] expected = sign(body, secret).getBytes(StandardCharsets.US_ASCII);
+            if (!MessageDigest.isEqual(expected, token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII))) {
+                throw new BadRequestException("Invalid queue ticket");
+            }
+            String[] parts = new String(Base64.getUrlDecoder().decode(body), StandardCharsets.UTF_8).split("\\.");
+            return new QueueTicket(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                Long.parseLong(parts[3]), Integer.parseInt(parts[4]), Integer.parseInt(parts[5]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid queue ticket", e);
+        }
+    }
+
+    private static String sign(String body, String secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            byte[] signature = mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign queue ticket", e);
+        }
+    }
+}
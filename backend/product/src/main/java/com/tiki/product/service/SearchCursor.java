@@ -0,0 +1,40 @@
+package com.tiki.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiki.product.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque continuation token for search_after paging:
+ * the point-in-time id plus the sort values of the last hit, as URL-safe base64 JSON.
+ */
+public record SearchCursor(String pit, List<Object> searchAfter) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public String encode() {
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(this);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode search cursor", e);
+        }
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token);
+            SearchCursor cursor = MAPPER.readValue(new String(json, StandardCharsets.UTF_8), SearchCursor.class);
+            if (cursor.pit() == null || cursor.searchAfter() == null || cursor.searchAfter().isEmpty()) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return cursor;
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Near-real-time search indexing
+-- Transactional outbox for product changes, drained to product.exchange
+
+CREATE TABLE product_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    product_id INT NOT NULL COMMENT 'Product ID',
+    action VARCHAR(20) NOT NULL COMMENT 'CREATED, UPDATED, DELETED',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Written in the product transaction'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
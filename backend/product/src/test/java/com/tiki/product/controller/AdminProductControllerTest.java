@@ -0,0 +1,91 @@
+package com.tiki.product.controller;
+
+import com.tiki.product.dto.CursorPageDTO;
+import com.tiki.product.dto.ProductListDTO;
+import com.tiki.product.dto.ReindexStatusDTO;
+import com.tiki.product.service.ProductReindexService;
+import com.tiki.product.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Web layer tests for the admin reindex endpoints
+ */
+@ExtendWith(MockitoExtension.class)
+class AdminProductControllerTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductReindexService reindexService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new AdminProductController(productService, reindexService)).build();
+    }
+
+    @Test
+    void testReindexStartsInBackground() throws Exception {
+        when(reindexService.start(false)).thenReturn(ReindexStatusDTO.builder().status("RUNNING").total(5).build());
+
+        mockMvc.perform(post("/api/v1/admin/products/reindex"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.status").value("RUNNING"))
+            .andExpect(jsonPath("$.total").value(5));
+
+        verify(reindexService).start(false);
+    }
+
+    @Test
+    void testReindexResume() throws Exception {
+        when(reindexService.start(true)).thenReturn(ReindexStatusDTO.builder().status("RUNNING").checkpoint(400).build());
+
+        mockMvc.perform(post("/api/v1/admin/products/reindex").param("resume", "true"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.checkpoint").value(400));
+
+        verify(reindexService).start(true);
+    }
+
+    @Test
+    void testSeekSizeClamped() throws Exception {
+        when(productService.seek(any(), any(), any(), any(), any(), any(), any(), anyInt(), anyBoolean()))
+            .thenReturn(CursorPageDTO.<ProductListDTO>builder().content(List.of()).build());
+
+        mockMvc.perform(get("/api/v1/admin/products/seek").param("size", "1000000")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/admin/products/seek").param("size", "0")).andExpect(status().isOk());
+
+        verify(productService).seek(null, null, null, null, null, null, null, 1000, false);
+        verify(productService).seek(null, null, null, null, null, null, null, 1, false);
+    }
+
+    @Test
+    void testReindexStatus() throws Exception {
+        when(reindexService.getStatus()).thenReturn(ReindexStatusDTO.builder().status("COMPLETED").processed(5).build());
+
+        mockMvc.perform(get("/api/v1/admin/products/reindex/status"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("COMPLETED"))
+            .andExpect(jsonPath("$.processed").value(5));
+
+        verify(reindexService, never()).start(anyBoolean());
+    }
+}
@@ -0,0 +1,67 @@
+package com.tiki.product.controller;
+
+import com.tiki.product.dto.FlashSaleReservationDTO;
+import com.tiki.product.service.FlashSaleReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Web layer tests for the service-to-service reservation confirm
+ */
+@ExtendWith(MockitoExtension.class)
+class InternalFlashSaleControllerTest {
+
+    private static final String URL = "/internal/v1/flash-sales/reservations/abc/confirm";
+
+    @Mock
+    private FlashSaleReservationService reservationService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        InternalFlashSaleController controller = new InternalFlashSaleController(reservationService);
+        ReflectionTestUtils.setField(controller, "internalToken", "s3cret");
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void testConfirmWithServiceToken() throws Exception {
+        when(reservationService.confirm("abc", 7L))
+            .thenReturn(FlashSaleReservationDTO.builder().token("abc").productId(10L).quantity(2).build());
+
+        mockMvc.perform(post(URL).header("X-User-Id", 7).header("X-Internal-Token", "s3cret"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.productId").value(10));
+    }
+
+    @Test
+    void testConfirmWithoutServiceTokenForbidden() throws Exception {
+        mockMvc.perform(post(URL).header("X-User-Id", 7))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post(URL).header("X-User-Id", 7).header("X-Internal-Token", "guess"))
+            .andExpect(status().isForbidden());
+
+        verify(reservationService, never()).confirm(any(), any());
+    }
+
+    @Test
+    void testConfirmExpiredReservationGone() throws Exception {
+        when(reservationService.confirm("abc", 7L)).thenReturn(null);
+
+        mockMvc.perform(post(URL).header("X-User-Id", 7).header("X-Internal-Token", "s3cret"))
+            .andExpect(status().isGone());
+    }
+}
@@ -0,0 +1,132 @@
+package com.tiki.product.repository;
+
+import com.tiki.product.entity.ProductEntity;
+import com.tiki.product.service.ProductFullTextIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Database fallback search against the schema Hibernate creates on a real MySQL (skipped without Docker).
+ * Not transactional: InnoDB FULLTEXT indexes only see committed rows.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductSearchMySqlTest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"));
+
+    @Configuration
+    @EntityScan(basePackageClasses = ProductEntity.class)
+    @EnableJpaRepositories(basePackageClasses = ProductRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ProductRepository.class))
+    @Import(ProductFullTextIndex.class)
+    static class Config {
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductFullTextIndex fullTextIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        productRepository.saveAll(List.of(
+            product("LAP-001", "Laptop Dell XPS 13", "Ultrabook 13 inch"),
+            product("LAP-002", "Laptop Lenovo ThinkPad", "Business laptop"),
+            product("PHONE-001", "Điện thoại Samsung Galaxy", "Smartphone")));
+        Integer indexes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.statistics " +
+            "WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'ft_products_name_description'",
+            Integer.class);
+        if (indexes != null && indexes > 0) {
+            jdbcTemplate.execute("ALTER TABLE products DROP INDEX ft_products_name_description");
+        }
+    }
+
+    @Test
+    void testKeywordSearchWithoutFullTextIndexUsesLike() {
+        ReflectionTestUtils.setField(fullTextIndex, "createIndex", false);
+
+        fullTextIndex.ensureIndex();
+
+        assertFalse(fullTextIndex.available());
+        assertEquals(List.of("LAP-001"), skus(ProductSpecifications.keywordLike("dell xps")));
+        assertEquals(List.of("LAP-001", "LAP-002"), skus(ProductSpecifications.keywordLike("LAPTOP")));
+        // MATCH ... AGAINST needs the index Hibernate never creates
+        assertThrows(DataAccessException.class, () -> skus(ProductSpecifications.keyword("dell")));
+    }
+
+    @Test
+    void testFullTextIndexCreatedOnStartup() {
+        ReflectionTestUtils.setField(fullTextIndex, "createIndex", true);
+
+        fullTextIndex.ensureIndex();
+
+        assertTrue(fullTextIndex.available());
+        assertEquals(List.of("LAP-001"), skus(ProductSpecifications.keyword("laptop dell")));
+        assertEquals(List.of("PHONE-001"), skus(ProductSpecifications.keyword("điện thoại")));
+        assertEquals(List.of(), skus(ProductSpecifications.keyword("x")));
+        assertEquals(List.of("LAP-001", "LAP-002"),
+            skus(ProductSpecifications.keyword("lap").or(ProductSpecifications.skuPrefix("lap"))));
+        assertEquals(List.of("PHONE-001"), skus(ProductSpecifications.skuEquals("phone-001")));
+        assertEquals(List.of(), skus(ProductSpecifications.skuEquals("phone")));
+
+        // A second instance finds the index and does not try to create it again
+        fullTextIndex.ensureIndex();
+        assertTrue(fullTextIndex.available());
+    }
+
+    private List<String> skus(Specification<ProductEntity> spec) {
+        return productRepository.findAll(spec).stream().map(ProductEntity::getSku).sorted().toList();
+    }
+
+    private static ProductEntity product(String sku, String name, String description) {
+        ProductEntity product = new ProductEntity();
+        product.setSku(sku);
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(new BigDecimal("1000000"));
+        return product;
+    }
+}
@@ -0,0 +1,51 @@
+package com.tiki.product.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the FULLTEXT boolean-mode query builder
+ */
+class ProductSpecificationsTest {
+
+    @Test
+    void testEveryWordIsRequired() {
+        assertEquals("+laptop +dell", ProductSpecifications.toBooleanQuery("  laptop   dell "));
+    }
+
+    @Test
+    void testBooleanOperatorsAreStripped() {
+        assertEquals("+áo +thun", ProductSpecifications.toBooleanQuery("-áo \"thun\"*"));
+    }
+
+    @Test
+    void testSingleCharactersAndBlankInputAreIgnored() {
+        assertEquals("+tv", ProductSpecifications.toBooleanQuery("a tv"));
+        assertNull(ProductSpecifications.toBooleanQuery("a b"));
+        assertNull(ProductSpecifications.toBooleanQuery("  "));
+        assertNull(ProductSpecifications.toBooleanQuery(null));
+    }
+
+    @Test
+    void testQueryWithoutSearchableTermsMatchesNothing() {
+        // A null keyword means no keyword filter, i.e. the whole catalog
+        assertNull(ProductSpecifications.keyword(null));
+        assertNull(ProductSpecifications.keyword("  "));
+        assertNotNull(ProductSpecifications.keyword("a"));
+        assertNotNull(ProductSpecifications.keyword("\"*\""));
+    }
+
+    @Test
+    void testSkuPrefixEscapesWildcards() {
+        assertEquals("SKU-001%", ProductSpecifications.likePrefix("SKU-001"));
+        assertEquals("SKU\\_1%", ProductSpecifications.likePrefix("SKU_1"));
+    }
+
+    @Test
+    void testSkuDetection() {
+        assertTrue(ProductSpecifications.looksLikeSku("SKU-001"));
+        assertFalse(ProductSpecifications.looksLikeSku("ao thun"));
+        assertFalse(ProductSpecifications.looksLikeSku(null));
+    }
+}
@@ -0,0 +1,118 @@
+package com.tiki.product.service;
+
+import com.tiki.product.entity.FlashSale;
+import com.tiki.product.entity.FlashSale.FlashSaleStatus;
+import com.tiki.product.exception.BadRequestException;
+import com.tiki.product.repository.FlashSaleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for joining the flash sale queue, with the JOIN script emulated in memory
+ */
+@ExtendWith(MockitoExtension.class)
+class FlashSaleAdmissionServiceTest {
+
+    private static final String SECRET = "test-secret";
+    private static final long SALE_ID = 1L;
+    private static final long USER_ID = 42L;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private FlashSaleRepository flashSaleRepository;
+
+    @InjectMocks
+    private FlashSaleAdmissionService admissionService;
+
+    private final Map<String, Long> tickets = new HashMap<>();
+    private long lastSeq;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(admissionService, "enabled", true);
+        ReflectionTestUtils.setField(admissionService, "secret", SECRET);
+        ReflectionTestUtils.setField(admissionService, "defaultRate", 200);
+        ReflectionTestUtils.setField(admissionService, "burst", 1000);
+        ReflectionTestUtils.setField(admissionService, "admissionWindow", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(admissionService, "scheduleCacheTtl", Duration.ofSeconds(30));
+    }
+
+    @Test
+    void testRejoinAfterWindowGetsNewAdmittedTicket() {
+        FlashSale sale = stubSale(LocalDateTime.now().minusMinutes(30));
+        stubJoin();
+        tickets.put(String.valueOf(USER_ID), 1L);  // Joined at the opening, window closed 20 minutes ago
+        String expired = new QueueTicket(SALE_ID, USER_ID, 1, openAt(sale), 200, 1000).encode(SECRET);
+        assertThrows(BadRequestException.class, () -> admissionService.check(SALE_ID, USER_ID, expired));
+
+        String ticket = admissionService.join(SALE_ID, USER_ID);
+
+        QueueTicket rejoined = QueueTicket.decode(ticket, SECRET);
+        assertTrue(rejoined.seq() > 1);
+        assertTrue(admissionService.check(SALE_ID, USER_ID, ticket).admitted());
+        assertEquals(admissionService.join(SALE_ID, USER_ID), ticket);  // Still idempotent once reissued
+    }
+
+    @Test
+    void testRejoinWithinWindowKeepsPlace() {
+        stubSale(LocalDateTime.now().minusMinutes(1));
+        stubJoin();
+        tickets.put(String.valueOf(USER_ID), 5L);
+
+        QueueTicket ticket = QueueTicket.decode(admissionService.join(SALE_ID, USER_ID), SECRET);
+
+        assertEquals(5, ticket.seq());
+    }
+
+    private FlashSale stubSale(LocalDateTime start) {
+        FlashSale sale = new FlashSale();
+        sale.setId(SALE_ID);
+        sale.setStatus(FlashSaleStatus.ACTIVE);
+        sale.setStartTime(start);
+        sale.setEndTime(start.plusHours(2));
+        when(flashSaleRepository.findById(SALE_ID)).thenReturn(Optional.of(sale));
+        return sale;
+    }
+
+    private static long openAt(FlashSale sale) {
+        return sale.getStartTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /** Same semantics as the JOIN Lua script: ARGV userId, floor, expireAt, lastExpiredSeq */
+    @SuppressWarnings("unchecked")
+    private void stubJoin() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any())).thenAnswer(inv -> {
+            String user = inv.getArgument(2);
+            long floor = Long.parseLong(inv.getArgument(3));
+            long lastExpired = Long.parseLong(inv.getArgument(5));
+            Long existing = tickets.get(user);
+            if (existing != null && existing > lastExpired) {
+                return existing;
+            }
+            lastSeq = Math.max(lastSeq, floor) + 1;
+            tickets.put(user, lastSeq);
+            return lastSeq;
+        });
+    }
+}
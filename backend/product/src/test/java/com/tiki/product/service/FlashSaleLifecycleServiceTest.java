@@ -0,0 +1,169 @@
+package com.tiki.product.service;
+
+import com.tiki.product.entity.FlashSale;
+import com.tiki.product.entity.FlashSale.FlashSaleStatus;
+import com.tiki.product.repository.FlashSaleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for flash sale status transitions and the read snapshot
+ */
+@ExtendWith(MockitoExtension.class)
+class FlashSaleLifecycleServiceTest {
+
+    @Mock
+    private FlashSaleRepository flashSaleRepository;
+
+    @Mock
+    private FlashSaleReservationService reservationService;
+
+    @Mock
+    private FlashSaleAdmissionService admissionService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private FlashSaleLifecycleService lifecycleService;
+
+    @BeforeEach
+    void setUp() {
+        lifecycleService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        lifecycleService.shutdown();
+    }
+
+    @Test
+    void testDueSaleStartsAndEntersSnapshot() {
+        LocalDateTime now = LocalDateTime.now();
+        FlashSale starting = sale(1L, FlashSaleStatus.SCHEDULED, now.minusSeconds(1), now.plusHours(1));
+        FlashSale upcoming = sale(2L, FlashSaleStatus.SCHEDULED, now.plusHours(2), now.plusHours(3));
+        when(flashSaleRepository.findWithProductsByStatusIn(anyList())).thenReturn(List.of(starting, upcoming));
+        runTransactions();
+        when(flashSaleRepository.transition(any(), any(), any(), any())).thenReturn(1);
+
+        lifecycleService.refresh(false);
+
+        verify(flashSaleRepository).transition(eq(1L), eq(FlashSaleStatus.SCHEDULED), eq(FlashSaleStatus.ACTIVE), any());
+        verify(reservationService).warm(starting, starting.getProducts());
+        verify(admissionService).register(starting);
+        FlashSaleSnapshot snapshot = lifecycleService.snapshot();
+        assertEquals(List.of(1L), snapshot.active().stream().map(s -> s.getId()).toList());
+        assertEquals(List.of(2L), snapshot.upcoming().stream().map(s -> s.getId()).toList());
+        assertNotNull(snapshot.products().get(2L));
+    }
+
+    @Test
+    void testElapsedSaleEnds() {
+        LocalDateTime now = LocalDateTime.now();
+        FlashSale ended = sale(1L, FlashSaleStatus.ACTIVE, now.minusHours(2), now.minusSeconds(1));
+        when(flashSaleRepository.findWithProductsByStatusIn(anyList())).thenReturn(List.of(ended));
+        runTransactions();
+        when(flashSaleRepository.transition(any(), any(), any(), any())).thenReturn(1);
+
+        lifecycleService.refresh(false);
+
+        verify(flashSaleRepository).transition(eq(1L), eq(FlashSaleStatus.ACTIVE), eq(FlashSaleStatus.ENDED), any());
+        verify(admissionService).evict(1L);
+        assertTrue(lifecycleService.snapshot().active().isEmpty());
+        assertFalse(lifecycleService.snapshot().sales().containsKey(1L));
+    }
+
+    @Test
+    void testSaleStartedElsewhereIsStillWarmed() {
+        LocalDateTime now = LocalDateTime.now();
+        FlashSale starting = sale(1L, FlashSaleStatus.SCHEDULED, now.minusSeconds(1), now.plusHours(1));
+        when(flashSaleRepository.findWithProductsByStatusIn(anyList())).thenReturn(List.of(starting));
+        runTransactions();
+        when(flashSaleRepository.transition(any(), any(), any(), any())).thenReturn(0);
+        when(flashSaleRepository.findStatusById(1L)).thenReturn(Optional.of(FlashSaleStatus.ACTIVE));
+
+        lifecycleService.refresh(false);
+
+        verify(reservationService).warm(starting, starting.getProducts());
+        verify(admissionService).register(starting);
+        assertEquals(1, lifecycleService.snapshot().active().size());
+    }
+
+    @Test
+    void testSaleCancelledBeforeStartIsNotWarmed() {
+        LocalDateTime now = LocalDateTime.now();
+        FlashSale starting = sale(1L, FlashSaleStatus.SCHEDULED, now.minusSeconds(1), now.plusHours(1));
+        when(flashSaleRepository.findWithProductsByStatusIn(anyList())).thenReturn(List.of(starting));
+        runTransactions();
+        when(flashSaleRepository.transition(any(), any(), any(), any())).thenReturn(0);
+        when(flashSaleRepository.findStatusById(1L)).thenReturn(Optional.of(FlashSaleStatus.CANCELLED));
+
+        lifecycleService.refresh(false);
+
+        verifyNoInteractions(reservationService);
+        verify(admissionService, never()).register(any());
+        assertTrue(lifecycleService.snapshot().active().isEmpty());
+    }
+
+    @Test
+    void testSaleStartedElsewhereIsEndedFromActive() {
+        LocalDateTime now = LocalDateTime.now();
+        FlashSale ended = sale(1L, FlashSaleStatus.SCHEDULED, now.minusHours(2), now.minusSeconds(1));
+        when(flashSaleRepository.findWithProductsByStatusIn(anyList())).thenReturn(List.of(ended));
+        runTransactions();
+        when(flashSaleRepository.findStatusById(1L)).thenReturn(Optional.of(FlashSaleStatus.ACTIVE));
+        when(flashSaleRepository.transition(eq(1L), eq(FlashSaleStatus.ACTIVE), eq(FlashSaleStatus.ENDED), any())).thenReturn(1);
+
+        lifecycleService.refresh(false);
+
+        verify(flashSaleRepository).transition(eq(1L), eq(FlashSaleStatus.SCHEDULED), eq(FlashSaleStatus.ENDED), any());
+        verify(admissionService).evict(1L);
+        assertFalse(lifecycleService.snapshot().sales().containsKey(1L));
+    }
+
+    @Test
+    void testRunningSaleNotTouched() {
+        LocalDateTime now = LocalDateTime.now();
+        FlashSale running = sale(1L, FlashSaleStatus.ACTIVE, now.minusHours(1), now.plusHours(1));
+        when(flashSaleRepository.findWithProductsByStatusIn(anyList())).thenReturn(List.of(running));
+
+        lifecycleService.refresh(false);
+
+        verify(flashSaleRepository, never()).transition(any(), any(), any(), any());
+        verifyNoInteractions(reservationService);
+        assertEquals(1, lifecycleService.snapshot().active().size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactions() {
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    private static FlashSale sale(Long id, FlashSaleStatus status, LocalDateTime start, LocalDateTime end) {
+        FlashSale sale = new FlashSale();
+        sale.setId(id);
+        sale.setName("Sale " + id);
+        sale.setStatus(status);
+        sale.setStartTime(start);
+        sale.setEndTime(end);
+        return sale;
+    }
+}
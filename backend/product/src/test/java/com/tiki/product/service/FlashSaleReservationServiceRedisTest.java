@@ -0,0 +1,168 @@
+package com.tiki.product.service;
+
+import com.tiki.product.dto.FlashSaleReservationDTO;
+import com.tiki.product.entity.FlashSale;
+import com.tiki.product.entity.FlashSaleProduct;
+import com.tiki.product.repository.FlashSaleProductRepository;
+import com.tiki.product.service.FlashSaleReservationService.ReservationResult;
+import com.tiki.product.service.FlashSaleReservationService.Status;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Stock and token scripts against a real Redis (skipped without Docker)
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class FlashSaleReservationServiceRedisTest {
+
+    private static final Long SALE_ID = 1L;
+    private static final Long PRODUCT_ID = 10L;
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+        new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private FlashSaleProductRepository flashSaleProductRepository;
+    private FlashSaleReservationService reservationService;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        flashSaleProductRepository = mock(FlashSaleProductRepository.class);
+        reservationService = new FlashSaleReservationService(redisTemplate, flashSaleProductRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(reservationService, "reservationTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(reservationService, "batchSize", 1000);
+    }
+
+    @Test
+    void testReserveEnforcesStockAndPerUserLimit() {
+        warm(LocalDateTime.now().minusMinutes(5), 3, 0);
+
+        ReservationResult first = reservationService.reserve(SALE_ID, PRODUCT_ID, 7L, 2);
+        assertEquals(Status.RESERVED, first.status());
+        assertEquals(0, new BigDecimal("400000").compareTo(first.reservation().getSalePrice()));
+        assertEquals(Status.USER_LIMIT_REACHED, reservationService.reserve(SALE_ID, PRODUCT_ID, 7L, 1).status());
+        assertEquals(Status.SOLD_OUT, reservationService.reserve(SALE_ID, PRODUCT_ID, 8L, 2).status());
+        assertEquals(Status.RESERVED, reservationService.reserve(SALE_ID, PRODUCT_ID, 8L, 1).status());
+        assertEquals(0, reservationService.remaining(SALE_ID, PRODUCT_ID));
+    }
+
+    @Test
+    void testReserveOutsideWindowOrNotWarmed() {
+        warm(LocalDateTime.now().plusHours(1), 3, 0);
+
+        assertEquals(Status.NOT_STARTED, reservationService.reserve(SALE_ID, PRODUCT_ID, 7L, 1).status());
+        assertEquals(Status.NOT_ACTIVE, reservationService.reserve(SALE_ID, 11L, 7L, 1).status());
+        assertEquals(3, reservationService.remaining(SALE_ID, PRODUCT_ID));
+    }
+
+    @Test
+    void testRewarmKeepsLiveCounters() {
+        warm(LocalDateTime.now().minusMinutes(5), 3, 0);
+        reservationService.reserve(SALE_ID, PRODUCT_ID, 7L, 2);
+
+        warm(LocalDateTime.now().minusMinutes(5), 3, 0);
+
+        assertEquals(1, reservationService.remaining(SALE_ID, PRODUCT_ID));
+    }
+
+    @Test
+    void testConfirmQueuesSaleAndReleaseCannotUndoIt() {
+        warm(LocalDateTime.now().minusMinutes(5), 3, 0);
+        String token = reservationService.reserve(SALE_ID, PRODUCT_ID, 7L, 2).reservation().getToken();
+
+        assertNull(reservationService.confirm(token, 8L));
+        FlashSaleReservationDTO confirmed = reservationService.confirm(token, 7L);
+
+        assertNotNull(confirmed);
+        assertEquals(PRODUCT_ID, confirmed.getProductId());
+        assertEquals(2, confirmed.getQuantity());
+        assertNull(reservationService.confirm(token, 7L));
+        assertFalse(reservationService.release(token, 7L));
+        assertEquals(1, reservationService.remaining(SALE_ID, PRODUCT_ID));
+
+        reservationService.flushSold();
+        verify(flashSaleProductRepository).addQuantitySold(SALE_ID, PRODUCT_ID, 2);
+    }
+
+    @Test
+    void testReleaseReturnsStockAndUserAllowance() {
+        warm(LocalDateTime.now().minusMinutes(5), 3, 0);
+        String token = reservationService.reserve(SALE_ID, PRODUCT_ID, 7L, 2).reservation().getToken();
+
+        assertTrue(reservationService.release(token, 7L));
+
+        assertEquals(3, reservationService.remaining(SALE_ID, PRODUCT_ID));
+        assertNull(reservationService.confirm(token, 7L));
+        assertEquals(Status.RESERVED, reservationService.reserve(SALE_ID, PRODUCT_ID, 7L, 2).status());
+    }
+
+    @Test
+    void testSweepReleasesExpiredReservations() {
+        warm(LocalDateTime.now().minusMinutes(5), 3, 1);
+        ReflectionTestUtils.setField(reservationService, "reservationTtl", Duration.ZERO);
+        String token = reservationService.reserve(SALE_ID, PRODUCT_ID, 7L, 2).reservation().getToken();
+        assertEquals(0, reservationService.remaining(SALE_ID, PRODUCT_ID));
+
+        reservationService.sweepExpired();
+
+        assertEquals(2, reservationService.remaining(SALE_ID, PRODUCT_ID));
+        assertNull(reservationService.confirm(token, 7L));
+        assertEquals(0L, redisTemplate.opsForZSet().zCard("flashsale:reservations"));
+    }
+
+    private void warm(LocalDateTime start, int limit, int sold) {
+        FlashSale sale = new FlashSale();
+        sale.setId(SALE_ID);
+        sale.setStartTime(start);
+        sale.setEndTime(start.plusHours(2));
+        FlashSaleProduct product = new FlashSaleProduct();
+        product.setFlashSale(sale);
+        product.setProductId(PRODUCT_ID);
+        product.setSalePrice(new BigDecimal("400000"));
+        product.setQuantityLimit(limit);
+        product.setQuantitySold(sold);
+        product.setMaxPerUser(2);
+        reservationService.warm(sale, List.of(product));
+    }
+}
@@ -0,0 +1,194 @@
+package com.tiki.product.service;
+
+import com.tiki.product.dto.FlashSaleDTO;
+import com.tiki.product.dto.FlashSaleProductDTO;
+import com.tiki.product.entity.FlashSale;
+import com.tiki.product.entity.FlashSale.FlashSaleStatus;
+import com.tiki.product.entity.FlashSaleProduct;
+import com.tiki.product.exception.BadRequestException;
+import com.tiki.product.repository.FlashSaleProductRepository;
+import com.tiki.product.repository.FlashSaleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for flash sale activation and stock reads
+ */
+@ExtendWith(MockitoExtension.class)
+class FlashSaleServiceTest {
+
+    @Mock
+    private FlashSaleRepository flashSaleRepository;
+
+    @Mock
+    private FlashSaleProductRepository flashSaleProductRepository;
+
+    @Mock
+    private FlashSaleReservationService reservationService;
+
+    @Mock
+    private FlashSaleAdmissionService admissionService;
+
+    @Mock
+    private FlashSaleLifecycleService lifecycleService;
+
+    @InjectMocks
+    private FlashSaleService flashSaleService;
+
+    @Test
+    void testActivateWarmsCounters() {
+        FlashSale sale = sale(FlashSaleStatus.SCHEDULED, LocalDateTime.now().plusHours(1));
+        List<FlashSaleProduct> products = List.of(product(sale, 10L, 100, 0));
+        when(flashSaleRepository.findById(1L)).thenReturn(Optional.of(sale));
+        when(flashSaleProductRepository.findByFlashSaleId(1L)).thenReturn(products);
+
+        flashSaleService.activate(1L);
+
+        assertEquals(FlashSaleStatus.ACTIVE, sale.getStatus());
+        verify(reservationService).warm(sale, products);
+        verify(admissionService).register(sale);
+    }
+
+    @Test
+    void testActivateWarmsCountersOnlyAfterCommit() {
+        FlashSale sale = sale(FlashSaleStatus.SCHEDULED, LocalDateTime.now().plusHours(1));
+        List<FlashSaleProduct> products = List.of(product(sale, 10L, 100, 0));
+        when(flashSaleRepository.findById(1L)).thenReturn(Optional.of(sale));
+        when(flashSaleProductRepository.findByFlashSaleId(1L)).thenReturn(products);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            flashSaleService.activate(1L);
+            verify(reservationService, never()).warm(any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(reservationService).warm(sale, products);
+    }
+
+    @Test
+    void testCancelEvictsCountersOnlyAfterCommit() {
+        FlashSale sale = sale(FlashSaleStatus.ACTIVE, LocalDateTime.now().minusMinutes(5));
+        sale.getProducts().add(product(sale, 10L, 100, 0));
+        when(flashSaleRepository.findById(1L)).thenReturn(Optional.of(sale));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            flashSaleService.update(1L, FlashSaleDTO.builder().status(FlashSaleStatus.CANCELLED).build());
+            verify(reservationService, never()).evict(any(), any());
+
+            // Rolled back: the counters stay
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(reservationService, never()).evict(any(), any());
+    }
+
+    @Test
+    void testActivateEndedSaleRejected() {
+        FlashSale sale = sale(FlashSaleStatus.SCHEDULED, LocalDateTime.now().minusHours(2));
+        when(flashSaleRepository.findById(1L)).thenReturn(Optional.of(sale));
+
+        assertThrows(BadRequestException.class, () -> flashSaleService.activate(1L));
+        verify(reservationService, never()).warm(any(), any());
+    }
+
+    @Test
+    void testActiveSaleReportsLiveRemaining() {
+        FlashSale sale = sale(FlashSaleStatus.ACTIVE, LocalDateTime.now().minusMinutes(5));
+        when(flashSaleRepository.findById(1L)).thenReturn(Optional.of(sale));
+        when(flashSaleProductRepository.findByFlashSaleId(1L))
+            .thenReturn(List.of(product(sale, 10L, 100, 0), product(sale, 11L, 50, 5)));
+        when(reservationService.remaining(1L, List.of(10L, 11L))).thenReturn(Map.of(10L, 37));
+        when(lifecycleService.snapshot()).thenReturn(FlashSaleSnapshot.EMPTY);
+
+        List<FlashSaleProductDTO> products = flashSaleService.getProducts(1L);
+
+        assertEquals(37, products.get(0).getRemaining());
+        // Not warmed: falls back to the MySQL numbers
+        assertEquals(45, products.get(1).getRemaining());
+    }
+
+    @Test
+    void testScheduledSaleDoesNotReadRedis() {
+        FlashSale sale = sale(FlashSaleStatus.SCHEDULED, LocalDateTime.now().plusDays(1));
+        when(flashSaleRepository.findById(1L)).thenReturn(Optional.of(sale));
+        when(flashSaleProductRepository.findByFlashSaleId(1L)).thenReturn(List.of(product(sale, 10L, 100, 0)));
+        when(lifecycleService.snapshot()).thenReturn(FlashSaleSnapshot.EMPTY);
+
+        List<FlashSaleProductDTO> products = flashSaleService.getProducts(1L);
+
+        assertEquals(100, products.get(0).getRemaining());
+        verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    void testActiveSaleProductsServedFromSnapshot() {
+        FlashSale sale = sale(FlashSaleStatus.ACTIVE, LocalDateTime.now().minusMinutes(5));
+        FlashSaleProductDTO cached = FlashSaleService.toDto(product(sale, 10L, 100, 0), 1L, 100);
+        FlashSaleSnapshot snapshot = new FlashSaleSnapshot(List.of(FlashSaleService.toDto(sale)), List.of(),
+            Map.of(1L, FlashSaleService.toDto(sale)), Map.of(1L, List.of(cached)), LocalDateTime.now());
+        when(lifecycleService.snapshot()).thenReturn(snapshot);
+        when(reservationService.remaining(1L, List.of(10L))).thenReturn(Map.of(10L, 12));
+
+        List<FlashSaleProductDTO> products = flashSaleService.getProducts(1L);
+
+        assertEquals(12, products.get(0).getRemaining());
+        // The shared snapshot entry is left untouched
+        assertEquals(100, cached.getRemaining());
+        verifyNoInteractions(flashSaleRepository, flashSaleProductRepository);
+    }
+
+    @Test
+    void testActiveAndUpcomingServedFromSnapshot() {
+        FlashSale active = sale(FlashSaleStatus.ACTIVE, LocalDateTime.now().minusMinutes(5));
+        FlashSaleSnapshot snapshot = new FlashSaleSnapshot(List.of(FlashSaleService.toDto(active)), List.of(),
+            Map.of(1L, FlashSaleService.toDto(active)), Map.of(1L, List.of()), LocalDateTime.now());
+        when(lifecycleService.snapshot()).thenReturn(snapshot);
+
+        assertEquals(1, flashSaleService.getActive().size());
+        assertTrue(flashSaleService.getUpcoming().isEmpty());
+        verifyNoInteractions(flashSaleRepository);
+    }
+
+    private static FlashSale sale(FlashSaleStatus status, LocalDateTime start) {
+        FlashSale sale = new FlashSale();
+        sale.setId(1L);
+        sale.setName("11.11");
+        sale.setStatus(status);
+        sale.setStartTime(start);
+        sale.setEndTime(start.plusHours(1));
+        return sale;
+    }
+
+    private static FlashSaleProduct product(FlashSale sale, Long productId, int limit, int sold) {
+        FlashSaleProduct product = new FlashSaleProduct();
+        product.setFlashSale(sale);
+        product.setProductId(productId);
+        product.setOriginalPrice(BigDecimal.valueOf(1000000));
+        product.setSalePrice(BigDecimal.valueOf(400000));
+        product.setQuantityLimit(limit);
+        product.setQuantitySold(sold);
+        product.setMaxPerUser(2);
+        return product;
+    }
+}
@@ -0,0 +1,129 @@
+package com.tiki.product.service;
+
+import com.tiki.product.dto.PageResponseDTO;
+import com.tiki.product.dto.ProductListDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tag sets and the load/evict race against a real Redis (skipped without Docker)
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ProductCacheServiceRedisTest {
+
+    private static final String PRODUCT_TAG = "cache:tags:products-page:product:1";
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+        new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private ProductCacheService cacheService;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        cacheManager = new ConcurrentMapCacheManager(ProductCacheService.PAGE_CACHE, ProductCacheService.DETAIL_CACHE);
+        cacheService = new ProductCacheService(cacheManager, redisTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cacheService, "tagTtl", Duration.ofMinutes(10));
+        cacheService.init();
+    }
+
+    @Test
+    void testEvictProductEvictsTaggedPages() {
+        cacheService.page("p1", null, null, () -> page(1, 2));
+        cacheService.page("p2", 5, null, () -> page(3));
+
+        cacheService.evictProduct(1, List.of(), List.of(), false);
+
+        assertNull(cacheManager.getCache(ProductCacheService.PAGE_CACHE).get("p1"));
+        assertNotNull(cacheManager.getCache(ProductCacheService.PAGE_CACHE).get("p2"));
+        assertFalse(redisTemplate.hasKey(PRODUCT_TAG));
+    }
+
+    @Test
+    void testLapsedPagesPrunedFromLiveTag() {
+        ReflectionTestUtils.setField(cacheService, "tagTtl", Duration.ofSeconds(2));
+        cacheService.page("p1", null, null, () -> page(1));
+        sleep(1000);
+        cacheService.page("p2", null, null, () -> page(1));
+        sleep(1200);
+
+        // p1's registration has lapsed while the tag itself is kept alive by p2
+        cacheService.page("p3", null, null, () -> page(1));
+
+        assertEquals(Set.of("p2", "p3"), redisTemplate.opsForZSet().range(PRODUCT_TAG, 0, -1));
+        assertTrue(redisTemplate.getExpire(PRODUCT_TAG) > 0);
+    }
+
+    @Test
+    void testPageLoadedAcrossEvictionIsNotKept() {
+        PageResponseDTO<ProductListDTO> page = cacheService.page("p1", null, null, () -> {
+            PageResponseDTO<ProductListDTO> stale = page(1);
+            // The product changes after the row was read, before the page is stored
+            cacheService.evictProduct(1, List.of(), List.of(), false);
+            return stale;
+        });
+
+        assertNotNull(page);
+        assertNull(cacheManager.getCache(ProductCacheService.PAGE_CACHE).get("p1"));
+
+        cacheService.page("p1", null, null, () -> page(1));
+        assertNotNull(cacheManager.getCache(ProductCacheService.PAGE_CACHE).get("p1"));
+    }
+
+    private static PageResponseDTO<ProductListDTO> page(Integer... ids) {
+        List<ProductListDTO> content = Arrays.stream(ids).map(id -> {
+            ProductListDTO item = new ProductListDTO();
+            item.setId(id);
+            return item;
+        }).toList();
+        return new PageResponseDTO<>(content, 0, 20, content.size(), 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.tiki.product.service;
+
+import com.tiki.product.document.ProductDocument;
+import com.tiki.product.dto.ReindexStatusDTO;
+import com.tiki.product.entity.ProductEntity;
+import com.tiki.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the streaming reindex: keyset paging, the in-flight window, checkpoints
+ * and the alias swap at the end
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductReindexServiceTest {
+
+    private static final String CHECKPOINT_KEY = "search:reindex:checkpoint";
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductSearchService searchService;
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ProductIndexManager indexManager;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ProductReindexService reindexService;
+
+    @BeforeEach
+    void setUp() {
+        reindexService = new ProductReindexService(productRepository, searchService, elasticsearchOperations,
+            indexManager, redisTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(reindexService, "pageSize", 2);
+        ReflectionTestUtils.setField(reindexService, "concurrency", 2);
+        ReflectionTestUtils.setField(reindexService, "versioned", true);
+        reindexService.init();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reindexService.shutdown();
+    }
+
+    @Test
+    void testKeysetPagesIntoNewGenerationThenPromotes() throws InterruptedException {
+        stubCatalog(5);
+        when(productRepository.countByIdGreaterThan(0)).thenReturn(5L);
+        when(indexManager.createGeneration()).thenReturn("products_v2");
+
+        reindexService.start(false);
+        ReindexStatusDTO status = awaitFinished();
+
+        assertEquals("COMPLETED", status.getStatus());
+        assertEquals(5, status.getProcessed());
+        assertEquals(5, status.getCheckpoint());
+        InOrder pages = inOrder(productRepository);
+        for (int afterId : new int[]{0, 2, 4, 5}) {
+            pages.verify(productRepository).findNextPage(eq(afterId), any());
+        }
+        verify(searchService, times(3)).bulkIndex(anyList(), argThat(index -> index.getIndexName().equals("products_v2")));
+        InOrder checkpoints = inOrder(valueOperations, indexManager, redisTemplate);
+        checkpoints.verify(valueOperations).set(CHECKPOINT_KEY, "2");
+        checkpoints.verify(valueOperations).set(CHECKPOINT_KEY, "4");
+        checkpoints.verify(valueOperations).set(CHECKPOINT_KEY, "5");
+        checkpoints.verify(indexManager).promote("products_v2");
+        checkpoints.verify(redisTemplate).delete(CHECKPOINT_KEY);
+    }
+
+    @Test
+    void testReaderWaitsForOldestPageBeyondWindow() throws InterruptedException {
+        stubCatalog(8);
+        when(productRepository.countByIdGreaterThan(0)).thenReturn(8L);
+        when(indexManager.createGeneration()).thenReturn("products_v2");
+        CountDownLatch firstPage = new CountDownLatch(1);
+        doAnswer(inv -> {
+            List<ProductDocument> documents = inv.getArgument(0);
+            if (documents.get(0).getId() == 1) {
+                assertTrue(firstPage.await(5, TimeUnit.SECONDS));
+            }
+            return null;
+        }).when(searchService).bulkIndex(anyList(), any(IndexCoordinates.class));
+
+        reindexService.start(false);
+
+        // Two pages in flight and the third read, then the reader blocks on the first page
+        verify(productRepository, timeout(1000)).findNextPage(eq(4), any());
+        Thread.sleep(200);
+        verify(productRepository, never()).findNextPage(eq(6), any());
+        assertEquals(0, reindexService.getStatus().getProcessed());
+
+        firstPage.countDown();
+        assertEquals("COMPLETED", awaitFinished().getStatus());
+        verify(productRepository).findNextPage(eq(8), any());
+    }
+
+    @Test
+    void testResumeContinuesAfterCheckpointInSameGeneration() throws InterruptedException {
+        stubCatalog(5);
+        when(indexManager.buildingGeneration()).thenReturn("products_v3");
+        when(valueOperations.get(CHECKPOINT_KEY)).thenReturn("4");
+        when(productRepository.countByIdGreaterThan(4)).thenReturn(1L);
+
+        reindexService.start(true);
+        ReindexStatusDTO status = awaitFinished();
+
+        assertEquals("COMPLETED", status.getStatus());
+        assertEquals(1, status.getProcessed());
+        verify(indexManager).resumeGeneration("products_v3");
+        verify(indexManager, never()).createGeneration();
+        verify(productRepository, never()).findNextPage(eq(0), any());
+        verify(searchService).bulkIndex(anyList(), argThat(index -> index.getIndexName().equals("products_v3")));
+        verify(indexManager).promote("products_v3");
+    }
+
+    @Test
+    void testFailedPageKeepsCheckpointAndAlias() throws InterruptedException {
+        stubCatalog(5);
+        when(productRepository.countByIdGreaterThan(0)).thenReturn(5L);
+        when(indexManager.createGeneration()).thenReturn("products_v2");
+        doAnswer(inv -> {
+            List<ProductDocument> documents = inv.getArgument(0);
+            if (documents.get(0).getId() == 3) {
+                throw new IllegalStateException("bulk rejected");
+            }
+            return null;
+        }).when(searchService).bulkIndex(anyList(), any(IndexCoordinates.class));
+
+        reindexService.start(false);
+        ReindexStatusDTO status = awaitFinished();
+
+        assertEquals("FAILED", status.getStatus());
+        assertEquals(2, status.getCheckpoint());
+        verify(valueOperations).set(CHECKPOINT_KEY, "2");
+        verify(valueOperations, never()).set(CHECKPOINT_KEY, "4");
+        verify(indexManager, never()).promote(any());
+        verify(redisTemplate, never()).delete(CHECKPOINT_KEY);
+    }
+
+    /** Products 1..count, served by id like the keyset query */
+    @SuppressWarnings("unchecked")
+    private void stubCatalog(int count) {
+        List<ProductEntity> catalog = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            ProductEntity product = new ProductEntity();
+            product.setId(id);
+            catalog.add(product);
+        }
+        when(productRepository.findNextPage(any(), any())).thenAnswer(inv -> {
+            Integer afterId = inv.getArgument(0);
+            Pageable pageable = inv.getArgument(1);
+            return catalog.stream()
+                .filter(product -> product.getId() > afterId)
+                .limit(pageable.getPageSize())
+                .toList();
+        });
+        when(searchService.convertToDocuments(anyList())).thenAnswer(inv ->
+            ((List<ProductEntity>) inv.getArgument(0)).stream()
+                .map(product -> ProductDocument.builder().id(product.getId()).build())
+                .toList());
+    }
+
+    private ReindexStatusDTO awaitFinished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while ("RUNNING".equals(reindexService.getStatus().getStatus())) {
+            assertTrue(System.currentTimeMillis() < deadline, "Reindex did not finish");
+            Thread.sleep(10);
+        }
+        return reindexService.getStatus();
+    }
+}
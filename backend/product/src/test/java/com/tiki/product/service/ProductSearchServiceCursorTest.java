@@ -0,0 +1,53 @@
+package com.tiki.product.service;
+
+import com.tiki.product.document.ProductDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the sort sent with search_after pages
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductSearchServiceCursorTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @InjectMocks
+    private ProductSearchService productSearchService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testShardDocTiebreakerAppended() {
+        SearchHits<ProductDocument> hits = mock(SearchHits.class);
+        when(hits.getSearchHits()).thenReturn(List.of());
+        when(elasticsearchOperations.openPointInTime(any(), any())).thenReturn("pit-1");
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(ProductDocument.class))).thenReturn(hits);
+
+        productSearchService.searchCursor(null, null, null, null, null,
+            Sort.by(Sort.Direction.DESC, "price"), 20, null, false);
+
+        ArgumentCaptor<NativeQuery> query = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations).search(query.capture(), eq(ProductDocument.class));
+        List<Sort.Order> orders = query.getValue().getSort().toList();
+        assertEquals(List.of("price", "_shard_doc"), orders.stream().map(Sort.Order::getProperty).toList());
+        assertTrue(orders.get(1).isAscending());
+        // Last page: the point in time is released
+        verify(elasticsearchOperations).closePointInTime("pit-1");
+    }
+}
@@ -0,0 +1,62 @@
+package com.tiki.product.service;
+
+import com.tiki.product.document.ProductDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for auto-complete queries against the edge n-gram field
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductSearchServiceSuggestTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @InjectMocks
+    private ProductSearchService productSearchService;
+
+    @Test
+    void testSingleCharacterTermsDropped() {
+        assertEquals("galaxy", ProductSearchService.suggestQueryText("galaxy s"));
+        assertEquals("iphone 15", ProductSearchService.suggestQueryText(" iphone 15 p"));
+        assertEquals("tai nghe", ProductSearchService.suggestQueryText("tai, nghe -"));
+        assertEquals("điện thoại", ProductSearchService.suggestQueryText("điện thoại"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTrailingSingleCharacterStillSuggests() {
+        SearchHits<ProductDocument> hits = mock(SearchHits.class);
+        when(hits.stream()).thenReturn(Stream.empty());
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(ProductDocument.class))).thenReturn(hits);
+
+        productSearchService.getSuggestions("galaxy s", 10);
+
+        ArgumentCaptor<NativeQuery> query = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations).search(query.capture(), eq(ProductDocument.class));
+        assertEquals("galaxy", query.getValue().getQuery().bool().must().get(0).match().query().stringValue());
+    }
+
+    @Test
+    void testOnlySingleCharacterTermsSkipsSearch() {
+        assertEquals(List.of(), productSearchService.getSuggestions("a b", 10));
+
+        verifyNoInteractions(elasticsearchOperations);
+    }
+}
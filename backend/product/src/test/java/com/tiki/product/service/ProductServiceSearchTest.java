@@ -0,0 +1,94 @@
+package com.tiki.product.service;
+
+import com.tiki.product.dto.PageResponseDTO;
+import com.tiki.product.dto.ProductListDTO;
+import com.tiki.product.entity.ProductEntity;
+import com.tiki.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the database search: SKU lookups must not hide keyword matches
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductServiceSearchTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCacheService productCacheService;
+
+    @Mock
+    private ProductFullTextIndex fullTextIndex;
+
+    @InjectMocks
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        when(productCacheService.page(any(), any(), any(), any())).thenAnswer(inv ->
+            ((Supplier<?>) inv.getArgument(3)).get());
+        when(fullTextIndex.available()).thenReturn(true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWordWithoutExactSkuFallsThroughToKeywordSearch() {
+        // "phone" looks like a SKU; no product has exactly that SKU, two have it in their name
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class)))
+            .thenReturn(Page.empty())
+            .thenReturn(new PageImpl<>(List.of(product(1, "PHONE-001", "Phone case"), product(2, "CASE-9", "Phone holder"))));
+
+        PageResponseDTO<ProductListDTO> page = productService.search("phone", null, null, null, null, null, 0, 20);
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of("Phone case", "Phone holder"), page.getContent().stream().map(ProductListDTO::getName).toList());
+        verify(productRepository, times(2)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExactSkuHitSkipsKeywordSearch() {
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(product(1, "PHONE-001", "Phone case"))));
+
+        PageResponseDTO<ProductListDTO> page = productService.search("phone-001", null, null, null, null, null, 0, 20);
+
+        assertEquals(List.of("PHONE-001"), page.getContent().stream().map(ProductListDTO::getSku).toList());
+        verify(productRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMultiWordQuerySkipsSkuLookup() {
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(Page.empty());
+
+        productService.search("phone case", null, null, null, null, null, 0, 20);
+
+        verify(productRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    private static ProductEntity product(int id, String sku, String name) {
+        ProductEntity product = new ProductEntity();
+        product.setId(id);
+        product.setSku(sku);
+        product.setName(name);
+        return product;
+    }
+}
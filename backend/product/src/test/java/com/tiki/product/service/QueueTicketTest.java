@@ -0,0 +1,54 @@
+package com.tiki.product.service;
+
+import com.tiki.product.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the signed flash sale queue ticket
+ */
+class QueueTicketTest {
+
+    private static final String SECRET = "test-secret";
+    private static final long OPEN_AT = 1_700_000_000_000L;
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        QueueTicket ticket = new QueueTicket(3, 42, 1500, OPEN_AT, 100, 1000);
+
+        QueueTicket decoded = QueueTicket.decode(ticket.encode(SECRET), SECRET);
+
+        assertEquals(ticket, decoded);
+    }
+
+    @Test
+    void testTamperedTicketRejected() {
+        String token = new QueueTicket(3, 42, 1500, OPEN_AT, 100, 1000).encode(SECRET);
+        String forged = new QueueTicket(3, 42, 1, OPEN_AT, 100, 1000).encode("other-secret");
+
+        assertThrows(BadRequestException.class, () -> QueueTicket.decode(token, "other-secret"));
+        assertThrows(BadRequestException.class, () -> QueueTicket.decode(forged, SECRET));
+        assertThrows(BadRequestException.class, () -> QueueTicket.decode("not a ticket", SECRET));
+    }
+
+    @Test
+    void testBurstAdmittedAtOpen() {
+        QueueTicket ticket = new QueueTicket(3, 42, 1000, OPEN_AT, 100, 1000);
+
+        assertEquals(OPEN_AT, ticket.admittedAt());
+        assertEquals(0, ticket.position(OPEN_AT));
+        // The burst is through the queue early; the reservation script still enforces the sale window
+        assertEquals(0, ticket.position(OPEN_AT - 60_000));
+    }
+
+    @Test
+    void testAdmittedAtConfiguredRate() {
+        QueueTicket ticket = new QueueTicket(3, 42, 1500, OPEN_AT, 100, 1000);
+
+        assertEquals(OPEN_AT + 5_000, ticket.admittedAt());
+        assertEquals(500, ticket.position(OPEN_AT));
+        assertEquals(300, ticket.position(OPEN_AT + 2_000));
+        assertEquals(0, ticket.position(OPEN_AT + 5_000));
+    }
+}
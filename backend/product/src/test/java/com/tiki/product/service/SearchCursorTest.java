@@ -0,0 +1,48 @@
+package com.tiki.product.service;
+
+import com.tiki.product.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the search_after continuation token
+ */
+class SearchCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        SearchCursor cursor = new SearchCursor("pit-abc==", List.of(4.5, 1024, "shoe"));
+
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        assertEquals("pit-abc==", decoded.pit());
+        assertEquals(3, decoded.searchAfter().size());
+        assertEquals(4.5, ((Number) decoded.searchAfter().get(0)).doubleValue());
+        assertEquals(1024, ((Number) decoded.searchAfter().get(1)).intValue());
+        assertEquals("shoe", decoded.searchAfter().get(2));
+    }
+
+    @Test
+    void testTokenIsUrlSafe() {
+        String token = new SearchCursor("a/b+c=", List.of(1)).encode();
+
+        assertFalse(token.contains("/"));
+        assertFalse(token.contains("+"));
+        assertFalse(token.contains("="));
+    }
+
+    @Test
+    void testGarbageTokenRejected() {
+        assertThrows(BadRequestException.class, () -> SearchCursor.decode("not a cursor!"));
+    }
+
+    @Test
+    void testTokenWithoutSortValuesRejected() {
+        String token = new SearchCursor("pit", List.of()).encode();
+
+        assertThrows(BadRequestException.class, () -> SearchCursor.decode(token));
+    }
+}